@@ -0,0 +1,152 @@
+package com.banking;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.banking.controller.AccountController;
+import com.banking.controller.AccountController.TransactionResult;
+import com.banking.controller.AccountMailboxes;
+import com.banking.controller.LoginController;
+import com.banking.controller.LoginController.LoginResult;
+import com.banking.controller.Session;
+import com.banking.dao.AccountDAO;
+import com.banking.database.DatabaseManager;
+import com.banking.model.Account;
+import com.banking.model.Bank;
+
+/**
+ * AccountMailboxBenchmark - command line tool that compares deposits
+ * through AccountController's lock stripes with the same deposits sent as
+ * messages to AccountMailboxes. Many virtual threads each post BWP 1.00
+ * deposits to random accounts; every call's latency goes into a
+ * histogram, and the tool checks that balances rose by exactly the amount
+ * deposited. For the mailbox run it also reports the partitions and the
+ * deepest any mailbox became.
+ *
+ * It posts real deposits, so run it against a scratch copy of the database.
+ * The account code logs every save; standard output is muted while timing.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.AccountMailboxBenchmark <userId> <password>
+ *        [postings] [callers] [accounts] [partitions]
+ */
+public class AccountMailboxBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: AccountMailboxBenchmark <userId> <password> [postings] [callers] [accounts] [partitions]");
+            System.exit(2);
+        }
+        int postings = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        int callers = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        int accountLimit = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+        int partitionCount = args.length > 5 ? Integer.parseInt(args[5])
+            : Runtime.getRuntime().availableProcessors() * 4;
+
+        DatabaseManager.getInstance().initializeDatabase();
+        LoginResult login = LoginController.getInstance().openSession(args[0], args[1]);
+        if (!login.isSuccess()) {
+            System.err.println("✗ " + login.getMessage());
+            System.exit(1);
+        }
+        Session session = login.getSession();
+
+        AccountDAO accountDAO = new AccountDAO();
+        List<String> accounts = new ArrayList<>();
+        for (Account account : accountDAO.findAll()) {
+            if (accounts.size() < accountLimit) {
+                accounts.add(account.getAccountNumber());
+            }
+        }
+        if (accounts.isEmpty()) {
+            System.err.println("✗ No accounts to post to; load sample data first");
+            System.exit(1);
+        }
+
+        AccountController controller = new AccountController(new Bank("Benchmark Bank", "BEN"));
+        System.out.println("→ " + postings + " deposits from " + callers + " virtual threads over "
+            + accounts.size() + " accounts, per path");
+
+        double before = totalBalance(accountDAO, accounts);
+        Result locking = run(controller, session, accounts, postings, callers);
+
+        AccountMailboxes mailboxes = new AccountMailboxes(partitionCount, AccountMailboxes.DEFAULT_MAILBOX_CAPACITY);
+        controller.setAccountMailboxes(mailboxes);
+        Result mailboxResult = run(controller, session, accounts, postings, callers);
+        controller.setAccountMailboxes(null);
+        mailboxes.shutdown();
+
+        double after = totalBalance(accountDAO, accounts);
+        double expected = locking.succeeded + mailboxResult.succeeded;
+
+        System.out.println("✓ Benchmark complete");
+        print("Lock stripes:", locking);
+        print("Mailboxes:", mailboxResult);
+        System.out.println(String.format("   • %d partitions, %,d messages processed, deepest mailbox %d of %d",
+            mailboxes.getPartitionCount(), mailboxes.getProcessedCount(), mailboxes.getMaxDepth(),
+            mailboxes.getMailboxCapacity()));
+        boolean balanced = Math.abs((after - before) - expected) < 0.005;
+        System.out.println(String.format("%s: balances rose by BWP %.2f for %.0f successful deposits",
+            balanced ? "✓ PASS" : "✗ FAIL", after - before, expected));
+    }
+
+    private static final class Result {
+        LatencyHistogram latency = new LatencyHistogram();
+        long succeeded;
+        double seconds;
+    }
+
+    private static Result run(AccountController controller, Session session, List<String> accounts,
+                              int postings, int callers) throws InterruptedException {
+        Result result = new Result();
+        LatencyHistogram[] histograms = new LatencyHistogram[callers];
+        long[] succeeded = new long[callers];
+        List<Thread> workers = new ArrayList<>();
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        long start = System.nanoTime();
+        for (int c = 0; c < callers; c++) {
+            int index = c;
+            int share = postings / callers + (c < postings % callers ? 1 : 0);
+            histograms[c] = new LatencyHistogram();
+            workers.add(Thread.ofVirtual().start(() -> {
+                Random random = new Random(index);
+                for (int i = 0; i < share; i++) {
+                    String account = accounts.get(random.nextInt(accounts.size()));
+                    long t0 = System.nanoTime();
+                    TransactionResult posted = controller.deposit(session, account, 1.00);
+                    histograms[index].record(System.nanoTime() - t0);
+                    if (posted.isSuccess()) {
+                        succeeded[index]++;
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        result.seconds = (System.nanoTime() - start) / 1e9;
+        System.setOut(out);
+
+        for (int c = 0; c < callers; c++) {
+            result.latency.merge(histograms[c]);
+            result.succeeded += succeeded[c];
+        }
+        return result;
+    }
+
+    private static double totalBalance(AccountDAO accountDAO, List<String> accounts) {
+        double total = 0;
+        for (String accountNumber : accounts) {
+            total += accountDAO.findByAccountNumber(accountNumber).getBalance();
+        }
+        return total;
+    }
+
+    private static void print(String label, Result result) {
+        System.out.println(String.format("   • %-14s %,.0f postings/s, %s", label,
+            result.latency.getCount() / result.seconds, result.latency.summary()));
+    }
+}
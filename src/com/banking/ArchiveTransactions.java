@@ -0,0 +1,26 @@
+package com.banking;
+
+import com.banking.database.DatabaseManager;
+import com.banking.database.TransactionArchive;
+
+/**
+ * ArchiveTransactions - command line tool that moves transactions older than
+ * the archive horizon from hot storage into monthly archive tables.
+ *
+ * Usage: java -Dbanking.archive.horizonDays=365 -cp bin:lib/h2-2.2.224.jar com.banking.ArchiveTransactions
+ */
+public class ArchiveTransactions {
+
+    public static void main(String[] args) {
+        DatabaseManager.getInstance().initializeDatabase();
+        TransactionArchive archive = TransactionArchive.getInstance();
+
+        System.out.println("→ Archiving transactions older than " + archive.getHorizon().toLocalDate() + "...");
+        TransactionArchive.ArchiveResult result = archive.archiveOldTransactions();
+
+        System.out.println("✓ Archival complete");
+        System.out.println("   • Transactions moved: " + result.getTransactionsMoved());
+        System.out.println("   • Batches:            " + result.getBatches());
+        System.out.println("   • Elapsed:            " + result.getElapsedMillis() + " ms");
+    }
+}
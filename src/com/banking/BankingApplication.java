@@ -1,6 +1,9 @@
 package com.banking;
 
+import com.banking.database.CustomerNameIndex;
 import com.banking.database.DatabaseManager;
+import com.banking.database.ExistenceFilters;
+import com.banking.database.LedgerStore;
 import com.banking.view.LoginView;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -24,10 +27,27 @@ public class BankingApplication extends Application {
             DatabaseManager dbManager = DatabaseManager.getInstance();
             dbManager.initializeDatabase();
             
+            // Event-sourced mode needs a baseline snapshot for every account
+            if (LedgerStore.isEventSourced()) {
+                LedgerStore.getInstance().seedSnapshots();
+            }
+            
             // Load sample data.
             System.out.println("Loading sample data•••");
             SampleDataLoader.loadSampleData();
             
+            // Build the in-memory customer name index used by search
+            long indexStart = System.currentTimeMillis();
+            int indexed = CustomerNameIndex.getInstance().rebuild();
+            System.out.println("✓ Customer name index built: " + indexed + " customers in " +
+                             (System.currentTimeMillis() - indexStart) + " ms");
+            
+            // Bloom filters of account, customer and user keys for exists() checks
+            long filterStart = System.currentTimeMillis();
+            int filtered = ExistenceFilters.getInstance().rebuild();
+            System.out.println("✓ Existence filters built: " + filtered + " keys in " +
+                             (System.currentTimeMillis() - filterStart) + " ms");
+            
             System.out.println("Database ready ✓!");
             System.out.println("—————————————————————————————————————————————\n");
             
@@ -0,0 +1,85 @@
+package com.banking;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+
+import com.banking.controller.AccountController;
+import com.banking.controller.AccountMailboxes;
+import com.banking.controller.PostingEngine;
+import com.banking.database.CustomerNameIndex;
+import com.banking.database.DatabaseManager;
+import com.banking.database.ExistenceFilters;
+import com.banking.database.LedgerStore;
+import com.banking.model.Bank;
+import com.banking.server.ApiServer;
+import com.banking.server.TerminalServer;
+
+/**
+ * BankingServer - headless entry point that serves the banking core as a
+ * JSON API (see com.banking.server.ApiServer) and, for terminal gateways,
+ * over the binary posting protocol (see com.banking.server.TerminalServer)
+ * instead of the JavaFX GUI. JavaFX is not needed on the class path.
+ *
+ * With -Dbanking.postingEngine=true, deposits and withdrawals go through
+ * the single-writer PostingEngine, journaled to posting-engine.journal.
+ * With -Dbanking.accountMailboxes=true, postings run as messages to
+ * per-partition AccountMailboxes instead of taking account locks.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.BankingServer [port] [terminalPort]
+ */
+public class BankingServer {
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int terminalPort = args.length > 1 ? Integer.parseInt(args[1]) : 9090;
+
+        System.out.println("→ Banking API server starting");
+        DatabaseManager.getInstance().initializeDatabase();
+        if (LedgerStore.isEventSourced()) {
+            LedgerStore.getInstance().seedSnapshots();
+        }
+
+        long indexStart = System.currentTimeMillis();
+        int indexed = CustomerNameIndex.getInstance().rebuild();
+        System.out.println("✓ Customer name index built: " + indexed + " customers in " +
+                         (System.currentTimeMillis() - indexStart) + " ms");
+
+        // Bloom filters of account, customer and user keys for exists() checks
+        long filterStart = System.currentTimeMillis();
+        int filtered = ExistenceFilters.getInstance().rebuild();
+        System.out.println("✓ Existence filters built: " + filtered + " keys in " +
+                         (System.currentTimeMillis() - filterStart) + " ms");
+
+        Bank bank = new Bank("Botswana Accountancy College Bank", "BAC");
+        AccountController accountController = new AccountController(bank);
+        PostingEngine engine = null;
+        if (Boolean.getBoolean("banking.postingEngine")) {
+            engine = new PostingEngine(Paths.get("posting-engine.journal"), true);
+            engine.start();
+            accountController.setPostingEngine(engine);
+        }
+        AccountMailboxes mailboxes = null;
+        if (Boolean.getBoolean("banking.accountMailboxes")) {
+            mailboxes = new AccountMailboxes();
+            accountController.setAccountMailboxes(mailboxes);
+            System.out.println("✓ Account mailboxes: " + mailboxes.getPartitionCount() + " partitions");
+        }
+
+        ApiServer server = new ApiServer(new InetSocketAddress(port), bank, accountController);
+        TerminalServer terminals = new TerminalServer(new InetSocketAddress(terminalPort), accountController);
+        PostingEngine startedEngine = engine;
+        AccountMailboxes startedMailboxes = mailboxes;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            terminals.stop();
+            server.stop(2);
+            if (startedMailboxes != null) {
+                startedMailboxes.shutdown();
+            }
+            if (startedEngine != null) {
+                startedEngine.stop();
+            }
+        }));
+        server.start();
+        terminals.start();
+    }
+}
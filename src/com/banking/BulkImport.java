@@ -0,0 +1,69 @@
+package com.banking;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.banking.controller.LoginController;
+import com.banking.controller.LoginController.LoginResult;
+import com.banking.database.DatabaseManager;
+import com.banking.database.ExistenceFilters;
+import com.banking.onboarding.BulkImporter;
+import com.banking.onboarding.BulkImporter.ImportResult;
+import com.banking.onboarding.BulkImporter.Kind;
+
+/**
+ * BulkImport - command line tool that imports a customers or accounts CSV
+ * file (formats in com.banking.onboarding.BulkImporter) and prints the
+ * counts and the throughput. Rejected lines are written to
+ * <file>.errors.csv. Running it again on a file whose import stopped part
+ * way resumes the import; a file already imported is not imported again.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.BulkImport <userId> <password> customers|accounts <file>
+ *        [threads] [batchSize]
+ */
+public class BulkImport {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: BulkImport <userId> <password> customers|accounts <file> [threads] [batchSize]");
+            System.exit(2);
+        }
+        Kind kind = Kind.valueOf(args[2].toUpperCase());
+        Path file = Paths.get(args[3]);
+        Path errorReport = Paths.get(args[3] + ".errors.csv");
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : BulkImporter.DEFAULT_THREADS;
+        int batchSize = args.length > 5 ? Integer.parseInt(args[5]) : BulkImporter.DEFAULT_BATCH_SIZE;
+
+        DatabaseManager.getInstance().initializeDatabase();
+        ExistenceFilters.getInstance().rebuild();
+        LoginResult login = LoginController.getInstance().openSession(args[0], args[1]);
+        if (!login.isSuccess()) {
+            System.err.println("✗ " + login.getMessage());
+            System.exit(1);
+        }
+
+        BulkImporter importer = new BulkImporter(kind, "BAC", threads, batchSize);
+        System.out.println("→ Importing " + kind.name().toLowerCase() + " from " + file + " (" + threads
+            + " threads, batches of " + batchSize + ")");
+
+        // The database code logs every save; keep the report readable
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        ImportResult result = importer.importFile(login.getSession(), file, errorReport);
+        System.setOut(out);
+
+        System.out.println((result.isSuccess() ? "✓ " : "✗ ") + result.getMessage());
+        if (result.getResumedAfterLine() > 0) {
+            System.out.println(String.format("   • Resumed after line %,d", result.getResumedAfterLine()));
+        }
+        if (result.getRejected() > 0) {
+            System.out.println("   • Rejected lines are in " + errorReport);
+        }
+        if (!result.isAlreadyImported() && result.getLinesRead() > 0) {
+            System.out.println(String.format("   %,d lines in %,d ms: %,.0f lines/s",
+                result.getLinesRead(), result.getElapsedMillis(), result.getLinesPerSecond()));
+        }
+        System.exit(result.isSuccess() ? 0 : 1);
+    }
+}
@@ -0,0 +1,189 @@
+package com.banking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.banking.database.CustomerNameIndex;
+import com.banking.model.Customer;
+
+/**
+ * CustomerSearchBenchmark - command line tool that measures typo-tolerant
+ * customer lookup. It generates Setswana-style customers in memory, builds
+ * a detached CustomerNameIndex over them, then times fuzzySearch() for
+ * misspelled and phonetically respelled names.
+ *
+ * A query counts as found when a customer with the intended first name and
+ * surname is among the results. The run passes when p99 latency is within
+ * the 5 ms budget.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.CustomerSearchBenchmark [customers] [queries]
+ */
+public class CustomerSearchBenchmark {
+
+    private static final double BUDGET_MS = 5.0;
+    private static final int RESULT_LIMIT = 50;
+
+    private static final String[] SYLLABLES = {
+        "ba", "bo", "di", "go", "ke", "kgo", "kga", "le", "lo", "ma", "mo", "na", "ne", "nyo",
+        "pe", "pho", "ra", "re", "se", "tshe", "tsa", "tla", "tlo", "tho", "tu", "wa", "ya", "ri"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Tshekedi", "Kgosi", "Lorato", "Mpho", "Neo", "Kagiso", "Boitumelo", "Onalenna", "Tebogo",
+        "Masego", "Thato", "Kabelo", "Refilwe", "Goitseone", "Naledi", "Tumelo", "Oratile", "Keabetswe"
+    };
+    private static final String[] SURNAMES = {
+        "Khama", "Masire", "Mogae", "Seretse", "Molefe", "Kgathi", "Tlhako", "Motswagole", "Ramotswa",
+        "Sebego", "Modise", "Pilane", "Moremi", "Gaseitsiwe", "Tshosa", "Mmusi", "Kgosietsile", "Letsholo"
+    };
+    private static final String[] PLACES = {
+        "Gaborone", "Francistown", "Maun", "Serowe", "Molepolole", "Kanye", "Mochudi", "Mahalapye",
+        "Palapye", "Lobatse", "Tlokweng", "Ramotswa", "Letlhakane", "Tsabong", "Ghanzi", "Kasane"
+    };
+
+    public static void main(String[] args) {
+        int customerCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        Random random = new Random(42);
+        String[] rareFirstNames = composeNames(random, 4_000);
+        String[] rareSurnames = composeNames(random, 12_000);
+
+        System.out.println("→ Generating " + customerCount + " customers...");
+        List<Customer> customers = new ArrayList<>(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            customers.add(new Customer(
+                String.format("CUS%07d", i),
+                name(random, FIRST_NAMES, rareFirstNames),
+                name(random, SURNAMES, rareSurnames),
+                "Plot " + (1 + random.nextInt(9999)) + ", " + PLACES[random.nextInt(PLACES.length)]
+            ));
+        }
+
+        System.out.println("→ Building index...");
+        long start = System.nanoTime();
+        CustomerNameIndex index = CustomerNameIndex.detached(customers);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        List<String[]> queries = new ArrayList<>(queryCount);
+        for (int i = 0; i < queryCount; i++) {
+            Customer target = customers.get(random.nextInt(customers.size()));
+            String first = target.getFirstName();
+            String last = target.getSurname();
+            switch (random.nextInt(3)) {
+                case 0:
+                    queries.add(new String[] {misspell(random, last), first, last, "surname"});
+                    break;
+                case 1:
+                    queries.add(new String[] {misspell(random, first) + " " + last, first, last, "full"});
+                    break;
+                default:
+                    queries.add(new String[] {first + " " + respell(last), first, last, "full"});
+                    break;
+            }
+        }
+
+        // Warm up the JIT and clear build garbage before measuring
+        for (String[] query : queries) {
+            index.fuzzySearch(query[0], RESULT_LIMIT);
+        }
+        System.gc();
+
+        System.out.println("→ Running " + queryCount + " fuzzy queries...");
+        long[] nanos = new long[queryCount];
+        int found = 0;
+        for (int i = 0; i < queryCount; i++) {
+            String[] query = queries.get(i);
+            long t = System.nanoTime();
+            List<Customer> results = index.fuzzySearch(query[0], RESULT_LIMIT);
+            nanos[i] = System.nanoTime() - t;
+
+            for (Customer c : results) {
+                boolean sameFirst = c.getFirstName().equals(query[1]);
+                if (c.getSurname().equals(query[2]) && (sameFirst || query[3].equals("surname"))) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        Arrays.sort(nanos);
+
+        double p50 = nanos[queryCount / 2] / 1e6;
+        double p99 = nanos[Math.min(queryCount - 1, (int) (queryCount * 0.99))] / 1e6;
+        double max = nanos[queryCount - 1] / 1e6;
+
+        System.out.println("✓ Benchmark complete");
+        System.out.println("   • Customers:   " + index.size());
+        System.out.println("   • Name pool:   " + (FIRST_NAMES.length + rareFirstNames.length) + " first names, "
+            + (SURNAMES.length + rareSurnames.length) + " surnames");
+        System.out.println("   • Build time:  " + buildMillis + " ms");
+        System.out.println(String.format("   • Latency:     p50 %.3f ms, p99 %.3f ms, max %.3f ms", p50, p99, max));
+        System.out.println(String.format("   • Recall:      %.1f%% (%d of %d)", 100.0 * found / queryCount, found, queryCount));
+        System.out.println((p99 <= BUDGET_MS ? "✓ PASS" : "✗ FAIL") + ": p99 within " + BUDGET_MS + " ms budget");
+    }
+
+    /**
+     * Picks a common name three times in four, otherwise a rarer one.
+     */
+    private static String name(Random random, String[] common, String[] rare) {
+        return random.nextInt(4) > 0 ? common[random.nextInt(common.length)] : rare[random.nextInt(rare.length)];
+    }
+
+    /**
+     * Composes a pool of rarer names from Setswana syllables.
+     */
+    private static String[] composeNames(Random random, int count) {
+        String[] names = new String[count];
+        for (int n = 0; n < count; n++) {
+            StringBuilder name = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int i = 0; i < syllables; i++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            names[n] = name.toString();
+        }
+        return names;
+    }
+
+    /**
+     * Applies one random typo: substitution, deletion, insertion or transposition.
+     */
+    private static String misspell(Random random, String word) {
+        StringBuilder typo = new StringBuilder(word);
+        int at = 1 + random.nextInt(word.length() - 1);
+        char letter = (char) ('a' + random.nextInt(26));
+        switch (random.nextInt(4)) {
+            case 0:
+                typo.setCharAt(at, letter);
+                break;
+            case 1:
+                typo.deleteCharAt(at);
+                break;
+            case 2:
+                typo.insert(at, letter);
+                break;
+            default:
+                if (at < word.length() - 1) {
+                    char c = typo.charAt(at);
+                    typo.setCharAt(at, typo.charAt(at + 1));
+                    typo.setCharAt(at + 1, c);
+                } else {
+                    typo.deleteCharAt(at);
+                }
+                break;
+        }
+        return typo.toString();
+    }
+
+    /**
+     * Spells a name the way it is often heard rather than written.
+     */
+    private static String respell(String word) {
+        String heard = word.replace("tsh", "ch").replace("Tsh", "Ch")
+            .replace("kg", "g").replace("Kg", "G")
+            .replace("tlh", "tl").replace("Tlh", "Tl")
+            .replace("ph", "p");
+        return heard.equals(word) ? word.replace("e", "i") : heard;
+    }
+}
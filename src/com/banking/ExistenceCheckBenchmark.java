@@ -0,0 +1,104 @@
+package com.banking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.banking.dao.CustomerDAO;
+import com.banking.database.DatabaseManager;
+import com.banking.database.ExistenceFilters;
+import com.banking.database.ExistenceFilters.Entity;
+import com.banking.database.ExistenceFilters.Stats;
+import com.banking.database.ScalableBloomFilter;
+import com.banking.model.Customer;
+
+/**
+ * ExistenceCheckBenchmark - command line tool that measures the Bloom
+ * filters behind the DAO exists() checks.
+ *
+ * 1. Grows a ScalableBloomFilter sized for 1,000 keys to the given number
+ *    of keys and measures its false positive rate against keys never added.
+ * 2. Times CustomerDAO.exists() for new customer IDs, as
+ *    CustomerController.generateUniqueCustomerId makes them, against
+ *    loading the customer as exists() used to.
+ *
+ * It reads the database only, so it can run against live data.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.ExistenceCheckBenchmark [keys] [checks]
+ */
+public class ExistenceCheckBenchmark {
+
+    private static final double TARGET_RATE = 0.01;
+
+    public static void main(String[] args) {
+        int keyCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int checkCount = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        Random random = new Random(42);
+
+        System.out.println("→ Adding " + keyCount + " keys to a filter sized for 1,000...");
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, TARGET_RATE);
+        long start = System.nanoTime();
+        for (int i = 0; i < keyCount; i++) {
+            filter.put(String.format("BAC-%08d", i));
+        }
+        long addMillis = (System.nanoTime() - start) / 1_000_000;
+        int missed = 0;
+        int falsePositives = 0;
+        for (int i = 0; i < keyCount; i += Math.max(1, keyCount / 100_000)) {
+            missed += filter.mightContain(String.format("BAC-%08d", i)) ? 0 : 1;
+        }
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            falsePositives += filter.mightContain(String.format("NEW-%08d", i)) ? 1 : 0;
+        }
+        System.out.println(String.format("   • %d layers, %,d KB, added in %d ms", filter.getLayerCount(),
+            filter.getSizeBytes() / 1024, addMillis));
+        System.out.println(String.format("   • False positive rate: %.4f measured, %.4f estimated, %.4f target",
+            (double) falsePositives / probes, filter.estimateFalsePositiveRate(), TARGET_RATE));
+
+        System.out.println("→ Checking " + checkCount + " new customer IDs against the database...");
+        DatabaseManager.getInstance().initializeDatabase();
+        ExistenceFilters filters = ExistenceFilters.getInstance();
+        filters.rebuild();
+        CustomerDAO customerDAO = new CustomerDAO();
+
+        List<String> ids = new ArrayList<>(checkCount);
+        for (int i = 0; i < checkCount; i++) {
+            ids.add(String.format("CUST-%d%03d", random.nextInt(100_000), random.nextInt(1000)));
+        }
+        // Warm up both paths before measuring
+        for (int i = 0; i < Math.min(2_000, checkCount); i++) {
+            customerDAO.exists(ids.get(i));
+            customerDAO.findById(ids.get(i));
+        }
+
+        start = System.nanoTime();
+        int existing = 0;
+        for (String id : ids) {
+            existing += customerDAO.exists(id) ? 1 : 0;
+        }
+        double filteredMicros = (System.nanoTime() - start) / 1e3 / checkCount;
+
+        start = System.nanoTime();
+        int loaded = 0;
+        for (String id : ids) {
+            Customer customer = customerDAO.findById(id);
+            loaded += customer != null ? 1 : 0;
+        }
+        double loadMicros = (System.nanoTime() - start) / 1e3 / checkCount;
+
+        System.out.println("✓ Benchmark complete");
+        System.out.println(String.format("   • exists():        %.2f µs per check (%d found)", filteredMicros, existing));
+        System.out.println(String.format("   • load customer:   %.2f µs per check (%d found)", loadMicros, loaded));
+        for (Entity entity : Entity.values()) {
+            Stats stats = filters.getStats(entity);
+            System.out.println(String.format("   • %-8s %,d keys, %,d checks, %,d answered by the filter, "
+                + "%,d false positives (%.4f observed, %.4f estimated)",
+                entity, stats.getKeys(), stats.getChecks(), stats.getFiltered(), stats.getFalsePositives(),
+                stats.getObservedFalsePositiveRate(), stats.getEstimatedFalsePositiveRate()));
+        }
+        boolean agree = existing == loaded && missed == 0;
+        System.out.println(agree ? "✓ PASS: the filter never hid an existing key" : "✗ FAIL: exists() disagreed with the table");
+        System.exit(agree ? 0 : 1);
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+
+import com.banking.database.DatabaseManager;
+import com.banking.export.StatementExporter;
+import com.banking.export.StatementExporter.ExportResult;
+
+/**
+ * ExportStatements - command line tool that writes every customer's
+ * statement for a month, one file per branch (see
+ * com.banking.export.StatementExporter). Defaults to last month.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.ExportStatements [yyyy-MM] [directory] [threads]
+ */
+public class ExportStatements {
+
+    public static void main(String[] args) throws Exception {
+        YearMonth period = args.length > 0 ? YearMonth.parse(args[0]) : YearMonth.now().minusMonths(1);
+        Path directory = Paths.get(args.length > 1 ? args[1] : "statements");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : StatementExporter.DEFAULT_THREADS;
+
+        DatabaseManager.getInstance().initializeDatabase();
+
+        System.out.println("→ Writing " + period + " statements to " + directory + " (" + threads + " threads)...");
+        StatementExporter exporter = new StatementExporter("Botswana Accountancy College Bank", threads);
+        ExportResult result = exporter.export(period, directory);
+
+        System.out.println("✓ Export complete");
+        for (Path file : result.getFiles()) {
+            System.out.println(String.format("   • %-48s %,12d bytes", file.getFileName(), Files.size(file)));
+        }
+        System.out.println(String.format("   • Statements:   %,d (%,d accounts, %,d postings)",
+            result.getStatements(), result.getAccounts(), result.getPostings()));
+        System.out.println(String.format("   • Elapsed:      %,d ms: %,.0f statements/s",
+            result.getElapsedMillis(), result.getStatementsPerSecond()));
+    }
+}
@@ -0,0 +1,171 @@
+package com.banking;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.banking.model.Transaction;
+import com.banking.server.JsonWriter;
+import com.banking.server.ResultJson;
+
+/**
+ * JsonEncodingBenchmark - command line tool that compares the streaming
+ * JsonWriter with building the same transaction history JSON through
+ * String.format and a StringBuilder, the way a first server version would.
+ *
+ * Both encoders write to a sink that discards the bytes, so only encoding
+ * is measured. Before timing, the tool checks that both produce identical
+ * bytes. Allocation per history comes from the JVM's per-thread allocation
+ * counter.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.JsonEncodingBenchmark [transactions] [rounds]
+ */
+public class JsonEncodingBenchmark {
+
+    private static final String[] TYPES = {"DEPOSIT", "WITHDRAWAL", "INTEREST", "SALARY"};
+    private static final String[] DESCRIPTIONS = {
+        "Cash deposit at Main Mall branch", "ATM withdrawal \"Game City\"", "Monthly interest",
+        "Salary - Debswana", "Transfer to Mpho's savings", "Airtime purchase\tOrange"
+    };
+
+    private interface Encoder {
+        void encode(OutputStream out, String accountNumber, List<Transaction> transactions) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int transactionCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        List<Transaction> transactions = generate(transactionCount);
+        JsonWriter writer = new JsonWriter(null, 16 * 1024);
+        Encoder streaming = (out, accountNumber, list) -> {
+            writer.reset(out);
+            ResultJson.transactionHistory(writer, accountNumber, list);
+            writer.flush();
+        };
+        Encoder formatted = JsonEncodingBenchmark::formatHistory;
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        formatted.encode(expected, "ACC000001", transactions);
+        streaming.encode(actual, "ACC000001", transactions);
+        if (!Arrays.equals(expected.toByteArray(), actual.toByteArray())) {
+            System.err.println("✗ Encoders disagree; not benchmarking");
+            System.exit(1);
+        }
+        System.out.println("✓ Both encoders produce identical JSON (" + actual.size() + " bytes)");
+
+        System.out.println("→ Encoding " + transactionCount + " transactions, " + rounds + " rounds each...");
+        Result format = measure(formatted, transactions, rounds);
+        Result stream = measure(streaming, transactions, rounds);
+
+        System.out.println("✓ Benchmark complete");
+        print("String.format", format, actual.size());
+        print("JsonWriter", stream, actual.size());
+        System.out.println(String.format("   • Speed-up:      %.1fx",
+            format.medianNanos / (double) stream.medianNanos));
+    }
+
+    private static final class Result {
+        long medianNanos;
+        long allocatedBytes;
+    }
+
+    private static Result measure(Encoder encoder, List<Transaction> transactions, int rounds) throws IOException {
+        OutputStream sink = OutputStream.nullOutputStream();
+
+        // Warm up the JIT before measuring
+        for (int i = 0; i < Math.max(20, rounds / 2); i++) {
+            encoder.encode(sink, "ACC000001", transactions);
+        }
+        System.gc();
+
+        long[] nanos = new long[rounds];
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            encoder.encode(sink, "ACC000001", transactions);
+            nanos[i] = System.nanoTime() - start;
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        Arrays.sort(nanos);
+
+        Result result = new Result();
+        result.medianNanos = nanos[rounds / 2];
+        result.allocatedBytes = allocated / rounds;
+        return result;
+    }
+
+    private static void print(String label, Result result, int size) {
+        double millis = result.medianNanos / 1e6;
+        double megabytesPerSecond = size / 1e6 / (result.medianNanos / 1e9);
+        System.out.println(String.format("   • %-14s %.3f ms per history, %.0f MB/s, %,d bytes allocated",
+            label + ":", millis, megabytesPerSecond, result.allocatedBytes));
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    /**
+     * The naive encoder: one String.format per transaction into a
+     * StringBuilder, then the whole document converted to bytes.
+     */
+    private static void formatHistory(OutputStream out, String accountNumber, List<Transaction> transactions)
+            throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append(String.format("{\"success\":true,\"accountNumber\":\"%s\",\"transactions\":[",
+            escape(accountNumber)));
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction t = transactions.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(
+                "{\"id\":\"%s\",\"type\":\"%s\",\"amount\":%.2f,\"balanceAfter\":%.2f,"
+                    + "\"description\":\"%s\",\"timestamp\":\"%6$tFT%6$tT.%6$tL\"}",
+                escape(t.getTransactionId()), escape(t.getTransactionType()), t.getAmount(),
+                t.getBalanceAfter(), escape(t.getDescription()), t.getTimestamp()));
+        }
+        json.append("]}");
+        out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"")
+            .replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+
+    /**
+     * Generates a history with whole-cent amounts and a running balance.
+     */
+    private static List<Transaction> generate(int count) {
+        Random random = new Random(42);
+        List<Transaction> transactions = new ArrayList<>(count);
+        LocalDateTime time = LocalDateTime.of(2025, 1, 1, 8, 0);
+        long balanceCents = 500_000;
+        for (int i = 0; i < count; i++) {
+            String type = TYPES[random.nextInt(TYPES.length)];
+            long amountCents = 100 + random.nextInt(250_000);
+            balanceCents += type.equals("WITHDRAWAL") ? -amountCents : amountCents;
+            time = time.plusSeconds(30 + random.nextInt(20_000)).plusNanos(random.nextInt(1000) * 1_000_000L);
+            transactions.add(new Transaction(
+                String.format("TXN%d%03d", 1_735_718_400_000L + i * 37_000L, i % 1000),
+                "ACC000001", type, amountCents / 100.0, balanceCents / 100.0,
+                DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)], time));
+        }
+        return transactions;
+    }
+}
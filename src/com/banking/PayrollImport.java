@@ -0,0 +1,75 @@
+package com.banking;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+
+import com.banking.controller.AccountController;
+import com.banking.controller.LoginController;
+import com.banking.controller.LoginController.LoginResult;
+import com.banking.database.DatabaseManager;
+import com.banking.model.Bank;
+import com.banking.payroll.PayrollProcessor;
+import com.banking.payroll.PayrollProcessor.EmployerSummary;
+import com.banking.payroll.PayrollProcessor.PayrollResult;
+import com.banking.payroll.PayrollProcessor.Rejection;
+
+/**
+ * PayrollImport - command line tool that pays an employer payroll file
+ * (format in com.banking.payroll.PayrollFileReader) into Cheque accounts
+ * and prints one summary per employer and the throughput. Submitting the
+ * same file again for the same pay period (YYYY-MM) pays nothing twice.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.PayrollImport <userId> <password> <file>
+ *        <payPeriod> [parallelism] [batchSize]
+ */
+public class PayrollImport {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: PayrollImport <userId> <password> <file> <payPeriod YYYY-MM> [parallelism] [batchSize]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[2]);
+        YearMonth payPeriod = YearMonth.parse(args[3]);
+        int parallelism = args.length > 4 ? Integer.parseInt(args[4]) : PayrollProcessor.DEFAULT_PARALLELISM;
+        int batchSize = args.length > 5 ? Integer.parseInt(args[5]) : PayrollProcessor.DEFAULT_BATCH_SIZE;
+
+        DatabaseManager.getInstance().initializeDatabase();
+        LoginResult login = LoginController.getInstance().openSession(args[0], args[1]);
+        if (!login.isSuccess()) {
+            System.err.println("✗ " + login.getMessage());
+            System.exit(1);
+        }
+
+        AccountController controller = new AccountController(new Bank("Botswana Accountancy College Bank", "BAC"));
+        PayrollProcessor processor = new PayrollProcessor(controller, parallelism, batchSize);
+        System.out.println("→ Paying " + file + " for " + payPeriod + " (" + parallelism + " batches of " + batchSize + " at once)");
+
+        // The account code logs every save; keep the report readable
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        PayrollResult result = processor.process(login.getSession(), file, payPeriod);
+        System.setOut(out);
+
+        System.out.println((result.isSuccess() ? "✓ " : "✗ ") + result.getMessage());
+        for (EmployerSummary summary : result.getSummaries()) {
+            System.out.println(String.format("   • %-40s %,7d lines, %,7d credited (BWP %,.2f), %,d already credited, %,d rejected",
+                summary.getCompanyName(), summary.getLines(), summary.getCredited(), summary.getAmountCredited(),
+                summary.getAlreadyCredited(), summary.getRejected()));
+        }
+        for (Rejection rejection : result.getRejections()) {
+            System.out.println(String.format("   ✗ line %d: %s", rejection.getLineNumber(), rejection.getReason()));
+        }
+        if (result.getRejectedCount() > result.getRejections().size()) {
+            System.out.println(String.format("   ... and %,d more rejected lines",
+                result.getRejectedCount() - result.getRejections().size()));
+        }
+        if (!result.isDuplicate() && result.getLines() > 0) {
+            System.out.println(String.format("   %,d lines in %,d ms: %,.0f lines/s",
+                result.getLines(), result.getElapsedMillis(), result.getLinesPerSecond()));
+        }
+        System.exit(result.isSuccess() ? 0 : 1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.banking;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.banking.controller.AccountController;
+import com.banking.controller.AccountController.TransactionResult;
+import com.banking.controller.LoginController;
+import com.banking.controller.LoginController.LoginResult;
+import com.banking.controller.PostingEngine;
+import com.banking.controller.Session;
+import com.banking.dao.AccountDAO;
+import com.banking.database.DatabaseManager;
+import com.banking.model.Account;
+import com.banking.model.Bank;
+
+/**
+ * PostingEngineBenchmark - command line tool that compares the latency of
+ * deposits through AccountController's locking path with the same deposits
+ * through the single-writer PostingEngine. Each of several threads posts
+ * BWP 1.00 deposits to random accounts; every call's latency goes into a
+ * histogram, and the tool checks that balances rose by exactly the amount
+ * deposited.
+ *
+ * It posts real deposits, so run it against a scratch copy of the database.
+ * The account code logs every save; standard output is muted while timing.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.PostingEngineBenchmark <userId> <password>
+ *        [postings] [threads] [accounts]
+ */
+public class PostingEngineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: PostingEngineBenchmark <userId> <password> [postings] [threads] [accounts]");
+            System.exit(2);
+        }
+        int postings = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        int accountLimit = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+
+        DatabaseManager.getInstance().initializeDatabase();
+        LoginResult login = LoginController.getInstance().openSession(args[0], args[1]);
+        if (!login.isSuccess()) {
+            System.err.println("✗ " + login.getMessage());
+            System.exit(1);
+        }
+        Session session = login.getSession();
+
+        AccountDAO accountDAO = new AccountDAO();
+        List<String> accounts = new ArrayList<>();
+        for (Account account : accountDAO.findAll()) {
+            if (accounts.size() < accountLimit) {
+                accounts.add(account.getAccountNumber());
+            }
+        }
+        if (accounts.isEmpty()) {
+            System.err.println("✗ No accounts to post to; load sample data first");
+            System.exit(1);
+        }
+
+        AccountController controller = new AccountController(new Bank("Benchmark Bank", "BEN"));
+        System.out.println("→ " + postings + " deposits from " + threads + " threads over "
+            + accounts.size() + " accounts, per path");
+
+        double before = totalBalance(accountDAO, accounts);
+        Result locking = run(controller, session, accounts, postings, threads);
+
+        Path journal = Files.createTempFile("posting-engine", ".journal");
+        PostingEngine engine = new PostingEngine(journal, true);
+        engine.start();
+        controller.setPostingEngine(engine);
+        Result engineResult = run(controller, session, accounts, postings, threads);
+        engine.stop();
+        controller.setPostingEngine(null);
+        Files.deleteIfExists(journal);
+
+        double after = totalBalance(accountDAO, accounts);
+        double expected = locking.succeeded + engineResult.succeeded;
+
+        System.out.println("✓ Benchmark complete");
+        print("Locking path:", locking);
+        print("Posting engine:", engineResult);
+        boolean balanced = Math.abs((after - before) - expected) < 0.005;
+        System.out.println(String.format("%s: balances rose by BWP %.2f for %.0f successful deposits",
+            balanced ? "✓ PASS" : "✗ FAIL", after - before, expected));
+    }
+
+    private static final class Result {
+        LatencyHistogram latency = new LatencyHistogram();
+        long succeeded;
+        double seconds;
+    }
+
+    private static Result run(AccountController controller, Session session, List<String> accounts,
+                              int postings, int threads) throws InterruptedException {
+        Result result = new Result();
+        LatencyHistogram[] histograms = new LatencyHistogram[threads];
+        long[] succeeded = new long[threads];
+        List<Thread> workers = new ArrayList<>();
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            int share = postings / threads + (t < postings % threads ? 1 : 0);
+            histograms[t] = new LatencyHistogram();
+            Thread worker = new Thread(() -> {
+                Random random = new Random(index);
+                for (int i = 0; i < share; i++) {
+                    String account = accounts.get(random.nextInt(accounts.size()));
+                    long t0 = System.nanoTime();
+                    TransactionResult posted = controller.deposit(session, account, 1.00);
+                    histograms[index].record(System.nanoTime() - t0);
+                    if (posted.isSuccess()) {
+                        succeeded[index]++;
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        result.seconds = (System.nanoTime() - start) / 1e9;
+        System.setOut(out);
+
+        for (int t = 0; t < threads; t++) {
+            result.latency.merge(histograms[t]);
+            result.succeeded += succeeded[t];
+        }
+        return result;
+    }
+
+    private static double totalBalance(AccountDAO accountDAO, List<String> accounts) {
+        double total = 0;
+        for (String accountNumber : accounts) {
+            total += accountDAO.findByAccountNumber(accountNumber).getBalance();
+        }
+        return total;
+    }
+
+    private static void print(String label, Result result) {
+        System.out.println(String.format("   • %-16s %,.0f postings/s, %s", label,
+            result.latency.getCount() / result.seconds, result.latency.summary()));
+    }
+}
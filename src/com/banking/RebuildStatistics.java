@@ -0,0 +1,31 @@
+package com.banking;
+
+import com.banking.database.DashboardStatistics;
+import com.banking.database.DatabaseManager;
+
+/**
+ * RebuildStatistics - command line tool that recomputes the materialised
+ * dashboard statistics from customers, accounts and all transaction tables.
+ * Run after bulk changes made outside the application.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.RebuildStatistics
+ */
+public class RebuildStatistics {
+
+    public static void main(String[] args) {
+        DatabaseManager.getInstance().initializeDatabase();
+        DashboardStatistics statistics = DashboardStatistics.getInstance();
+
+        System.out.println("→ Rebuilding dashboard statistics...");
+        long start = System.currentTimeMillis();
+        int rows = statistics.rebuild();
+        if (rows < 0) {
+            System.exit(1);
+        }
+
+        System.out.println("✓ Rebuilt " + rows + " counters in " + (System.currentTimeMillis() - start) + " ms");
+        for (String line : statistics.describe()) {
+            System.out.println("   • " + line);
+        }
+    }
+}
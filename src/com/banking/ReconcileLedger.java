@@ -0,0 +1,48 @@
+package com.banking;
+
+import com.banking.database.DatabaseManager;
+import com.banking.database.LedgerReconciler;
+import com.banking.database.LedgerReconciler.Mismatch;
+import com.banking.database.LedgerReconciler.ReconciliationResult;
+
+/**
+ * ReconcileLedger - command line tool that checks every account's postings
+ * chain and stored balance against the ledger (see
+ * com.banking.database.LedgerReconciler) and lists the mismatches. By
+ * default only postings since the last run are read; --full reads the
+ * whole ledger. Exits with 1 if anything does not reconcile.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.ReconcileLedger [--full] [threads]
+ */
+public class ReconcileLedger {
+
+    public static void main(String[] args) {
+        boolean full = args.length > 0 && args[0].equals("--full");
+        int argIndex = full ? 1 : 0;
+        int threads = args.length > argIndex
+            ? Integer.parseInt(args[argIndex])
+            : Runtime.getRuntime().availableProcessors();
+
+        DatabaseManager.getInstance().initializeDatabase();
+
+        System.out.println("→ Reconciling " + (full ? "the whole ledger" : "postings since the last run") +
+                           " with " + threads + " thread(s)...");
+        ReconciliationResult result = LedgerReconciler.getInstance().reconcile(threads, !full);
+
+        System.out.println((result.isReconciled() ? "✓ Ledger reconciles" : "✗ Ledger does not reconcile"));
+        System.out.println("   • Accounts:    " + result.getAccounts() + " in " + result.getPartitions() + " partitions");
+        System.out.println("   • Postings:    " + result.getPostings());
+        System.out.println("   • Mismatches:  " + result.getMismatchCount());
+        if (result.getFailedPartitions() > 0) {
+            System.out.println("   • Failed partitions: " + result.getFailedPartitions());
+        }
+        System.out.println("   • Elapsed:     " + result.getElapsedMillis() + " ms");
+        for (Mismatch mismatch : result.getMismatches()) {
+            System.out.println("   ✗ " + mismatch);
+        }
+        if (result.getMismatchCount() > result.getMismatches().size()) {
+            System.out.println("   ... and " + (result.getMismatchCount() - result.getMismatches().size()) + " more");
+        }
+        System.exit(result.isReconciled() ? 0 : 1);
+    }
+}
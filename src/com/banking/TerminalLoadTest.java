@@ -0,0 +1,152 @@
+package com.banking;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.banking.server.TerminalProtocol;
+
+/**
+ * TerminalLoadTest - command line tool that drives a running
+ * BankingServer's terminal port the way a busy gateway would. Each
+ * connection signs in, then sends deposits of BWP 1.00 in pipelined
+ * windows: a whole window goes out in one write and its replies are read
+ * back before the next window is sent.
+ *
+ * It reports postings per second and checks that every reply matches its
+ * request's correlation id, in order.
+ *
+ * Usage: java -cp bin com.banking.TerminalLoadTest <userId> <password> <accountNumber>
+ *        [port] [connections] [postingsPerConnection] [window]
+ */
+public class TerminalLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: TerminalLoadTest <userId> <password> <accountNumber>"
+                + " [port] [connections] [postingsPerConnection] [window]");
+            System.exit(2);
+        }
+        String userId = args[0];
+        String password = args[1];
+        String accountNumber = args[2];
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 9090;
+        int connections = args.length > 4 ? Integer.parseInt(args[4]) : 8;
+        int postings = args.length > 5 ? Integer.parseInt(args[5]) : 2_000;
+        int window = args.length > 6 ? Integer.parseInt(args[6]) : 64;
+
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+
+        System.out.println("→ " + connections + " connections x " + postings + " deposits, window " + window);
+        long start = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    run(port, userId, password, accountNumber, postings, window, succeeded, rejected);
+                } catch (IOException | RuntimeException e) {
+                    synchronized (failures) {
+                        failures.add(e.getMessage());
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        if (!failures.isEmpty()) {
+            System.err.println("✗ " + failures.size() + " connections failed, first: " + failures.get(0));
+        }
+        long total = succeeded.get() + rejected.get();
+        System.out.println("✓ Load test complete");
+        System.out.println("   • Postings:    " + total + " (" + rejected.get() + " rejected)");
+        System.out.println(String.format("   • Elapsed:     %.2f s", seconds));
+        System.out.println(String.format("   • Throughput:  %.0f postings/s", total / seconds));
+    }
+
+    private static void run(int port, String userId, String password, String accountNumber,
+                            int postings, int window, AtomicLong succeeded, AtomicLong rejected) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port))) {
+            ByteBuffer out = ByteBuffer.allocate(window * (4 + TerminalProtocol.POSTING_LENGTH) + 512);
+            ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+
+            TerminalProtocol.putLogin(out, 0, userId, password);
+            send(channel, out);
+            Reply login = readReply(channel, in);
+            if (login.status != TerminalProtocol.STATUS_OK) {
+                throw new IOException("Login failed: " + login.message);
+            }
+
+            int next = 1;
+            while (next <= postings) {
+                int first = next;
+                int count = Math.min(window, postings - next + 1);
+                for (int i = 0; i < count; i++) {
+                    TerminalProtocol.putPosting(out, TerminalProtocol.DEPOSIT, next++, accountNumber, 100);
+                }
+                send(channel, out);
+                for (int i = 0; i < count; i++) {
+                    Reply reply = readReply(channel, in);
+                    if (reply.correlationId != first + i) {
+                        throw new IOException("Reply out of order: expected " + (first + i) + ", got " + reply.correlationId);
+                    }
+                    if (reply.status == TerminalProtocol.STATUS_OK) {
+                        succeeded.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    private static void send(SocketChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private static final class Reply {
+        int correlationId;
+        byte status;
+        String message;
+    }
+
+    /**
+     * Reads one reply frame, buffering whatever else has already arrived.
+     */
+    private static Reply readReply(SocketChannel channel, ByteBuffer in) throws IOException {
+        in.flip();
+        while (in.remaining() < 4 || in.remaining() < 4 + in.getInt(in.position())) {
+            in.compact();
+            if (channel.read(in) < 0) {
+                throw new IOException("Server closed the connection");
+            }
+            in.flip();
+        }
+        in.getInt();
+        Reply reply = new Reply();
+        in.get(); // op
+        reply.correlationId = in.getInt();
+        reply.status = in.get();
+        in.getLong(); // balance
+        byte[] message = new byte[in.getShort() & 0xFFFF];
+        in.get(message);
+        reply.message = new String(message, StandardCharsets.UTF_8);
+        in.compact();
+        return reply;
+    }
+}
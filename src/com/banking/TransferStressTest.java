@@ -0,0 +1,148 @@
+package com.banking;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.banking.controller.AccountController;
+import com.banking.controller.AccountController.Transfer;
+import com.banking.controller.AccountController.TransferResult;
+import com.banking.controller.LoginController;
+import com.banking.controller.LoginController.LoginResult;
+import com.banking.controller.Session;
+import com.banking.dao.AccountDAO;
+import com.banking.database.DatabaseManager;
+import com.banking.model.Account;
+import com.banking.model.Bank;
+import com.banking.model.SavingsAccount;
+
+/**
+ * TransferStressTest - command line tool that makes thousands of random
+ * transfers at once and checks that money is conserved. Virtual threads
+ * each make transfers in random directions between the same small set of
+ * accounts, some singly and some as multi-leg batches, so that many calls
+ * lock overlapping accounts in opposite orders. It then checks that:
+ * - every caller finished (no deadlock)
+ * - the accounts' total balance is unchanged
+ *
+ * Transfers that fail for lack of funds are expected and counted.
+ * It posts real transfers, so run it against a scratch copy of the database.
+ *
+ * Usage: java -cp bin:lib/h2-2.2.224.jar com.banking.TransferStressTest <userId> <password>
+ *        [transfers] [callers] [accounts] [legsPerBatch]
+ */
+public class TransferStressTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: TransferStressTest <userId> <password> [transfers] [callers] [accounts] [legsPerBatch]");
+            System.exit(2);
+        }
+        int transfers = args.length > 2 ? Integer.parseInt(args[2]) : 5_000;
+        int callers = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        int accountLimit = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int legsPerBatch = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+
+        DatabaseManager.getInstance().initializeDatabase();
+        LoginResult login = LoginController.getInstance().openSession(args[0], args[1]);
+        if (!login.isSuccess()) {
+            System.err.println("✗ " + login.getMessage());
+            System.exit(1);
+        }
+        Session session = login.getSession();
+
+        // Savings accounts cannot be debited, so only the others take part
+        AccountDAO accountDAO = new AccountDAO();
+        List<String> accounts = new ArrayList<>();
+        for (Account account : accountDAO.findAll()) {
+            if (!(account instanceof SavingsAccount) && accounts.size() < accountLimit) {
+                accounts.add(account.getAccountNumber());
+            }
+        }
+        if (accounts.size() < 2) {
+            System.err.println("✗ At least two Investment or Cheque accounts are needed; load sample data first");
+            System.exit(1);
+        }
+
+        AccountController controller = new AccountController(new Bank("Stress Test Bank", "STR"));
+        System.out.println("→ " + transfers + " transfers from " + callers + " virtual threads over "
+            + accounts.size() + " accounts, every 4th call a batch of " + legsPerBatch);
+
+        double before = totalBalance(accountDAO, accounts);
+        AtomicLong made = new AtomicLong();
+        AtomicLong refused = new AtomicLong();
+        AtomicLong batches = new AtomicLong();
+        LatencyHistogram[] histograms = new LatencyHistogram[callers];
+        List<Thread> workers = new ArrayList<>();
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+        long start = System.nanoTime();
+        for (int c = 0; c < callers; c++) {
+            int index = c;
+            int share = transfers / callers + (c < transfers % callers ? 1 : 0);
+            histograms[c] = new LatencyHistogram();
+            workers.add(Thread.ofVirtual().start(() -> {
+                Random random = new Random(index);
+                int remaining = share;
+                int call = 0;
+                while (remaining > 0) {
+                    int legs = call++ % 4 == 3 ? Math.min(legsPerBatch, remaining) : 1;
+                    List<Transfer> batch = new ArrayList<>(legs);
+                    for (int i = 0; i < legs; i++) {
+                        int from = random.nextInt(accounts.size());
+                        int to = (from + 1 + random.nextInt(accounts.size() - 1)) % accounts.size();
+                        batch.add(new Transfer(accounts.get(from), accounts.get(to), 1 + random.nextInt(5_000) / 100.0));
+                    }
+                    long t0 = System.nanoTime();
+                    TransferResult result = controller.transferBatch(session, batch);
+                    histograms[index].record(System.nanoTime() - t0);
+                    if (result.isSuccess()) {
+                        made.addAndGet(legs);
+                        if (legs > 1) {
+                            batches.incrementAndGet();
+                        }
+                    } else {
+                        refused.addAndGet(legs);
+                    }
+                    remaining -= legs;
+                }
+            }));
+        }
+        boolean finished = true;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.MINUTES.toMillis(10));
+            finished &= !worker.isAlive();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.setOut(out);
+
+        LatencyHistogram latency = new LatencyHistogram();
+        for (LatencyHistogram histogram : histograms) {
+            latency.merge(histogram);
+        }
+        double after = totalBalance(accountDAO, accounts);
+
+        System.out.println("✓ Stress test complete");
+        System.out.println(String.format("   • %,d transfers made (%,d multi-leg batches), %,d refused, in %.1f s",
+            made.get(), batches.get(), refused.get(), seconds));
+        System.out.println(String.format("   • %,.0f calls/s, %s", latency.getCount() / seconds, latency.summary()));
+
+        boolean conserved = Math.abs(after - before) < 0.005;
+        System.out.println(String.format("%s: all callers finished", finished ? "✓ PASS" : "✗ FAIL (deadlock?)"));
+        System.out.println(String.format("%s: total balance BWP %.2f before, BWP %.2f after",
+            conserved ? "✓ PASS" : "✗ FAIL", before, after));
+        System.exit(finished && conserved ? 0 : 1);
+    }
+
+    private static double totalBalance(AccountDAO accountDAO, List<String> accounts) {
+        double total = 0;
+        for (String accountNumber : accounts) {
+            total += accountDAO.findByAccountNumber(accountNumber).getBalance();
+        }
+        return total;
+    }
+}
@@ -2,9 +2,28 @@ package com.banking.controller;
 
 import com.banking.dao.AccountDAO;
 import com.banking.dao.TransactionDAO;
+import com.banking.database.DashboardStatistics;
+import com.banking.database.LedgerStore;
+import com.banking.database.PostingBatchStore;
+import com.banking.database.PostingFeed;
 import com.banking.model.*;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * AccountController handles all account and transaction operations.
@@ -14,15 +33,52 @@ import java.util.List;
  * - Opening accounts (F-201, F-204, F-205, F-206)
  * - Deposits (F-301)
  * - Withdrawals (F-302, F-303)
+ * - Salary credits to Cheque accounts
+ * - Transfers between accounts
  * - Balance inquiries
  * - Transaction history (F-403)
  * - Monthly interest processing (F-304)
+ *
+ * Deposits, withdrawals and balance inquiries also have an asynchronous
+ * form (depositAsync, ...) that runs on a ControllerExecutor.
+ *
+ * Deposits, withdrawals and transfers may carry an idempotency key; a
+ * retry with the same key returns the first result instead of posting
+ * again (see IdempotencyKeys).
+ *
+ * Postings to one account never overlap: they hold the account's lock
+ * stripe, or run as messages on the account's partition when
+ * AccountMailboxes are set.
+ * 
+ * Permission checks use the Session passed in, so one instance can serve
+ * many users; the overloads without a Session act for the desktop user
+ * signed in through LoginController.
  */
 public class AccountController {
     private AccountDAO accountDAO;
     private TransactionDAO transactionDAO;
     private Bank bank;
     private LoginController loginController;
+    private ControllerExecutor asyncExecutor;
+    private volatile PostingEngine postingEngine;
+    private volatile AccountMailboxes accountMailboxes;
+    
+    // Deposits and withdrawals read, change and save the balance; calls on
+    // the same account share a lock stripe so concurrent calls cannot lose updates.
+    // ReentrantLock rather than synchronized: a virtual thread blocked on JDBC
+    // inside a synchronized block would pin its carrier thread.
+    private static final ReentrantLock[] ACCOUNT_LOCKS = new ReentrantLock[64];
+    static {
+        for (int i = 0; i < ACCOUNT_LOCKS.length; i++) {
+            ACCOUNT_LOCKS[i] = new ReentrantLock();
+        }
+    }
+    
+    // Most transfers accepted in one batch
+    public static final int MAX_TRANSFER_BATCH = 1_000;
+    // Last part of transfer references and generated salary references
+    private static final AtomicLong TRANSFER_SEQUENCE = new AtomicLong();
+    private static final AtomicLong SALARY_SEQUENCE = new AtomicLong();
     
     /**
      * Constructor initializes the controller with dependencies.
@@ -33,6 +89,36 @@ public class AccountController {
         this.transactionDAO = new TransactionDAO();
         this.bank = bank;
         this.loginController = LoginController.getInstance();
+        this.asyncExecutor = ControllerExecutor.getInstance();
+    }
+    
+    /**
+     * Sets the executor used by the asynchronous methods.
+     * @param asyncExecutor Executor with its own threads, queue and timeout
+     */
+    public void setAsyncExecutor(ControllerExecutor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+    
+    /**
+     * Routes deposits and withdrawals through a single-writer PostingEngine
+     * instead of the account locks; null restores the locking path.
+     * Permissions are still checked here.
+     * @param postingEngine A started engine, or null
+     */
+    public void setPostingEngine(PostingEngine postingEngine) {
+        this.postingEngine = postingEngine;
+    }
+    
+    /**
+     * Runs deposits, withdrawals, salary credits and interest as messages
+     * to the account's mailbox instead of taking its lock stripe; null
+     * restores the locks. A posting engine, if set, still takes deposits
+     * and withdrawals.
+     * @param accountMailboxes Mailboxes to post through, or null
+     */
+    public void setAccountMailboxes(AccountMailboxes accountMailboxes) {
+        this.accountMailboxes = accountMailboxes;
     }
     
     /**
@@ -43,14 +129,15 @@ public class AccountController {
      * - Allows deposits only (enforced in SavingsAccount class)
      * - Pays 0.05% monthly interest
      * 
+     * @param session Caller's session
      * @param customerId Customer who owns the account
      * @param initialBalance Starting balance
      * @param branch Bank branch code
      * @return AccountResult with status and account object
      */
-    public AccountResult openSavingsAccount(String customerId, double initialBalance, String branch) {
+    public AccountResult openSavingsAccount(Session session, String customerId, double initialBalance, String branch) {
         // Check permission
-        if (!loginController.hasPermission("OPEN_ACCOUNT")) {
+        if (!Session.permits(session, Permission.OPEN_ACCOUNT)) {
             return new AccountResult(false, "You don't have permission to open accounts", null);
         }
         
@@ -79,12 +166,7 @@ public class AccountController {
             boolean saved = accountDAO.save(account);
             
             if (saved) {
-                // Record the initial deposit as a transaction
-                if (initialBalance > 0) {
-                    for (Transaction txn : account.getTransactionHistory()) {
-                        transactionDAO.save(txn);
-                    }
-                }
+                // Opening balance is journaled by Bank when the account is opened
                 
                 return new AccountResult(true, 
                     "Savings Account opened successfully: " + account.getAccountNumber(), 
@@ -100,6 +182,13 @@ public class AccountController {
         }
     }
     
+    /**
+     * As {@link #openSavingsAccount(Session, String, double, String)}, for the signed-in desktop user.
+     */
+    public AccountResult openSavingsAccount(String customerId, double initialBalance, String branch) {
+        return openSavingsAccount(loginController.getCurrentSession(), customerId, initialBalance, branch);
+    }
+    
     /**
      * Opens a new Investment Account for a customer.
      * Satisfies F-201 and F-205 requirements.
@@ -109,14 +198,15 @@ public class AccountController {
      * - Requires minimum opening balance of BWP 500.00
      * - Pays 5% monthly interest
      * 
+     * @param session Caller's session
      * @param customerId Customer who owns the account
      * @param initialBalance Starting balance (must be >= 500)
      * @param branch Bank branch code
      * @return AccountResult with status and account object
      */
-    public AccountResult openInvestmentAccount(String customerId, double initialBalance, String branch) {
+    public AccountResult openInvestmentAccount(Session session, String customerId, double initialBalance, String branch) {
         // Check permission
-        if (!loginController.hasPermission("OPEN_ACCOUNT")) {
+        if (!Session.permits(session, Permission.OPEN_ACCOUNT)) {
             return new AccountResult(false, "You don't have permission to open accounts", null);
         }
         
@@ -146,12 +236,7 @@ public class AccountController {
             boolean saved = accountDAO.save(account);
             
             if (saved) {
-                // Record the initial deposit as a transaction
-                if (initialBalance > 0) {
-                    for (Transaction txn : account.getTransactionHistory()) {
-                        transactionDAO.save(txn);
-                    }
-                }
+                // Opening balance is journaled by Bank when the account is opened
                 
                 return new AccountResult(true, 
                     "Investment Account opened successfully: " + account.getAccountNumber(), 
@@ -167,6 +252,13 @@ public class AccountController {
         }
     }
     
+    /**
+     * As {@link #openInvestmentAccount(Session, String, double, String)}, for the signed-in desktop user.
+     */
+    public AccountResult openInvestmentAccount(String customerId, double initialBalance, String branch) {
+        return openInvestmentAccount(loginController.getCurrentSession(), customerId, initialBalance, branch);
+    }
+    
     /**
      * Opens a new Cheque Account for a customer.
      * Satisfies F-201 and F-206 requirements.
@@ -176,6 +268,7 @@ public class AccountController {
      * - Requires proof of employment (company name and address)
      * - Does not earn interest
      * 
+     * @param session Caller's session
      * @param customerId Customer who owns the account
      * @param initialBalance Starting balance
      * @param branch Bank branch code
@@ -183,10 +276,10 @@ public class AccountController {
      * @param companyAddress Employer's address
      * @return AccountResult with status and account object
      */
-    public AccountResult openChequeAccount(String customerId, double initialBalance, String branch,
+    public AccountResult openChequeAccount(Session session, String customerId, double initialBalance, String branch,
                                           String companyName, String companyAddress) {
         // Check permission
-        if (!loginController.hasPermission("OPEN_ACCOUNT")) {
+        if (!Session.permits(session, Permission.OPEN_ACCOUNT)) {
             return new AccountResult(false, "You don't have permission to open accounts", null);
         }
         
@@ -225,12 +318,7 @@ public class AccountController {
             boolean saved = accountDAO.save(account);
             
             if (saved) {
-                // Record the initial deposit as a transaction
-                if (initialBalance > 0) {
-                    for (Transaction txn : account.getTransactionHistory()) {
-                        transactionDAO.save(txn);
-                    }
-                }
+                // Opening balance is journaled by Bank when the account is opened
                 
                 return new AccountResult(true, 
                     "Cheque Account opened successfully: " + account.getAccountNumber(), 
@@ -246,17 +334,27 @@ public class AccountController {
         }
     }
     
+    /**
+     * As {@link #openChequeAccount(Session, String, double, String, String, String)}, for the signed-in desktop user.
+     */
+    public AccountResult openChequeAccount(String customerId, double initialBalance, String branch,
+                                          String companyName, String companyAddress) {
+        return openChequeAccount(loginController.getCurrentSession(), customerId, initialBalance, branch,
+                                 companyName, companyAddress);
+    }
+    
     /**
      * Deposits funds into an account.
      * Satisfies F-301: Allow deposits to any active account.
      * 
+     * @param session Caller's session
      * @param accountNumber The account to deposit into
      * @param amount Amount to deposit
      * @return TransactionResult with status and updated balance
      */
-    public TransactionResult deposit(String accountNumber, double amount) {
+    public TransactionResult deposit(Session session, String accountNumber, double amount) {
         // Check permission
-        if (!loginController.hasPermission("DEPOSIT")) {
+        if (!Session.permits(session, Permission.DEPOSIT)) {
             return new TransactionResult(false, "You don't have permission to make deposits", 0);
         }
         
@@ -269,9 +367,20 @@ public class AccountController {
             return new TransactionResult(false, "Deposit amount must be positive", 0);
         }
         
+        PostingEngine engine = postingEngine;
+        if (engine != null) {
+            return engine.deposit(accountNumber, amount).join();
+        }
+        
+        String number = accountNumber.trim();
+        return post(number, () -> applyDeposit(number, amount),
+            message -> new TransactionResult(false, "Deposit not processed: " + message, 0)).join();
+    }
+    
+    private TransactionResult applyDeposit(String accountNumber, double amount) {
         try {
             // Retrieve account
-            Account account = accountDAO.findByAccountNumber(accountNumber.trim());
+            Account account = accountDAO.findByAccountNumber(accountNumber);
             
             if (account == null) {
                 return new TransactionResult(false, "Account not found: " + accountNumber, 0);
@@ -283,14 +392,9 @@ public class AccountController {
             if (success) {
                 // Update balance in database
                 accountDAO.updateBalance(account);
-                
-                // Save transaction to database
-                List<Transaction> transactions = account.getTransactionHistory();
-                if (!transactions.isEmpty()) {
-                    Transaction latestTxn = transactions.get(transactions.size() - 1);
-                    transactionDAO.save(latestTxn);
-                }
-                
+            
+                // Transaction is journaled by the account itself (see Account.recordTransaction)
+            
                 return new TransactionResult(true, 
                     String.format("Deposit successful. New balance: BWP %.2f", account.getBalance()),
                     account.getBalance());
@@ -303,17 +407,42 @@ public class AccountController {
         }
     }
     
+    /**
+     * As {@link #deposit(Session, String, double)}, for the signed-in desktop user.
+     */
+    public TransactionResult deposit(String accountNumber, double amount) {
+        return deposit(loginController.getCurrentSession(), accountNumber, amount);
+    }
+    
+    /**
+     * Deposits funds at most once per idempotency key.
+     * @param idempotencyKey Key chosen by the client, or null to deposit without one
+     * @return TransactionResult, or the first result if the key was used before
+     */
+    public TransactionResult deposit(Session session, String accountNumber, double amount, String idempotencyKey) {
+        return IdempotencyKeys.getInstance().execute(session, idempotencyKey,
+            describe("DEPOSIT", accountNumber, null, amount), () -> deposit(session, accountNumber, amount));
+    }
+    
+    /**
+     * As {@link #deposit(Session, String, double, String)}, for the signed-in desktop user.
+     */
+    public TransactionResult deposit(String accountNumber, double amount, String idempotencyKey) {
+        return deposit(loginController.getCurrentSession(), accountNumber, amount, idempotencyKey);
+    }
+    
     /**
      * Withdraws funds from an account.
      * Satisfies F-302 and F-303: Withdrawals only from Investment and Cheque accounts.
      * 
+     * @param session Caller's session
      * @param accountNumber The account to withdraw from
      * @param amount Amount to withdraw
      * @return TransactionResult with status and updated balance
      */
-    public TransactionResult withdraw(String accountNumber, double amount) {
+    public TransactionResult withdraw(Session session, String accountNumber, double amount) {
         // Check permission
-        if (!loginController.hasPermission("WITHDRAW")) {
+        if (!Session.permits(session, Permission.WITHDRAW)) {
             return new TransactionResult(false, "You don't have permission to make withdrawals", 0);
         }
         
@@ -326,9 +455,20 @@ public class AccountController {
             return new TransactionResult(false, "Withdrawal amount must be positive", 0);
         }
         
+        PostingEngine engine = postingEngine;
+        if (engine != null) {
+            return engine.withdraw(accountNumber, amount).join();
+        }
+        
+        String number = accountNumber.trim();
+        return post(number, () -> applyWithdrawal(number, amount),
+            message -> new TransactionResult(false, "Withdrawal not processed: " + message, 0)).join();
+    }
+    
+    private TransactionResult applyWithdrawal(String accountNumber, double amount) {
         try {
             // Retrieve account
-            Account account = accountDAO.findByAccountNumber(accountNumber.trim());
+            Account account = accountDAO.findByAccountNumber(accountNumber);
             
             if (account == null) {
                 return new TransactionResult(false, "Account not found: " + accountNumber, 0);
@@ -347,14 +487,9 @@ public class AccountController {
             if (success) {
                 // Update balance in database
                 accountDAO.updateBalance(account);
-                
-                // Save transaction to database
-                List<Transaction> transactions = account.getTransactionHistory();
-                if (!transactions.isEmpty()) {
-                    Transaction latestTxn = transactions.get(transactions.size() - 1);
-                    transactionDAO.save(latestTxn);
-                }
-                
+            
+                // Transaction is journaled by the account itself (see Account.recordTransaction)
+            
                 return new TransactionResult(true, 
                     String.format("Withdrawal successful. New balance: BWP %.2f", account.getBalance()),
                     account.getBalance());
@@ -369,14 +504,489 @@ public class AccountController {
         }
     }
     
+    /**
+     * As {@link #withdraw(Session, String, double)}, for the signed-in desktop user.
+     */
+    public TransactionResult withdraw(String accountNumber, double amount) {
+        return withdraw(loginController.getCurrentSession(), accountNumber, amount);
+    }
+    
+    /**
+     * Withdraws funds at most once per idempotency key.
+     * @param idempotencyKey Key chosen by the client, or null to withdraw without one
+     * @return TransactionResult, or the first result if the key was used before
+     */
+    public TransactionResult withdraw(Session session, String accountNumber, double amount, String idempotencyKey) {
+        return IdempotencyKeys.getInstance().execute(session, idempotencyKey,
+            describe("WITHDRAW", accountNumber, null, amount), () -> withdraw(session, accountNumber, amount));
+    }
+    
+    /**
+     * As {@link #withdraw(Session, String, double, String)}, for the signed-in desktop user.
+     */
+    public TransactionResult withdraw(String accountNumber, double amount, String idempotencyKey) {
+        return withdraw(loginController.getCurrentSession(), accountNumber, amount, idempotencyKey);
+    }
+    
+    /**
+     * Credits an employer's salary payment to a Cheque account.
+     * 
+     * @param session Caller's session
+     * @param accountNumber The Cheque account to credit
+     * @param amount Salary amount
+     * @param employerReference Payment reference from the employer
+     * @return TransactionResult with status and updated balance
+     */
+    public TransactionResult creditSalary(Session session, String accountNumber, double amount, String employerReference) {
+        // Check permission
+        if (!Session.permits(session, Permission.DEPOSIT)) {
+            return new TransactionResult(false, "You don't have permission to credit salaries", 0);
+        }
+        
+        // Validate inputs
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            return new TransactionResult(false, "Account number is required", 0);
+        }
+        
+        if (amount <= 0) {
+            return new TransactionResult(false, "Salary amount must be positive", 0);
+        }
+        
+        if (employerReference == null || employerReference.trim().isEmpty()) {
+            return new TransactionResult(false, "Employer reference is required", 0);
+        }
+        
+        // The engine keeps balances in memory and must be their only writer
+        if (postingEngine != null) {
+            return new TransactionResult(false, "Salary credits are not available while the posting engine runs", 0);
+        }
+        
+        String number = accountNumber.trim();
+        String reference = employerReference.trim();
+        return post(number, () -> applySalary(number, amount, reference),
+            message -> new TransactionResult(false, "Salary credit not processed: " + message, 0)).join();
+    }
+    
+    private TransactionResult applySalary(String accountNumber, double amount, String employerReference) {
+        try {
+            Account account = accountDAO.findByAccountNumber(accountNumber);
+            
+            if (account == null) {
+                return new TransactionResult(false, "Account not found: " + accountNumber, 0);
+            }
+            
+            // Only Cheque accounts take salary credits
+            if (!(account instanceof ChequeAccount)) {
+                return new TransactionResult(false, 
+                    "Salaries can only be credited to Cheque Accounts", 
+                    account.getBalance());
+            }
+            
+            if (((ChequeAccount) account).creditSalary(amount, employerReference)) {
+                accountDAO.updateBalance(account);
+                return new TransactionResult(true, 
+                    String.format("Salary credited. New balance: BWP %.2f", account.getBalance()),
+                    account.getBalance());
+            } else {
+                return new TransactionResult(false, "Salary credit failed", account.getBalance());
+            }
+            
+        } catch (Exception e) {
+            return new TransactionResult(false, "Error crediting salary: " + e.getMessage(), 0);
+        }
+    }
+    
+    /**
+     * As {@link #creditSalary(Session, String, double, String)}, for the signed-in desktop user.
+     */
+    public TransactionResult creditSalary(String accountNumber, double amount, String employerReference) {
+        return creditSalary(loginController.getCurrentSession(), accountNumber, amount, employerReference);
+    }
+    
+    /**
+     * Credits many salary payments at once, e.g. from a payroll file.
+     * 
+     * Credits are grouped by the account lock stripe they fall in; each
+     * group is posted under that one lock and stored in one JDBC
+     * transaction. Concurrent callers therefore wait for each other only on
+     * groups they share, and never hold more than one lock.
+     * 
+     * A credit's reference becomes its transaction ID. A credit whose
+     * reference is already stored is skipped, so a list can be posted again
+     * after a failure without paying anyone twice.
+     * 
+     * @param session Caller's session
+     * @param credits Salary credits to post
+     * @return SalaryBatchResult with counts and the credits rejected
+     */
+    public SalaryBatchResult creditSalaries(Session session, List<SalaryCredit> credits) {
+        // Check permission
+        if (!Session.permits(session, Permission.DEPOSIT)) {
+            return SalaryBatchResult.failed("You don't have permission to credit salaries");
+        }
+        
+        if (credits == null || credits.isEmpty()) {
+            return SalaryBatchResult.failed("At least one salary credit is required");
+        }
+        
+        // The engine and the mailboxes post without these locks, and the
+        // event-sourced ledger derives balances itself
+        if (postingEngine != null || accountMailboxes != null) {
+            return SalaryBatchResult.failed("Bulk salary credits are not available while the posting engine or account mailboxes run");
+        }
+        if (LedgerStore.isEventSourced()) {
+            return SalaryBatchResult.failed("Bulk salary credits are not available with the event-sourced ledger");
+        }
+        
+        SalaryTally tally = new SalaryTally();
+        Map<Integer, List<SalaryCredit>> byStripe = new TreeMap<>();
+        Set<String> references = new HashSet<>();
+        for (SalaryCredit credit : credits) {
+            String invalid = validateSalaryCredit(credit);
+            if (invalid == null && !references.add(credit.getReference())) {
+                invalid = "Duplicate reference " + credit.getReference();
+            }
+            if (invalid != null) {
+                tally.rejections.put(credit == null ? "" : credit.getReference(), invalid);
+                continue;
+            }
+            byStripe.computeIfAbsent(stripeOf(credit.getAccountNumber()), stripe -> new ArrayList<>()).add(credit);
+        }
+        
+        for (Map.Entry<Integer, List<SalaryCredit>> group : byStripe.entrySet()) {
+            ReentrantLock lock = ACCOUNT_LOCKS[group.getKey()];
+            lock.lock();
+            try {
+                applySalaries(group.getValue(), tally);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        String message = String.format("%d salaries credited (BWP %.2f), %d already credited, %d rejected",
+            tally.credited, tally.thebe / 100.0, tally.alreadyCredited, tally.rejections.size());
+        return new SalaryBatchResult(!tally.storeFailed, message, tally.credited, tally.alreadyCredited,
+            tally.thebe / 100.0, tally.rejections);
+    }
+    
+    /**
+     * As {@link #creditSalaries(Session, List)}, for the signed-in desktop user.
+     */
+    public SalaryBatchResult creditSalaries(List<SalaryCredit> credits) {
+        return creditSalaries(loginController.getCurrentSession(), credits);
+    }
+    
+    private static String validateSalaryCredit(SalaryCredit credit) {
+        if (credit == null) {
+            return "Salary credit is missing";
+        }
+        if (credit.getAccountNumber() == null || credit.getAccountNumber().trim().isEmpty()) {
+            return "Account number is required";
+        }
+        if (!(credit.getAmount() > 0)) {
+            return "Salary amount must be positive";
+        }
+        if (credit.getEmployerReference() == null || credit.getEmployerReference().trim().isEmpty()) {
+            return "Employer reference is required";
+        }
+        if (credit.getReference().length() > 50) {
+            return "Reference is longer than 50 characters";
+        }
+        return null;
+    }
+    
+    /**
+     * Posts one lock stripe's salary credits; the caller holds its lock.
+     */
+    private void applySalaries(List<SalaryCredit> credits, SalaryTally tally) {
+        List<String> references = new ArrayList<>(credits.size());
+        for (SalaryCredit credit : credits) {
+            references.add(credit.getReference());
+        }
+        Set<String> stored;
+        try {
+            stored = transactionDAO.findStoredIds(references);
+        } catch (SQLException e) {
+            // Not knowing what was paid, pay nothing rather than pay twice
+            tally.storeFailed = true;
+            for (SalaryCredit credit : credits) {
+                tally.rejections.put(credit.getReference(), "Error checking stored salaries: " + e.getMessage());
+            }
+            return;
+        }
+        
+        Map<String, Account> accounts = new HashMap<>();
+        Map<String, Long> balances = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> postings = new ArrayList<>(credits.size());
+        List<SalaryCredit> posted = new ArrayList<>(credits.size());
+        for (SalaryCredit credit : credits) {
+            if (stored.contains(credit.getReference())) {
+                tally.alreadyCredited++;
+                continue;
+            }
+            String number = credit.getAccountNumber().trim();
+            Account account = accounts.computeIfAbsent(number, accountDAO::findByAccountNumber);
+            if (account == null) {
+                tally.rejections.put(credit.getReference(), "Account not found: " + number);
+                continue;
+            }
+            if (!(account instanceof ChequeAccount)) {
+                tally.rejections.put(credit.getReference(), "Salaries can only be credited to Cheque Accounts: " + number);
+                continue;
+            }
+            ChequeAccount cheque = (ChequeAccount) account;
+            if (credit.getCompanyName() != null && !credit.getCompanyName().trim().equalsIgnoreCase(cheque.getCompanyName())) {
+                tally.rejections.put(credit.getReference(),
+                    "Account holder of " + number + " is employed by " + cheque.getCompanyName());
+                continue;
+            }
+            
+            long thebe = Math.round(credit.getAmount() * 100);
+            long balance = balances.getOrDefault(number, Math.round(account.getBalance() * 100)) + thebe;
+            balances.put(number, balance);
+            postings.add(new Transaction(credit.getReference(), number, "SALARY", thebe / 100.0, balance / 100.0,
+                String.format("Salary credit from %s (Ref: %s)", cheque.getCompanyName(),
+                    credit.getEmployerReference().trim()), now));
+            posted.add(credit);
+        }
+        if (postings.isEmpty()) {
+            return;
+        }
+        
+        try {
+            PostingBatchStore.getInstance().save(postings);
+        } catch (Exception e) {
+            tally.storeFailed = true;
+            for (SalaryCredit credit : posted) {
+                tally.rejections.put(credit.getReference(), "Error crediting salary: " + e.getMessage());
+            }
+            return;
+        }
+        for (Transaction posting : postings) {
+            PostingFeed.getInstance().publish(posting);
+            tally.credited++;
+            tally.thebe += Math.round(posting.getAmount() * 100);
+        }
+    }
+    
+    /**
+     * Counts for one creditSalaries call, filled in group by group.
+     */
+    private static final class SalaryTally {
+        final Map<String, String> rejections = new LinkedHashMap<>();
+        int credited;
+        int alreadyCredited;
+        long thebe;
+        boolean storeFailed;
+    }
+    
+    /**
+     * Transfers funds from one account to another.
+     * The debit and the credit are stored together or not at all; their
+     * transaction IDs are the transfer reference with -OUT and -IN added.
+     * Savings accounts cannot be debited (F-302).
+     * 
+     * @param session Caller's session
+     * @param fromAccount Account to debit
+     * @param toAccount Account to credit
+     * @param amount Amount to transfer
+     * @return TransactionResult with status and the debited account's new balance
+     */
+    public TransactionResult transfer(Session session, String fromAccount, String toAccount, double amount) {
+        TransferResult result = transferBatch(session, List.of(new Transfer(fromAccount, toAccount, amount)));
+        Double balance = fromAccount == null ? null : result.getBalances().get(fromAccount.trim());
+        return new TransactionResult(result.isSuccess(), result.getMessage(), balance == null ? 0 : balance);
+    }
+    
+    /**
+     * As {@link #transfer(Session, String, String, double)}, for the signed-in desktop user.
+     */
+    public TransactionResult transfer(String fromAccount, String toAccount, double amount) {
+        return transfer(loginController.getCurrentSession(), fromAccount, toAccount, amount);
+    }
+    
+    /**
+     * Transfers funds at most once per idempotency key.
+     * @param idempotencyKey Key chosen by the client, or null to transfer without one
+     * @return TransactionResult, or the first result if the key was used before
+     */
+    public TransactionResult transfer(Session session, String fromAccount, String toAccount, double amount,
+                                      String idempotencyKey) {
+        return IdempotencyKeys.getInstance().execute(session, idempotencyKey,
+            describe("TRANSFER", fromAccount, toAccount, amount),
+            () -> transfer(session, fromAccount, toAccount, amount));
+    }
+    
+    /**
+     * As {@link #transfer(Session, String, String, double, String)}, for the signed-in desktop user.
+     */
+    public TransactionResult transfer(String fromAccount, String toAccount, double amount, String idempotencyKey) {
+        return transfer(loginController.getCurrentSession(), fromAccount, toAccount, amount, idempotencyKey);
+    }
+    
+    /**
+     * Describes a posting for IdempotencyKeys, e.g. "TRANSFER BAC-10002 BAC-10003 50.00".
+     */
+    private static String describe(String type, String accountNumber, String toAccount, double amount) {
+        return type + " " + (accountNumber == null ? "" : accountNumber.trim()) +
+            (toAccount == null ? "" : " " + toAccount.trim()) + String.format(" %.2f", amount);
+    }
+    
+    /**
+     * Makes several transfers as one unit: either every transfer is made,
+     * in the order given, or none is. Later transfers may spend funds that
+     * earlier ones in the batch brought in.
+     * 
+     * All accounts involved are locked first, in a fixed order, so two
+     * batches over the same accounts cannot each hold a lock the other
+     * waits for. Every leg is then stored in one JDBC transaction.
+     * 
+     * @param session Caller's session
+     * @param transfers Up to MAX_TRANSFER_BATCH transfers
+     * @return TransferResult with the references and new balances
+     */
+    public TransferResult transferBatch(Session session, List<Transfer> transfers) {
+        // Check permission - a transfer is a withdrawal and a deposit
+        if (!Session.permits(session, Permission.WITHDRAW) || !Session.permits(session, Permission.DEPOSIT)) {
+            return TransferResult.failed("You don't have permission to make transfers");
+        }
+        
+        // Validate inputs
+        if (transfers == null || transfers.isEmpty()) {
+            return TransferResult.failed("At least one transfer is required");
+        }
+        
+        if (transfers.size() > MAX_TRANSFER_BATCH) {
+            return TransferResult.failed("At most " + MAX_TRANSFER_BATCH + " transfers may be made at once");
+        }
+        
+        TreeSet<String> accountNumbers = new TreeSet<>();
+        for (Transfer transfer : transfers) {
+            if (transfer == null || transfer.getFromAccount() == null || transfer.getFromAccount().trim().isEmpty() ||
+                transfer.getToAccount() == null || transfer.getToAccount().trim().isEmpty()) {
+                return TransferResult.failed("Both account numbers are required");
+            }
+            if (transfer.getFromAccount().trim().equals(transfer.getToAccount().trim())) {
+                return TransferResult.failed("Cannot transfer to the same account: " + transfer.getFromAccount().trim());
+            }
+            if (!(transfer.getAmount() > 0)) {
+                return TransferResult.failed("Transfer amount must be positive");
+            }
+            accountNumbers.add(transfer.getFromAccount().trim());
+            accountNumbers.add(transfer.getToAccount().trim());
+        }
+        
+        // The engine and the mailboxes post without these locks, and the
+        // event-sourced ledger derives balances itself
+        if (postingEngine != null || accountMailboxes != null) {
+            return TransferResult.failed("Transfers are not available while the posting engine or account mailboxes run");
+        }
+        if (LedgerStore.isEventSourced()) {
+            return TransferResult.failed("Transfers are not available with the event-sourced ledger");
+        }
+        
+        // Accounts sharing a stripe share a lock, so stripes (not account
+        // numbers) give the order; each stripe is taken once
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (String accountNumber : accountNumbers) {
+            stripes.add(stripeOf(accountNumber));
+        }
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            for (int stripe : stripes) {
+                ACCOUNT_LOCKS[stripe].lock();
+                held.add(ACCOUNT_LOCKS[stripe]);
+            }
+            return applyTransfers(accountNumbers, transfers);
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+    
+    /**
+     * As {@link #transferBatch(Session, List)}, for the signed-in desktop user.
+     */
+    public TransferResult transferBatch(List<Transfer> transfers) {
+        return transferBatch(loginController.getCurrentSession(), transfers);
+    }
+    
+    private TransferResult applyTransfers(TreeSet<String> accountNumbers, List<Transfer> transfers) {
+        try {
+            // Balances in thebe so a long batch does not drift
+            Map<String, Account> accounts = new HashMap<>();
+            Map<String, Long> balances = new LinkedHashMap<>();
+            for (String accountNumber : accountNumbers) {
+                Account account = accountDAO.findByAccountNumber(accountNumber);
+                if (account == null) {
+                    return TransferResult.failed("Account not found: " + accountNumber);
+                }
+                accounts.put(accountNumber, account);
+                balances.put(accountNumber, Math.round(account.getBalance() * 100));
+            }
+            
+            LocalDateTime now = LocalDateTime.now();
+            List<Transaction> postings = new ArrayList<>(transfers.size() * 2);
+            List<String> references = new ArrayList<>(transfers.size());
+            for (Transfer transfer : transfers) {
+                String from = transfer.getFromAccount().trim();
+                String to = transfer.getToAccount().trim();
+                long thebe = Math.round(transfer.getAmount() * 100);
+                
+                // Savings accounts don't allow withdrawals (F-302)
+                if (accounts.get(from) instanceof SavingsAccount) {
+                    return TransferResult.failed("Transfers out of Savings Accounts are not permitted: " + from);
+                }
+                if (balances.get(from) < thebe) {
+                    return TransferResult.failed(String.format(
+                        "Insufficient balance in %s for transfer of BWP %.2f", from, thebe / 100.0));
+                }
+                
+                long fromBalance = balances.get(from) - thebe;
+                long toBalance = balances.get(to) + thebe;
+                balances.put(from, fromBalance);
+                balances.put(to, toBalance);
+                
+                String reference = String.format("TRF%d%06d",
+                    System.currentTimeMillis(), TRANSFER_SEQUENCE.getAndIncrement() % 1_000_000);
+                references.add(reference);
+                postings.add(new Transaction(reference + "-OUT", from, "TRANSFER_OUT", thebe / 100.0,
+                    fromBalance / 100.0, String.format("Transfer to %s (Ref: %s)", to, reference), now));
+                postings.add(new Transaction(reference + "-IN", to, "TRANSFER_IN", thebe / 100.0,
+                    toBalance / 100.0, String.format("Transfer from %s (Ref: %s)", from, reference), now));
+            }
+            
+            PostingBatchStore.getInstance().save(postings);
+            for (Transaction posting : postings) {
+                PostingFeed.getInstance().publish(posting);
+            }
+            
+            Map<String, Double> newBalances = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : balances.entrySet()) {
+                newBalances.put(entry.getKey(), entry.getValue() / 100.0);
+            }
+            String message = references.size() == 1 ?
+                String.format("Transfer successful (Ref: %s). New balance: BWP %.2f",
+                    references.get(0), newBalances.get(transfers.get(0).getFromAccount().trim())) :
+                String.format("%d transfers successful", references.size());
+            return new TransferResult(true, message, references, newBalances);
+            
+        } catch (Exception e) {
+            return TransferResult.failed("Error processing transfer: " + e.getMessage());
+        }
+    }
+    
     /**
      * Gets the current balance of an account.
+     * @param session Caller's session
      * @param accountNumber The account to query
      * @return BalanceResult with balance information
      */
-    public BalanceResult getBalance(String accountNumber) {
+    public BalanceResult getBalance(Session session, String accountNumber) {
         // Check permission
-        if (!loginController.hasPermission("VIEW_BALANCE")) {
+        if (!Session.permits(session, Permission.VIEW_BALANCE)) {
             return new BalanceResult(false, "You don't have permission to view balances", 0, null);
         }
         
@@ -394,15 +1004,77 @@ public class AccountController {
     }
     
     /**
-     * Retrieves transaction history for an account.
+     * As {@link #getBalance(Session, String)}, for the signed-in desktop user.
+     */
+    public BalanceResult getBalance(String accountNumber) {
+        return getBalance(loginController.getCurrentSession(), accountNumber);
+    }
+    
+    /**
+     * Gets the balance an account had at a point in time.
+     * Used for statements and audits ("balance on date X").
+     * @param session Caller's session
+     * @param accountNumber The account to query
+     * @param asOf Point in time
+     * @return BalanceResult with the historical balance
+     */
+    public BalanceResult getBalanceAsOf(Session session, String accountNumber, LocalDateTime asOf) {
+        // Check permission
+        if (!Session.permits(session, Permission.VIEW_BALANCE)) {
+            return new BalanceResult(false, "You don't have permission to view balances", 0, null);
+        }
+        
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            return new BalanceResult(false, "Account number is required", 0, null);
+        }
+        
+        if (asOf == null) {
+            return new BalanceResult(false, "Date is required", 0, null);
+        }
+        
+        Account account = accountDAO.findByAccountNumber(accountNumber.trim());
+        
+        if (account == null) {
+            return new BalanceResult(false, "Account not found", 0, null);
+        }
+        
+        if (asOf.isAfter(LocalDateTime.now())) {
+            return new BalanceResult(true, "Balance retrieved", account.getBalance(), account);
+        }
+        
+        double balance = accountDAO.getBalanceAsOf(account.getAccountNumber(), asOf);
+        return new BalanceResult(true, "Balance as of " + asOf.toLocalDate() + " retrieved", balance, account);
+    }
+    
+    /**
+     * As {@link #getBalanceAsOf(Session, String, LocalDateTime)}, for the signed-in desktop user.
+     */
+    public BalanceResult getBalanceAsOf(String accountNumber, LocalDateTime asOf) {
+        return getBalanceAsOf(loginController.getCurrentSession(), accountNumber, asOf);
+    }
+    
+    /**
+     * Retrieves recent transaction history for an account.
      * Satisfies F-403: Display comprehensive transaction history.
+     * Reads hot storage only; see getTransactionHistory(String, boolean).
      * 
      * @param accountNumber The account to query
      * @return List of transactions
      */
     public List<Transaction> getTransactionHistory(String accountNumber) {
+        return getTransactionHistory(accountNumber, false);
+    }
+    
+    /**
+     * Retrieves transaction history for an account.
+     * @param session Caller's session
+     * @param accountNumber The account to query
+     * @param includeArchived Also read transactions moved to the archive
+     * @return List of transactions, newest first
+     */
+    public List<Transaction> getTransactionHistory(Session session, String accountNumber, boolean includeArchived) {
         // Check permission
-        if (!loginController.hasPermission("VIEW_TRANSACTIONS")) {
+        if (!Session.permits(session, Permission.VIEW_TRANSACTIONS)) {
             return List.of();
         }
         
@@ -410,7 +1082,45 @@ public class AccountController {
             return List.of();
         }
         
-        return transactionDAO.findByAccountNumber(accountNumber.trim());
+        return includeArchived ?
+            transactionDAO.findByAccount(accountNumber.trim()) :
+            transactionDAO.findRecentByAccount(accountNumber.trim());
+    }
+    
+    /**
+     * As {@link #getTransactionHistory(Session, String, boolean)}, for the signed-in desktop user.
+     */
+    public List<Transaction> getTransactionHistory(String accountNumber, boolean includeArchived) {
+        return getTransactionHistory(loginController.getCurrentSession(), accountNumber, includeArchived);
+    }
+    
+    /**
+     * Retrieves transactions of an account within a date range.
+     * Reads hot storage, the archive or both depending on the range.
+     * @param session Caller's session
+     * @param accountNumber The account to query
+     * @param start Range start (inclusive)
+     * @param end Range end (inclusive)
+     * @return List of transactions, newest first
+     */
+    public List<Transaction> getTransactionHistory(Session session, String accountNumber, LocalDateTime start, LocalDateTime end) {
+        // Check permission
+        if (!Session.permits(session, Permission.VIEW_TRANSACTIONS)) {
+            return List.of();
+        }
+        
+        if (accountNumber == null || accountNumber.trim().isEmpty() || start == null || end == null) {
+            return List.of();
+        }
+        
+        return transactionDAO.findByAccountAndDate(accountNumber.trim(), start, end);
+    }
+    
+    /**
+     * As {@link #getTransactionHistory(Session, String, LocalDateTime, LocalDateTime)}, for the signed-in desktop user.
+     */
+    public List<Transaction> getTransactionHistory(String accountNumber, LocalDateTime start, LocalDateTime end) {
+        return getTransactionHistory(loginController.getCurrentSession(), accountNumber, start, end);
     }
     
     /**
@@ -418,44 +1128,65 @@ public class AccountController {
      * Satisfies F-304: Automatically calculate and apply interest monthly.
      * 
      * This should be called automatically at month-end or manually by managers.
-     * @return InterestResult with statistics
+     * @return InterestResult with statistics; not successful if a busy mailbox
+     *         refused some accounts, which the message lists
+     * @param session Caller's session
      */
-    public InterestResult processMonthlyInterest() {
+    public InterestResult processMonthlyInterest(Session session) {
         // Check permission (only managers/admins should process interest)
-        if (!loginController.hasPermission("OVERRIDE_LIMIT")) {
+        if (!Session.permits(session, Permission.OVERRIDE_LIMIT)) {
             return new InterestResult(false, "You don't have permission to process interest", 0, 0);
         }
         
+        // The engine keeps balances in memory and must be their only writer
+        if (postingEngine != null) {
+            return new InterestResult(false, "Interest processing is not available while the posting engine runs", 0, 0);
+        }
+        
         try {
             List<Account> allAccounts = accountDAO.findAll();
             int accountsProcessed = 0;
             double totalInterestPaid = 0.0;
             
+            List<String> numbers = new ArrayList<>();
             for (Account account : allAccounts) {
                 // Only Savings and Investment accounts earn interest
                 if (account instanceof SavingsAccount || account instanceof InvestmentAccount) {
-                    double interestAmount = account.calculateInterest();
-                    
-                    if (interestAmount > 0) {
-                        account.applyInterest();
-                        accountDAO.updateBalance(account);
-                        
-                        // Save interest transaction
-                        List<Transaction> transactions = account.getTransactionHistory();
-                        if (!transactions.isEmpty()) {
-                            Transaction latestTxn = transactions.get(transactions.size() - 1);
-                            transactionDAO.save(latestTxn);
-                        }
-                        
+                    numbers.add(account.getAccountNumber());
+                }
+            }
+            
+            // With mailboxes every partition works through its own accounts at once.
+            // A full mailbox refuses messages, so no more than one mailbox's
+            // capacity is sent before the previous wave has been applied.
+            AccountMailboxes mailboxes = accountMailboxes;
+            int wave = mailboxes != null ? mailboxes.getMailboxCapacity() : Math.max(1, numbers.size());
+            List<String> refused = new ArrayList<>();
+            for (int from = 0; from < numbers.size(); from += wave) {
+                List<String> sent = numbers.subList(from, Math.min(from + wave, numbers.size()));
+                List<CompletableFuture<Double>> applied = new ArrayList<>(sent.size());
+                for (String number : sent) {
+                    applied.add(post(number, () -> applyInterest(number), message -> null));
+                }
+                for (int i = 0; i < applied.size(); i++) {
+                    Double interestAmount = applied.get(i).join();
+                    if (interestAmount == null) {
+                        // Refused by a mailbox that other postings had filled
+                        refused.add(sent.get(i));
+                    } else if (interestAmount > 0) {
                         accountsProcessed++;
                         totalInterestPaid += interestAmount;
                     }
                 }
             }
             
-            return new InterestResult(true, 
-                String.format("Interest processed for %d accounts. Total interest: BWP %.2f", 
-                    accountsProcessed, totalInterestPaid),
+            String message = String.format("Interest processed for %d accounts. Total interest: BWP %.2f", 
+                accountsProcessed, totalInterestPaid);
+            if (!refused.isEmpty()) {
+                message += String.format(". %d accounts were busy and were not paid: %s",
+                    refused.size(), String.join(", ", refused));
+            }
+            return new InterestResult(refused.isEmpty(), message,
                 accountsProcessed, 
                 totalInterestPaid);
                 
@@ -465,6 +1196,31 @@ public class AccountController {
         }
     }
     
+    /**
+     * Applies a month's interest to one account, re-read so that postings
+     * made since the account list was loaded are included.
+     * @return Interest paid
+     */
+    private double applyInterest(String accountNumber) {
+        Account account = accountDAO.findByAccountNumber(accountNumber);
+        if (account == null) {
+            return 0.0;
+        }
+        double interestAmount = account.calculateInterest();
+        if (interestAmount > 0) {
+            account.applyInterest();
+            accountDAO.updateBalance(account);
+        }
+        return interestAmount;
+    }
+    
+    /**
+     * As {@link #processMonthlyInterest(Session)}, for the signed-in desktop user.
+     */
+    public InterestResult processMonthlyInterest() {
+        return processMonthlyInterest(loginController.getCurrentSession());
+    }
+    
     /**
      * Retrieves all accounts for a specific customer.
      * @param customerId The customer ID
@@ -479,18 +1235,108 @@ public class AccountController {
     
     /**
      * Gets account statistics by type.
-     * Useful for dashboard reporting.
+     * Useful for dashboard reporting; a single read of the materialised counters.
      * @return AccountStatistics object
      */
     public AccountStatistics getAccountStatistics() {
-        int savingsCount = accountDAO.countByType("Savings Account");
-        int investmentCount = accountDAO.countByType("Investment Account");
-        int chequeCount = accountDAO.countByType("Cheque Account");
+        Map<String, DashboardStatistics.Statistic> byType = accountDAO.getStatisticsByType();
+        int savingsCount = countOf(byType, "Savings Account");
+        int investmentCount = countOf(byType, "Investment Account");
+        int chequeCount = countOf(byType, "Cheque Account");
         int totalCount = savingsCount + investmentCount + chequeCount;
         
         return new AccountStatistics(savingsCount, investmentCount, chequeCount, totalCount);
     }
     
+    private int countOf(Map<String, DashboardStatistics.Statistic> byType, String accountType) {
+        DashboardStatistics.Statistic stat = byType.get(accountType);
+        return stat == null ? 0 : (int) stat.getCount();
+    }
+    
+    /**
+     * Runs a posting so that it does not overlap any other posting to the
+     * account: as a message to its mailbox if mailboxes are set, otherwise
+     * on this thread under its lock stripe.
+     * @param refused Builds the failed result if the mailbox refuses the message
+     */
+    private <T> CompletableFuture<T> post(String accountNumber, Supplier<T> posting, Function<String, T> refused) {
+        AccountMailboxes mailboxes = accountMailboxes;
+        if (mailboxes != null) {
+            return mailboxes.send(accountNumber, posting, refused);
+        }
+        
+        ReentrantLock lock = lockFor(accountNumber);
+        lock.lock();
+        try {
+            return CompletableFuture.completedFuture(posting.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private static ReentrantLock lockFor(String accountNumber) {
+        return ACCOUNT_LOCKS[stripeOf(accountNumber)];
+    }
+    
+    private static int stripeOf(String accountNumber) {
+        return Math.floorMod(accountNumber.trim().hashCode(), ACCOUNT_LOCKS.length);
+    }
+    
+    // Asynchronous API - same rules and results as the methods above
+    
+    /**
+     * Deposits funds without blocking the caller.
+     * A deposit that times out before it starts is not applied.
+     * @param session Caller's session
+     * @return Future completed with the TransactionResult
+     */
+    public CompletableFuture<TransactionResult> depositAsync(Session session, String accountNumber, double amount) {
+        return asyncExecutor.submit(() -> deposit(session, accountNumber, amount),
+            message -> new TransactionResult(false, "Deposit not processed: " + message, 0), false);
+    }
+    
+    /**
+     * As {@link #depositAsync(Session, String, double)}, for the signed-in desktop user.
+     */
+    public CompletableFuture<TransactionResult> depositAsync(String accountNumber, double amount) {
+        return depositAsync(loginController.getCurrentSession(), accountNumber, amount);
+    }
+    
+    /**
+     * Withdraws funds without blocking the caller.
+     * A withdrawal that times out before it starts is not applied.
+     * @param session Caller's session
+     * @return Future completed with the TransactionResult
+     */
+    public CompletableFuture<TransactionResult> withdrawAsync(Session session, String accountNumber, double amount) {
+        return asyncExecutor.submit(() -> withdraw(session, accountNumber, amount),
+            message -> new TransactionResult(false, "Withdrawal not processed: " + message, 0), false);
+    }
+    
+    /**
+     * As {@link #withdrawAsync(Session, String, double)}, for the signed-in desktop user.
+     */
+    public CompletableFuture<TransactionResult> withdrawAsync(String accountNumber, double amount) {
+        return withdrawAsync(loginController.getCurrentSession(), accountNumber, amount);
+    }
+    
+    /**
+     * Gets the current balance of an account without blocking the caller.
+     * @param session Caller's session
+     * @return Future completed with the BalanceResult
+     */
+    public CompletableFuture<BalanceResult> getBalanceAsync(Session session, String accountNumber) {
+        return asyncExecutor.submit(() -> getBalance(session, accountNumber),
+            message -> new BalanceResult(false, "Balance not retrieved: " + message, 0, null), true);
+    }
+    
+    /**
+     * As {@link #getBalanceAsync(Session, String)}, for the signed-in desktop user.
+     */
+    public CompletableFuture<BalanceResult> getBalanceAsync(String accountNumber) {
+        return getBalanceAsync(loginController.getCurrentSession(), accountNumber);
+    }
+    
     // Result classes for returning operation outcomes
     
     public static class AccountResult {
@@ -525,6 +1371,114 @@ public class AccountController {
         public double getNewBalance() { return newBalance; }
     }
     
+    /**
+     * One transfer in a call to transferBatch.
+     */
+    public static class Transfer {
+        private final String fromAccount;
+        private final String toAccount;
+        private final double amount;
+        
+        public Transfer(String fromAccount, String toAccount, double amount) {
+            this.fromAccount = fromAccount;
+            this.toAccount = toAccount;
+            this.amount = amount;
+        }
+        
+        public String getFromAccount() { return fromAccount; }
+        public String getToAccount() { return toAccount; }
+        public double getAmount() { return amount; }
+    }
+    
+    /**
+     * One salary payment in a call to creditSalaries.
+     */
+    public static class SalaryCredit {
+        private final String accountNumber;
+        private final double amount;
+        private final String employerReference;
+        private final String companyName;
+        private final String reference;
+        
+        /**
+         * @param companyName Employer the account holder must work for; null not to check
+         * @param reference Unique reference, used as the transaction ID; null to generate one
+         */
+        public SalaryCredit(String accountNumber, double amount, String employerReference,
+                            String companyName, String reference) {
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+            this.employerReference = employerReference;
+            this.companyName = companyName;
+            this.reference = reference != null ? reference :
+                String.format("SAL%d%06d", System.currentTimeMillis(), SALARY_SEQUENCE.getAndIncrement() % 1_000_000);
+        }
+        
+        public String getAccountNumber() { return accountNumber; }
+        public double getAmount() { return amount; }
+        public String getEmployerReference() { return employerReference; }
+        public String getCompanyName() { return companyName; }
+        public String getReference() { return reference; }
+    }
+    
+    public static class SalaryBatchResult {
+        private final boolean success;
+        private final String message;
+        private final int credited;
+        private final int alreadyCredited;
+        private final double amountCredited;
+        private final Map<String, String> rejections;
+        
+        public SalaryBatchResult(boolean success, String message, int credited, int alreadyCredited,
+                                 double amountCredited, Map<String, String> rejections) {
+            this.success = success;
+            this.message = message;
+            this.credited = credited;
+            this.alreadyCredited = alreadyCredited;
+            this.amountCredited = amountCredited;
+            this.rejections = rejections;
+        }
+        
+        static SalaryBatchResult failed(String message) {
+            return new SalaryBatchResult(false, message, 0, 0, 0, Map.of());
+        }
+        
+        /** False if the call was refused or a group could not be stored */
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public int getCredited() { return credited; }
+        /** Credits skipped because their reference was already stored */
+        public int getAlreadyCredited() { return alreadyCredited; }
+        public double getAmountCredited() { return amountCredited; }
+        /** Reason each rejected credit was not posted, by reference */
+        public Map<String, String> getRejections() { return rejections; }
+    }
+    
+    public static class TransferResult {
+        private final boolean success;
+        private final String message;
+        private final List<String> references;
+        private final Map<String, Double> balances;
+        
+        public TransferResult(boolean success, String message, List<String> references, Map<String, Double> balances) {
+            this.success = success;
+            this.message = message;
+            this.references = references;
+            this.balances = balances;
+        }
+        
+        static TransferResult failed(String message) {
+            return new TransferResult(false, message, List.of(), Map.of());
+        }
+        
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        /** Transfer references, in the order the transfers were given */
+        public List<String> getReferences() { return references; }
+        /** New balance of every account involved, by account number */
+        public Map<String, Double> getBalances() { return balances; }
+    }
+    
     public static class BalanceResult {
         private final boolean success;
         private final String message;
@@ -0,0 +1,210 @@
+package com.banking.controller;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * AccountMailboxes runs account postings as messages to mailboxes, an
+ * alternative to the lock stripes in AccountController (enable it with
+ * AccountController.setAccountMailboxes).
+ *
+ * Accounts are spread over a fixed number of partitions by the hash of
+ * their account number. Each partition owns a bounded mailbox and one
+ * virtual thread that takes messages from it one at a time, so postings to
+ * an account run in the order they were sent and never overlap, without a
+ * lock. Postings to accounts in different partitions run in parallel, up
+ * to one per partition; a caller waiting for its reply parks a virtual
+ * thread rather than holding a lock.
+ *
+ * A message sent to a full mailbox, or after shutdown, is refused at once
+ * and never runs. Partition count, mailbox depths and the deepest a
+ * mailbox has been are available for monitoring.
+ */
+public class AccountMailboxes {
+    public static final int DEFAULT_MAILBOX_CAPACITY = 1_024;
+    // How often an idle partition looks for shutdown
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final Partition[] partitions;
+    private final int mailboxCapacity;
+    private volatile boolean shutdown;
+
+    /**
+     * Creates four partitions per available processor.
+     */
+    public AccountMailboxes() {
+        this(Runtime.getRuntime().availableProcessors() * 4, DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    /**
+     * @param partitionCount Number of mailboxes, and so of postings that may run at once
+     * @param mailboxCapacity Messages a mailbox holds before new ones are refused
+     */
+    public AccountMailboxes(int partitionCount, int mailboxCapacity) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        if (mailboxCapacity < 1) {
+            throw new IllegalArgumentException("Mailbox capacity must be positive");
+        }
+        this.mailboxCapacity = mailboxCapacity;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, mailboxCapacity);
+        }
+    }
+
+    /**
+     * @return Partition whose mailbox takes messages for the account
+     */
+    public int partitionOf(String accountNumber) {
+        return Math.floorMod(accountNumber.trim().hashCode(), partitions.length);
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    public int getMailboxCapacity() {
+        return mailboxCapacity;
+    }
+
+    /**
+     * @return Messages waiting in each partition's mailbox, by partition
+     */
+    public int[] getMailboxDepths() {
+        int[] depths = new int[partitions.length];
+        for (int i = 0; i < partitions.length; i++) {
+            depths[i] = partitions[i].mailbox.size();
+        }
+        return depths;
+    }
+
+    /**
+     * @return Messages waiting in all mailboxes
+     */
+    public int getQueuedCount() {
+        int queued = 0;
+        for (Partition partition : partitions) {
+            queued += partition.mailbox.size();
+        }
+        return queued;
+    }
+
+    /**
+     * @return Most messages any one mailbox has held at once
+     */
+    public int getMaxDepth() {
+        int max = 0;
+        for (Partition partition : partitions) {
+            max = Math.max(max, partition.maxDepth);
+        }
+        return max;
+    }
+
+    /**
+     * @return Messages run by all partitions since start
+     */
+    public long getProcessedCount() {
+        long processed = 0;
+        for (Partition partition : partitions) {
+            processed += partition.processed.get();
+        }
+        return processed;
+    }
+
+    /**
+     * Stops accepting messages; those already in a mailbox still run.
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Sends a message to the account's mailbox.
+     * @param accountNumber Account the message is about
+     * @param work Runs on the partition's thread, after earlier messages for it
+     * @param failure Builds the failed result for a refused message
+     * @return Future completed with the result of work
+     */
+    <T> CompletableFuture<T> send(String accountNumber, Supplier<T> work, Function<String, T> failure) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (shutdown) {
+            future.complete(failure.apply("Account mailboxes are shut down"));
+            return future;
+        }
+
+        Partition partition = partitions[partitionOf(accountNumber)];
+        Message message = () -> {
+            T result;
+            try {
+                result = work.get();
+            } catch (Throwable e) {
+                partition.processed.incrementAndGet();
+                future.completeExceptionally(e);
+                return;
+            }
+            // Counted before the reply, so a caller sees its own message in the count
+            partition.processed.incrementAndGet();
+            future.complete(result);
+        };
+        if (!partition.mailbox.offer(message)) {
+            future.complete(failure.apply("Server busy: " + partition.mailbox.size() +
+                " postings already queued for this account's partition"));
+            return future;
+        }
+        // The partition may have finished its last drain before the message arrived
+        if (partition.stopped && partition.mailbox.remove(message)) {
+            future.complete(failure.apply("Account mailboxes are shut down"));
+        }
+        int depth = partition.mailbox.size();
+        if (depth > partition.maxDepth) {
+            partition.maxDepth = depth; // monitoring only; a lost race costs one sample
+        }
+        return future;
+    }
+
+    @FunctionalInterface
+    private interface Message {
+        void run();
+    }
+
+    /**
+     * One mailbox and the virtual thread that empties it.
+     */
+    private final class Partition {
+        final BlockingQueue<Message> mailbox;
+        final AtomicLong processed = new AtomicLong();
+        volatile int maxDepth;
+        volatile boolean stopped;
+
+        Partition(int index, int capacity) {
+            this.mailbox = new ArrayBlockingQueue<>(capacity);
+            Thread.ofVirtual().name("account-mailbox-" + index).start(this::run);
+        }
+
+        private void run() {
+            // Not woken by interrupt: H2 closes its file if interrupted mid-write
+            while (!shutdown) {
+                try {
+                    Message message = mailbox.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (message != null) {
+                        message.run();
+                    }
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            stopped = true;
+            Message message;
+            while ((message = mailbox.poll()) != null) {
+                message.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.banking.controller;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * ControllerExecutor runs the asynchronous controller API
+ * (depositAsync, getBalanceAsync, searchCustomersAsync, ...).
+ *
+ * A fixed number of worker threads take calls from a bounded queue, so a
+ * caller pipelining thousands of operations cannot exhaust memory or the
+ * database. When the queue is full a call is refused immediately.
+ *
+ * Timeouts:
+ * - A call that has not started within the timeout is dropped, never run
+ * - A read that has not finished within the timeout completes as timed out
+ * - A write that has started always runs to completion, so a timed-out
+ *   write is known not to have been applied
+ *
+ * Refused and timed-out calls complete with the controller's failed result
+ * (success = false), like any other error. Calls returning plain lists
+ * complete exceptionally instead, with RejectedExecutionException or
+ * TimeoutException.
+ */
+public class ControllerExecutor {
+    public static final int DEFAULT_THREADS = 8;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1_000;
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private static ControllerExecutor instance;
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    private final ThreadPoolExecutor pool;
+    private final Duration timeout;
+
+    /**
+     * Creates an executor with its own worker threads.
+     * @param threads Number of worker threads (concurrent database calls)
+     * @param queueCapacity Calls that may wait for a worker before new ones are refused
+     * @param timeout How long a call may wait to start, and a read may take overall
+     */
+    public ControllerExecutor(int threads, int queueCapacity, Duration timeout) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one worker thread is required");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+
+        String prefix = "controller-" + POOL_NUMBER.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            task -> {
+                Thread thread = new Thread(task, prefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+    }
+
+    /**
+     * Shared executor used by controllers unless another one is set.
+     */
+    public static synchronized ControllerExecutor getInstance() {
+        if (instance == null) {
+            instance = new ControllerExecutor(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, DEFAULT_TIMEOUT);
+        }
+        return instance;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Number of calls waiting for a worker thread.
+     */
+    public int getQueuedCount() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * Stops accepting calls; queued calls still run.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Queues a controller call.
+     * @param work The synchronous controller call
+     * @param failure Builds the failed result for a refused or timed-out call;
+     *                null to complete exceptionally instead
+     * @param readOnly True if the call may be abandoned while it runs
+     * @return Future completed with the call's result
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> work, Function<String, T> failure, boolean readOnly) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        try {
+            pool.execute(() -> {
+                if (future.isDone()) {
+                    return; // read already timed out, or cancelled by the caller
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    fail(future, failure, new TimeoutException(
+                        "Request not started within " + timeout.toMillis() + " ms"));
+                    return;
+                }
+                try {
+                    future.complete(work.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(future, failure, new RejectedExecutionException(pool.isShutdown() ?
+                "Request refused: executor is shut down" :
+                "Server busy: " + pool.getQueue().size() + " requests already queued"));
+            return future;
+        }
+
+        if (readOnly) {
+            ScheduledFuture<?> timer = TIMER.schedule(() ->
+                fail(future, failure, new TimeoutException(
+                    "Request not completed within " + timeout.toMillis() + " ms")),
+                timeout.toNanos(), TimeUnit.NANOSECONDS);
+            future.whenComplete((result, error) -> timer.cancel(false));
+        }
+        return future;
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "controller-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Finished calls drop their timers at once rather than when they expire
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private static <T> void fail(CompletableFuture<T> future, Function<String, T> failure, Exception error) {
+        if (failure != null) {
+            future.complete(failure.apply(error.getMessage()));
+        } else {
+            future.completeExceptionally(error);
+        }
+    }
+}
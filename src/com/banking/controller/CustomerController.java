@@ -3,64 +3,55 @@ package com.banking.controller;
 import com.banking.dao.CustomerDAO;
 import com.banking.model.Bank;
 import com.banking.model.Customer;
+import com.banking.model.Permission;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
 /**
  * CustomerController handles all customer-related operations.
  * FIXED VERSION - Handles duplicate customer IDs properly
+ * 
+ * Permission checks use the Session passed in; the overloads without a
+ * Session act for the desktop user signed in through LoginController.
  */
 public class CustomerController {
     private CustomerDAO customerDAO;
     private Bank bank;
     private LoginController loginController;
+    private ControllerExecutor asyncExecutor;
     
     public CustomerController(Bank bank) {
         this.customerDAO = new CustomerDAO();
         this.bank = bank;
         this.loginController = LoginController.getInstance();
+        this.asyncExecutor = ControllerExecutor.getInstance();
+    }
+    
+    /**
+     * Sets the executor used by the asynchronous methods.
+     * @param asyncExecutor Executor with its own threads, queue and timeout
+     */
+    public void setAsyncExecutor(ControllerExecutor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
     }
     
     /**
      * FIXED: Registers a new customer with proper ID generation
+     * @param session Caller's session
      */
-    public CustomerResult registerCustomer(String firstName, String surname, String address,
+    public CustomerResult registerCustomer(Session session, String firstName, String surname, String address,
                                           String phoneNumber, String email) {
         // Check permission
-        if (!loginController.hasPermission("CREATE_CUSTOMER")) {
+        if (!Session.permits(session, Permission.CREATE_CUSTOMER)) {
             return new CustomerResult(false, "You don't have permission to register customers", null);
         }
         
         // Input validation
-        if (firstName == null || firstName.trim().isEmpty()) {
-            return new CustomerResult(false, "First name is required", null);
-        }
-        
-        if (surname == null || surname.trim().isEmpty()) {
-            return new CustomerResult(false, "Surname is required", null);
-        }
-        
-        if (address == null || address.trim().isEmpty()) {
-            return new CustomerResult(false, "Address is required", null);
-        }
-        
-        // Validate name format
-        if (!isValidName(firstName)) {
-            return new CustomerResult(false, "First name contains invalid characters", null);
-        }
-        
-        if (!isValidName(surname)) {
-            return new CustomerResult(false, "Surname contains invalid characters", null);
-        }
-        
-        // Validate email format if provided
-        if (email != null && !email.trim().isEmpty() && !isValidEmail(email)) {
-            return new CustomerResult(false, "Invalid email format", null);
-        }
-        
-        // Validate phone format if provided
-        if (phoneNumber != null && !phoneNumber.trim().isEmpty() && !isValidPhone(phoneNumber)) {
-            return new CustomerResult(false, "Invalid phone number format", null);
+        String invalid = validateCustomer(firstName, surname, address, phoneNumber, email);
+        if (invalid != null) {
+            return new CustomerResult(false, invalid, null);
         }
         
         try {
@@ -96,6 +87,15 @@ public class CustomerController {
         }
     }
     
+    /**
+     * As {@link #registerCustomer(Session, String, String, String, String, String)}, for the signed-in desktop user.
+     */
+    public CustomerResult registerCustomer(String firstName, String surname, String address,
+                                          String phoneNumber, String email) {
+        return registerCustomer(loginController.getCurrentSession(), firstName, surname, address,
+                                phoneNumber, email);
+    }
+    
     /**
      * FIXED: Generates a truly unique customer ID
      */
@@ -124,9 +124,10 @@ public class CustomerController {
     
     /**
      * Retrieves a customer by their ID.
+     * @param session Caller's session
      */
-    public CustomerResult getCustomer(String customerId) {
-        if (!loginController.hasPermission("VIEW_BALANCE")) {
+    public CustomerResult getCustomer(Session session, String customerId) {
+        if (!Session.permits(session, Permission.VIEW_BALANCE)) {
             return new CustomerResult(false, "You don't have permission to view customers", null);
         }
         
@@ -143,11 +144,19 @@ public class CustomerController {
         }
     }
     
+    /**
+     * As {@link #getCustomer(Session, String)}, for the signed-in desktop user.
+     */
+    public CustomerResult getCustomer(String customerId) {
+        return getCustomer(loginController.getCurrentSession(), customerId);
+    }
+    
     /**
      * Updates existing customer information.
+     * @param session Caller's session
      */
-    public CustomerResult updateCustomer(Customer customer) {
-        if (!loginController.hasPermission("CREATE_CUSTOMER")) {
+    public CustomerResult updateCustomer(Session session, Customer customer) {
+        if (!Session.permits(session, Permission.CREATE_CUSTOMER)) {
             return new CustomerResult(false, "You don't have permission to update customers", null);
         }
         
@@ -168,31 +177,106 @@ public class CustomerController {
         }
     }
     
+    /**
+     * As {@link #updateCustomer(Session, Customer)}, for the signed-in desktop user.
+     */
+    public CustomerResult updateCustomer(Customer customer) {
+        return updateCustomer(loginController.getCurrentSession(), customer);
+    }
+    
     /**
      * Searches for customers by name (partial match).
+     * Falls back to a typo-tolerant search when nothing matches exactly.
      */
     public List<Customer> searchCustomers(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return customerDAO.findAll();
         }
-        return customerDAO.searchByName(searchTerm.trim());
+        List<Customer> matches = customerDAO.searchByName(searchTerm.trim());
+        if (matches.isEmpty()) {
+            matches = customerDAO.fuzzySearch(searchTerm.trim());
+        }
+        return matches;
+    }
+    
+    /**
+     * Lists one page of customers in ID order, for the scrolling directory.
+     * @param session Caller's session
+     * @param afterCustomerId Last ID of the previous page, or null for the first page
+     * @param pageSize Maximum number of customers
+     */
+    public List<Customer> listCustomers(Session session, String afterCustomerId, int pageSize) {
+        if (!Session.permits(session, Permission.VIEW_BALANCE)) {
+            return List.of();
+        }
+        return customerDAO.findPage(afterCustomerId, pageSize);
+    }
+    
+    /**
+     * As {@link #listCustomers(Session, String, int)}, for the signed-in desktop user.
+     */
+    public List<Customer> listCustomers(String afterCustomerId, int pageSize) {
+        return listCustomers(loginController.getCurrentSession(), afterCustomerId, pageSize);
+    }
+    
+    /**
+     * Returns one page of name-search results, best match first.
+     * When the first page has no exact matches, pages come from the
+     * typo-tolerant search instead.
+     * @param searchTerm Search text
+     * @param offset Number of results already shown
+     * @param pageSize Maximum number of customers
+     */
+    public List<Customer> searchCustomers(String searchTerm, int offset, int pageSize) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return List.of();
+        }
+        String term = searchTerm.trim();
+        if (offset > 0 && customerDAO.searchByName(term, 1).isEmpty()) {
+            return customerDAO.fuzzySearch(term, offset, pageSize);
+        }
+        List<Customer> matches = customerDAO.searchByName(term, offset, pageSize);
+        if (matches.isEmpty() && offset == 0) {
+            matches = customerDAO.fuzzySearch(term, 0, pageSize);
+        }
+        return matches;
+    }
+    
+    /**
+     * Finds customers whose names or addresses sound like, or are a few
+     * typos away from, the search term.
+     */
+    public List<Customer> findSimilarCustomers(String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return List.of();
+        }
+        return customerDAO.fuzzySearch(searchTerm.trim());
     }
     
     /**
      * Retrieves all customers in the system.
+     * @param session Caller's session
      */
-    public List<Customer> getAllCustomers() {
-        if (!loginController.hasPermission("VIEW_BALANCE")) {
+    public List<Customer> getAllCustomers(Session session) {
+        if (!Session.permits(session, Permission.VIEW_BALANCE)) {
             return List.of();
         }
         return customerDAO.findAll();
     }
     
+    /**
+     * As {@link #getAllCustomers(Session)}, for the signed-in desktop user.
+     */
+    public List<Customer> getAllCustomers() {
+        return getAllCustomers(loginController.getCurrentSession());
+    }
+    
     /**
      * Deletes a customer from the system.
+     * @param session Caller's session
      */
-    public CustomerResult deleteCustomer(String customerId) {
-        if (!loginController.hasPermission("DELETE_USER")) {
+    public CustomerResult deleteCustomer(Session session, String customerId) {
+        if (!Session.permits(session, Permission.DELETE_USER)) {
             return new CustomerResult(false, "You don't have permission to delete customers", null);
         }
         
@@ -218,45 +302,120 @@ public class CustomerController {
         }
     }
     
+    /**
+     * As {@link #deleteCustomer(Session, String)}, for the signed-in desktop user.
+     */
+    public CustomerResult deleteCustomer(String customerId) {
+        return deleteCustomer(loginController.getCurrentSession(), customerId);
+    }
+    
     /**
      * Gets the total number of registered customers.
      */
     public int getCustomerCount() {
-        return customerDAO.findAll().size();
+        return customerDAO.count();
+    }
+    
+    /**
+     * Searches for customers by name without blocking the caller.
+     * Completes exceptionally with RejectedExecutionException when the
+     * executor is busy, or TimeoutException when the search takes too long.
+     * @return Future completed with the matching customers
+     */
+    public CompletableFuture<List<Customer>> searchCustomersAsync(String searchTerm) {
+        return asyncExecutor.submit(() -> searchCustomers(searchTerm), null, true);
+    }
+    
+    /**
+     * Returns one page of name-search results without blocking the caller.
+     * @see #searchCustomersAsync(String)
+     */
+    public CompletableFuture<List<Customer>> searchCustomersAsync(String searchTerm, int offset, int pageSize) {
+        return asyncExecutor.submit(() -> searchCustomers(searchTerm, offset, pageSize), null, true);
     }
     
     // Validation helper methods
     
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z\\s'-]+");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    
+    /**
+     * Checks a new customer's details against the registration rules.
+     * Also used by the bulk importer (com.banking.onboarding).
+     * @param phoneNumber Optional; null or blank is accepted
+     * @param email Optional; null or blank is accepted
+     * @return The first rule broken, or null if the details are valid
+     */
+    public static String validateCustomer(String firstName, String surname, String address,
+                                          String phoneNumber, String email) {
+        if (firstName == null || firstName.trim().isEmpty()) {
+            return "First name is required";
+        }
+        
+        if (surname == null || surname.trim().isEmpty()) {
+            return "Surname is required";
+        }
+        
+        if (address == null || address.trim().isEmpty()) {
+            return "Address is required";
+        }
+        
+        // Validate name format
+        if (!isValidName(firstName)) {
+            return "First name contains invalid characters";
+        }
+        
+        if (!isValidName(surname)) {
+            return "Surname contains invalid characters";
+        }
+        
+        // Validate email format if provided
+        if (email != null && !email.trim().isEmpty() && !isValidEmail(email)) {
+            return "Invalid email format";
+        }
+        
+        // Validate phone format if provided
+        if (phoneNumber != null && !phoneNumber.trim().isEmpty() && !isValidPhone(phoneNumber)) {
+            return "Invalid phone number format";
+        }
+        return null;
+    }
+    
     /**
      * Validates that a name contains only letters, spaces, hyphens, and apostrophes.
      */
-    private boolean isValidName(String name) {
+    private static boolean isValidName(String name) {
         if (name == null || name.trim().isEmpty()) {
             return false;
         }
-        return name.matches("[a-zA-Z\\s'-]+");
+        return NAME_PATTERN.matcher(name).matches();
     }
     
     /**
      * Validates email format using regex.
      */
-    private boolean isValidEmail(String email) {
+    private static boolean isValidEmail(String email) {
         if (email == null || email.trim().isEmpty()) {
             return false;
         }
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-        return email.matches(emailRegex);
+        return EMAIL_PATTERN.matcher(email).matches();
     }
     
     /**
      * Validates phone number format.
      */
-    private boolean isValidPhone(String phone) {
+    private static boolean isValidPhone(String phone) {
         if (phone == null || phone.trim().isEmpty()) {
             return false;
         }
-        String digitsOnly = phone.replaceAll("[^0-9]", "");
-        return digitsOnly.length() >= 7 && digitsOnly.length() <= 15;
+        int digits = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            }
+        }
+        return digits >= 7 && digits <= 15;
     }
     
     /**
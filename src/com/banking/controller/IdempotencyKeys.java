@@ -0,0 +1,186 @@
+package com.banking.controller;
+
+import com.banking.controller.AccountController.TransactionResult;
+import com.banking.database.IdempotencyStore;
+import com.banking.database.IdempotencyStore.Record;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyKeys makes a posting made under an idempotency key happen at
+ * most once: a retry with the same key gets the first result back instead
+ * of posting again. Keys belong to the user who sent them.
+ *
+ * Recent keys are held in memory, at most banking.idempotency.cacheSize
+ * (default 10,000), oldest dropped first; older ones are found in the
+ * IdempotencyStore until they expire. A retry arriving while the first
+ * call still runs waits for it and shares its result.
+ *
+ * Only successful results are kept. A failed posting changed nothing, so
+ * a retry of it is simply made again.
+ *
+ * The result is stored after the posting, not in its JDBC transaction: a
+ * crash between the two leaves a posting whose key is not recorded.
+ */
+public class IdempotencyKeys {
+    private static IdempotencyKeys instance;
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyStore store;
+    private final int capacity;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Keys in the order they were added; every key lives as long, so this is also expiry order
+    private final ConcurrentLinkedQueue<String> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong replays = new AtomicLong();
+
+    private IdempotencyKeys() {
+        this.store = IdempotencyStore.getInstance();
+        this.capacity = Integer.getInteger("banking.idempotency.cacheSize", 10_000);
+    }
+
+    public static synchronized IdempotencyKeys getInstance() {
+        if (instance == null) {
+            instance = new IdempotencyKeys();
+        }
+        return instance;
+    }
+
+    private static class Entry {
+        final String request;
+        final long createdAt;
+        final CompletableFuture<TransactionResult> result = new CompletableFuture<>();
+
+        Entry(String request, long createdAt) {
+            this.request = request;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Makes a posting once per key.
+     * @param session Caller's session; the key is the caller's own
+     * @param key Idempotency key from the client; null or blank posts without one
+     * @param request Description of the posting, e.g. "DEPOSIT BAC-10001 250.00"
+     * @param posting Makes the posting
+     * @return The posting's result, or the first result for this key
+     */
+    TransactionResult execute(Session session, String key, String request, Supplier<TransactionResult> posting) {
+        if (key == null || key.trim().isEmpty() || session == null) {
+            return posting.get();
+        }
+        if (key.trim().length() > MAX_KEY_LENGTH) {
+            return new TransactionResult(false, "Idempotency key must be at most " + MAX_KEY_LENGTH + " characters", 0);
+        }
+        String scopedKey = session.getUser().getUserId() + ":" + key.trim();
+        long now = System.currentTimeMillis();
+
+        Entry entry = new Entry(request, now);
+        Entry existing = entries.putIfAbsent(scopedKey, entry);
+        while (existing != null && now - existing.createdAt > store.getTtlMillis()) {
+            entries.remove(scopedKey, existing);
+            existing = entries.putIfAbsent(scopedKey, entry);
+        }
+        if (existing != null) {
+            return replay(existing.request, request, existing.result.join());
+        }
+        order.add(scopedKey);
+        queued.incrementAndGet();
+        evictOldest();
+
+        try {
+            Record stored = store.find(scopedKey);
+            if (stored != null) {
+                TransactionResult answer = replay(stored.getRequest(), request,
+                    new TransactionResult(true, stored.getMessage(), stored.getNewBalance()));
+                if (!answer.isSuccess()) {
+                    entries.remove(scopedKey, entry);
+                }
+                entry.result.complete(answer);
+                return answer;
+            }
+        } catch (Exception e) {
+            // Posting without the check could post twice; refuse and let the client retry
+            entries.remove(scopedKey, entry);
+            TransactionResult failed = new TransactionResult(false,
+                "Posting not processed: idempotency key could not be checked: " + e.getMessage(), 0);
+            entry.result.complete(failed);
+            return failed;
+        }
+
+        TransactionResult result;
+        try {
+            result = posting.get();
+        } catch (RuntimeException e) {
+            entries.remove(scopedKey, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        if (result.isSuccess()) {
+            try {
+                store.save(scopedKey, new Record(request, result.getMessage(), result.getNewBalance(), LocalDateTime.now()));
+            } catch (Exception e) {
+                // Still held in memory, so retries soon after are answered
+                System.err.println("✗ Idempotency key not stored: " + e.getMessage());
+            }
+        } else {
+            entries.remove(scopedKey, entry);
+        }
+        entry.result.complete(result);
+        return result;
+    }
+
+    /**
+     * @return Retries answered with an earlier result since start
+     */
+    public long getReplayCount() {
+        return replays.get();
+    }
+
+    /**
+     * @return Keys held in memory
+     */
+    public int getCachedCount() {
+        return entries.size();
+    }
+
+    private TransactionResult replay(String firstRequest, String request, TransactionResult first) {
+        if (!firstRequest.equals(request)) {
+            return new TransactionResult(false, "Idempotency key was already used for a different request", 0);
+        }
+        if (first.isSuccess()) {
+            replays.incrementAndGet();
+        }
+        return first;
+    }
+
+    /**
+     * Drops the oldest keys beyond capacity, and the queue places of keys
+     * already dropped after a failure. A key whose posting is still running
+     * goes to the back of the queue instead.
+     */
+    private void evictOldest() {
+        int attempts = queued.get();
+        while ((entries.size() > capacity || queued.get() > 2 * capacity) && attempts-- > 0) {
+            String oldest = order.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            Entry entry = entries.get(oldest);
+            if (entry != null && !entry.result.isDone()) {
+                order.add(oldest);
+                queued.incrementAndGet();
+            } else if (entry != null) {
+                entries.remove(oldest, entry);
+            }
+        }
+    }
+}
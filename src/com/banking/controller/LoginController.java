@@ -1,6 +1,8 @@
 package com.banking.controller;
 
 import com.banking.dao.UserDAO;
+import com.banking.model.Permission;
+import com.banking.model.RolePermissions;
 import com.banking.model.User;
 
 /**
@@ -11,10 +13,15 @@ import com.banking.model.User;
  * - No GUI code here
  * - No direct database access (uses UserDAO)
  * - Only orchestration and validation logic
+ * 
+ * Every login opens a Session (see SessionManager). The desktop
+ * application keeps one current session here; servers use openSession()
+ * and pass each caller's session to the controllers explicitly.
  */
 public class LoginController {
     private UserDAO userDAO;
-    private User currentUser; // The currently logged-in user
+    private SessionManager sessionManager;
+    private volatile Session currentSession; // Session of the desktop user, if any
     private static LoginController instance; // Singleton for accessing current user globally
     
     /**
@@ -22,7 +29,8 @@ public class LoginController {
      */
     public LoginController() {
         this.userDAO = new UserDAO();
-        this.currentUser = null;
+        this.sessionManager = SessionManager.getInstance();
+        this.currentSession = null;
         instance = this;
     }
     
@@ -47,6 +55,24 @@ public class LoginController {
      * @return LoginResult object containing status and message
      */
     public LoginResult login(String userId, String password) {
+        LoginResult result = openSession(userId, password);
+        if (result.isSuccess()) {
+            // One desktop user at a time: replace any earlier session
+            sessionManager.close(currentSession);
+            currentSession = result.getSession();
+        }
+        return result;
+    }
+    
+    /**
+     * Authenticates a user and opens a session without making it the
+     * current one. Used by services serving several users at once.
+     * 
+     * @param userId User identifier
+     * @param password User password
+     * @return LoginResult carrying the new session on success
+     */
+    public LoginResult openSession(String userId, String password) {
         // Input validation - demonstrates good controller practice
         if (userId == null || userId.trim().isEmpty()) {
             return new LoginResult(false, "User ID cannot be empty", null);
@@ -60,12 +86,10 @@ public class LoginController {
         User user = userDAO.authenticate(userId.trim(), password);
         
         if (user != null) {
-            // Authentication successful
-            this.currentUser = user;
             // Authenticate the user object itself
             user.authenticate(userId, password);
             
-            return new LoginResult(true, "Login successful", user);
+            return new LoginResult(true, "Login successful", user, sessionManager.open(user));
         } else {
             // Authentication failed
             return new LoginResult(false, "Invalid user ID or password", null);
@@ -77,26 +101,45 @@ public class LoginController {
      * Clears the current user session.
      */
     public void logout() {
-        if (currentUser != null) {
-            currentUser.logout(currentUser.getUserId());
-            currentUser = null;
+        sessionManager.close(currentSession);
+        currentSession = null;
+    }
+    
+    /**
+     * Logs out the user of any session.
+     * @param session Session to close
+     */
+    public void logout(Session session) {
+        sessionManager.close(session);
+        if (session == currentSession) {
+            currentSession = null;
         }
     }
     
+    /**
+     * Gets the session of the desktop user.
+     * @return Current session, or null if no one is logged in
+     */
+    public Session getCurrentSession() {
+        return currentSession;
+    }
+    
     /**
      * Gets the currently logged-in user.
      * @return Current user, or null if no one is logged in
      */
     public User getCurrentUser() {
-        return currentUser;
+        Session session = currentSession;
+        return session == null ? null : session.getUser();
     }
     
     /**
      * Checks if a user is currently logged in.
-     * @return true if user is authenticated
+     * @return true if user is authenticated and the session has not idled out
      */
     public boolean isLoggedIn() {
-        return currentUser != null && currentUser.isAuthenticated(currentUser.getUserId());
+        Session session = currentSession;
+        return session != null && session.isActive();
     }
     
     /**
@@ -105,11 +148,17 @@ public class LoginController {
      * @param permission The permission to check
      * @return true if user has the permission
      */
+    public boolean hasPermission(Permission permission) {
+        return Session.permits(currentSession, permission);
+    }
+    
+    /**
+     * Checks a permission given by name, e.g. "DEPOSIT".
+     * @return false for an unknown permission name
+     */
     public boolean hasPermission(String permission) {
-        if (currentUser == null) {
-            return false;
-        }
-        return currentUser.hasPermission(currentUser.getUserId(), permission);
+        Permission known = Permission.fromName(permission);
+        return known != null && hasPermission(known);
     }
     
     /**
@@ -122,8 +171,18 @@ public class LoginController {
      * @return RegistrationResult with status and message
      */
     public RegistrationResult registerUser(String userId, String username, String password, String role) {
-        // Check if current user has permission to create users
-        if (!hasPermission("CREATE_USER")) {
+        return registerUser(currentSession, userId, username, password, role);
+    }
+    
+    /**
+     * Registers a new user on behalf of the given session.
+     * @param session Caller's session; needs CREATE_USER
+     * @see #registerUser(String, String, String, String)
+     */
+    public RegistrationResult registerUser(Session session, String userId, String username,
+                                           String password, String role) {
+        // Check if the caller has permission to create users
+        if (!Session.permits(session, Permission.CREATE_USER)) {
             return new RegistrationResult(false, "You don't have permission to create users");
         }
         
@@ -140,8 +199,8 @@ public class LoginController {
             return new RegistrationResult(false, "Password must be at least 6 characters");
         }
         
-        if (role == null || (!role.equals("TELLER") && !role.equals("MANAGER") && !role.equals("ADMIN"))) {
-            return new RegistrationResult(false, "Invalid role. Must be TELLER, MANAGER, or ADMIN");
+        if (!RolePermissions.isKnownRole(role)) {
+            return new RegistrationResult(false, "Invalid role. Must be one of " + RolePermissions.getRoles());
         }
         
         // Check if user already exists
@@ -166,9 +225,19 @@ public class LoginController {
      * @return true if password change successful
      */
     public boolean changePassword(String currentPassword, String newPassword) {
-        if (currentUser == null) {
+        return changePassword(currentSession, currentPassword, newPassword);
+    }
+    
+    /**
+     * Changes the password of the session's user.
+     * @param session Caller's session
+     * @see #changePassword(String, String)
+     */
+    public boolean changePassword(Session session, String currentPassword, String newPassword) {
+        if (session == null || !session.isActive()) {
             return false;
         }
+        User currentUser = session.getUser();
         
         // Verify current password
         User verifiedUser = userDAO.authenticate(currentUser.getUserId(), currentPassword);
@@ -193,11 +262,17 @@ public class LoginController {
         private final boolean success;
         private final String message;
         private final User user;
+        private final Session session;
         
         public LoginResult(boolean success, String message, User user) {
+            this(success, message, user, null);
+        }
+        
+        public LoginResult(boolean success, String message, User user, Session session) {
             this.success = success;
             this.message = message;
             this.user = user;
+            this.session = session;
         }
         
         public boolean isSuccess() {
@@ -211,6 +286,10 @@ public class LoginController {
         public User getUser() {
             return user;
         }
+        
+        public Session getSession() {
+            return session;
+        }
     }
     
     /**
@@ -0,0 +1,547 @@
+package com.banking.controller;
+
+import com.banking.controller.AccountController.TransactionResult;
+import com.banking.dao.AccountDAO;
+import com.banking.database.LedgerStore;
+import com.banking.database.PostingBatchStore;
+import com.banking.database.PostingFeed;
+import com.banking.model.Account;
+import com.banking.model.SavingsAccount;
+import com.banking.model.Transaction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * PostingEngine is a single-writer execution engine for deposits and
+ * withdrawals, an alternative to the locking path in AccountController
+ * (enable it with AccountController.setPostingEngine).
+ *
+ * Callers put commands into a ring buffer of pre-allocated slots. One
+ * business thread takes whatever commands are ready as a batch, appends
+ * them to the journal file, applies them to the balances it holds in
+ * memory, and completes the callers' futures. It is the only thread that
+ * touches those balances, so applying a posting takes no locks and does
+ * no database work. A second thread writes the resulting postings to the
+ * tables in batches (see PostingBatchStore) and then publishes them on
+ * the PostingFeed.
+ *
+ * A completed future means the command is in the journal; the tables may
+ * still be a batch behind. On start() the engine replays journal entries
+ * beyond the last stored batch, so nothing acknowledged is lost in a
+ * crash. Replay gives the same results because the journal keeps each
+ * command's timestamp and sequence, from which the transaction is built.
+ *
+ * While the engine runs it must be the only writer of postings for the
+ * accounts it has loaded: balances are read from the database once per
+ * account and then kept in memory. It does not run with the event-sourced
+ * ledger, which derives balances in the database instead.
+ */
+public class PostingEngine {
+    public static final int DEFAULT_RING_SIZE = 4096;
+    private static final int MAX_BATCH = 1024;
+    private static final byte DEPOSIT = 1;
+    private static final byte WITHDRAW = 2;
+    // Longest account number a journal entry holds, in UTF-8 bytes
+    private static final int MAX_ACCOUNT_BYTES = 255;
+    private static final int MAX_JOURNAL_ENTRY_BYTES = 8 + 8 + 1 + 1 + MAX_ACCOUNT_BYTES + 8;
+    // Longest the business thread sleeps before looking at the ring again
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long STORE_RETRY_MILLIS = 1000;
+    // Journal size at which it is emptied, once everything in it is stored
+    private static final long JOURNAL_ROLL_BYTES = 64L * 1024 * 1024;
+
+    private final Path journalPath;
+    private final boolean forceJournal;
+    private final AccountDAO accountDAO;
+    private final PostingBatchStore store;
+
+    // Ring of pre-allocated command slots
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long processed;          // commands taken off the ring
+    private volatile boolean businessWaiting;
+
+    // Owned by the business thread
+    private final Map<String, Balance> balances = new HashMap<>();
+    private FileChannel journal;
+    private ByteBuffer journalBuffer;
+    private long nextSequence;
+
+    private final BlockingQueue<Batch> storeQueue = new LinkedBlockingQueue<>();
+    private volatile long storedSequence;     // last engine sequence in the tables
+    private Thread businessThread;
+    private Thread storeThread;
+    private volatile boolean running;
+    private boolean stopped;
+    private volatile Throwable failure;
+
+    /**
+     * @param journalPath Journal file; created if missing, replayed if not
+     * @param forceJournal Whether each batch is forced to disk before it is acknowledged
+     */
+    public PostingEngine(Path journalPath, boolean forceJournal) {
+        this(journalPath, forceJournal, DEFAULT_RING_SIZE);
+    }
+
+    /**
+     * @param ringSize Number of command slots, rounded up to a power of two
+     */
+    public PostingEngine(Path journalPath, boolean forceJournal, int ringSize) {
+        int size = Integer.highestOneBit(Math.max(2, ringSize) - 1) << 1;
+        this.journalPath = journalPath;
+        this.forceJournal = forceJournal;
+        this.accountDAO = new AccountDAO();
+        this.store = PostingBatchStore.getInstance();
+        this.ring = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot();
+        }
+        this.journalBuffer = ByteBuffer.allocate(MAX_BATCH * MAX_JOURNAL_ENTRY_BYTES);
+    }
+
+    /**
+     * Recovers from the journal, then starts taking commands.
+     * @return Number of journal entries replayed
+     * @throws IllegalStateException if the event-sourced ledger is enabled
+     */
+    public synchronized int start() throws IOException, SQLException {
+        if (LedgerStore.isEventSourced()) {
+            throw new IllegalStateException("The posting engine does not run with the event-sourced ledger");
+        }
+        if (businessThread != null) {
+            return 0; // an engine starts once
+        }
+
+        long stored = store.getLastSequence();
+        int replayed = replay(stored);
+        storedSequence = nextSequence - 1;
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+
+        running = true;
+        storeThread = new Thread(this::runStore, "posting-engine-store");
+        storeThread.start();
+        businessThread = new Thread(this::runBusiness, "posting-engine");
+        businessThread.start();
+        System.out.println("✓ Posting engine started at sequence " + nextSequence +
+                         (replayed > 0 ? " (" + replayed + " journal entries replayed)" : ""));
+        return replayed;
+    }
+
+    /**
+     * Stops taking commands, finishes those already in the ring and waits
+     * until every posting is stored. The journal is then emptied, unless
+     * storing failed and it is needed for replay.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (businessThread == null || stopped) {
+                return;
+            }
+            stopped = true;
+            running = false;
+        }
+        LockSupport.unpark(businessThread);
+        try {
+            businessThread.join();
+            storeQueue.add(Batch.END);
+            storeThread.join();
+            if (storedSequence == nextSequence - 1) {
+                journal.truncate(0); // all stored; nothing to replay
+            }
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("✗ Could not close posting journal: " + e.getMessage());
+        }
+        System.out.println("✓ Posting engine stopped at sequence " + nextSequence);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Queues a deposit. Permission checks are the caller's job.
+     */
+    public CompletableFuture<TransactionResult> deposit(String accountNumber, double amount) {
+        return submit(DEPOSIT, accountNumber, amount);
+    }
+
+    /**
+     * Queues a withdrawal. Permission checks are the caller's job.
+     */
+    public CompletableFuture<TransactionResult> withdraw(String accountNumber, double amount) {
+        return submit(WITHDRAW, accountNumber, amount);
+    }
+
+    /**
+     * @return Commands waiting in the ring
+     */
+    public int getQueuedCount() {
+        return (int) Math.max(0, claimed.get() - processed);
+    }
+
+    // Producers
+
+    private CompletableFuture<TransactionResult> submit(byte op, String accountNumber, double amount) {
+        CompletableFuture<TransactionResult> future = new CompletableFuture<>();
+        if (accountNumber == null || accountNumber.trim().isEmpty()) {
+            future.complete(new TransactionResult(false, "Account number is required", 0));
+            return future;
+        }
+        String number = accountNumber.trim();
+        // A UTF-8 char takes at most 3 bytes per Java char, so short numbers need no encoding
+        if (number.length() * 3 > MAX_ACCOUNT_BYTES
+                && number.getBytes(StandardCharsets.UTF_8).length > MAX_ACCOUNT_BYTES) {
+            future.complete(new TransactionResult(false, "Account number is too long", 0));
+            return future;
+        }
+        if (!running) {
+            future.complete(new TransactionResult(false, "Posting engine is not running", 0));
+            return future;
+        }
+
+        long sequence = claimed.getAndIncrement();
+        // Wait for a free slot; the ring is full only when the business thread is behind
+        while (sequence - processed >= ring.length) {
+            if (failure != null) {
+                future.complete(new TransactionResult(false, "Posting engine failed", 0));
+                return future;
+            }
+            LockSupport.parkNanos(10_000);
+        }
+        Slot slot = ring[(int) (sequence & mask)];
+        slot.op = op;
+        slot.accountNumber = number;
+        slot.amountThebe = Math.round(amount * 100);
+        slot.timestamp = System.currentTimeMillis();
+        slot.future = future;
+        slot.published = sequence;
+
+        if (businessWaiting) {
+            LockSupport.unpark(businessThread);
+        }
+        if (!running && !businessThread.isAlive() && processed <= sequence) {
+            // Lost a race with stop(): nothing will take this command
+            future.complete(new TransactionResult(false, "Posting engine is not running", 0));
+        }
+        return future;
+    }
+
+    // Business thread
+
+    private void runBusiness() {
+        List<Transaction> postings = new ArrayList<>(MAX_BATCH);
+        TransactionResult[] results = new TransactionResult[MAX_BATCH];
+        @SuppressWarnings("unchecked")
+        CompletableFuture<TransactionResult>[] futures = (CompletableFuture<TransactionResult>[]) new CompletableFuture<?>[MAX_BATCH];
+
+        long next = 0;
+        try {
+            while (running || next < claimed.get()) {
+                int count = 0;
+                while (count < MAX_BATCH && ring[(int) ((next + count) & mask)].published == next + count) {
+                    count++;
+                }
+                if (count == 0) {
+                    waitForCommands(next);
+                    continue;
+                }
+
+                long firstSequence = nextSequence;
+                if (journal.position() > JOURNAL_ROLL_BYTES && storedSequence == firstSequence - 1) {
+                    journal.truncate(0);
+                }
+                journalBuffer.clear();
+                for (int i = 0; i < count; i++) {
+                    Slot slot = ring[(int) ((next + i) & mask)];
+                    writeJournalEntry(journalBuffer, firstSequence + i, slot.timestamp, slot.op,
+                                      slot.accountNumber, slot.amountThebe);
+                }
+                journalBuffer.flip();
+                while (journalBuffer.hasRemaining()) {
+                    journal.write(journalBuffer);
+                }
+                if (forceJournal) {
+                    journal.force(false);
+                }
+
+                postings.clear();
+                for (int i = 0; i < count; i++) {
+                    Slot slot = ring[(int) ((next + i) & mask)];
+                    results[i] = apply(nextSequence++, slot.timestamp, slot.op, slot.accountNumber,
+                                       slot.amountThebe, postings);
+                    futures[i] = slot.future;
+                    slot.future = null;
+                    slot.accountNumber = null;
+                }
+                next += count;
+                processed = next; // frees the slots for producers
+
+                // Queued even without postings, so the stored sequence keeps up
+                storeQueue.add(new Batch(new ArrayList<>(postings), nextSequence - 1));
+                for (int i = 0; i < count; i++) {
+                    futures[i].complete(results[i]);
+                    futures[i] = null;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            System.err.println("✗ Posting engine stopped: " + e.getMessage());
+            failPending(next);
+        }
+    }
+
+    private void waitForCommands(long next) {
+        businessWaiting = true;
+        // Look once more so a command published in between is not missed
+        if (ring[(int) (next & mask)].published != next && running) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        businessWaiting = false;
+    }
+
+    private void failPending(long next) {
+        running = false;
+        for (long s = next; s < claimed.get(); s++) {
+            Slot slot = ring[(int) (s & mask)];
+            if (slot.published == s && slot.future != null) {
+                slot.future.complete(new TransactionResult(false, "Posting engine failed", 0));
+            }
+        }
+        storeQueue.add(Batch.END);
+    }
+
+    /**
+     * Applies one command to the in-memory balances. Used for live commands
+     * and for replay, so it depends only on its arguments and the balances.
+     */
+    private TransactionResult apply(long sequence, long timestamp, byte op, String accountNumber,
+                                    long amountThebe, List<Transaction> postings) {
+        boolean deposit = op == DEPOSIT;
+        if (amountThebe <= 0) {
+            return new TransactionResult(false,
+                deposit ? "Deposit amount must be positive" : "Withdrawal amount must be positive", 0);
+        }
+        Balance balance = balances.get(accountNumber);
+        if (balance == null) {
+            Account account = accountDAO.findByAccountNumber(accountNumber);
+            if (account == null) {
+                return new TransactionResult(false, "Account not found: " + accountNumber, 0);
+            }
+            balance = new Balance(Math.round(account.getBalance() * 100), account instanceof SavingsAccount,
+                                  account.getAccountType());
+            balances.put(accountNumber, balance);
+        }
+
+        if (deposit) {
+            balance.thebe += amountThebe;
+        } else if (balance.savings) {
+            return new TransactionResult(false, "Withdrawals are not permitted on Savings Accounts",
+                                         balance.thebe / 100.0);
+        } else if (balance.thebe < amountThebe) {
+            return new TransactionResult(false, "Insufficient balance for withdrawal", balance.thebe / 100.0);
+        } else {
+            balance.thebe -= amountThebe;
+        }
+
+        double newBalance = balance.thebe / 100.0;
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+        postings.add(new Transaction(
+            String.format("TXN%d%06d", timestamp, sequence % 1_000_000),
+            accountNumber,
+            deposit ? "DEPOSIT" : "WITHDRAWAL",
+            amountThebe / 100.0,
+            newBalance,
+            deposit ? "Deposit to account" : "Withdrawal from " + balance.accountType,
+            time));
+        return new TransactionResult(true,
+            String.format(deposit ? "Deposit successful. New balance: BWP %.2f" :
+                                    "Withdrawal successful. New balance: BWP %.2f", newBalance),
+            newBalance);
+    }
+
+    // Journal: [long sequence][long timestamp][byte op][byte n][n bytes account][long amount]
+    // submit() refuses account numbers longer than MAX_ACCOUNT_BYTES, so n always fits
+
+    private static void writeJournalEntry(ByteBuffer out, long sequence, long timestamp, byte op,
+                                          String accountNumber, long amountThebe) {
+        byte[] account = accountNumber.getBytes(StandardCharsets.UTF_8);
+        out.putLong(sequence).putLong(timestamp).put(op)
+           .put((byte) account.length).put(account)
+           .putLong(amountThebe);
+    }
+
+    /**
+     * Re-applies journal entries beyond the last stored sequence and stores
+     * the postings they make. A torn entry at the end of the file (a crash
+     * in mid-write) was never acknowledged and is ignored.
+     */
+    private int replay(long storedSequence) throws IOException, SQLException {
+        nextSequence = storedSequence + 1;
+        if (!journalPath.toFile().exists()) {
+            return 0;
+        }
+
+        List<Transaction> postings = new ArrayList<>();
+        int replayed = 0;
+        long lastSequence = storedSequence;
+        try (FileChannel in = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE - 8, in.size()));
+            while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                // read the whole file
+            }
+            buffer.flip();
+            while (buffer.remaining() >= 8 + 8 + 1 + 1) {
+                buffer.mark();
+                long sequence = buffer.getLong();
+                long timestamp = buffer.getLong();
+                byte op = buffer.get();
+                int length = buffer.get() & 0xFF;
+                if (buffer.remaining() < length + 8) {
+                    buffer.reset();
+                    break;
+                }
+                byte[] account = new byte[length];
+                buffer.get(account);
+                long amountThebe = buffer.getLong();
+                if (sequence <= storedSequence) {
+                    continue;
+                }
+                apply(sequence, timestamp, op, new String(account, StandardCharsets.UTF_8), amountThebe, postings);
+                lastSequence = sequence;
+                replayed++;
+            }
+        }
+
+        if (replayed > 0) {
+            if (!postings.isEmpty()) {
+                store.save(postings, lastSequence);
+                for (Transaction t : postings) {
+                    PostingFeed.getInstance().publish(t);
+                }
+            }
+            System.out.println("✓ Replayed " + replayed + " posting journal entries up to sequence " + lastSequence);
+        }
+        nextSequence = lastSequence + 1;
+        return replayed;
+    }
+
+    // Store thread
+
+    /**
+     * Stores postings as they come, merging whatever batches are queued
+     * into one JDBC transaction. A failed store is retried, together with
+     * later batches, so the stored sequence never skips a posting.
+     */
+    private void runStore() {
+        List<Transaction> pending = new ArrayList<>();
+        List<Batch> batches = new ArrayList<>();
+        long lastSequence = -1;
+        boolean ended = false;
+        while (true) {
+            try {
+                if (pending.isEmpty()) {
+                    batches.add(storeQueue.take());
+                } else {
+                    Batch batch = storeQueue.poll(STORE_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                    if (batch != null) {
+                        batches.add(batch);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            storeQueue.drainTo(batches);
+            for (Batch batch : batches) {
+                if (batch == Batch.END) {
+                    ended = true;
+                } else {
+                    pending.addAll(batch.postings);
+                    lastSequence = batch.lastSequence;
+                }
+            }
+            batches.clear();
+
+            if (lastSequence > storedSequence) {
+                try {
+                    store.save(pending, lastSequence);
+                    storedSequence = lastSequence;
+                    for (Transaction t : pending) {
+                        PostingFeed.getInstance().publish(t);
+                    }
+                    pending.clear();
+                } catch (SQLException e) {
+                    System.err.println("✗ Failed to store " + pending.size() + " postings, will retry: " +
+                                     e.getMessage());
+                    if (ended) {
+                        // Left in the journal for start() to replay
+                        return;
+                    }
+                }
+            }
+            if (ended) {
+                return;
+            }
+        }
+    }
+
+    // State
+
+    private static final class Slot {
+        volatile long published = -1;
+        byte op;
+        String accountNumber;
+        long amountThebe;
+        long timestamp;
+        CompletableFuture<TransactionResult> future;
+    }
+
+    private static final class Balance {
+        long thebe;
+        final boolean savings;
+        final String accountType;
+
+        Balance(long thebe, boolean savings, String accountType) {
+            this.thebe = thebe;
+            this.savings = savings;
+            this.accountType = accountType;
+        }
+    }
+
+    private static final class Batch {
+        static final Batch END = new Batch(List.of(), -1);
+
+        final List<Transaction> postings;
+        final long lastSequence;
+
+        Batch(List<Transaction> postings, long lastSequence) {
+            this.postings = postings;
+            this.lastSequence = lastSequence;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.banking.controller;
+
+import com.banking.model.Permission;
+import com.banking.model.User;
+
+import java.util.Set;
+
+/**
+ * Session is the context of one signed-in user, identified by an
+ * unguessable token. Controllers check permissions against the session
+ * they are given rather than a global current user, so one controller
+ * instance can serve many tellers at once.
+ *
+ * Permissions come from the user's role in RolePermissions, so a reloaded
+ * role table applies to open sessions at once. A session ends when it is
+ * closed or has been idle for longer than the SessionManager's idle
+ * timeout; an ended session has no permissions.
+ */
+public class Session {
+    private final String token;
+    private final User user;
+    private final long createdAt;
+    private final long idleTimeoutMillis;
+    private volatile long lastAccess;
+    private volatile boolean closed;
+
+    Session(String token, User user, long idleTimeoutMillis) {
+        this.token = token;
+        this.user = user;
+        this.createdAt = System.currentTimeMillis();
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.lastAccess = createdAt;
+    }
+
+    /**
+     * Checks a permission and counts as activity for idle expiry.
+     * @param permission The permission to check
+     * @return true if the session is active and has the permission
+     */
+    public boolean hasPermission(Permission permission) {
+        long now = System.currentTimeMillis();
+        if (closed || now - lastAccess > idleTimeoutMillis) {
+            return false;
+        }
+        if (now != lastAccess) {
+            lastAccess = now; // skip the shared write when already current
+        }
+        return user.hasPermission(permission);
+    }
+
+    /**
+     * Checks a permission of a session that may be missing.
+     * @return false for a null session
+     */
+    static boolean permits(Session session, Permission permission) {
+        return session != null && session.hasPermission(permission);
+    }
+
+    /**
+     * @return true until the session is closed or idles out
+     */
+    public boolean isActive() {
+        return !closed && System.currentTimeMillis() - lastAccess <= idleTimeoutMillis;
+    }
+
+    void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Set<Permission> getPermissions() {
+        return user.getPermissions();
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    @Override
+    public String toString() {
+        // Never print the token itself
+        return String.format("Session[User=%s, Role=%s, Active=%s]",
+            user.getUserId(), user.getRole(), isActive());
+    }
+}
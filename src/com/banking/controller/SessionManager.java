@@ -0,0 +1,142 @@
+package com.banking.controller;
+
+import com.banking.model.User;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SessionManager keeps the open sessions of all signed-in users.
+ *
+ * Tokens are 256 random bits from SecureRandom, URL-safe Base64 encoded.
+ * Lookups are lock-free (ConcurrentHashMap), so hundreds of tellers can
+ * be served at once. Idle sessions are swept out at most once a minute,
+ * piggybacked on open() and find() rather than on a background thread.
+ */
+public class SessionManager {
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(15);
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private static SessionManager instance;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private volatile Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    private SessionManager() {
+    }
+
+    public static synchronized SessionManager getInstance() {
+        if (instance == null) {
+            instance = new SessionManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Opens a session for an authenticated user.
+     * @param user User whose permissions the session carries
+     * @return The new session
+     */
+    public Session open(User user) {
+        sweepIfDue();
+        Session session;
+        do {
+            session = new Session(newToken(), user, idleTimeout.toMillis());
+        } while (sessions.putIfAbsent(session.getToken(), session) != null);
+        return session;
+    }
+
+    /**
+     * Looks up an active session and records the activity.
+     * @param token Token from Session.getToken()
+     * @return The session, or null if unknown, closed or idle too long
+     */
+    public Session find(String token) {
+        sweepIfDue();
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (!session.isActive()) {
+            close(session);
+            return null;
+        }
+        session.touch();
+        return session;
+    }
+
+    /**
+     * Closes a session; later permission checks on it fail.
+     */
+    public void close(Session session) {
+        if (session != null) {
+            sessions.remove(session.getToken(), session);
+            end(session);
+        }
+    }
+
+    /**
+     * Closes every session that has been idle longer than the timeout.
+     * @return Number of sessions closed
+     */
+    public int expireIdleSessions() {
+        lastSweep = System.currentTimeMillis();
+        int expired = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            Session session = it.next();
+            if (!session.isActive()) {
+                it.remove();
+                end(session);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Number of sessions not yet swept out.
+     */
+    public int getOpenCount() {
+        return sessions.size();
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the idle timeout for sessions opened from now on.
+     */
+    public void setIdleTimeout(Duration idleTimeout) {
+        if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Idle timeout must be positive");
+        }
+        this.idleTimeout = idleTimeout;
+    }
+
+    private static void end(Session session) {
+        session.close();
+        session.getUser().logout(session.getUser().getUserId());
+    }
+
+    private void sweepIfDue() {
+        if (System.currentTimeMillis() - lastSweep >= SWEEP_INTERVAL_MILLIS) {
+            expireIdleSessions();
+        }
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -1,9 +1,14 @@
 package com.banking.dao;
 
+import com.banking.database.CheckpointIndex;
+import com.banking.database.DashboardStatistics;
 import com.banking.database.DatabaseManager;
+import com.banking.database.ExistenceFilters;
 import com.banking.model.Account;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * AccountDAO
@@ -62,9 +67,10 @@ public class AccountDAO {
 
     /**
      * Checks if an account exists.
+     * Keys never stored are answered by ExistenceFilters without a query.
      */
     public boolean exists(String accountNumber) {
-        return db.getAccount(accountNumber) != null;
+        return ExistenceFilters.getInstance().exists(ExistenceFilters.Entity.ACCOUNT, accountNumber);
     }
 
     /**
@@ -73,4 +79,20 @@ public class AccountDAO {
     public int countByType(String accountType) {
         return db.countByType(accountType);
     }
+
+    /**
+     * Returns account count and total balance per account type,
+     * read from the materialised dashboard statistics.
+     */
+    public Map<String, DashboardStatistics.Statistic> getStatisticsByType() {
+        return DashboardStatistics.getInstance().getAccountsByType();
+    }
+
+    /**
+     * Returns the balance an account had at a point in time.
+     * Uses the daily checkpoint index plus a single-day tail scan.
+     */
+    public double getBalanceAsOf(String accountNumber, LocalDateTime asOf) {
+        return CheckpointIndex.getInstance().getBalanceAsOf(accountNumber, asOf);
+    }
 }
\ No newline at end of file
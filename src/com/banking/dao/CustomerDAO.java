@@ -1,6 +1,9 @@
 package com.banking.dao;
 
+import com.banking.database.CustomerNameIndex;
+import com.banking.database.DashboardStatistics;
 import com.banking.database.DatabaseManager;
+import com.banking.database.ExistenceFilters;
 import com.banking.model.Customer;
 
 import java.util.List;
@@ -11,6 +14,9 @@ import java.util.List;
  */
 public class CustomerDAO {
 
+    // Most results a name search returns
+    public static final int SEARCH_LIMIT = 500;
+
     private final DatabaseManager db;
 
     public CustomerDAO() {
@@ -39,6 +45,15 @@ public class CustomerDAO {
         return db.getAllCustomers();
     }
 
+    /**
+     * Retrieves the next page of customers in ID order.
+     * @param afterCustomerId Last ID of the previous page, or null for the first page
+     * @param limit Page size
+     */
+    public List<Customer> findPage(String afterCustomerId, int limit) {
+        return db.getCustomersAfter(afterCustomerId, limit);
+    }
+
     /**
      * Updates a customer.
      * (MERGE via DatabaseManager will auto-update)
@@ -55,17 +70,63 @@ public class CustomerDAO {
         return db.deleteCustomer(customerId);
     }
 
+    /**
+     * Counts customers from the materialised dashboard statistics.
+     */
+    public int count() {
+        return DashboardStatistics.getInstance().getCustomerCount();
+    }
+
     /**
      * Checks if a customer exists.
+     * Keys never stored are answered by ExistenceFilters without a query.
      */
     public boolean exists(String customerId) {
-        return findById(customerId) != null;
+        return ExistenceFilters.getInstance().exists(ExistenceFilters.Entity.CUSTOMER, customerId);
     }
 
     /**
-     * Searches customers by name.
+     * Searches customers by name using the in-memory name index.
+     * Results are ranked: exact name, then word prefix, then substring.
+     * Returns at most SEARCH_LIMIT customers.
      */
     public List<Customer> searchByName(String searchTerm) {
-        return db.searchCustomersByName(searchTerm);
+        return searchByName(searchTerm, SEARCH_LIMIT);
+    }
+
+    /**
+     * Searches customers by name, returning at most limit ranked results.
+     */
+    public List<Customer> searchByName(String searchTerm, int limit) {
+        return CustomerNameIndex.getInstance().search(searchTerm, limit);
+    }
+
+    /**
+     * Returns one page of ranked name-search results.
+     */
+    public List<Customer> searchByName(String searchTerm, int offset, int limit) {
+        return CustomerNameIndex.getInstance().search(searchTerm, offset, limit);
+    }
+
+    /**
+     * Typo-tolerant search over names and addresses (edit distance and
+     * phonetic match). Returns at most SEARCH_LIMIT customers, closest first.
+     */
+    public List<Customer> fuzzySearch(String searchTerm) {
+        return fuzzySearch(searchTerm, SEARCH_LIMIT);
+    }
+
+    /**
+     * Typo-tolerant search, returning at most limit results.
+     */
+    public List<Customer> fuzzySearch(String searchTerm, int limit) {
+        return CustomerNameIndex.getInstance().fuzzySearch(searchTerm, limit);
+    }
+
+    /**
+     * Returns one page of typo-tolerant search results.
+     */
+    public List<Customer> fuzzySearch(String searchTerm, int offset, int limit) {
+        return CustomerNameIndex.getInstance().fuzzySearch(searchTerm, offset, limit);
     }
 }
\ No newline at end of file
@@ -1,22 +1,30 @@
 package com.banking.dao;
 
 import com.banking.database.DatabaseManager;
+import com.banking.database.TransactionArchive;
 import com.banking.model.Transaction;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * TransactionDAO
  * Delegates all SQL operations to DatabaseManager.
  * Acts as a clean, simple layer for controllers.
+ * Routes reads to hot storage, the monthly archive, or both.
  */
 public class TransactionDAO {
 
     private final DatabaseManager db;
+    private final TransactionArchive archive;
 
     public TransactionDAO() {
         this.db = DatabaseManager.getInstance();
+        this.archive = TransactionArchive.getInstance();
     }
 
     /**
@@ -34,18 +42,46 @@ public class TransactionDAO {
     }
 
     /**
-     * All transactions for account.
+     * Which of the IDs are already stored (hot and archived).
+     * @throws SQLException if the lookup fails
+     */
+    public Set<String> findStoredIds(Collection<String> ids) throws SQLException {
+        return db.findStoredTransactionIds(ids);
+    }
+
+    /**
+     * All transactions for account (hot and archived), newest first.
      */
     public List<Transaction> findByAccount(String accountNumber) {
+        List<Transaction> list = new ArrayList<>(db.getTransactionHistory(accountNumber));
+        list.addAll(archive.findArchived(accountNumber, null, null));
+        return list;
+    }
+
+    /**
+     * Recent transactions for account (hot storage only), newest first.
+     */
+    public List<Transaction> findRecentByAccount(String accountNumber) {
         return db.getTransactionHistory(accountNumber);
     }
 
     /**
-     * Transactions within date range.
+     * Transactions within date range, newest first.
+     * Hot storage is skipped when the range ends before its oldest row;
+     * only archive months overlapping the range are read.
      */
     public List<Transaction> findByAccountAndDate(
             String account, LocalDateTime start, LocalDateTime end) {
-        return db.findTransactionsByDate(account, start, end);
+        List<Transaction> list = new ArrayList<>();
+
+        LocalDateTime hotLowWaterMark = archive.getHotLowWaterMark();
+        if (hotLowWaterMark != null && !end.isBefore(hotLowWaterMark)) {
+            list.addAll(db.findTransactionsByDate(account, start, end));
+        }
+        list.addAll(archive.findArchived(account, start, end));
+
+        list.sort((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()));
+        return list;
     }
 
     /**
@@ -67,6 +103,6 @@ public class TransactionDAO {
      * Alias for findByAccount method.
      */
     public List<Transaction> findByAccountNumber(String accountNumber) {
-        return db.getTransactionHistory(accountNumber);
+        return findByAccount(accountNumber);
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.banking.dao;
 
 import com.banking.database.DatabaseManager;
+import com.banking.database.ExistenceFilters;
 import com.banking.model.User;
 
 import java.util.List;
@@ -91,8 +92,9 @@ public class UserDAO {
 
     /**
      * Checks if a user exists.
+     * Keys never stored are answered by ExistenceFilters without a query.
      */
     public boolean exists(String id) {
-        return db.getUser(id) != null;
+        return ExistenceFilters.getInstance().exists(ExistenceFilters.Entity.USER, id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,302 @@
+package com.banking.database;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.banking.database.ExistenceFilters.Entity;
+import com.banking.model.Account;
+import com.banking.model.ChequeAccount;
+import com.banking.model.Customer;
+import com.banking.model.Transaction;
+
+/**
+ * BulkImportStore writes customers and accounts from bulk import files
+ * (see com.banking.onboarding.BulkImporter) a batch at a time, and records
+ * how far into each file the import has got.
+ *
+ * Each batch inserts its rows, moves the dashboard counters, and moves
+ * the file's checkpoint to the byte offset after the batch's last line,
+ * all in one JDBC transaction. An import that stops part way is resumed
+ * from that offset, so no line is imported twice and none is skipped.
+ * Files are identified by the SHA-256 of their content.
+ */
+public class BulkImportStore {
+    private static BulkImportStore instance;
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETE = "COMPLETE";
+
+    private final DatabaseManager db;
+
+    private BulkImportStore() {
+        this.db = DatabaseManager.getInstance();
+    }
+
+    public static synchronized BulkImportStore getInstance() {
+        if (instance == null) {
+            instance = new BulkImportStore();
+        }
+        return instance;
+    }
+
+    /**
+     * How far an import has got.
+     */
+    public static class Progress {
+        private final String status;
+        private final long committedOffset;
+        private final int committedLine;
+        private final int imported;
+        private final int rejected;
+
+        public Progress(String status, long committedOffset, int committedLine, int imported, int rejected) {
+            this.status = status;
+            this.committedOffset = committedOffset;
+            this.committedLine = committedLine;
+            this.imported = imported;
+            this.rejected = rejected;
+        }
+
+        public String getStatus() { return status; }
+        public boolean isComplete() { return COMPLETE.equals(status); }
+        /** Byte offset of the first line not yet imported; 0 before the header is read */
+        public long getCommittedOffset() { return committedOffset; }
+        /** Number of the last line committed, counting the header as 1 */
+        public int getCommittedLine() { return committedLine; }
+        public int getImported() { return imported; }
+        public int getRejected() { return rejected; }
+    }
+
+    /**
+     * @return Progress of the file, or null if it was never imported
+     */
+    public Progress findProgress(String fileHash) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT status, committed_offset, committed_line, imported, rejected " +
+                    "FROM bulk_imports WHERE file_hash = ?")) {
+                pstmt.setString(1, fileHash);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    return new Progress(rs.getString(1), rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getInt(5));
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers a file about to be imported from its start.
+     */
+    public void begin(String fileHash, String kind, String fileName) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO bulk_imports (file_hash, kind, file_name, status, committed_offset, " +
+                    "committed_line, imported, rejected, started_at, updated_at) " +
+                    "SELECT ?, ?, ?, ?, 0, 0, 0, 0, ?, ? WHERE NOT EXISTS " +
+                    "(SELECT 1 FROM bulk_imports WHERE file_hash = ?)")) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                pstmt.setString(1, fileHash);
+                pstmt.setString(2, kind);
+                pstmt.setString(3, fileName);
+                pstmt.setString(4, IN_PROGRESS);
+                pstmt.setTimestamp(5, now);
+                pstmt.setTimestamp(6, now);
+                pstmt.setString(7, fileHash);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Inserts a batch of new customers and moves the checkpoint past it.
+     * @param customers Customers whose IDs are not yet stored
+     * @param endOffset Byte offset after the batch's last line
+     * @param endLine Number of the batch's last line
+     * @param rejected Lines of the batch that were not imported
+     */
+    public void insertCustomers(String fileHash, List<Customer> customers, long endOffset, int endLine, int rejected)
+            throws SQLException {
+        ExistenceFilters filters = ExistenceFilters.getInstance();
+        for (Customer customer : customers) {
+            filters.beginWrite(Entity.CUSTOMER, customer.getCustomerId());
+        }
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "INSERT INTO customers (customer_id, first_name, surname, address, phone_number, email) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)")) {
+                    for (Customer customer : customers) {
+                        pstmt.setString(1, customer.getCustomerId());
+                        pstmt.setString(2, customer.getFirstName());
+                        pstmt.setString(3, customer.getSurname());
+                        pstmt.setString(4, customer.getAddress());
+                        pstmt.setString(5, customer.getPhoneNumber());
+                        pstmt.setString(6, customer.getEmail());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                if (!customers.isEmpty()) {
+                    DashboardStatistics.customerAdded(conn, customers.size());
+                }
+                checkpoint(conn, fileHash, endOffset, endLine, customers.size(), rejected);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            for (Customer customer : customers) {
+                filters.endWrite(Entity.CUSTOMER, customer.getCustomerId());
+            }
+        }
+        CustomerNameIndex index = CustomerNameIndex.getInstance();
+        for (Customer customer : customers) {
+            index.put(customer);
+        }
+    }
+
+    /**
+     * Inserts a batch of new accounts, with an OPENING posting for each
+     * opening balance, and moves the checkpoint past it.
+     * @param accounts Accounts whose numbers are not yet stored, of existing customers
+     * @param endOffset Byte offset after the batch's last line
+     * @param endLine Number of the batch's last line
+     * @param rejected Lines of the batch that were not imported
+     */
+    public void insertAccounts(String fileHash, List<Account> accounts, long endOffset, int endLine, int rejected)
+            throws SQLException {
+        ExistenceFilters filters = ExistenceFilters.getInstance();
+        for (Account account : accounts) {
+            filters.beginWrite(Entity.ACCOUNT, account.getAccountNumber());
+        }
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Map<String, double[]> byTypeAndBranch = new HashMap<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "INSERT INTO accounts (account_number, customer_id, account_type, balance, branch, " +
+                        "company_name, company_address) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                    for (Account account : accounts) {
+                        pstmt.setString(1, account.getAccountNumber());
+                        pstmt.setString(2, account.getCustomer().getCustomerId());
+                        pstmt.setString(3, account.getAccountType());
+                        pstmt.setDouble(4, account.getBalance());
+                        pstmt.setString(5, account.getBranch());
+                        if (account instanceof ChequeAccount) {
+                            ChequeAccount cheque = (ChequeAccount) account;
+                            pstmt.setString(6, cheque.getCompanyName());
+                            pstmt.setString(7, cheque.getCompanyAddress());
+                        } else {
+                            pstmt.setString(6, null);
+                            pstmt.setString(7, null);
+                        }
+                        pstmt.addBatch();
+
+                        double[] totals = byTypeAndBranch.computeIfAbsent(
+                            account.getAccountType() + "\n" + account.getBranch(), k -> new double[2]);
+                        totals[0]++;
+                        totals[1] += account.getBalance();
+                    }
+                    pstmt.executeBatch();
+                }
+                for (Map.Entry<String, double[]> entry : byTypeAndBranch.entrySet()) {
+                    String[] typeAndBranch = entry.getKey().split("\n", 2);
+                    DashboardStatistics.accountChanged(conn, typeAndBranch[0], typeAndBranch[1],
+                        (int) entry.getValue()[0], entry.getValue()[1]);
+                }
+                insertOpeningBalances(conn, accounts);
+                checkpoint(conn, fileHash, endOffset, endLine, accounts.size(), rejected);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            for (Account account : accounts) {
+                filters.endWrite(Entity.ACCOUNT, account.getAccountNumber());
+            }
+        }
+    }
+
+    /**
+     * Moves the checkpoint past the last line of a file that had no batch
+     * to write, and marks the import complete.
+     */
+    public void complete(String fileHash, long endOffset, int endLine, int rejected) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                checkpoint(conn, fileHash, endOffset, endLine, 0, rejected);
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "UPDATE bulk_imports SET status = ?, completed_at = ? WHERE file_hash = ?")) {
+                    pstmt.setString(1, COMPLETE);
+                    pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                    pstmt.setString(3, fileHash);
+                    pstmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Journals each opening balance as the account's first posting, as
+     * Bank does when an account is opened.
+     */
+    private static void insertOpeningBalances(Connection conn, List<Account> accounts) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        long count = 0;
+        double total = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO transactions (transaction_id, account_number, transaction_type, amount, " +
+                "balance_after, description, transaction_timestamp) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (Account account : accounts) {
+                if (account.getBalance() <= 0) {
+                    continue;
+                }
+                Transaction opening = new Transaction("OPN-" + account.getAccountNumber(), account.getAccountNumber(),
+                    "OPENING", account.getBalance(), account.getBalance(), "Opening balance (imported)", now);
+                pstmt.setString(1, opening.getTransactionId());
+                pstmt.setString(2, opening.getAccountNumber());
+                pstmt.setString(3, opening.getTransactionType());
+                pstmt.setDouble(4, opening.getAmount());
+                pstmt.setDouble(5, opening.getBalanceAfter());
+                pstmt.setString(6, opening.getDescription());
+                pstmt.setTimestamp(7, Timestamp.valueOf(now));
+                pstmt.addBatch();
+                CheckpointIndex.record(conn, opening);
+                count++;
+                total += opening.getAmount();
+            }
+            pstmt.executeBatch();
+        }
+        DashboardStatistics.postingsRecorded(conn, "OPENING", count, total);
+    }
+
+    private static void checkpoint(Connection conn, String fileHash, long endOffset, int endLine,
+                                   int imported, int rejected) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE bulk_imports SET committed_offset = ?, committed_line = ?, imported = imported + ?, " +
+                "rejected = rejected + ?, updated_at = ? WHERE file_hash = ?")) {
+            pstmt.setLong(1, endOffset);
+            pstmt.setInt(2, endLine);
+            pstmt.setInt(3, imported);
+            pstmt.setInt(4, rejected);
+            pstmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+            pstmt.setString(6, fileHash);
+            if (pstmt.executeUpdate() != 1) {
+                throw new SQLException("Import of file " + fileHash + " was not registered");
+            }
+        }
+    }
+}
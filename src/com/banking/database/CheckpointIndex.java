@@ -0,0 +1,200 @@
+package com.banking.database;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.banking.model.Transaction;
+
+/**
+ * CheckpointIndex keeps one end-of-day balance checkpoint per account per day.
+ * A balance-as-of query is a checkpoint lookup on the primary key index
+ * followed by a scan bounded to the postings of a single day. Postings are
+ * read from the hot table and from the archive tables of the months
+ * concerned, so days already archived are answered the same way.
+ */
+public class CheckpointIndex {
+    private static CheckpointIndex instance;
+
+    private final DatabaseManager db;
+
+    private CheckpointIndex() {
+        this.db = DatabaseManager.getInstance();
+    }
+
+    public static synchronized CheckpointIndex getInstance() {
+        if (instance == null) {
+            instance = new CheckpointIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Moves the day's checkpoint forward to a newly posted transaction.
+     * Called on the same connection that inserted the transaction.
+     * @param conn Open connection
+     * @param transaction The posted transaction
+     */
+    static void record(Connection conn, Transaction transaction) throws SQLException {
+        // Only move forward: a late-arriving earlier posting must not regress the checkpoint
+        String sql = "MERGE INTO balance_checkpoints c " +
+                    "USING (VALUES (CAST(? AS VARCHAR(50)), CAST(? AS DATE), " +
+                    "               CAST(? AS DECIMAL(15, 2)), CAST(? AS TIMESTAMP))) " +
+                    "      v(account_number, checkpoint_date, balance, checkpoint_timestamp) " +
+                    "ON c.account_number = v.account_number AND c.checkpoint_date = v.checkpoint_date " +
+                    "WHEN MATCHED AND c.checkpoint_timestamp <= v.checkpoint_timestamp THEN " +
+                    "  UPDATE SET balance = v.balance, checkpoint_timestamp = v.checkpoint_timestamp " +
+                    "WHEN NOT MATCHED THEN INSERT (account_number, checkpoint_date, balance, checkpoint_timestamp) " +
+                    "  VALUES (v.account_number, v.checkpoint_date, v.balance, v.checkpoint_timestamp)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, transaction.getAccountNumber());
+            pstmt.setDate(2, Date.valueOf(transaction.getTimestamp().toLocalDate()));
+            pstmt.setDouble(3, transaction.getBalanceAfter());
+            pstmt.setTimestamp(4, Timestamp.valueOf(transaction.getTimestamp()));
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Builds checkpoints from existing transactions when the index is empty.
+     * Runs once when checkpoints are introduced to a database with history.
+     * @param conn Open connection
+     */
+    static void backfillIfEmpty(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM balance_checkpoints");
+            rs.next();
+            if (rs.getInt(1) > 0) {
+                return;
+            }
+
+            int rows = stmt.executeUpdate(
+                "MERGE INTO balance_checkpoints " +
+                "(account_number, checkpoint_date, balance, checkpoint_timestamp) " +
+                "KEY(account_number, checkpoint_date) " +
+                "SELECT account_number, checkpoint_date, balance_after, transaction_timestamp FROM (" +
+                "  SELECT account_number, CAST(transaction_timestamp AS DATE) AS checkpoint_date, " +
+                "         balance_after, transaction_timestamp, " +
+                "         ROW_NUMBER() OVER (PARTITION BY account_number, CAST(transaction_timestamp AS DATE) " +
+                "                            ORDER BY transaction_timestamp DESC, ledger_seq DESC) AS rn " +
+                "  FROM transactions) WHERE rn = 1");
+            if (rows > 0) {
+                System.out.println("✓ Balance checkpoints built: " + rows);
+            }
+        }
+    }
+
+    /**
+     * Returns an account's balance at a point in time.
+     * 1. Last posting on the same day up to asOf (bounded tail scan).
+     * 2. Otherwise the latest checkpoint of an earlier day.
+     * 3. Otherwise the balance before the first later posting, or the
+     *    current balance if the account has never posted.
+     * @param accountNumber Account to query
+     * @param asOf Point in time
+     * @return Balance at that time (0 before the account existed)
+     */
+    public double getBalanceAsOf(String accountNumber, LocalDateTime asOf) {
+        try (Connection conn = db.getConnection()) {
+            return getBalanceAsOf(conn, accountNumber, asOf);
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to read balance as of " + asOf + ": " + e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Returns an account's balance at a point in time, on a connection the
+     * caller keeps open across many lookups (e.g. statement runs).
+     */
+    public double getBalanceAsOf(Connection conn, String accountNumber, LocalDateTime asOf) throws SQLException {
+        LocalDate day = asOf.toLocalDate();
+        TransactionArchive archive = TransactionArchive.getInstance();
+
+        List<String> tailTables = new ArrayList<>();
+        tailTables.add("transactions");
+        tailTables.addAll(archive.findArchiveTables(conn, day.atStartOfDay(), asOf));
+        String tailSql = firstAcross(tailTables, "balance_after",
+                                     "account_number = ? AND transaction_timestamp >= ? AND transaction_timestamp <= ?",
+                                     "transaction_timestamp DESC, ledger_seq DESC");
+        String checkpointSql = "SELECT balance FROM balance_checkpoints " +
+                              "WHERE account_number = ? AND checkpoint_date < ? " +
+                              "ORDER BY checkpoint_date DESC LIMIT 1";
+        List<String> laterTables = new ArrayList<>();
+        laterTables.add("transactions");
+        laterTables.addAll(archive.findArchiveTables(conn, asOf, null));
+        String firstLaterSql = firstAcross(laterTables, "balance_after, transaction_type, amount",
+                                           "account_number = ? AND transaction_timestamp > ?",
+                                           "transaction_timestamp, ledger_seq");
+        String openedSql = "SELECT balance, date_opened FROM accounts WHERE account_number = ?";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(tailSql)) {
+            int index = 1;
+            for (int i = 0; i < tailTables.size(); i++) {
+                pstmt.setString(index++, accountNumber);
+                pstmt.setTimestamp(index++, Timestamp.valueOf(day.atStartOfDay()));
+                pstmt.setTimestamp(index++, Timestamp.valueOf(asOf));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getDouble(1);
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(checkpointSql)) {
+            pstmt.setString(1, accountNumber);
+            pstmt.setDate(2, Date.valueOf(day));
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getDouble(1);
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(firstLaterSql)) {
+            int index = 1;
+            for (int i = 0; i < laterTables.size(); i++) {
+                pstmt.setString(index++, accountNumber);
+                pstmt.setTimestamp(index++, Timestamp.valueOf(asOf));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                double before = rs.getDouble("balance_after");
+                double amount = rs.getDouble("amount");
+                return Transaction.isDebit(rs.getString("transaction_type")) ? before + amount : before - amount;
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(openedSql)) {
+            pstmt.setString(1, accountNumber);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next() && !rs.getTimestamp("date_opened").toLocalDateTime().isAfter(asOf)) {
+                return rs.getDouble("balance");
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Builds a query for the first posting in an order across several
+     * tables: each table contributes its own first row, read from its
+     * index, and the first of those wins. The where clause's parameters
+     * are bound once per table.
+     */
+    private static String firstAcross(List<String> tables, String columns, String where, String order) {
+        if (tables.size() == 1) {
+            return "SELECT " + columns + " FROM " + tables.get(0) + " WHERE " + where +
+                   " ORDER BY " + order + " LIMIT 1";
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM (");
+        for (int i = 0; i < tables.size(); i++) {
+            sql.append(i == 0 ? "" : " UNION ALL ")
+               .append("(SELECT ").append(columns).append(", transaction_timestamp, ledger_seq FROM ")
+               .append(tables.get(i)).append(" WHERE ").append(where)
+               .append(" ORDER BY ").append(order).append(" LIMIT 1)");
+        }
+        return sql.append(") ORDER BY ").append(order).append(" LIMIT 1").toString();
+    }
+}
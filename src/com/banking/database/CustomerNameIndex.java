@@ -0,0 +1,1030 @@
+package com.banking.database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import com.banking.model.Customer;
+
+/**
+ * CustomerNameIndex is an in-memory search index over customer names.
+ * Names are indexed by trigram (for substring search) and by token
+ * (for exact-word and word-prefix search).
+ * Candidates from the posting lists are verified against the name, then
+ * ranked: exact name, then word prefix, then substring, and by name within a rank.
+ *
+ * fuzzySearch() tolerates typos: query words are matched against every name
+ * and address word by edit distance (LevenshteinTrie) and by sound (PhoneticKey).
+ *
+ * The index is rebuilt in parallel from the customers table at startup and
+ * kept current by DatabaseManager.saveCustomer and deleteCustomer.
+ */
+public class CustomerNameIndex {
+    private static CustomerNameIndex instance;
+
+    private final DatabaseManager db;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state;
+    // The rebuild in progress, shared by every caller that asks for one meanwhile
+    private CompletableFuture<Integer> rebuilding;
+    // Saves and deletes made during the rebuild, in order
+    private final List<Consumer<State>> pendingChanges = new ArrayList<>();
+
+    private CustomerNameIndex() {
+        this.db = DatabaseManager.getInstance();
+    }
+
+    public static synchronized CustomerNameIndex getInstance() {
+        if (instance == null) {
+            instance = new CustomerNameIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Rebuilds the index from the customers table.
+     * Postings are built in parallel over chunks of customers and merged in
+     * order; saves and deletes made meanwhile are replayed onto the new index.
+     * Only one rebuild runs at a time: a caller that asks while one is in
+     * progress waits for it and gets its result.
+     * @return Number of customers indexed, or -1 on failure
+     */
+    public int rebuild() {
+        CompletableFuture<Integer> running;
+        lock.writeLock().lock();
+        try {
+            if (rebuilding != null) {
+                running = rebuilding;
+            } else {
+                running = null;
+                rebuilding = new CompletableFuture<>();
+                pendingChanges.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (running != null) {
+            return running.join();
+        }
+
+        State built = null;
+        int indexed = -1;
+        try {
+            built = State.build(loadEntries(), Runtime.getRuntime().availableProcessors());
+            indexed = built.live;
+            return indexed;
+        } catch (SQLException | InterruptedException e) {
+            System.err.println("✗ Failed to build customer name index: " + e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return -1;
+        } finally {
+            CompletableFuture<Integer> finished;
+            lock.writeLock().lock();
+            try {
+                if (built != null) {
+                    for (Consumer<State> change : pendingChanges) {
+                        change.accept(built);
+                    }
+                    state = built.compactIfNeeded();
+                }
+                pendingChanges.clear();
+                finished = rebuilding;
+                rebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            finished.complete(indexed);
+        }
+    }
+
+    private List<Entry> loadEntries() throws SQLException {
+        List<Entry> entries = new ArrayList<>();
+        String sql = "SELECT customer_id, first_name, surname, address, phone_number, email " +
+                    "FROM customers ORDER BY customer_id";
+
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(10_000);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    entries.add(new Entry(rs.getString(1), rs.getString(2), rs.getString(3),
+                                          rs.getString(4), rs.getString(5), rs.getString(6)));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Adds or replaces a customer. No-op until the index has been built,
+     * since the first build reads the table anyway.
+     */
+    void put(Customer customer) {
+        Entry entry = Entry.of(customer);
+        lock.writeLock().lock();
+        try {
+            if (rebuilding != null) {
+                pendingChanges.add(built -> built.put(entry));
+            }
+            if (state != null) {
+                state.put(entry);
+                state = state.compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String customerId) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding != null) {
+                pendingChanges.add(built -> built.remove(customerId));
+            }
+            if (state != null) {
+                state.remove(customerId);
+                state = state.compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return state != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state == null ? 0 : state.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches customers by first name, surname or full name.
+     * Builds the index on first use if startup did not.
+     * @param term Search text (case-insensitive)
+     * @param limit Maximum number of results
+     * @return Matching customers, best match first
+     */
+    public List<Customer> search(String term, int limit) {
+        return search(term, 0, limit);
+    }
+
+    /**
+     * Returns one page of search results, for lists that load as they scroll.
+     * @param term Search text (case-insensitive)
+     * @param offset Number of leading results to skip
+     * @param limit Maximum number of results on the page
+     */
+    public List<Customer> search(String term, int offset, int limit) {
+        if (!isBuilt()) {
+            rebuild();
+        }
+
+        String query = normalise(term);
+        if (query.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Entry> matches;
+        lock.readLock().lock();
+        try {
+            if (state == null) {
+                return new ArrayList<>();
+            }
+            matches = state.search(query, offset + limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toCustomers(matches, offset);
+    }
+
+    /**
+     * Typo-tolerant search over first names, surnames and address words,
+     * matching by bounded edit distance and by Setswana-aware phonetic key.
+     * @param term Search text; every word must match
+     * @param limit Maximum number of results
+     * @return Matching customers, closest first
+     */
+    public List<Customer> fuzzySearch(String term, int limit) {
+        return fuzzySearch(term, 0, limit);
+    }
+
+    /**
+     * Returns one page of typo-tolerant search results.
+     * @param term Search text; every word must match
+     * @param offset Number of leading results to skip
+     * @param limit Maximum number of results on the page
+     */
+    public List<Customer> fuzzySearch(String term, int offset, int limit) {
+        if (!isBuilt()) {
+            rebuild();
+        }
+
+        String query = normalise(term);
+        if (query.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Entry> matches;
+        lock.readLock().lock();
+        try {
+            if (state == null) {
+                return new ArrayList<>();
+            }
+            matches = state.fuzzySearch(query, offset + limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toCustomers(matches, offset);
+    }
+
+    private static List<Customer> toCustomers(List<Entry> matches, int offset) {
+        List<Customer> customers = new ArrayList<>(Math.max(0, matches.size() - offset));
+        for (int i = offset; i < matches.size(); i++) {
+            customers.add(matches.get(i).toCustomer());
+        }
+        return customers;
+    }
+
+    /**
+     * Creates an index over the given customers that is neither the shared
+     * instance nor kept in sync with the database. Used by the search benchmark.
+     */
+    public static CustomerNameIndex detached(List<Customer> customers) {
+        List<Entry> entries = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            entries.add(Entry.of(customer));
+        }
+        CustomerNameIndex index = new CustomerNameIndex();
+        try {
+            index.state = State.build(entries, Runtime.getRuntime().availableProcessors());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return index;
+    }
+
+    static String normalise(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().toLowerCase().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Immutable copy of the indexed customer fields.
+     */
+    private static final class Entry {
+        final String customerId;
+        final String firstName;
+        final String surname;
+        final String address;
+        final String phoneNumber;
+        final String email;
+        final String first;
+        final String last;
+        final String full;
+        final String place;
+
+        Entry(String customerId, String firstName, String surname,
+              String address, String phoneNumber, String email) {
+            this.customerId = customerId;
+            this.firstName = firstName;
+            this.surname = surname;
+            this.address = address;
+            this.phoneNumber = phoneNumber;
+            this.email = email;
+            this.first = normalise(firstName);
+            this.last = normalise(surname);
+            this.full = first + " " + last;
+            this.place = normalise(address);
+        }
+
+        static Entry of(Customer customer) {
+            return new Entry(customer.getCustomerId(), customer.getFirstName(), customer.getSurname(),
+                             customer.getAddress(), customer.getPhoneNumber(), customer.getEmail());
+        }
+
+        Customer toCustomer() {
+            Customer customer = new Customer(customerId, firstName, surname, address);
+            customer.setPhoneNumber(phoneNumber);
+            customer.setEmail(email);
+            return customer;
+        }
+
+        boolean sameIndexedText(Entry other) {
+            return full.equals(other.full) && place.equals(other.place);
+        }
+
+        /**
+         * 0 = exact name, 1 = word prefix, 2 = substring, -1 = no match.
+         */
+        int rank(String query) {
+            if (first.equals(query) || last.equals(query) || full.equals(query)) {
+                return 0;
+            }
+            if (startsWord(full, query)) {
+                return 1;
+            }
+            if (first.contains(query) || last.contains(query) || full.contains(query)) {
+                return 2;
+            }
+            return -1;
+        }
+
+        private static boolean startsWord(String text, String query) {
+            for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + 1)) {
+                if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Growable sorted list of document ids.
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, values.length * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        /**
+         * First position at or after from whose value is at least target,
+         * found by galloping then binary search; size if there is none.
+         */
+        int seek(int from, int target) {
+            if (from >= size || values[from] >= target) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + 1;
+            while (high < size && values[high] < target) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            int p = Arrays.binarySearch(values, low + 1, Math.min(high, size), target);
+            return p >= 0 ? p : -p - 1;
+        }
+    }
+
+    /**
+     * The index proper. A build assigns ids in name order; documents added
+     * later get the next id, so they rank after built ones with the same
+     * rank until the next compaction or rebuild. Posting lists stay sorted
+     * by appending; replaced or deleted documents become tombstones and are
+     * compacted away once they outnumber live documents.
+     */
+    private static final class State {
+        Entry[] docs;
+        int size;
+        int live;
+        final Map<String, Integer> docByCustomerId = new HashMap<>();
+        final Map<Long, IntList> grams = new HashMap<>();
+        // Trigrams and bigrams that do not start a word: candidates for substring-only matches
+        final Map<Long, IntList> interiorGrams = new HashMap<>();
+        final TreeMap<String, IntList> tokens = new TreeMap<>();
+        final Map<String, IntList> addressTokens = new HashMap<>();
+
+        // Fuzzy lookup: every name and address word, by edit distance and by sound
+        final LevenshteinTrie vocabulary = new LevenshteinTrie();
+        final Set<String> vocabularyWords = new HashSet<>();
+        final Map<String, List<String>> wordsBySound = new HashMap<>();
+
+        static final Pattern SINGLE_TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+        static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+        static final Comparator<Entry> NAME_ORDER = Comparator
+            .comparing((Entry e) -> e.last)
+            .thenComparing(e -> e.first)
+            .thenComparing(e -> e.customerId);
+
+        State(int capacity) {
+            docs = new Entry[Math.max(16, capacity)];
+        }
+
+        static State build(List<Entry> entries, int threads) throws InterruptedException {
+            // Ids follow name order, so posting lists come out ranked by name
+            Entry[] sorted = entries.toArray(new Entry[0]);
+            Arrays.parallelSort(sorted, NAME_ORDER);
+
+            State state = new State(sorted.length * 5 / 4);
+            for (Entry entry : sorted) {
+                state.docByCustomerId.put(entry.customerId, state.size);
+                state.docs[state.size++] = entry;
+            }
+            state.live = state.size;
+
+            int chunks = Math.max(1, Math.min(threads, entries.size() / 10_000));
+            if (chunks == 1) {
+                state.indexRange(0, state.size, state);
+                state.buildVocabulary();
+                return state;
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(chunks);
+            try {
+                List<Future<State>> parts = new ArrayList<>();
+                int chunkSize = (state.size + chunks - 1) / chunks;
+                for (int from = 0; from < state.size; from += chunkSize) {
+                    int start = from;
+                    int end = Math.min(state.size, from + chunkSize);
+                    parts.add(executor.submit(() -> {
+                        State part = new State(0);
+                        state.indexRange(start, end, part);
+                        return part;
+                    }));
+                }
+
+                // Merge in chunk order so every posting list stays sorted
+                for (Future<State> future : parts) {
+                    State part = future.get();
+                    part.grams.forEach((gram, ids) ->
+                        state.grams.computeIfAbsent(gram, k -> new IntList()).addAll(ids));
+                    part.interiorGrams.forEach((gram, ids) ->
+                        state.interiorGrams.computeIfAbsent(gram, k -> new IntList()).addAll(ids));
+                    part.tokens.forEach((token, ids) ->
+                        state.tokens.computeIfAbsent(token, k -> new IntList()).addAll(ids));
+                    part.addressTokens.forEach((token, ids) ->
+                        state.addressTokens.computeIfAbsent(token, k -> new IntList()).addAll(ids));
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+            state.buildVocabulary();
+            return state;
+        }
+
+        private void buildVocabulary() {
+            for (String word : tokens.keySet()) {
+                addWord(word);
+            }
+            for (String word : addressTokens.keySet()) {
+                addWord(word);
+            }
+        }
+
+        private void addToVocabulary(Entry entry) {
+            for (String word : words(entry.full)) {
+                addWord(word);
+            }
+            for (String word : words(entry.place)) {
+                addWord(word);
+            }
+        }
+
+        /**
+         * Adds a word to the fuzzy vocabulary; numbers are matched exactly only.
+         */
+        private void addWord(String word) {
+            if (!hasLetter(word) || !vocabularyWords.add(word)) {
+                return;
+            }
+            vocabulary.add(word);
+            wordsBySound.computeIfAbsent(PhoneticKey.of(word), k -> new ArrayList<>(2)).add(word);
+        }
+
+        private void indexRange(int from, int to, State into) {
+            for (int id = from; id < to; id++) {
+                indexDoc(id, docs[id], into);
+            }
+        }
+
+        private static void indexDoc(int id, Entry entry, State into) {
+            String text = entry.full;
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                long gram = gram(text, i);
+                // Lists end with the id being indexed if a name repeats a trigram
+                addOnce(into.grams, gram, id);
+                if (i > 0 && Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    addOnce(into.interiorGrams, gram, id);
+                }
+            }
+            for (int i = 1; i + 2 <= text.length(); i++) {
+                if (Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    addOnce(into.interiorGrams, bigram(text, i), id);
+                }
+            }
+            for (String token : words(text)) {
+                addOnce(into.tokens, token, id);
+            }
+            for (String token : words(entry.place)) {
+                addOnce(into.addressTokens, token, id);
+            }
+        }
+
+        private static List<String> words(String text) {
+            List<String> words = new ArrayList<>();
+            for (String token : WORD_SEPARATOR.split(text)) {
+                if (!token.isEmpty()) {
+                    words.add(token);
+                }
+            }
+            return words;
+        }
+
+        private static boolean hasLetter(String word) {
+            for (int i = 0; i < word.length(); i++) {
+                if (Character.isLetter(word.charAt(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static <K> void addOnce(Map<K, IntList> postings, K key, int id) {
+            IntList ids = postings.computeIfAbsent(key, k -> new IntList());
+            if (ids.size == 0 || ids.values[ids.size - 1] != id) {
+                ids.add(id);
+            }
+        }
+
+        private static long gram(String text, int i) {
+            return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+
+        // Bigrams are kept apart from trigrams by a marker bit above the three characters
+        private static long bigram(String text, int i) {
+            return (1L << 48) | ((long) text.charAt(i) << 16) | text.charAt(i + 1);
+        }
+
+        void put(Entry entry) {
+            Integer existing = docByCustomerId.get(entry.customerId);
+            if (existing != null && docs[existing].sameIndexedText(entry)) {
+                docs[existing] = entry;
+                return;
+            }
+            if (existing != null) {
+                docs[existing] = null;
+                live--;
+            }
+
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            int id = size++;
+            docs[id] = entry;
+            live++;
+            docByCustomerId.put(entry.customerId, id);
+            indexDoc(id, entry, this);
+            addToVocabulary(entry);
+        }
+
+        void remove(String customerId) {
+            Integer existing = docByCustomerId.remove(customerId);
+            if (existing != null) {
+                docs[existing] = null;
+                live--;
+            }
+        }
+
+        /**
+         * Returns a freshly built state once tombstones outnumber live documents, else this.
+         */
+        State compactIfNeeded() {
+            int tombstones = size - live;
+            if (tombstones < 1024 || tombstones < live) {
+                return this;
+            }
+            List<Entry> entries = new ArrayList<>(live);
+            for (int id = 0; id < size; id++) {
+                if (docs[id] != null) {
+                    entries.add(docs[id]);
+                }
+            }
+            try {
+                return build(entries, 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return this;
+            }
+        }
+
+        /**
+         * Collects matches rank by rank. Ids follow name order, so each stage
+         * yields its matches already sorted and the search stops at the limit.
+         */
+        List<Entry> search(String query, int limit) {
+            List<Entry> result = new ArrayList<>();
+
+            if (SINGLE_TOKEN.matcher(query).matches()) {
+                // Rank 0: the query is a whole first name or surname
+                IntList exact = tokens.get(query);
+                if (exact != null) {
+                    for (int i = 0; i < exact.size && result.size() < limit; i++) {
+                        accept(result, exact.values[i], query, 0);
+                    }
+                }
+
+                // Rank 1: a name word starts with the query
+                if (result.size() < limit) {
+                    mergeAscending(tokens.subMap(query, true, query + Character.MAX_VALUE, false).values(), id -> {
+                        accept(result, id, query, 1);
+                        return result.size() < limit;
+                    });
+                }
+
+                // Rank 2: substring inside a name word
+                if (result.size() < limit) {
+                    forEachCandidate(query, true, id -> {
+                        accept(result, id, query, 2);
+                        return result.size() < limit;
+                    });
+                }
+                return result;
+            }
+
+            // Multi-word queries: one pass, bucketed by rank
+            List<Entry> exact = new ArrayList<>();
+            List<Entry> prefix = new ArrayList<>();
+            List<Entry> substring = new ArrayList<>();
+            forEachCandidate(query, false, id -> {
+                Entry entry = docs[id];
+                if (entry != null) {
+                    int rank = entry.rank(query);
+                    List<Entry> bucket = rank == 0 ? exact : rank == 1 ? prefix : rank == 2 ? substring : null;
+                    if (bucket != null && bucket.size() < limit) {
+                        bucket.add(entry);
+                    }
+                }
+                // Nothing can beat a full page of exact matches
+                return exact.size() < limit;
+            });
+            result.addAll(exact);
+            result.addAll(prefix);
+            result.addAll(substring);
+            return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+        }
+
+        private void accept(List<Entry> result, int id, String query, int rank) {
+            Entry entry = docs[id];
+            if (entry != null && entry.rank(query) == rank) {
+                result.add(entry);
+            }
+        }
+
+        /**
+         * Visits candidate ids in ascending order until the visitor returns false:
+         * the trigram intersection, or every document for queries too short for trigrams.
+         * With interior set, the query's first trigram (or a two-letter query) must
+         * occur inside a word.
+         */
+        private void forEachCandidate(String query, boolean interior, IdVisitor visitor) {
+            if (query.length() == 2 && interior) {
+                IntList ids = interiorGrams.get(bigram(query, 0));
+                for (int i = 0; ids != null && i < ids.size; i++) {
+                    if (!visitor.visit(ids.values[i])) {
+                        return;
+                    }
+                }
+                return;
+            }
+            if (query.length() < 3) {
+                for (int id = 0; id < size; id++) {
+                    if (!visitor.visit(id)) {
+                        return;
+                    }
+                }
+                return;
+            }
+
+            IntList[] lists = postingsFor(query, interior);
+            if (lists == null) {
+                return;
+            }
+            IntList smallest = lists[0];
+            int[] positions = new int[lists.length];
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                int id = smallest.values[i];
+                for (int j = 1; j < lists.length; j++) {
+                    // Lists are sorted and ids ascend, so each cursor only moves forward
+                    IntList other = lists[j];
+                    int p = positions[j];
+                    while (p < other.size && other.values[p] < id) {
+                        p++;
+                    }
+                    positions[j] = p;
+                    if (p == other.size) {
+                        return;
+                    }
+                    if (other.values[p] != id) {
+                        continue candidates;
+                    }
+                }
+                if (!visitor.visit(id)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Typo-tolerant search. Each query word matches vocabulary words within
+         * an edit budget or sharing its phonetic key; a customer must match
+         * every query word and is scored by the summed word costs. Ties keep
+         * name order. Word costs are in half-edits:
+         * - 0 exact; 2 per edit, less 1 when the words also sound alike
+         * - 3 for a sound-alike beyond the edit budget
+         * - 2 more when the word matched the address rather than a name
+         */
+        List<Entry> fuzzySearch(String query, int limit) {
+            List<List<Posting>> perWord = new ArrayList<>();
+            for (String word : words(query)) {
+                List<Posting> postings = postingsNear(word);
+                if (postings.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                perWord.add(postings);
+            }
+
+            if (perWord.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return perWord.size() == 1 ? byWordFrequency(perWord.get(0), limit) : byTotalCost(perWord, limit);
+        }
+
+        private List<Posting> postingsNear(String word) {
+            Map<String, Integer> costs = new HashMap<>();
+            if (hasLetter(word)) {
+                vocabulary.search(word, editBudget(word), (match, distance) -> costs.put(match, 2 * distance));
+                String sound = PhoneticKey.of(word);
+                if (sound.length() >= 2) {
+                    for (String match : wordsBySound.getOrDefault(sound, List.of())) {
+                        costs.merge(match, 3, (edits, alike) -> edits == 0 ? 0 : edits - 1);
+                    }
+                }
+            } else {
+                costs.put(word, 0);
+            }
+
+            List<Posting> postings = new ArrayList<>();
+            costs.forEach((match, cost) -> {
+                IntList names = tokens.get(match);
+                if (names != null) {
+                    postings.add(new Posting(names, cost));
+                }
+                IntList places = addressTokens.get(match);
+                if (places != null) {
+                    postings.add(new Posting(places, cost + 2));
+                }
+            });
+            return postings;
+        }
+
+        /**
+         * Edits tolerated for a query word: none for one letter, one up to 4, else two.
+         */
+        static int editBudget(String word) {
+            return word.length() <= 1 ? 0 : word.length() <= 4 ? 1 : 2;
+        }
+
+        /**
+         * Single-word queries: closest words first and, among equally close
+         * words, the most common first, as the likelier intended spelling.
+         */
+        private List<Entry> byWordFrequency(List<Posting> postings, int limit) {
+            postings.sort(Comparator.<Posting>comparingInt(p -> p.cost).thenComparingInt(p -> -p.ids.size));
+            List<Entry> result = new ArrayList<>();
+            Set<Integer> taken = new HashSet<>();
+            for (Posting posting : postings) {
+                for (int i = 0; i < posting.ids.size && result.size() < limit; i++) {
+                    int id = posting.ids.values[i];
+                    if (docs[id] != null && taken.add(id)) {
+                        result.add(docs[id]);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Multi-word queries: walks the total cost upwards. At each total, every way of splitting
+         * it across the query words is intersected in id (name) order by
+         * leapfrogging union cursors, each split contributing at most the
+         * number of results still missing; the union of those is cut in id
+         * order, so results are ordered by (total cost, name).
+         */
+        private List<Entry> byTotalCost(List<List<Posting>> perWord, int limit) {
+            int words = perWord.size();
+            int[][] costs = new int[words][];
+            List<List<List<IntList>>> levels = new ArrayList<>(words);
+            int maxTotal = 0;
+            for (int w = 0; w < words; w++) {
+                TreeMap<Integer, List<IntList>> byCost = new TreeMap<>();
+                for (Posting posting : perWord.get(w)) {
+                    byCost.computeIfAbsent(posting.cost, k -> new ArrayList<>()).add(posting.ids);
+                }
+                costs[w] = byCost.keySet().stream().mapToInt(Integer::intValue).toArray();
+                levels.add(new ArrayList<>(byCost.values()));
+                maxTotal += costs[w][costs[w].length - 1];
+            }
+
+            List<Entry> result = new ArrayList<>();
+            Set<Integer> taken = new HashSet<>();
+            int[] split = new int[words];
+            for (int total = 0; total <= maxTotal && result.size() < limit; total++) {
+                int need = limit - result.size();
+                TreeSet<Integer> found = new TreeSet<>();
+                collectSplits(costs, levels, split, 0, total, need, taken, found);
+                for (int id : found) {
+                    if (result.size() == limit) {
+                        break;
+                    }
+                    taken.add(id);
+                    result.add(docs[id]);
+                }
+            }
+            return result;
+        }
+
+        private void collectSplits(int[][] costs, List<List<List<IntList>>> levels, int[] split, int word,
+                                   int remaining, int need, Set<Integer> taken, TreeSet<Integer> found) {
+            if (word == split.length) {
+                if (remaining == 0) {
+                    intersect(levels, split, need, taken, found);
+                }
+                return;
+            }
+            for (int level = 0; level < costs[word].length && costs[word][level] <= remaining; level++) {
+                split[word] = level;
+                collectSplits(costs, levels, split, word + 1, remaining - costs[word][level], need, taken, found);
+            }
+        }
+
+        /**
+         * Leapfrog intersection of one level per word; adds up to need live, untaken ids.
+         */
+        private void intersect(List<List<List<IntList>>> levels, int[] split, int need,
+                               Set<Integer> taken, TreeSet<Integer> found) {
+            UnionCursor[] cursors = new UnionCursor[split.length];
+            for (int w = 0; w < split.length; w++) {
+                cursors[w] = new UnionCursor(levels.get(w).get(split[w]));
+            }
+            int added = 0;
+            int id = 0;
+            int agreed = 0;
+            int w = 0;
+            while (added < need) {
+                int next = cursors[w].seek(id);
+                if (next == Integer.MAX_VALUE) {
+                    return;
+                }
+                if (next != id) {
+                    id = next;
+                    agreed = 0;
+                }
+                if (++agreed == split.length) {
+                    if (docs[id] != null && !taken.contains(id) && found.add(id)) {
+                        added++;
+                    }
+                    id++;
+                    agreed = 0;
+                }
+                w = (w + 1) % split.length;
+            }
+        }
+
+        /**
+         * Visits the distinct ids of several sorted lists in ascending order
+         * until the visitor returns false.
+         */
+        private static void mergeAscending(Collection<IntList> lists, IdVisitor visitor) {
+            List<IntList> sources = new ArrayList<>(lists);
+            PriorityQueue<int[]> merge = new PriorityQueue<>(Comparator.comparingInt(c -> c[0]));
+            for (int l = 0; l < sources.size(); l++) {
+                if (sources.get(l).size > 0) {
+                    merge.add(new int[] {sources.get(l).values[0], l, 0});
+                }
+            }
+            int last = -1;
+            while (!merge.isEmpty()) {
+                int[] cursor = merge.poll();
+                if (cursor[0] != last) {
+                    last = cursor[0];
+                    if (!visitor.visit(cursor[0])) {
+                        return;
+                    }
+                }
+                IntList ids = sources.get(cursor[1]);
+                if (++cursor[2] < ids.size) {
+                    cursor[0] = ids.values[cursor[2]];
+                    merge.add(cursor);
+                }
+            }
+        }
+
+        /**
+         * Posting lists of every query trigram, smallest first, or null if one is missing.
+         */
+        private IntList[] postingsFor(String query, boolean interior) {
+            List<IntList> lists = new ArrayList<>();
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                IntList ids = (i == 0 && interior ? interiorGrams : grams).get(gram(query, i));
+                if (ids == null) {
+                    return null;
+                }
+                if (!lists.contains(ids)) {
+                    lists.add(ids);
+                }
+            }
+            lists.sort(Comparator.comparingInt(l -> l.size));
+            return lists.toArray(new IntList[0]);
+        }
+    }
+
+    private interface IdVisitor {
+        boolean visit(int id);
+    }
+
+    /**
+     * Cursor over the union of several sorted posting lists.
+     */
+    private static final class UnionCursor {
+        private final List<IntList> lists;
+        private final int[] positions;
+
+        UnionCursor(List<IntList> lists) {
+            this.lists = lists;
+            this.positions = new int[lists.size()];
+        }
+
+        /**
+         * Smallest id at or after target in any list, or Integer.MAX_VALUE.
+         * Targets must not decrease between calls.
+         */
+        int seek(int target) {
+            int best = Integer.MAX_VALUE;
+            for (int i = 0; i < positions.length; i++) {
+                IntList list = lists.get(i);
+                int p = positions[i] = list.seek(positions[i], target);
+                if (p < list.size && list.values[p] < best) {
+                    best = list.values[p];
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class Posting {
+        final IntList ids;
+        final int cost;
+
+        Posting(IntList ids, int cost) {
+            this.ids = ids;
+            this.cost = cost;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.banking.database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.banking.model.Transaction;
+
+/**
+ * DashboardStatistics keeps materialised counters and sums for the dashboard.
+ * Each row of dashboard_stats is keyed by a statistic name:
+ * - customers              customer count
+ * - accounts               account count and total balance
+ * - type:&lt;account type&gt;  account count and total balance per type
+ * - branch:&lt;branch&gt;      account count and total balance per branch
+ * - posting:&lt;txn type&gt;   posting count and total amount per transaction type
+ *
+ * Counters are adjusted on the same connection, inside the same JDBC
+ * transaction, as the change they describe, so KPIs are single-row reads.
+ * rebuild() recomputes everything from the base tables.
+ */
+public class DashboardStatistics {
+    private static DashboardStatistics instance;
+
+    static final String CUSTOMERS = "customers";
+    static final String ACCOUNTS = "accounts";
+    static final String TYPE_PREFIX = "type:";
+    static final String BRANCH_PREFIX = "branch:";
+    static final String POSTING_PREFIX = "posting:";
+
+    private static final String ADJUST_SQL =
+        "MERGE INTO dashboard_stats s " +
+        "USING (VALUES (CAST(? AS VARCHAR(150)), CAST(? AS BIGINT), CAST(? AS DECIMAL(19, 2)))) " +
+        "      v(stat_key, item_count, amount_total) " +
+        "ON s.stat_key = v.stat_key " +
+        "WHEN MATCHED THEN UPDATE SET item_count = s.item_count + v.item_count, " +
+        "                             amount_total = s.amount_total + v.amount_total " +
+        "WHEN NOT MATCHED THEN INSERT (stat_key, item_count, amount_total) " +
+        "  VALUES (v.stat_key, v.item_count, v.amount_total)";
+
+    private final DatabaseManager db;
+
+    private DashboardStatistics() {
+        this.db = DatabaseManager.getInstance();
+    }
+
+    public static synchronized DashboardStatistics getInstance() {
+        if (instance == null) {
+            instance = new DashboardStatistics();
+        }
+        return instance;
+    }
+
+    // Incremental maintenance, called inside the writer's JDBC transaction
+
+    static void customerAdded(Connection conn, int delta) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ADJUST_SQL)) {
+            adjust(pstmt, CUSTOMERS, delta, 0);
+        }
+    }
+
+    /**
+     * Adjusts the account counters for one account.
+     * @param conn Open connection
+     * @param accountType Account type
+     * @param branch Branch code (may be null)
+     * @param countDelta +1 on open, -1 on close, 0 on a balance change
+     * @param balanceDelta Change to the summed balance
+     */
+    static void accountChanged(Connection conn, String accountType, String branch,
+                               int countDelta, double balanceDelta) throws SQLException {
+        if (countDelta == 0 && Math.abs(balanceDelta) < 0.005) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(ADJUST_SQL)) {
+            adjust(pstmt, ACCOUNTS, countDelta, balanceDelta);
+            adjust(pstmt, TYPE_PREFIX + accountType, countDelta, balanceDelta);
+            adjust(pstmt, BRANCH_PREFIX + (branch == null ? "" : branch), countDelta, balanceDelta);
+        }
+    }
+
+    /**
+     * Adjusts the account counters for a balance change, looking up type and branch.
+     */
+    static void balanceChanged(Connection conn, String accountNumber, double balanceDelta) throws SQLException {
+        if (Math.abs(balanceDelta) < 0.005) {
+            return;
+        }
+        String sql = "SELECT account_type, branch FROM accounts WHERE account_number = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, accountNumber);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                accountChanged(conn, rs.getString(1), rs.getString(2), 0, balanceDelta);
+            }
+        }
+    }
+
+    static void postingRecorded(Connection conn, Transaction transaction) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ADJUST_SQL)) {
+            adjust(pstmt, POSTING_PREFIX + transaction.getTransactionType(), 1, transaction.getAmount());
+        }
+    }
+
+    /**
+     * Adjusts the posting counters for several postings of one type.
+     */
+    static void postingsRecorded(Connection conn, String transactionType, long count, double amount)
+            throws SQLException {
+        if (count == 0) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(ADJUST_SQL)) {
+            adjust(pstmt, POSTING_PREFIX + transactionType, count, amount);
+        }
+    }
+
+    /**
+     * Applies one adjustment. Two transactions adding the same new key at
+     * once both find it missing and both insert; the second fails on the
+     * primary key once the first commits, and a second try updates the row.
+     */
+    private static void adjust(PreparedStatement pstmt, String key, long count, double amount)
+            throws SQLException {
+        pstmt.setString(1, key);
+        pstmt.setLong(2, count);
+        pstmt.setDouble(3, amount);
+        try {
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            if (!"23505".equals(e.getSQLState())) {
+                throw e;
+            }
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Rebuild
+
+    /**
+     * Recomputes every statistic from customers, accounts and all
+     * transaction tables (hot and archived) in one JDBC transaction.
+     * @return Number of statistic rows written
+     */
+    public int rebuild() {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int rows = rebuild(conn);
+                conn.commit();
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to rebuild dashboard statistics: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Builds the statistics when the table is empty, e.g. on first start after upgrade.
+     */
+    static void rebuildIfEmpty(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM dashboard_stats");
+            rs.next();
+            if (rs.getInt(1) > 0) {
+                return;
+            }
+        }
+        int rows = rebuild(conn);
+        if (rows > 0) {
+            System.out.println("✓ Dashboard statistics built (" + rows + " counters)");
+        }
+    }
+
+    private static int rebuild(Connection conn) throws SQLException {
+        StringBuilder postings = new StringBuilder("SELECT transaction_type, amount FROM transactions");
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT table_name FROM transaction_archives WHERE row_count > 0")) {
+            while (rs.next()) {
+                postings.append(" UNION ALL SELECT transaction_type, amount FROM ").append(rs.getString(1));
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM dashboard_stats");
+            stmt.executeUpdate(
+                "INSERT INTO dashboard_stats (stat_key, item_count, amount_total) " +
+                "SELECT '" + CUSTOMERS + "', COUNT(*), 0 FROM customers");
+            stmt.executeUpdate(
+                "INSERT INTO dashboard_stats (stat_key, item_count, amount_total) " +
+                "SELECT '" + ACCOUNTS + "', COUNT(*), COALESCE(SUM(balance), 0) FROM accounts");
+            stmt.executeUpdate(
+                "INSERT INTO dashboard_stats (stat_key, item_count, amount_total) " +
+                "SELECT '" + TYPE_PREFIX + "' || account_type, COUNT(*), SUM(balance) " +
+                "FROM accounts GROUP BY account_type");
+            stmt.executeUpdate(
+                "INSERT INTO dashboard_stats (stat_key, item_count, amount_total) " +
+                "SELECT '" + BRANCH_PREFIX + "' || COALESCE(branch, ''), COUNT(*), SUM(balance) " +
+                "FROM accounts GROUP BY COALESCE(branch, '')");
+            stmt.executeUpdate(
+                "INSERT INTO dashboard_stats (stat_key, item_count, amount_total) " +
+                "SELECT '" + POSTING_PREFIX + "' || transaction_type, COUNT(*), SUM(amount) " +
+                "FROM (" + postings + ") GROUP BY transaction_type");
+
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM dashboard_stats");
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    // Reads
+
+    public int getCustomerCount() {
+        Statistic stat = get(CUSTOMERS);
+        return stat == null ? 0 : (int) stat.getCount();
+    }
+
+    public int getAccountCount() {
+        Statistic stat = get(ACCOUNTS);
+        return stat == null ? 0 : (int) stat.getCount();
+    }
+
+    public double getTotalBalance() {
+        Statistic stat = get(ACCOUNTS);
+        return stat == null ? 0 : stat.getAmount();
+    }
+
+    /**
+     * Account count and total balance per account type.
+     */
+    public Map<String, Statistic> getAccountsByType() {
+        return getByPrefix(TYPE_PREFIX);
+    }
+
+    /**
+     * Account count and total balance per branch.
+     */
+    public Map<String, Statistic> getAccountsByBranch() {
+        return getByPrefix(BRANCH_PREFIX);
+    }
+
+    /**
+     * Posting count and total amount per transaction type.
+     */
+    public Map<String, Statistic> getPostingsByType() {
+        return getByPrefix(POSTING_PREFIX);
+    }
+
+    private Statistic get(String key) {
+        String sql = "SELECT item_count, amount_total FROM dashboard_stats WHERE stat_key = ?";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, key);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return new Statistic(rs.getLong(1), rs.getDouble(2));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to read dashboard statistic: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private Map<String, Statistic> getByPrefix(String prefix) {
+        Map<String, Statistic> stats = new LinkedHashMap<>();
+        String sql = "SELECT stat_key, item_count, amount_total FROM dashboard_stats " +
+                    "WHERE stat_key LIKE ? ORDER BY stat_key";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, prefix + "%");
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                stats.put(rs.getString(1).substring(prefix.length()),
+                          new Statistic(rs.getLong(2), rs.getDouble(3)));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to read dashboard statistics: " + e.getMessage());
+        }
+        return stats;
+    }
+
+    /**
+     * Lists every statistic key, for the rebuild tool's report.
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        String sql = "SELECT stat_key, item_count, amount_total FROM dashboard_stats ORDER BY stat_key";
+
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                lines.add(String.format("%-32s %8d  BWP %,.2f", rs.getString(1), rs.getLong(2), rs.getDouble(3)));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to read dashboard statistics: " + e.getMessage());
+        }
+        return lines;
+    }
+
+    /**
+     * A counter and its summed amount.
+     */
+    public static class Statistic {
+        private final long count;
+        private final double amount;
+
+        public Statistic(long count, double amount) {
+            this.count = count;
+            this.amount = amount;
+        }
+
+        public long getCount() { return count; }
+        public double getAmount() { return amount; }
+    }
+}
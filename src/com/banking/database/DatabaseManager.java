@@ -3,7 +3,11 @@ package com.banking.database;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 import com.banking.model.*;
 
@@ -95,7 +99,135 @@ public class DatabaseManager {
                 "FOREIGN KEY (account_number) REFERENCES accounts(account_number)" +
                 ")";
             stmt.execute(createTransactionsTable);
-            
+
+            // Ledger sequence gives transactions a total order per account
+            stmt.execute("ALTER TABLE transactions ADD COLUMN IF NOT EXISTS ledger_seq BIGINT AUTO_INCREMENT");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_account_seq " +
+                         "ON transactions(account_number, ledger_seq)");
+
+            // Create balance snapshots table (event-sourced ledger)
+            String createSnapshotsTable =
+                "CREATE TABLE IF NOT EXISTS balance_snapshots (" +
+                "account_number VARCHAR(50) NOT NULL, " +
+                "ledger_seq BIGINT NOT NULL, " +
+                "balance DECIMAL(15, 2) NOT NULL, " +
+                "snapshot_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                "PRIMARY KEY (account_number, ledger_seq), " +
+                "FOREIGN KEY (account_number) REFERENCES accounts(account_number) ON DELETE CASCADE" +
+                ")";
+            stmt.execute(createSnapshotsTable);
+            // Baseline snapshots carry balances from before the ledger was kept
+            stmt.execute("ALTER TABLE balance_snapshots ADD COLUMN IF NOT EXISTS baseline BOOLEAN DEFAULT FALSE NOT NULL");
+
+            // Create daily balance checkpoints table (balance-as-of queries)
+            String createCheckpointsTable =
+                "CREATE TABLE IF NOT EXISTS balance_checkpoints (" +
+                "account_number VARCHAR(50) NOT NULL, " +
+                "checkpoint_date DATE NOT NULL, " +
+                "balance DECIMAL(15, 2) NOT NULL, " +
+                "checkpoint_timestamp TIMESTAMP NOT NULL, " +
+                "PRIMARY KEY (account_number, checkpoint_date), " +
+                "FOREIGN KEY (account_number) REFERENCES accounts(account_number) ON DELETE CASCADE" +
+                ")";
+            stmt.execute(createCheckpointsTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_account_time " +
+                         "ON transactions(account_number, transaction_timestamp)");
+            CheckpointIndex.backfillIfEmpty(conn);
+
+            // Create archive catalog table (hot/cold partitioning)
+            String createArchivesTable =
+                "CREATE TABLE IF NOT EXISTS transaction_archives (" +
+                "table_name VARCHAR(64) PRIMARY KEY, " +
+                "period_start DATE NOT NULL, " +
+                "period_end DATE NOT NULL, " +
+                "row_count INT DEFAULT 0" +
+                ")";
+            stmt.execute(createArchivesTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_transactions_time " +
+                         "ON transactions(transaction_timestamp)");
+
+            // Create materialised dashboard statistics table
+            String createStatsTable =
+                "CREATE TABLE IF NOT EXISTS dashboard_stats (" +
+                "stat_key VARCHAR(150) PRIMARY KEY, " +
+                "item_count BIGINT DEFAULT 0 NOT NULL, " +
+                "amount_total DECIMAL(19, 2) DEFAULT 0 NOT NULL" +
+                ")";
+            stmt.execute(createStatsTable);
+            DashboardStatistics.rebuildIfEmpty(conn);
+
+            // Create posting engine state table (last engine sequence stored)
+            String createEngineStateTable =
+                "CREATE TABLE IF NOT EXISTS posting_engine_state (" +
+                "id INT PRIMARY KEY, " +
+                "last_sequence BIGINT NOT NULL" +
+                ")";
+            stmt.execute(createEngineStateTable);
+
+            // Create payroll register tables (payroll files received and their totals)
+            String createPayrollFilesTable =
+                "CREATE TABLE IF NOT EXISTS payroll_files (" +
+                "file_hash VARCHAR(64) PRIMARY KEY, " +
+                "file_name VARCHAR(255), " +
+                "status VARCHAR(12) NOT NULL, " +
+                "line_count INT, " +
+                "received_at TIMESTAMP NOT NULL, " +
+                "completed_at TIMESTAMP" +
+                ")";
+            stmt.execute(createPayrollFilesTable);
+            String createPayrollTotalsTable =
+                "CREATE TABLE IF NOT EXISTS payroll_employer_totals (" +
+                "file_hash VARCHAR(64) NOT NULL, " +
+                "company_name VARCHAR(100) NOT NULL, " +
+                "line_count INT NOT NULL, " +
+                "credited INT NOT NULL, " +
+                "already_credited INT NOT NULL, " +
+                "rejected INT NOT NULL, " +
+                "amount_credited DECIMAL(15, 2) NOT NULL, " +
+                "PRIMARY KEY (file_hash, company_name)" +
+                ")";
+            stmt.execute(createPayrollTotalsTable);
+
+            // Create idempotency keys table (replayed API requests)
+            String createIdempotencyTable =
+                "CREATE TABLE IF NOT EXISTS idempotency_keys (" +
+                "idempotency_key VARCHAR(120) PRIMARY KEY, " +
+                "request VARCHAR(255) NOT NULL, " +
+                "message VARCHAR(255), " +
+                "new_balance DECIMAL(15, 2) NOT NULL, " +
+                "created_at TIMESTAMP NOT NULL" +
+                ")";
+            stmt.execute(createIdempotencyTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_idempotency_created ON idempotency_keys(created_at)");
+
+            // Create bulk import progress table (resumable customer and account imports)
+            String createBulkImportsTable =
+                "CREATE TABLE IF NOT EXISTS bulk_imports (" +
+                "file_hash VARCHAR(64) PRIMARY KEY, " +
+                "kind VARCHAR(20) NOT NULL, " +
+                "file_name VARCHAR(255), " +
+                "status VARCHAR(12) NOT NULL, " +
+                "committed_offset BIGINT NOT NULL, " +
+                "committed_line INT NOT NULL, " +
+                "imported INT NOT NULL, " +
+                "rejected INT NOT NULL, " +
+                "started_at TIMESTAMP NOT NULL, " +
+                "updated_at TIMESTAMP NOT NULL, " +
+                "completed_at TIMESTAMP" +
+                ")";
+            stmt.execute(createBulkImportsTable);
+
+            // Create reconciliation checkpoints table (incremental ledger reconciliation)
+            String createReconciliationTable =
+                "CREATE TABLE IF NOT EXISTS reconciliation_checkpoints (" +
+                "account_number VARCHAR(50) PRIMARY KEY, " +
+                "ledger_seq BIGINT NOT NULL, " +
+                "last_balance_after DECIMAL(15, 2) NOT NULL, " +
+                "ledger_balance DECIMAL(15, 2) NOT NULL, " +
+                "reconciled_at TIMESTAMP NOT NULL" +
+                ")";
+            stmt.execute(createReconciliationTable);
+
             System.out.println("✓ Database schema initialized (File: banking.mv.db)");
             insertDefaultUser(conn);
             
@@ -116,11 +248,14 @@ public class DatabaseManager {
             
             rs.next();
             if (rs.getInt(1) == 0) {
+                ExistenceFilters.getInstance().beginWrite(ExistenceFilters.Entity.USER, "admin");
                 try (var pstmt = conn.prepareStatement(insertUserSQL)) {
                     String passwordHash = String.valueOf("admin123".hashCode());
                     pstmt.setString(1, passwordHash);
                     pstmt.executeUpdate();
                     System.out.println("✓ Default admin user created (username: admin, password: admin123)");
+                } finally {
+                    ExistenceFilters.getInstance().endWrite(ExistenceFilters.Entity.USER, "admin");
                 }
             } else {
                 System.out.println("✓ Admin user already exists");
@@ -138,23 +273,44 @@ public class DatabaseManager {
         String sql = "MERGE INTO customers (customer_id, first_name, surname, address, phone_number, email) " +
                     "KEY(customer_id) VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, customer.getCustomerId());
-            pstmt.setString(2, customer.getFirstName());
-            pstmt.setString(3, customer.getSurname());
-            pstmt.setString(4, customer.getAddress());
-            pstmt.setString(5, customer.getPhoneNumber());
-            pstmt.setString(6, customer.getEmail());
-            
-            pstmt.executeUpdate();
+        ExistenceFilters.getInstance().beginWrite(ExistenceFilters.Entity.CUSTOMER, customer.getCustomerId());
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                boolean exists;
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "SELECT 1 FROM customers WHERE customer_id = ? FOR UPDATE")) {
+                    pstmt.setString(1, customer.getCustomerId());
+                    exists = pstmt.executeQuery().next();
+                }
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, customer.getCustomerId());
+                    pstmt.setString(2, customer.getFirstName());
+                    pstmt.setString(3, customer.getSurname());
+                    pstmt.setString(4, customer.getAddress());
+                    pstmt.setString(5, customer.getPhoneNumber());
+                    pstmt.setString(6, customer.getEmail());
+                    pstmt.executeUpdate();
+                }
+
+                if (!exists) {
+                    DashboardStatistics.customerAdded(conn, 1);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            CustomerNameIndex.getInstance().put(customer);
             System.out.println("✓ Customer saved to disk: " + customer.getCustomerId());
             return true;
             
         } catch (SQLException e) {
             System.err.println("✗ Failed to save customer: " + e.getMessage());
             return false;
+        } finally {
+            ExistenceFilters.getInstance().endWrite(ExistenceFilters.Entity.CUSTOMER, customer.getCustomerId());
         }
     }
     
@@ -218,15 +374,59 @@ public class DatabaseManager {
     }
     
     /**
-     * Deletes a customer from permanent storage.
+     * Retrieves one page of customers in ID order, starting after the given ID.
+     * Keyset paging on the primary key, so deep pages cost the same as the first.
      */
-    public boolean deleteCustomer(String customerId) {
-        String sql = "DELETE FROM customers WHERE customer_id = ?";
+    public List<Customer> getCustomersAfter(String afterCustomerId, int limit) {
+        List<Customer> customers = new ArrayList<>();
+        String sql = "SELECT * FROM customers WHERE customer_id > ? ORDER BY customer_id LIMIT ?";
+
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, customerId);
-            return pstmt.executeUpdate() > 0;
+            pstmt.setString(1, afterCustomerId == null ? "" : afterCustomerId);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                Customer customer = new Customer(
+                    rs.getString("customer_id"),
+                    rs.getString("first_name"),
+                    rs.getString("surname"),
+                    rs.getString("address")
+                );
+                customer.setPhoneNumber(rs.getString("phone_number"));
+                customer.setEmail(rs.getString("email"));
+                customers.add(customer);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to retrieve customers: " + e.getMessage());
+        }
+        return customers;
+    }
+
+    /**
+     * Deletes a customer from permanent storage.
+     */
+    public boolean deleteCustomer(String customerId) {
+        String sql = "DELETE FROM customers WHERE customer_id = ?";
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, customerId);
+                boolean deleted = pstmt.executeUpdate() > 0;
+                if (deleted) {
+                    DashboardStatistics.customerAdded(conn, -1);
+                }
+                conn.commit();
+                if (deleted) {
+                    CustomerNameIndex.getInstance().remove(customerId);
+                }
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
 
         } catch (SQLException e) {
             System.err.println("✗ Failed to delete customer: " + e.getMessage());
@@ -271,6 +471,8 @@ public class DatabaseManager {
     
     /**
      * Saves an account to permanent storage.
+     * In event-sourced mode the balance of an existing account belongs to the
+     * ledger: the stored balance is kept, and the account adopts it.
      */
     public boolean saveAccount(Account account) {
         String sql = "MERGE INTO accounts " +
@@ -278,26 +480,64 @@ public class DatabaseManager {
                     "company_name, company_address) " +
                     "KEY(account_number) VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, account.getAccountNumber());
-            pstmt.setString(2, account.getCustomer().getCustomerId());
-            pstmt.setString(3, account.getAccountType());
-            pstmt.setDouble(4, account.getBalance());
-            pstmt.setString(5, account.getBranch());
-            
-            // Handle ChequeAccount specific fields
-            if (account instanceof ChequeAccount) {
-                ChequeAccount cheque = (ChequeAccount) account;
-                pstmt.setString(6, cheque.getCompanyName());
-                pstmt.setString(7, cheque.getCompanyAddress());
-            } else {
-                pstmt.setString(6, null);
-                pstmt.setString(7, null);
+        ExistenceFilters.getInstance().beginWrite(ExistenceFilters.Entity.ACCOUNT, account.getAccountNumber());
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Previous state, so the dashboard counters move by the difference
+                String oldType = null;
+                String oldBranch = null;
+                double oldBalance = 0;
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "SELECT account_type, branch, balance FROM accounts WHERE account_number = ? FOR UPDATE")) {
+                    pstmt.setString(1, account.getAccountNumber());
+                    ResultSet rs = pstmt.executeQuery();
+                    if (rs.next()) {
+                        oldType = rs.getString(1);
+                        oldBranch = rs.getString(2);
+                        oldBalance = rs.getDouble(3);
+                    }
+                }
+                if (oldType != null && LedgerStore.isEventSourced()) {
+                    account.setBalance(oldBalance);
+                }
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, account.getAccountNumber());
+                    pstmt.setString(2, account.getCustomer().getCustomerId());
+                    pstmt.setString(3, account.getAccountType());
+                    pstmt.setDouble(4, account.getBalance());
+                    pstmt.setString(5, account.getBranch());
+
+                    // Handle ChequeAccount specific fields
+                    if (account instanceof ChequeAccount) {
+                        ChequeAccount cheque = (ChequeAccount) account;
+                        pstmt.setString(6, cheque.getCompanyName());
+                        pstmt.setString(7, cheque.getCompanyAddress());
+                    } else {
+                        pstmt.setString(6, null);
+                        pstmt.setString(7, null);
+                    }
+
+                    pstmt.executeUpdate();
+                }
+
+                if (oldType != null && oldType.equals(account.getAccountType())
+                        && Objects.equals(oldBranch, account.getBranch())) {
+                    DashboardStatistics.accountChanged(conn, oldType, oldBranch, 0,
+                                                       account.getBalance() - oldBalance);
+                } else {
+                    if (oldType != null) {
+                        DashboardStatistics.accountChanged(conn, oldType, oldBranch, -1, -oldBalance);
+                    }
+                    DashboardStatistics.accountChanged(conn, account.getAccountType(), account.getBranch(),
+                                                       1, account.getBalance());
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-            
-            pstmt.executeUpdate();
             System.out.println("✓ Account saved to disk: " + account.getAccountNumber() + 
                              " (Balance: BWP " + String.format("%.2f", account.getBalance()) + ")");
             return true;
@@ -306,6 +546,8 @@ public class DatabaseManager {
             System.err.println("✗ Failed to save account: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            ExistenceFilters.getInstance().endWrite(ExistenceFilters.Entity.ACCOUNT, account.getAccountNumber());
         }
     }
     
@@ -374,11 +616,37 @@ public class DatabaseManager {
     public boolean deleteAccount(String accountNumber) {
         String sql = "DELETE FROM accounts WHERE account_number = ?";
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                String type = null;
+                String branch = null;
+                double balance = 0;
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "SELECT account_type, branch, balance FROM accounts WHERE account_number = ? FOR UPDATE")) {
+                    pstmt.setString(1, accountNumber);
+                    ResultSet rs = pstmt.executeQuery();
+                    if (rs.next()) {
+                        type = rs.getString(1);
+                        branch = rs.getString(2);
+                        balance = rs.getDouble(3);
+                    }
+                }
 
-            pstmt.setString(1, accountNumber);
-            return pstmt.executeUpdate() > 0;
+                boolean deleted;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, accountNumber);
+                    deleted = pstmt.executeUpdate() > 0;
+                }
+                if (deleted) {
+                    DashboardStatistics.accountChanged(conn, type, branch, -1, -balance);
+                }
+                conn.commit();
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
 
         } catch (SQLException e) {
             System.err.println("✗ Failed to delete account: " + e.getMessage());
@@ -449,7 +717,9 @@ public class DatabaseManager {
                     account = new SavingsAccount(accountNumber, 0, branch, customer);
                     break;
                 case "Investment Account":
-                    account = new InvestmentAccount(accountNumber, balance, branch, customer);
+                    // The minimum applies on opening; a later balance may be lower
+                    account = new InvestmentAccount(accountNumber, InvestmentAccount.MINIMUM_OPENING_BALANCE,
+                                                    branch, customer);
                     break;
                 case "Cheque Account":
                     String companyName = rs.getString("company_name");
@@ -481,18 +751,25 @@ public class DatabaseManager {
                     "balance_after, description, transaction_timestamp) " +
                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, transaction.getTransactionId());
-            pstmt.setString(2, transaction.getAccountNumber());
-            pstmt.setString(3, transaction.getTransactionType());
-            pstmt.setDouble(4, transaction.getAmount());
-            pstmt.setDouble(5, transaction.getBalanceAfter());
-            pstmt.setString(6, transaction.getDescription());
-            pstmt.setTimestamp(7, Timestamp.valueOf(transaction.getTimestamp()));
-            
-            pstmt.executeUpdate();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, transaction.getTransactionId());
+                pstmt.setString(2, transaction.getAccountNumber());
+                pstmt.setString(3, transaction.getTransactionType());
+                pstmt.setDouble(4, transaction.getAmount());
+                pstmt.setDouble(5, transaction.getBalanceAfter());
+                pstmt.setString(6, transaction.getDescription());
+                pstmt.setTimestamp(7, Timestamp.valueOf(transaction.getTimestamp()));
+
+                pstmt.executeUpdate();
+                CheckpointIndex.record(conn, transaction);
+                DashboardStatistics.postingRecorded(conn, transaction);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
             return true;
             
         } catch (SQLException e) {
@@ -564,6 +841,89 @@ public class DatabaseManager {
         return null;
     }
 
+    /**
+     * Checks whether a row with the given key exists, reading the key
+     * column's index only. Used by ExistenceFilters.
+     * @param table Table name (not user input)
+     * @param column Key column (not user input)
+     * @return true if it exists; false if not, or on error
+     */
+    boolean keyExists(String table, String column, String key) {
+        String sql = "SELECT 1 FROM " + table + " WHERE " + column + " = ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, key);
+            return pstmt.executeQuery().next();
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to look up " + table + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Finds which of the given keys have a row, in one query.
+     * @param table Table name (not user input)
+     * @param column Key column (not user input)
+     * @return The keys found
+     * @throws SQLException if the lookup fails, since a caller would
+     *         otherwise take every key to be free
+     */
+    Set<String> findExistingKeys(String table, String column, Collection<String> keys) throws SQLException {
+        Set<String> found = new HashSet<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+        String sql = "SELECT " + column + " FROM " + table + " WHERE " + column + " = ANY(?)";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setArray(1, conn.createArrayOf("VARCHAR", keys.toArray()));
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                found.add(rs.getString(1));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds which of the given transaction IDs are already stored, in hot
+     * storage or any archive table.
+     * @return The stored IDs; empty if none are
+     * @throws SQLException if the lookup fails, since a caller would
+     *         otherwise post the same IDs again
+     */
+    public Set<String> findStoredTransactionIds(Collection<String> ids) throws SQLException {
+        Set<String> stored = new HashSet<>();
+        if (ids.isEmpty()) {
+            return stored;
+        }
+
+        try (Connection conn = getConnection()) {
+            Array idArray = conn.createArrayOf("VARCHAR", ids.toArray());
+            List<String> tables = new ArrayList<>();
+            tables.add("transactions");
+            tables.addAll(TransactionArchive.getInstance().findArchiveTables(conn, null, null));
+
+            for (String table : tables) {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "SELECT transaction_id FROM " + table + " WHERE transaction_id = ANY(?)")) {
+                    pstmt.setArray(1, idArray);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        stored.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return stored;
+    }
+
     /**
      * Finds transactions within a specific date range.
      */
@@ -654,6 +1014,7 @@ public class DatabaseManager {
         String sql = "MERGE INTO users (user_id, username, password_hash, role) " +
                     "KEY(user_id) VALUES (?, ?, ?, ?)";
         
+        ExistenceFilters.getInstance().beginWrite(ExistenceFilters.Entity.USER, user.getUserId());
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -669,6 +1030,8 @@ public class DatabaseManager {
         } catch (SQLException e) {
             System.err.println("✗ Failed to save user: " + e.getMessage());
             return false;
+        } finally {
+            ExistenceFilters.getInstance().endWrite(ExistenceFilters.Entity.USER, user.getUserId());
         }
     }
     
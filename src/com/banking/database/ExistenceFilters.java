@@ -0,0 +1,297 @@
+package com.banking.database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ExistenceFilters answers "does this account number, customer ID or user
+ * ID exist?" with a ScalableBloomFilter of each table's keys in front of
+ * the database. A key the filter has never seen does not exist, so the
+ * common negative check (a new ID being tested for uniqueness) needs no
+ * query; a possible match is confirmed by an index lookup of the key
+ * alone.
+ *
+ * The filters are rebuilt from the tables at startup and kept current by
+ * DatabaseManager, which adds each key before its row is written so a key
+ * is never missing while its row exists. Keys still being written when a
+ * rebuild reads the table are carried over to the new filter. Deleted keys
+ * stay in the filter until the next rebuild and only cost a confirming
+ * query.
+ */
+public class ExistenceFilters {
+    private static ExistenceFilters instance;
+
+    private static final int INITIAL_CAPACITY = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * Tables with a filter over their primary key.
+     */
+    public enum Entity {
+        ACCOUNT("accounts", "account_number"),
+        CUSTOMER("customers", "customer_id"),
+        USER("users", "user_id");
+
+        private final String table;
+        private final String column;
+
+        Entity(String table, String column) {
+            this.table = table;
+            this.column = column;
+        }
+    }
+
+    private final DatabaseManager db;
+    private final Map<Entity, KeyFilter> filters = new EnumMap<>(Entity.class);
+
+    private ExistenceFilters() {
+        this.db = DatabaseManager.getInstance();
+        for (Entity entity : Entity.values()) {
+            filters.put(entity, new KeyFilter(entity));
+        }
+    }
+
+    public static synchronized ExistenceFilters getInstance() {
+        if (instance == null) {
+            instance = new ExistenceFilters();
+        }
+        return instance;
+    }
+
+    /**
+     * Rebuilds every filter from its table.
+     * @return Number of keys loaded, or -1 on failure
+     */
+    public int rebuild() {
+        int keys = 0;
+        for (KeyFilter filter : filters.values()) {
+            try {
+                keys += filter.rebuild();
+            } catch (SQLException e) {
+                System.err.println("✗ Failed to build " + filter.entity.table + " existence filter: " + e.getMessage());
+                return -1;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Adds a key about to be written. Called before the row is stored,
+     * with endWrite once the write has committed or failed.
+     */
+    void beginWrite(Entity entity, String key) {
+        if (key != null) {
+            filters.get(entity).beginWrite(key);
+        }
+    }
+
+    void endWrite(Entity entity, String key) {
+        if (key != null) {
+            filters.get(entity).endWrite(key);
+        }
+    }
+
+    /**
+     * @return true if a row with this key exists
+     */
+    public boolean exists(Entity entity, String key) {
+        if (key == null) {
+            return false;
+        }
+        return filters.get(entity).exists(key);
+    }
+
+    /**
+     * Finds which of many keys exist: those the filter rules out are
+     * dropped, and the rest are looked up in one query.
+     * @return The keys that exist
+     */
+    public Set<String> findExisting(Entity entity, Collection<String> keys) throws SQLException {
+        KeyFilter filter = filters.get(entity);
+        List<String> candidates = new ArrayList<>();
+        for (String key : keys) {
+            if (key != null && filter.mightExist(key)) {
+                candidates.add(key);
+            }
+        }
+        Set<String> found = db.findExistingKeys(entity.table, entity.column, candidates);
+        if (filter.filter != null) {
+            filter.falsePositives.addAndGet(candidates.size() - found.size());
+        }
+        return found;
+    }
+
+    /**
+     * @return Filter size and hit counts since start
+     */
+    public Stats getStats(Entity entity) {
+        return filters.get(entity).stats();
+    }
+
+    /**
+     * One table's filter. Built on first use if rebuild() was not called.
+     */
+    private class KeyFilter {
+        final Entity entity;
+        private volatile ScalableBloomFilter filter;
+        // Keys being written, which a rebuild may not see in the table
+        private final Map<String, Integer> writing = new HashMap<>();
+        // Keys to add to the filter a rebuild is building; null when none runs
+        private List<String> pending;
+
+        final AtomicLong checks = new AtomicLong();
+        final AtomicLong filtered = new AtomicLong();
+        final AtomicLong falsePositives = new AtomicLong();
+
+        KeyFilter(Entity entity) {
+            this.entity = entity;
+        }
+
+        int rebuild() throws SQLException {
+            synchronized (this) {
+                pending = new ArrayList<>(writing.keySet());
+            }
+            ScalableBloomFilter built = null;
+            int count = 0;
+            try (Connection conn = db.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + entity.table)) {
+                    rs.next();
+                    built = new ScalableBloomFilter(Math.max(INITIAL_CAPACITY, rs.getInt(1) * 2), FALSE_POSITIVE_RATE);
+                }
+                try (ResultSet rs = stmt.executeQuery("SELECT " + entity.column + " FROM " + entity.table)) {
+                    while (rs.next()) {
+                        built.put(rs.getString(1));
+                        count++;
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    if (built != null) {
+                        for (String key : pending) {
+                            built.put(key);
+                        }
+                        filter = built;
+                    }
+                    pending = null;
+                }
+            }
+            return count;
+        }
+
+        synchronized void beginWrite(String key) {
+            writing.merge(key, 1, Integer::sum);
+            if (filter != null) {
+                filter.put(key);
+            }
+            if (pending != null) {
+                pending.add(key);
+            }
+        }
+
+        synchronized void endWrite(String key) {
+            writing.computeIfPresent(key, (k, writers) -> writers == 1 ? null : writers - 1);
+        }
+
+        boolean exists(String key) {
+            if (!mightExist(key)) {
+                return false;
+            }
+            boolean found = db.keyExists(entity.table, entity.column, key);
+            if (filter != null && !found) {
+                falsePositives.incrementAndGet();
+            }
+            return found;
+        }
+
+        /**
+         * Counts a check and asks the filter, building it first if needed.
+         * @return false if the key certainly does not exist
+         */
+        boolean mightExist(String key) {
+            checks.incrementAndGet();
+            ScalableBloomFilter current = filter;
+            if (current == null) {
+                try {
+                    synchronized (this) {
+                        if (filter == null && pending == null) {
+                            rebuild();
+                        }
+                    }
+                } catch (SQLException e) {
+                    System.err.println("✗ Failed to build " + entity.table + " existence filter: " + e.getMessage());
+                }
+                current = filter;
+            }
+            if (current != null && !current.mightContain(key)) {
+                filtered.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        Stats stats() {
+            ScalableBloomFilter current = filter;
+            return new Stats(entity, current == null ? 0 : current.getCount(),
+                current == null ? 0 : current.getLayerCount(), current == null ? 0 : current.getSizeBytes(),
+                checks.get(), filtered.get(), falsePositives.get(),
+                current == null ? 0 : current.estimateFalsePositiveRate());
+        }
+    }
+
+    /**
+     * Size and effectiveness of one filter.
+     */
+    public static class Stats {
+        private final Entity entity;
+        private final long keys;
+        private final int layers;
+        private final long sizeBytes;
+        private final long checks;
+        private final long filtered;
+        private final long falsePositives;
+        private final double estimatedFalsePositiveRate;
+
+        public Stats(Entity entity, long keys, int layers, long sizeBytes, long checks, long filtered,
+                     long falsePositives, double estimatedFalsePositiveRate) {
+            this.entity = entity;
+            this.keys = keys;
+            this.layers = layers;
+            this.sizeBytes = sizeBytes;
+            this.checks = checks;
+            this.filtered = filtered;
+            this.falsePositives = falsePositives;
+            this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+        }
+
+        public Entity getEntity() { return entity; }
+        /** Keys added to the filter, including deleted ones */
+        public long getKeys() { return keys; }
+        public int getLayers() { return layers; }
+        public long getSizeBytes() { return sizeBytes; }
+        /** Existence checks made since start */
+        public long getChecks() { return checks; }
+        /** Checks answered by the filter without a query */
+        public long getFiltered() { return filtered; }
+        /** Checks the filter passed to the database that found no row */
+        public long getFalsePositives() { return falsePositives; }
+        /** False positive rate expected from the bits set in the filter */
+        public double getEstimatedFalsePositiveRate() { return estimatedFalsePositiveRate; }
+
+        /**
+         * @return Share of checks for missing keys that still went to the
+         * database; 0 before any such check
+         */
+        public double getObservedFalsePositiveRate() {
+            long negatives = filtered + falsePositives;
+            return negatives == 0 ? 0 : (double) falsePositives / negatives;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.banking.database;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IdempotencyStore keeps the result of every posting made under an
+ * idempotency key, so a retried request gets the original result instead
+ * of being posted again. Keys expire after banking.idempotency.ttlMinutes
+ * (default one day); expired rows are purged at most once an hour.
+ *
+ * A Bloom filter of the stored keys sits in front of the table. Almost
+ * every key is new, and for those the filter answers without a query; only
+ * keys it may have seen are looked up on disk.
+ */
+public class IdempotencyStore {
+    private static IdempotencyStore instance;
+
+    // Filter size before the first rebuild; rebuilt larger if the table has grown
+    private static final int FILTER_INSERTIONS = 100_000;
+    private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final DatabaseManager db;
+    private final long ttlMillis;
+    private volatile BloomFilter filter;
+    private volatile long lastPurge;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong filtered = new AtomicLong();
+    private final AtomicLong found = new AtomicLong();
+
+    private IdempotencyStore() {
+        this.db = DatabaseManager.getInstance();
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(Long.getLong("banking.idempotency.ttlMinutes", 24 * 60L));
+    }
+
+    public static synchronized IdempotencyStore getInstance() {
+        if (instance == null) {
+            instance = new IdempotencyStore();
+        }
+        return instance;
+    }
+
+    /**
+     * A stored result. The request describes what the key was first used
+     * for, so the same key cannot replay a different posting.
+     */
+    public static class Record {
+        private final String request;
+        private final String message;
+        private final double newBalance;
+        private final LocalDateTime createdAt;
+
+        public Record(String request, String message, double newBalance, LocalDateTime createdAt) {
+            this.request = request;
+            this.message = message;
+            this.newBalance = newBalance;
+            this.createdAt = createdAt;
+        }
+
+        public String getRequest() { return request; }
+        public String getMessage() { return message; }
+        public double getNewBalance() { return newBalance; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+
+    /**
+     * @return The unexpired result stored under the key, or null
+     */
+    public Record find(String key) throws SQLException {
+        lookups.incrementAndGet();
+        if (!filter().mightContain(key)) {
+            filtered.incrementAndGet();
+            return null;
+        }
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT request, message, new_balance, created_at FROM idempotency_keys " +
+                 "WHERE idempotency_key = ? AND created_at >= ?")) {
+            pstmt.setString(1, key);
+            pstmt.setTimestamp(2, Timestamp.valueOf(cutoff()));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                found.incrementAndGet();
+                return new Record(rs.getString("request"), rs.getString("message"),
+                    rs.getDouble("new_balance"), rs.getTimestamp("created_at").toLocalDateTime());
+            }
+        }
+    }
+
+    /**
+     * Stores a result under its key, replacing an expired one.
+     */
+    public void save(String key, Record record) throws SQLException {
+        filter();
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "MERGE INTO idempotency_keys (idempotency_key, request, message, new_balance, created_at) " +
+                 "KEY(idempotency_key) VALUES (?, ?, ?, ?, ?)")) {
+            pstmt.setString(1, key);
+            pstmt.setString(2, record.getRequest());
+            pstmt.setString(3, truncate(record.getMessage(), 255));
+            pstmt.setDouble(4, record.getNewBalance());
+            pstmt.setTimestamp(5, Timestamp.valueOf(record.getCreatedAt()));
+            pstmt.executeUpdate();
+        }
+        // Under the lock, so a rebuild that read the table before this row
+        // was written cannot replace the filter after the key is added
+        synchronized (this) {
+            filter.put(key);
+        }
+        if (System.currentTimeMillis() - lastPurge > PURGE_INTERVAL_MILLIS) {
+            purgeExpired();
+        }
+    }
+
+    /**
+     * Deletes expired keys and rebuilds the filter from those left, so it
+     * does not fill up with keys that can no longer match.
+     * @return Number of keys deleted
+     */
+    public synchronized int purgeExpired() throws SQLException {
+        lastPurge = System.currentTimeMillis();
+        int deleted;
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "DELETE FROM idempotency_keys WHERE created_at < ?")) {
+                pstmt.setTimestamp(1, Timestamp.valueOf(cutoff()));
+                deleted = pstmt.executeUpdate();
+            }
+            filter = load(conn);
+        }
+        if (deleted > 0) {
+            System.out.println("✓ Purged " + deleted + " expired idempotency keys");
+        }
+        return deleted;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * @return Lookups made since start
+     */
+    public long getLookupCount() {
+        return lookups.get();
+    }
+
+    /**
+     * @return Lookups the Bloom filter answered without a query
+     */
+    public long getFilteredCount() {
+        return filtered.get();
+    }
+
+    /**
+     * @return Lookups that found a stored result
+     */
+    public long getFoundCount() {
+        return found.get();
+    }
+
+    private BloomFilter filter() throws SQLException {
+        BloomFilter current = filter;
+        if (current == null) {
+            synchronized (this) {
+                if (filter == null) {
+                    purgeExpired();
+                }
+                current = filter;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Builds a filter holding every key in the table.
+     */
+    private BloomFilter load(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int count;
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM idempotency_keys")) {
+                rs.next();
+                count = rs.getInt(1);
+            }
+            BloomFilter loaded = new BloomFilter(Math.max(FILTER_INSERTIONS, count * 2), FILTER_FALSE_POSITIVE_RATE);
+            try (ResultSet rs = stmt.executeQuery("SELECT idempotency_key FROM idempotency_keys")) {
+                while (rs.next()) {
+                    loaded.put(rs.getString(1));
+                }
+            }
+            return loaded;
+        }
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+    }
+
+    private static String truncate(String text, int length) {
+        return text == null || text.length() <= length ? text : text.substring(0, length);
+    }
+}
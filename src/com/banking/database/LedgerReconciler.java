@@ -0,0 +1,518 @@
+package com.banking.database;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.banking.model.Transaction;
+
+/**
+ * LedgerReconciler checks the ledger against itself and against the
+ * account balances, without changing either:
+ * - each posting's balance_after continues from the posting before it
+ *   (previous balance_after plus or minus the amount, in ledger_seq order);
+ * - accounts.balance equals the sum of the account's postings.
+ * Hot and archived postings are both read. For each account the first
+ * posting that breaks the chain is reported, and any difference between
+ * the stored balance and the ledger.
+ *
+ * The accounts are split into partitions of consecutive account numbers,
+ * which a ForkJoinPool reconciles in parallel: each partition streams its
+ * postings from one cursor, ordered by account and ledger_seq, and reads
+ * everything from one snapshot so postings made meanwhile cannot show up
+ * as mismatches.
+ *
+ * Where each account got to is kept in reconciliation_checkpoints. An
+ * incremental run starts every account from its checkpoint and reads only
+ * the postings after it; a full run starts from the first posting and
+ * rewrites the checkpoints. Stored balances are compared on every run;
+ * a difference is re-read before it is reported, as outside event-sourced
+ * mode a posting and its balance update commit separately.
+ *
+ * Settings (system properties):
+ * - banking.reconcile.partitionAccounts (default 1000)
+ */
+public class LedgerReconciler {
+    private static LedgerReconciler instance;
+
+    // Mismatches kept in a result; all are counted
+    public static final int MAX_REPORTED = 1_000;
+    private static final int FETCH_ROWS = 1_000;
+    private static final int CONFIRM_ATTEMPTS = 3;
+    private static final long CONFIRM_PAUSE_MILLIS = 20;
+
+    private final DatabaseManager db;
+    private final int partitionAccounts;
+
+    private LedgerReconciler() {
+        this.db = DatabaseManager.getInstance();
+        this.partitionAccounts = Math.max(1, Integer.getInteger("banking.reconcile.partitionAccounts", 1000));
+    }
+
+    public static synchronized LedgerReconciler getInstance() {
+        if (instance == null) {
+            instance = new LedgerReconciler();
+        }
+        return instance;
+    }
+
+    /**
+     * Reconciles every account.
+     * @param threads Parallelism of the ForkJoinPool
+     * @param incremental true to start each account from its checkpoint,
+     *        false to check its whole history
+     * @return ReconciliationResult with counts and the mismatches found
+     */
+    public ReconciliationResult reconcile(int threads, boolean incremental) {
+        long start = System.currentTimeMillis();
+        List<String> bounds = new ArrayList<>();
+        try (Connection conn = db.getConnection()) {
+            // Every partitionAccounts-th account number starts a partition
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(FETCH_ROWS);
+                try (ResultSet rs = stmt.executeQuery("SELECT account_number FROM accounts ORDER BY account_number")) {
+                    for (int i = 0; rs.next(); i++) {
+                        if (i % partitionAccounts == 0) {
+                            bounds.add(rs.getString(1));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to list accounts for reconciliation: " + e.getMessage());
+            return new ReconciliationResult(incremental, 0, 0, 0, 0, 0, new ArrayList<>(),
+                                            System.currentTimeMillis() - start);
+        }
+
+        Report report = new Report();
+        if (!bounds.isEmpty()) {
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+            try {
+                report = pool.invoke(new PartitionTask(bounds, 0, bounds.size(), incremental));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return new ReconciliationResult(incremental, report.accounts, report.postings, report.mismatchCount,
+                                        bounds.size(), report.failedPartitions, report.mismatches,
+                                        System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Splits a range of partitions in halves until one is left, then
+     * reconciles it. Results are merged on the way back up.
+     */
+    private class PartitionTask extends RecursiveTask<Report> {
+        private static final long serialVersionUID = 1L;
+
+        // Fork/join tasks are never serialized
+        @SuppressWarnings("serial")
+        private final List<String> bounds;
+        private final int from;
+        private final int to;
+        private final boolean incremental;
+
+        PartitionTask(List<String> bounds, int from, int to, boolean incremental) {
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.incremental = incremental;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from == 1) {
+                String last = to < bounds.size() ? bounds.get(to) : null;
+                try {
+                    return reconcilePartition(bounds.get(from), last, incremental);
+                } catch (SQLException e) {
+                    System.err.println("✗ Failed to reconcile accounts from " + bounds.get(from) + ": " + e.getMessage());
+                    Report failed = new Report();
+                    failed.failedPartitions = 1;
+                    return failed;
+                }
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(bounds, from, middle, incremental);
+            left.fork();
+            Report right = new PartitionTask(bounds, middle, to, incremental).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Reconciles the accounts numbered from first (inclusive) to end
+     * (exclusive; null for no end), then moves their checkpoints.
+     */
+    private Report reconcilePartition(String first, String end, boolean incremental) throws SQLException {
+        Map<String, AccountState> accounts = new LinkedHashMap<>();
+        Report report = new Report();
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        // The isolation, read-only flag and lazy execution set below are
+        // session settings. They go away with the connection, which is
+        // opened here and closed after the partition. A connection pool
+        // would have to reset them before handing the connection out again.
+        try (Connection conn = db.getConnection()) {
+            // One snapshot for balances, postings and the archive catalog
+            conn.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+            try {
+                // Stream rows from the cursor rather than have H2 buffer the whole result first
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SET LAZY_QUERY_EXECUTION TRUE");
+                }
+                String accountSql =
+                    "SELECT a.account_number, a.balance, c.ledger_seq, c.last_balance_after, c.ledger_balance, " +
+                    "c.reconciled_at FROM accounts a " +
+                    "LEFT JOIN reconciliation_checkpoints c ON c.account_number = a.account_number " +
+                    "WHERE a.account_number >= ?" + (end != null ? " AND a.account_number < ?" : "") +
+                    " ORDER BY a.account_number";
+                long minSeq = Long.MAX_VALUE;
+                LocalDateTime oldestCheckpoint = null;
+                boolean wholeHistory = false;
+                try (PreparedStatement pstmt = conn.prepareStatement(accountSql)) {
+                    pstmt.setString(1, first);
+                    if (end != null) {
+                        pstmt.setString(2, end);
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        AccountState state = new AccountState(rs.getString(1), toThebe(rs.getBigDecimal(2)));
+                        if (incremental && rs.getTimestamp(6) != null) {
+                            state.lastSeq = rs.getLong(3);
+                            state.lastBalanceAfter = toThebe(rs.getBigDecimal(4));
+                            state.ledgerBalance = toThebe(rs.getBigDecimal(5));
+                            state.checkpointed = true;
+                            LocalDateTime reconciledAt = rs.getTimestamp(6).toLocalDateTime();
+                            if (oldestCheckpoint == null || reconciledAt.isBefore(oldestCheckpoint)) {
+                                oldestCheckpoint = reconciledAt;
+                            }
+                        } else {
+                            // No checkpoint to start from: the whole history is read
+                            wholeHistory = true;
+                        }
+                        minSeq = Math.min(minSeq, state.lastSeq);
+                        accounts.put(state.accountNumber, state);
+                    }
+                }
+                if (accounts.isEmpty()) {
+                    conn.commit();
+                    return report;
+                }
+
+                // Postings after a checkpoint were made after it was written,
+                // so archive months before the oldest checkpoint hold none of them
+                // (a day early, as a posting is stamped before it commits)
+                List<String> tables = TransactionArchive.getInstance().findArchiveTables(conn,
+                    wholeHistory ? null : oldestCheckpoint.minusDays(1), null);
+                tables.add("transactions");
+                streamPostings(conn, tables, first, end, minSeq, accounts, report);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        for (AccountState state : accounts.values()) {
+            report.accounts++;
+            if (state.projected != state.ledgerBalance && balanceStillDiffers(state)) {
+                report.add(new Mismatch(state.accountNumber, Mismatch.Kind.BALANCE_MISMATCH, state.lastTransactionId,
+                    state.lastSeq, state.lastTimestamp, state.ledgerBalance, state.projected));
+            }
+        }
+        saveCheckpoints(accounts.values(), startedAt);
+        return report;
+    }
+
+    /**
+     * Re-reads an account whose stored balance did not match the ledger.
+     * Outside event-sourced mode a posting and the balance it produces are
+     * committed one after the other, so a busy account can be caught
+     * between the two; it is only reported if the difference is still
+     * there, allowing for postings made since, on every retry.
+     */
+    private boolean balanceStillDiffers(AccountState state) {
+        String sql = "SELECT a.balance, " +
+                    "(SELECT COALESCE(SUM(" + LedgerStore.SIGNED_AMOUNT_SQL + "), 0) FROM transactions t " +
+                    " WHERE t.account_number = a.account_number AND t.ledger_seq > ?) " +
+                    "FROM accounts a WHERE a.account_number = ?";
+        for (int attempt = 0; attempt < CONFIRM_ATTEMPTS; attempt++) {
+            try {
+                Thread.sleep(CONFIRM_PAUSE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+            try (Connection conn = db.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, state.lastSeq);
+                pstmt.setString(2, state.accountNumber);
+                ResultSet rs = pstmt.executeQuery();
+                if (!rs.next() || toThebe(rs.getBigDecimal(1)) == state.ledgerBalance + toThebe(rs.getBigDecimal(2))) {
+                    return false;
+                }
+            } catch (SQLException e) {
+                System.err.println("✗ Failed to re-read account " + state.accountNumber + ": " + e.getMessage());
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Folds a partition's postings after each account's checkpoint into
+     * its state, in ledger order, and reports the first break in each
+     * account's balance_after chain.
+     */
+    private void streamPostings(Connection conn, List<String> tables, String first, String end, long minSeq,
+                                Map<String, AccountState> accounts, Report report) throws SQLException {
+        String range = " WHERE account_number >= ?" + (end != null ? " AND account_number < ?" : "") +
+                      " AND ledger_seq > ?";
+        String columns = "account_number, ledger_seq, transaction_id, transaction_type, amount, " +
+                        "balance_after, transaction_timestamp";
+        StringBuilder sql = new StringBuilder();
+        if (tables.size() == 1) {
+            // Hot table alone: its (account_number, ledger_seq) index gives the order without a sort
+            sql.append("SELECT ").append(columns).append(" FROM ").append(tables.get(0)).append(range);
+        } else {
+            sql.append("SELECT ").append(columns).append(" FROM (");
+            for (int i = 0; i < tables.size(); i++) {
+                sql.append(i == 0 ? "" : " UNION ALL ")
+                   .append("SELECT ").append(columns).append(" FROM ").append(tables.get(i)).append(range);
+            }
+            sql.append(")");
+        }
+        sql.append(" ORDER BY account_number, ledger_seq");
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(FETCH_ROWS);
+            int index = 1;
+            for (int i = 0; i < tables.size(); i++) {
+                pstmt.setString(index++, first);
+                if (end != null) {
+                    pstmt.setString(index++, end);
+                }
+                pstmt.setLong(index++, minSeq);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                AccountState state = null;
+                while (rs.next()) {
+                    String accountNumber = rs.getString(1);
+                    if (state == null || !state.accountNumber.equals(accountNumber)) {
+                        state = accounts.get(accountNumber);
+                    }
+                    long seq = rs.getLong(2);
+                    // Archived postings of closed accounts, or postings already reconciled
+                    if (state == null || seq <= state.lastSeq) {
+                        continue;
+                    }
+                    String transactionId = rs.getString(3);
+                    long amount = toThebe(rs.getBigDecimal(5));
+                    long balanceAfter = toThebe(rs.getBigDecimal(6));
+                    LocalDateTime timestamp = rs.getTimestamp(7).toLocalDateTime();
+                    long signed = Transaction.isDebit(rs.getString(4)) ? -amount : amount;
+
+                    long expected = state.lastBalanceAfter + signed;
+                    if (balanceAfter != expected && !state.chainBroken) {
+                        state.chainBroken = true;
+                        report.add(new Mismatch(accountNumber, Mismatch.Kind.BROKEN_CHAIN, transactionId, seq,
+                            timestamp, expected, balanceAfter));
+                    }
+                    state.lastBalanceAfter = balanceAfter;
+                    state.ledgerBalance += signed;
+                    state.lastSeq = seq;
+                    state.lastTransactionId = transactionId;
+                    state.lastTimestamp = timestamp;
+                    state.postings++;
+                    report.postings++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves each account's checkpoint to the last posting read. Accounts
+     * that did not reconcile move too, so the next incremental run reports
+     * only what is new; the stored balance is compared again every run.
+     */
+    private void saveCheckpoints(Iterable<AccountState> accounts, LocalDateTime reconciledAt) throws SQLException {
+        String sql = "MERGE INTO reconciliation_checkpoints " +
+                    "(account_number, ledger_seq, last_balance_after, ledger_balance, reconciled_at) " +
+                    "KEY(account_number) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (AccountState state : accounts) {
+                if (state.checkpointed && state.postings == 0) {
+                    continue;
+                }
+                pstmt.setString(1, state.accountNumber);
+                pstmt.setLong(2, state.lastSeq);
+                pstmt.setBigDecimal(3, BigDecimal.valueOf(state.lastBalanceAfter, 2));
+                pstmt.setBigDecimal(4, BigDecimal.valueOf(state.ledgerBalance, 2));
+                pstmt.setTimestamp(5, Timestamp.valueOf(reconciledAt));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        }
+    }
+
+    private static long toThebe(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValue();
+    }
+
+    /**
+     * One account's position in the ledger, in thebe.
+     */
+    private static class AccountState {
+        final String accountNumber;
+        final long projected;
+        long lastSeq;
+        long lastBalanceAfter;
+        long ledgerBalance;
+        String lastTransactionId;
+        LocalDateTime lastTimestamp;
+        boolean chainBroken;
+        // Started from a stored checkpoint
+        boolean checkpointed;
+        int postings;
+
+        AccountState(String accountNumber, long projected) {
+            this.accountNumber = accountNumber;
+            this.projected = projected;
+        }
+    }
+
+    /**
+     * Counts and mismatches of some partitions.
+     */
+    private static class Report {
+        int accounts;
+        long postings;
+        int mismatchCount;
+        int failedPartitions;
+        final List<Mismatch> mismatches = new ArrayList<>();
+
+        void add(Mismatch mismatch) {
+            mismatchCount++;
+            if (mismatches.size() < MAX_REPORTED) {
+                mismatches.add(mismatch);
+            }
+        }
+
+        Report merge(Report other) {
+            accounts += other.accounts;
+            postings += other.postings;
+            mismatchCount += other.mismatchCount;
+            failedPartitions += other.failedPartitions;
+            for (Mismatch mismatch : other.mismatches) {
+                if (mismatches.size() < MAX_REPORTED) {
+                    mismatches.add(mismatch);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * A place where the ledger does not add up.
+     */
+    public static class Mismatch {
+        public enum Kind {
+            /** A posting's balance_after does not continue from the posting before it */
+            BROKEN_CHAIN,
+            /** accounts.balance differs from the sum of the postings */
+            BALANCE_MISMATCH
+        }
+
+        private final String accountNumber;
+        private final Kind kind;
+        private final String transactionId;
+        private final long ledgerSeq;
+        private final LocalDateTime timestamp;
+        private final long expectedThebe;
+        private final long actualThebe;
+
+        public Mismatch(String accountNumber, Kind kind, String transactionId, long ledgerSeq,
+                        LocalDateTime timestamp, long expectedThebe, long actualThebe) {
+            this.accountNumber = accountNumber;
+            this.kind = kind;
+            this.transactionId = transactionId;
+            this.ledgerSeq = ledgerSeq;
+            this.timestamp = timestamp;
+            this.expectedThebe = expectedThebe;
+            this.actualThebe = actualThebe;
+        }
+
+        public String getAccountNumber() { return accountNumber; }
+        public Kind getKind() { return kind; }
+        /** First diverging posting, or for BALANCE_MISMATCH the last posting read; null if none was read */
+        public String getTransactionId() { return transactionId; }
+        public long getLedgerSeq() { return ledgerSeq; }
+        public LocalDateTime getTimestamp() { return timestamp; }
+        /** balance_after the chain implies, or the ledger balance */
+        public double getExpected() { return expectedThebe / 100.0; }
+        /** balance_after stored, or accounts.balance */
+        public double getActual() { return actualThebe / 100.0; }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: expected BWP %.2f, found BWP %.2f%s", accountNumber, kind,
+                getExpected(), getActual(),
+                transactionId == null ? "" : " at " + transactionId + " (seq " + ledgerSeq + ", " + timestamp + ")");
+        }
+    }
+
+    /**
+     * Inner class to encapsulate reconciliation results.
+     */
+    public static class ReconciliationResult {
+        private final boolean incremental;
+        private final int accounts;
+        private final long postings;
+        private final int mismatchCount;
+        private final int partitions;
+        private final int failedPartitions;
+        private final List<Mismatch> mismatches;
+        private final long elapsedMillis;
+
+        public ReconciliationResult(boolean incremental, int accounts, long postings, int mismatchCount,
+                                    int partitions, int failedPartitions, List<Mismatch> mismatches,
+                                    long elapsedMillis) {
+            this.incremental = incremental;
+            this.accounts = accounts;
+            this.postings = postings;
+            this.mismatchCount = mismatchCount;
+            this.partitions = partitions;
+            this.failedPartitions = failedPartitions;
+            this.mismatches = mismatches;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public boolean isIncremental() { return incremental; }
+        public int getAccounts() { return accounts; }
+        /** Postings read; in an incremental run only those after the checkpoints */
+        public long getPostings() { return postings; }
+        /** All mismatches found, of which at most MAX_REPORTED are in getMismatches() */
+        public int getMismatchCount() { return mismatchCount; }
+        public int getPartitions() { return partitions; }
+        public int getFailedPartitions() { return failedPartitions; }
+        public List<Mismatch> getMismatches() { return mismatches; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public boolean isReconciled() {
+            return mismatchCount == 0 && failedPartitions == 0;
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.banking.database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.banking.model.Transaction;
+
+/**
+ * LedgerStore implements the event-sourced ledger mode.
+ * The transactions table is the source of truth: an account's balance is
+ * its latest snapshot plus the signed amounts posted after it, and
+ * accounts.balance is only a projection written in the same JDBC transaction.
+ * Replay checks both against a fold of every posting from the account's
+ * baseline (its balance from before the ledger was kept, if any).
+ *
+ * Enable with -Dbanking.ledger.eventSourced=true.
+ */
+public class LedgerStore {
+    private static LedgerStore instance;
+
+    // Take a new snapshot once this many postings follow the latest one
+    public static final int SNAPSHOT_INTERVAL = 50;
+
+    private static volatile boolean eventSourced = Boolean.getBoolean("banking.ledger.eventSourced");
+
+    // Signed amount of a transaction row, matching Transaction.getSignedAmount()
+    static final String SIGNED_AMOUNT_SQL =
+        "CASE WHEN transaction_type IN ('WITHDRAWAL', 'TRANSFER_OUT') THEN -amount ELSE amount END";
+
+    private final DatabaseManager db;
+
+    private LedgerStore() {
+        this.db = DatabaseManager.getInstance();
+    }
+
+    public static synchronized LedgerStore getInstance() {
+        if (instance == null) {
+            instance = new LedgerStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Checks whether postings go through the event-sourced ledger.
+     */
+    public static boolean isEventSourced() {
+        return eventSourced;
+    }
+
+    public static void setEventSourced(boolean enabled) {
+        eventSourced = enabled;
+    }
+
+    /**
+     * Appends a transaction to the ledger.
+     * The account row is locked, the balance is derived from the ledger,
+     * and the transaction, projection and (when due) a snapshot are committed together.
+     * A debit the derived balance does not cover is refused.
+     * @param transaction Transaction built by the account; its balanceAfter is ignored
+     * @return The posted transaction carrying the ledger-derived balance, or null on failure
+     */
+    public Transaction append(Transaction transaction) {
+        String insertSql = "INSERT INTO transactions " +
+                          "(transaction_id, account_number, transaction_type, amount, " +
+                          "balance_after, description, transaction_timestamp) " +
+                          "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                String accountNumber = transaction.getAccountNumber();
+                if (!lockAccount(conn, accountNumber)) {
+                    conn.rollback();
+                    System.err.println("✗ Ledger append failed, account not found: " + accountNumber);
+                    return null;
+                }
+
+                LedgerPosition position = readPosition(conn, accountNumber);
+                double balanceAfter = position.balance + transaction.getSignedAmount();
+                if (transaction.getSignedAmount() < 0 && balanceAfter <= -0.005) {
+                    conn.rollback();
+                    System.err.println("✗ Ledger append refused, insufficient funds: " + accountNumber);
+                    return null;
+                }
+                long seq;
+
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql, new String[] {"LEDGER_SEQ"})) {
+                    pstmt.setString(1, transaction.getTransactionId());
+                    pstmt.setString(2, accountNumber);
+                    pstmt.setString(3, transaction.getTransactionType());
+                    pstmt.setDouble(4, transaction.getAmount());
+                    pstmt.setDouble(5, balanceAfter);
+                    pstmt.setString(6, transaction.getDescription());
+                    pstmt.setTimestamp(7, Timestamp.valueOf(transaction.getTimestamp()));
+                    pstmt.executeUpdate();
+
+                    ResultSet keys = pstmt.getGeneratedKeys();
+                    seq = keys.next() ? keys.getLong(1) : position.lastSeq;
+                }
+
+                updateProjection(conn, accountNumber, balanceAfter);
+
+                if (position.tailCount + 1 >= SNAPSHOT_INTERVAL) {
+                    insertSnapshot(conn, accountNumber, seq, balanceAfter);
+                }
+
+                Transaction posted = new Transaction(
+                    transaction.getTransactionId(),
+                    accountNumber,
+                    transaction.getTransactionType(),
+                    transaction.getAmount(),
+                    balanceAfter,
+                    transaction.getDescription(),
+                    transaction.getTimestamp()
+                );
+                CheckpointIndex.record(conn, posted);
+                DashboardStatistics.postingRecorded(conn, posted);
+
+                conn.commit();
+                return posted;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to append ledger entry: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Derives an account's balance from its latest snapshot and the tail after it.
+     * @param accountNumber Account to rebuild
+     * @return The ledger balance (0 if the account has no history)
+     */
+    public double rebuildBalance(String accountNumber) {
+        try (Connection conn = db.getConnection()) {
+            return readPosition(conn, accountNumber).balance;
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to rebuild balance: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Writes a baseline snapshot for every account that has none yet.
+     * Used when switching an existing database to event-sourced mode, so that
+     * accounts opened before opening balances were journaled keep their balance.
+     * @return Number of baseline snapshots written
+     */
+    public int seedSnapshots() {
+        String sql =
+            "SELECT a.account_number, a.balance, " +
+            "(SELECT COALESCE(MAX(t.ledger_seq), 0) FROM transactions t " +
+            " WHERE t.account_number = a.account_number) AS last_seq " +
+            "FROM accounts a WHERE NOT EXISTS " +
+            "(SELECT 1 FROM balance_snapshots s WHERE s.account_number = a.account_number)";
+
+        int seeded = 0;
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "INSERT INTO balance_snapshots (account_number, ledger_seq, balance, baseline) " +
+                        "VALUES (?, ?, ?, TRUE)")) {
+                    pstmt.setString(1, rs.getString("account_number"));
+                    pstmt.setLong(2, rs.getLong("last_seq"));
+                    pstmt.setDouble(3, rs.getDouble("balance"));
+                    pstmt.executeUpdate();
+                }
+                seeded++;
+            }
+            if (seeded > 0) {
+                System.out.println("✓ Ledger baseline snapshots written: " + seeded);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to seed ledger snapshots: " + e.getMessage());
+        }
+        return seeded;
+    }
+
+    /**
+     * Replays the whole ledger and rebuilds every account balance in parallel.
+     * Each account is rebuilt under its own row lock by folding its postings,
+     * hot and archived, from its baseline; corrected balances are written to
+     * the projection and a fresh snapshot is taken.
+     * @param threads Number of worker threads
+     * @return ReplayResult with statistics
+     */
+    public ReplayResult replayAll(int threads) {
+        long start = System.currentTimeMillis();
+        List<String> accountNumbers = new ArrayList<>();
+
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT account_number FROM accounts")) {
+            while (rs.next()) {
+                accountNumbers.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to list accounts for replay: " + e.getMessage());
+            return new ReplayResult(0, 0, 0, System.currentTimeMillis() - start);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (String accountNumber : accountNumbers) {
+                results.add(pool.submit(() -> replayAccount(accountNumber)));
+            }
+
+            int corrected = 0;
+            int failed = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    if (result.get()) {
+                        corrected++;
+                    }
+                } catch (Exception e) {
+                    failed++;
+                }
+            }
+            return new ReplayResult(accountNumbers.size(), corrected, failed,
+                                    System.currentTimeMillis() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Rebuilds one account and returns true if its projection or its latest
+     * snapshot had drifted from the ledger.
+     */
+    private boolean replayAccount(String accountNumber) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                lockAccount(conn, accountNumber);
+                double projected = readProjection(conn, accountNumber);
+                LedgerPosition position = readPosition(conn, accountNumber);
+                LedgerPosition folded = foldLedger(conn, accountNumber);
+
+                boolean projectionDrifted = Math.abs(projected - folded.balance) >= 0.005;
+                boolean snapshotDrifted = Math.abs(position.balance - folded.balance) >= 0.005;
+                if (projectionDrifted) {
+                    updateProjection(conn, accountNumber, folded.balance);
+                }
+                if (position.tailCount > 0 || snapshotDrifted) {
+                    insertSnapshot(conn, accountNumber, folded.lastSeq, folded.balance);
+                }
+
+                conn.commit();
+                return projectionDrifted || snapshotDrifted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Helper methods
+
+    private boolean lockAccount(Connection conn, String accountNumber) throws SQLException {
+        String sql = "SELECT balance FROM accounts WHERE account_number = ? FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, accountNumber);
+            return pstmt.executeQuery().next();
+        }
+    }
+
+    private double readProjection(Connection conn, String accountNumber) throws SQLException {
+        String sql = "SELECT balance FROM accounts WHERE account_number = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, accountNumber);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getDouble(1) : 0;
+        }
+    }
+
+    private void updateProjection(Connection conn, String accountNumber, double balance) throws SQLException {
+        double previous = readProjection(conn, accountNumber);
+        String sql = "UPDATE accounts SET balance = ? WHERE account_number = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDouble(1, balance);
+            pstmt.setString(2, accountNumber);
+            pstmt.executeUpdate();
+        }
+        DashboardStatistics.balanceChanged(conn, accountNumber, balance - previous);
+    }
+
+    private void insertSnapshot(Connection conn, String accountNumber, long seq, double balance) throws SQLException {
+        String sql = "MERGE INTO balance_snapshots (account_number, ledger_seq, balance) " +
+                    "KEY(account_number, ledger_seq) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, accountNumber);
+            pstmt.setLong(2, seq);
+            pstmt.setDouble(3, balance);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads the latest snapshot and folds the tail of postings after it.
+     */
+    private LedgerPosition readPosition(Connection conn, String accountNumber) throws SQLException {
+        String snapshotSql = "SELECT ledger_seq, balance FROM balance_snapshots " +
+                            "WHERE account_number = ? ORDER BY ledger_seq DESC LIMIT 1";
+        String tailSql = "SELECT COALESCE(SUM(" + SIGNED_AMOUNT_SQL + "), 0), COUNT(*), MAX(ledger_seq) " +
+                        "FROM transactions WHERE account_number = ? AND ledger_seq > ?";
+
+        long snapshotSeq = 0;
+        double balance = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(snapshotSql)) {
+            pstmt.setString(1, accountNumber);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                snapshotSeq = rs.getLong("ledger_seq");
+                balance = rs.getDouble("balance");
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(tailSql)) {
+            pstmt.setString(1, accountNumber);
+            pstmt.setLong(2, snapshotSeq);
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            int tailCount = rs.getInt(2);
+            long lastSeq = tailCount > 0 ? rs.getLong(3) : snapshotSeq;
+            return new LedgerPosition(balance + rs.getDouble(1), lastSeq, tailCount);
+        }
+    }
+
+    /**
+     * Folds every posting after the account's baseline snapshot, or every
+     * posting if it has none, including those moved to archive tables.
+     */
+    private LedgerPosition foldLedger(Connection conn, String accountNumber) throws SQLException {
+        String baselineSql = "SELECT ledger_seq, balance FROM balance_snapshots " +
+                            "WHERE account_number = ? AND baseline ORDER BY ledger_seq DESC LIMIT 1";
+
+        long baselineSeq = 0;
+        double balance = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(baselineSql)) {
+            pstmt.setString(1, accountNumber);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                baselineSeq = rs.getLong("ledger_seq");
+                balance = rs.getDouble("balance");
+            }
+        }
+
+        List<String> tables = new ArrayList<>();
+        tables.add("transactions");
+        tables.addAll(TransactionArchive.getInstance().findArchiveTables(conn, null, null));
+
+        StringBuilder sql = new StringBuilder("SELECT COALESCE(SUM(" + SIGNED_AMOUNT_SQL + "), 0), " +
+                                              "COUNT(*), MAX(ledger_seq) FROM (");
+        for (int i = 0; i < tables.size(); i++) {
+            sql.append(i == 0 ? "" : " UNION ALL ")
+               .append("SELECT transaction_type, amount, ledger_seq FROM ").append(tables.get(i))
+               .append(" WHERE account_number = ? AND ledger_seq > ?");
+        }
+        sql.append(")");
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (int i = 0; i < tables.size(); i++) {
+                pstmt.setString(index++, accountNumber);
+                pstmt.setLong(index++, baselineSeq);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            int count = rs.getInt(2);
+            long lastSeq = count > 0 ? rs.getLong(3) : baselineSeq;
+            return new LedgerPosition(balance + rs.getDouble(1), lastSeq, count);
+        }
+    }
+
+    private static class LedgerPosition {
+        private final double balance;
+        private final long lastSeq;
+        private final int tailCount;
+
+        LedgerPosition(double balance, long lastSeq, int tailCount) {
+            this.balance = balance;
+            this.lastSeq = lastSeq;
+            this.tailCount = tailCount;
+        }
+    }
+
+    /**
+     * Inner class to encapsulate full-ledger replay results.
+     */
+    public static class ReplayResult {
+        private final int accountsReplayed;
+        private final int accountsCorrected;
+        private final int accountsFailed;
+        private final long elapsedMillis;
+
+        public ReplayResult(int accountsReplayed, int accountsCorrected, int accountsFailed, long elapsedMillis) {
+            this.accountsReplayed = accountsReplayed;
+            this.accountsCorrected = accountsCorrected;
+            this.accountsFailed = accountsFailed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getAccountsReplayed() { return accountsReplayed; }
+        public int getAccountsCorrected() { return accountsCorrected; }
+        public int getAccountsFailed() { return accountsFailed; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+}
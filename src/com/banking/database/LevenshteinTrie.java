@@ -0,0 +1,119 @@
+package com.banking.database;
+
+import java.util.Arrays;
+
+/**
+ * LevenshteinTrie holds a vocabulary of words in a character trie and finds
+ * every word within a bounded edit distance of a query. The search walks the
+ * trie carrying one row of the Levenshtein matrix per depth, which is the
+ * Levenshtein automaton for the query run against the trie: words sharing a
+ * prefix share its rows, and a branch is abandoned as soon as every cell of
+ * its row exceeds the bound.
+ *
+ * Swapping two adjacent letters counts as one edit (optimal string
+ * alignment distance), since transpositions are the commonest typing slip.
+ */
+final class LevenshteinTrie {
+
+    interface MatchVisitor {
+        void visit(String word, int distance);
+    }
+
+    // Node 0 is the root; children are a sibling chain, 0 meaning none
+    private char[] labels = new char[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    private String[] words = new String[1024];
+    private int nodes = 1;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a word; duplicates are ignored.
+     */
+    void add(String word) {
+        int node = 0;
+        for (int i = 0; i < word.length(); i++) {
+            node = child(node, word.charAt(i));
+        }
+        if (words[node] == null) {
+            words[node] = word;
+            size++;
+        }
+    }
+
+    private int child(int node, char label) {
+        int last = 0;
+        for (int c = firstChild[node]; c != 0; c = nextSibling[c]) {
+            if (labels[c] == label) {
+                return c;
+            }
+            last = c;
+        }
+        if (nodes == labels.length) {
+            int capacity = nodes * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            words = Arrays.copyOf(words, capacity);
+        }
+        int created = nodes++;
+        labels[created] = label;
+        if (last == 0) {
+            firstChild[node] = created;
+        } else {
+            nextSibling[last] = created;
+        }
+        return created;
+    }
+
+    /**
+     * Visits every word within maxDistance of the query, with its distance.
+     */
+    void search(String query, int maxDistance, MatchVisitor visitor) {
+        int m = query.length();
+        int[][] rows = new int[m + maxDistance + 2][m + 1];
+        for (int j = 0; j <= m; j++) {
+            rows[0][j] = j;
+        }
+        if (words[0] != null && m <= maxDistance) {
+            visitor.visit(words[0], m);
+        }
+        for (int c = firstChild[0]; c != 0; c = nextSibling[c]) {
+            walk(c, (char) 0, 1, query, maxDistance, rows, visitor);
+        }
+    }
+
+    private void walk(int node, char parentLabel, int depth, String query, int maxDistance,
+                      int[][] rows, MatchVisitor visitor) {
+        int m = query.length();
+        int[] previous = rows[depth - 1];
+        int[] row = rows[depth];
+        char label = labels[node];
+
+        row[0] = depth;
+        int rowMin = depth;
+        for (int j = 1; j <= m; j++) {
+            char q = query.charAt(j - 1);
+            int cell = Math.min(previous[j - 1] + (q == label ? 0 : 1), Math.min(previous[j], row[j - 1]) + 1);
+            if (depth > 1 && j > 1 && q == parentLabel && query.charAt(j - 2) == label) {
+                cell = Math.min(cell, rows[depth - 2][j - 2] + 1);
+            }
+            row[j] = cell;
+            rowMin = Math.min(rowMin, cell);
+        }
+
+        if (words[node] != null && row[m] <= maxDistance) {
+            visitor.visit(words[node], row[m]);
+        }
+        // Rows are bounded by depth <= m + maxDistance while rowMin <= maxDistance
+        if (rowMin <= maxDistance) {
+            for (int c = firstChild[node]; c != 0; c = nextSibling[c]) {
+                walk(c, label, depth + 1, query, maxDistance, rows, visitor);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.banking.database;
+
+/**
+ * PhoneticKey folds a name into a consonant skeleton so that common
+ * spelling variants share a key. It is tuned for Setswana names:
+ * tlh/thl/tl, tsh/ts/ch/tj, kg/kh/g/k, ph/p, th/t/d and sh/s are each
+ * folded to one sound; aspiration (h), glides (w, y) and vowels after
+ * the first letter are dropped, and repeated sounds collapse.
+ *
+ * Examples: Tshekedi, Tsekedi and Chekedi all map to "CKT";
+ * Kgosi, Gosi and Khosi map to "KS".
+ */
+final class PhoneticKey {
+
+    private PhoneticKey() {
+    }
+
+    static String of(String word) {
+        String w = word.toLowerCase();
+        StringBuilder key = new StringBuilder(w.length());
+        int i = 0;
+
+        while (i < w.length()) {
+            char c = w.charAt(i);
+            String code;
+            int consumed = 1;
+
+            if (w.startsWith("tlh", i) || w.startsWith("thl", i)) {
+                code = "X";
+                consumed = 3;
+            } else if (w.startsWith("tsh", i)) {
+                code = "C";
+                consumed = 3;
+            } else if (w.startsWith("tl", i)) {
+                code = "X";
+                consumed = 2;
+            } else if (w.startsWith("ts", i) || w.startsWith("ch", i) || w.startsWith("tj", i)) {
+                code = "C";
+                consumed = 2;
+            } else if (w.startsWith("kg", i) || w.startsWith("kh", i) || w.startsWith("ck", i)) {
+                code = "K";
+                consumed = 2;
+            } else if (w.startsWith("ph", i)) {
+                code = "P";
+                consumed = 2;
+            } else if (w.startsWith("th", i)) {
+                code = "T";
+                consumed = 2;
+            } else if (w.startsWith("sh", i)) {
+                code = "S";
+                consumed = 2;
+            } else if (w.startsWith("ng", i) || w.startsWith("ny", i)) {
+                code = "N";
+                consumed = 2;
+            } else {
+                switch (c) {
+                    case 'a': case 'e': case 'i': case 'o': case 'u':
+                        code = key.length() == 0 ? "A" : "";
+                        break;
+                    case 'h': case 'w': case 'y':
+                        code = "";
+                        break;
+                    case 'k': case 'g': case 'q':
+                        code = "K";
+                        break;
+                    case 't': case 'd':
+                        code = "T";
+                        break;
+                    case 's': case 'z':
+                        code = "S";
+                        break;
+                    case 'f': case 'v':
+                        code = "F";
+                        break;
+                    case 'c':
+                        code = "C";
+                        break;
+                    default:
+                        code = Character.isLetter(c) ? String.valueOf(Character.toUpperCase(c)) : "";
+                        break;
+                }
+            }
+
+            if (!code.isEmpty() && (key.length() == 0 || key.charAt(key.length() - 1) != code.charAt(0))) {
+                key.append(code);
+            }
+            i += consumed;
+        }
+        return key.toString();
+    }
+}
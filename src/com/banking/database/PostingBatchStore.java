@@ -0,0 +1,140 @@
+package com.banking.database;
+
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.banking.model.Transaction;
+
+/**
+ * PostingBatchStore writes postings made in memory by the posting engine
+ * (see com.banking.controller.PostingEngine) to the tables, a batch at a
+ * time. Each batch inserts its transactions, moves every account it
+ * touches to its last balance, and records the engine sequence reached,
+ * all in one JDBC transaction. After a crash the engine replays its
+ * journal from that sequence.
+ *
+ * Postings that must be stored together outside the engine, such as the
+ * two legs of a transfer, use save(List) in the same way.
+ */
+public class PostingBatchStore {
+    private static PostingBatchStore instance;
+
+    private final DatabaseManager db;
+
+    private PostingBatchStore() {
+        this.db = DatabaseManager.getInstance();
+    }
+
+    public static synchronized PostingBatchStore getInstance() {
+        if (instance == null) {
+            instance = new PostingBatchStore();
+        }
+        return instance;
+    }
+
+    /**
+     * @return The last engine sequence stored, or -1 if none
+     */
+    public long getLastSequence() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_sequence FROM posting_engine_state WHERE id = 1")) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        }
+    }
+
+    /**
+     * Stores a batch of postings in one JDBC transaction.
+     * @param postings Postings in engine order
+     * @param lastSequence Engine sequence of the last command in the batch
+     */
+    public void save(List<Transaction> postings, long lastSequence) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                write(conn, postings);
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "MERGE INTO posting_engine_state (id, last_sequence) KEY(id) VALUES (1, ?)")) {
+                    pstmt.setLong(1, lastSequence);
+                    pstmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stores postings made outside the engine in one JDBC transaction:
+     * all of them, or none if any fails.
+     * @param postings Postings in order, each carrying its account's new balance
+     */
+    public void save(List<Transaction> postings) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                write(conn, postings);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Inserts the postings and moves each account to its last balance.
+     */
+    private void write(Connection conn, List<Transaction> postings) throws SQLException {
+        String insertSql = "INSERT INTO transactions " +
+                          "(transaction_id, account_number, transaction_type, amount, " +
+                          "balance_after, description, transaction_timestamp) " +
+                          "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        // Last balance of each account in the batch
+        Map<String, Double> balances = new LinkedHashMap<>();
+        for (Transaction t : postings) {
+            balances.put(t.getAccountNumber(), t.getBalanceAfter());
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+            for (Transaction t : postings) {
+                pstmt.setString(1, t.getTransactionId());
+                pstmt.setString(2, t.getAccountNumber());
+                pstmt.setString(3, t.getTransactionType());
+                pstmt.setDouble(4, t.getAmount());
+                pstmt.setDouble(5, t.getBalanceAfter());
+                pstmt.setString(6, t.getDescription());
+                pstmt.setTimestamp(7, Timestamp.valueOf(t.getTimestamp()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        for (Transaction t : postings) {
+            CheckpointIndex.record(conn, t);
+            DashboardStatistics.postingRecorded(conn, t);
+        }
+
+        try (PreparedStatement select = conn.prepareStatement(
+                 "SELECT balance FROM accounts WHERE account_number = ? FOR UPDATE");
+             PreparedStatement update = conn.prepareStatement(
+                 "UPDATE accounts SET balance = ? WHERE account_number = ?")) {
+            for (Map.Entry<String, Double> entry : balances.entrySet()) {
+                select.setString(1, entry.getKey());
+                double oldBalance;
+                try (ResultSet rs = select.executeQuery()) {
+                    oldBalance = rs.next() ? rs.getDouble(1) : entry.getValue();
+                }
+                update.setDouble(1, entry.getValue());
+                update.setString(2, entry.getKey());
+                update.executeUpdate();
+                DashboardStatistics.balanceChanged(conn, entry.getKey(), entry.getValue() - oldBalance);
+            }
+        }
+    }
+}
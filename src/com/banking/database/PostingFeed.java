@@ -0,0 +1,257 @@
+package com.banking.database;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.banking.model.Transaction;
+
+/**
+ * PostingFeed is the in-process bus of live postings. Account publishes
+ * every transaction once it is stored, and subscribers such as monitoring
+ * screens or the API's event stream receive them as they happen.
+ *
+ * Postings go into a fixed ring buffer. Publishing claims a sequence number
+ * with one atomic increment and never waits for subscribers, so a slow or
+ * stuck subscriber cannot hold up a teller. Each subscriber reads the ring
+ * through its own cursor on its own virtual thread, within the demand it
+ * has requested. A subscriber that falls more than the ring's capacity
+ * behind has lost postings; its OverflowPolicy decides whether it skips
+ * ahead into the postings still held, or is cut off with a
+ * SlowConsumerException.
+ *
+ * Subscriptions start at the next posting; the feed keeps no history.
+ */
+public class PostingFeed implements Flow.Publisher<Transaction> {
+    private static PostingFeed instance;
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    // Longest a waiting subscriber sleeps before looking at the ring again
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * What happens to a subscriber that the ring has lapped.
+     */
+    public enum OverflowPolicy {
+        /** Skip the lost postings and carry on with those still held */
+        DROP_OLDEST,
+        /** End the subscription with a SlowConsumerException */
+        DISCONNECT
+    }
+
+    /**
+     * Signalled to a DISCONNECT subscriber that fell too far behind.
+     */
+    public static class SlowConsumerException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SlowConsumerException(long lost) {
+            super("Subscriber fell behind and lost " + lost + " postings");
+        }
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<Transaction> slots;
+    // Sequence held by each slot; -1 while a publisher is replacing it
+    private final AtomicLongArray slotSequences;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final CopyOnWriteArrayList<FeedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private PostingFeed() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a separate feed, e.g. for a tool; the application uses getInstance().
+     * @param capacity Ring size, rounded up to a power of two
+     */
+    public PostingFeed(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.slotSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slotSequences.set(i, -1);
+        }
+    }
+
+    public static synchronized PostingFeed getInstance() {
+        if (instance == null) {
+            instance = new PostingFeed();
+        }
+        return instance;
+    }
+
+    /**
+     * Publishes a stored posting to all subscribers. Never blocks.
+     */
+    public void publish(Transaction transaction) {
+        long sequence = nextSequence.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        // Mark the slot as changing so a reader of the old entry notices
+        slotSequences.set(slot, -1);
+        slots.set(slot, transaction);
+        slotSequences.set(slot, sequence);
+
+        for (FeedSubscription subscription : subscriptions) {
+            if (subscription.waiting) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    /**
+     * Subscribes with the DROP_OLDEST policy.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Transaction> subscriber) {
+        subscribe(subscriber, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Subscribes to postings published from now on.
+     * @param subscriber Receives onSubscribe, then postings within its demand
+     * @param policy What to do if the subscriber falls a whole ring behind
+     */
+    public void subscribe(Flow.Subscriber<? super Transaction> subscriber, OverflowPolicy policy) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        FeedSubscription subscription = new FeedSubscription(subscriber, policy, nextSequence.get());
+        subscriptions.add(subscription);
+        subscription.thread = Thread.ofVirtual().name("posting-feed-subscriber").unstarted(subscription::run);
+        subscription.thread.start();
+    }
+
+    /**
+     * @return Postings published since start
+     */
+    public long getPublishedCount() {
+        return nextSequence.get();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * One subscriber's cursor and demand, served by its own virtual thread.
+     * Subscribers may cast their Flow.Subscription to this type to read
+     * how many postings they have lost.
+     */
+    public final class FeedSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Transaction> subscriber;
+        private final OverflowPolicy policy;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile Thread thread;
+        private volatile boolean waiting;
+        private volatile boolean cancelled;
+        private volatile Throwable badRequest;
+        private long cursor;
+
+        FeedSubscription(Flow.Subscriber<? super Transaction> subscriber, OverflowPolicy policy, long start) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.cursor = start;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("Requested " + n + " postings; must be positive");
+            } else {
+                demand.accumulateAndGet(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+            }
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            LockSupport.unpark(thread);
+        }
+
+        /**
+         * @return Postings skipped because this subscriber fell behind
+         */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        private void run() {
+            try {
+                subscriber.onSubscribe(this);
+                while (!cancelled) {
+                    if (badRequest != null) {
+                        cancelled = true;
+                        subscriber.onError(badRequest);
+                        return;
+                    }
+                    if (demand.get() == 0) {
+                        park();
+                        continue;
+                    }
+
+                    int slot = (int) (cursor & mask);
+                    long held = slotSequences.get(slot);
+                    Transaction transaction = slots.get(slot);
+                    if (held == cursor && slotSequences.get(slot) == cursor) {
+                        cursor++;
+                        demand.decrementAndGet();
+                        subscriber.onNext(transaction);
+                    } else if (held > cursor || nextSequence.get() - cursor > mask + 1) {
+                        if (!overflow()) {
+                            return;
+                        }
+                    } else {
+                        park(); // not published yet
+                    }
+                }
+            } catch (RuntimeException e) {
+                // A subscriber that throws is cancelled (Reactive Streams rule 2.13)
+                cancelled = true;
+                System.err.println("✗ Posting feed subscriber failed: " + e.getMessage());
+            } finally {
+                subscriptions.remove(this);
+            }
+        }
+
+        /**
+         * Applies the overflow policy once the ring has lapped the cursor.
+         * @return false if the subscription ended
+         */
+        private boolean overflow() {
+            long oldest = Math.max(cursor, nextSequence.get() - (mask + 1));
+            long lost = oldest - cursor;
+            if (policy == OverflowPolicy.DISCONNECT) {
+                cancelled = true;
+                subscriber.onError(new SlowConsumerException(Math.max(1, lost)));
+                return false;
+            }
+            // Skip a quarter ring further so the next read is not lapped again at once
+            long resume = oldest + (mask + 1) / 4;
+            dropped.addAndGet(resume - cursor);
+            cursor = resume;
+            return true;
+        }
+
+        private void park() {
+            waiting = true;
+            // Look once more before sleeping so a publish in between is not missed
+            int slot = (int) (cursor & mask);
+            if (demand.get() == 0 || slotSequences.get(slot) != cursor) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            waiting = false;
+        }
+    }
+}
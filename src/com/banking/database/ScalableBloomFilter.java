@@ -0,0 +1,121 @@
+package com.banking.database;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ScalableBloomFilter is a Bloom filter that keeps its false positive rate
+ * however many strings are added, so it need not be sized up front. When
+ * the newest layer holds as many strings as it was sized for, a layer
+ * twice as large with half the false positive rate is added; the rates of
+ * all layers together stay under the rate asked for.
+ *
+ * Adding and querying are safe from any number of threads.
+ */
+public class ScalableBloomFilter {
+    // Each layer is this much larger, and its rate this much lower, than the last
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final List<Layer> layers = new CopyOnWriteArrayList<>();
+
+    private static class Layer {
+        final BloomFilter filter;
+        final int capacity;
+        final double falsePositiveRate;
+        final AtomicInteger count = new AtomicInteger();
+
+        Layer(int capacity, double falsePositiveRate) {
+            this.filter = new BloomFilter(capacity, falsePositiveRate);
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+        }
+    }
+
+    /**
+     * @param initialCapacity Strings the first layer is sized for
+     * @param falsePositiveRate Rate to stay under, e.g. 0.01
+     */
+    public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+        // Layer rates r/2, r/4, r/8 ... sum to at most r
+        layers.add(new Layer(Math.max(1, initialCapacity), falsePositiveRate * (1 - TIGHTENING)));
+    }
+
+    public void put(String value) {
+        // Re-adding a string (e.g. saving an existing row) would only use up capacity
+        if (mightContain(value)) {
+            return;
+        }
+        Layer layer = layers.get(layers.size() - 1);
+        if (layer.count.incrementAndGet() > layer.capacity) {
+            layer = grow(layer);
+        }
+        layer.filter.put(value);
+    }
+
+    /**
+     * @return false if the string was never added; true if it probably was
+     */
+    public boolean mightContain(String value) {
+        for (Layer layer : layers) {
+            if (layer.filter.mightContain(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Strings added, not counting ones the filter already matched
+     */
+    public long getCount() {
+        long count = 0;
+        for (Layer layer : layers) {
+            count += Math.min(layer.count.get(), layer.capacity);
+        }
+        return count;
+    }
+
+    public int getLayerCount() {
+        return layers.size();
+    }
+
+    /**
+     * @return Memory held by the bit arrays, in bytes
+     */
+    public long getSizeBytes() {
+        long bits = 0;
+        for (Layer layer : layers) {
+            bits += layer.filter.getBitCount();
+        }
+        return bits / 8;
+    }
+
+    /**
+     * Estimates the false positive rate from the bits set in every layer.
+     */
+    public double estimateFalsePositiveRate() {
+        double allMiss = 1;
+        for (Layer layer : layers) {
+            allMiss *= 1 - layer.filter.estimateFalsePositiveRate();
+        }
+        return 1 - allMiss;
+    }
+
+    /**
+     * Adds a layer after the full one, unless another thread already has.
+     * @return The layer to add to
+     */
+    private synchronized Layer grow(Layer full) {
+        Layer last = layers.get(layers.size() - 1);
+        if (last != full) {
+            last.count.incrementAndGet();
+            return last;
+        }
+        Layer next = new Layer(full.capacity * GROWTH, full.falsePositiveRate * TIGHTENING);
+        next.count.incrementAndGet();
+        layers.add(next);
+        return next;
+    }
+}
@@ -0,0 +1,331 @@
+package com.banking.database;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.banking.model.Transaction;
+
+/**
+ * TransactionArchive implements hot/cold partitioning of the ledger.
+ * Transactions older than the archive horizon are moved, in throttled
+ * batches, from the hot transactions table into monthly archive tables
+ * (transactions_archive_YYYYMM) listed in the transaction_archives catalog.
+ *
+ * Settings (system properties):
+ * - banking.archive.horizonDays    (default 365)
+ * - banking.archive.batchSize      (default 500)
+ * - banking.archive.throttleMillis (default 50)
+ */
+public class TransactionArchive {
+    private static TransactionArchive instance;
+
+    private static final String ARCHIVE_PREFIX = "transactions_archive_";
+    private static final String COLUMNS =
+        "transaction_id, account_number, transaction_type, amount, " +
+        "balance_after, description, transaction_timestamp, ledger_seq";
+
+    private final DatabaseManager db;
+    private final int horizonDays;
+    private final int batchSize;
+    private final long throttleMillis;
+
+    private TransactionArchive() {
+        this.db = DatabaseManager.getInstance();
+        this.horizonDays = Integer.getInteger("banking.archive.horizonDays", 365);
+        this.batchSize = Integer.getInteger("banking.archive.batchSize", 500);
+        this.throttleMillis = Long.getLong("banking.archive.throttleMillis", 50L);
+    }
+
+    public static synchronized TransactionArchive getInstance() {
+        if (instance == null) {
+            instance = new TransactionArchive();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cut-off before which transactions belong in the archive.
+     */
+    public LocalDateTime getHorizon() {
+        return LocalDate.now().minusDays(horizonDays).atStartOfDay();
+    }
+
+    /**
+     * Moves every transaction older than the horizon into its monthly archive table.
+     * Each batch is one JDBC transaction; the job sleeps between batches so
+     * that postings are not starved. In event-sourced mode only rows already
+     * covered by a balance snapshot are moved, so balances stay rebuildable.
+     * @return ArchiveResult with statistics
+     */
+    public ArchiveResult archiveOldTransactions() {
+        long start = System.currentTimeMillis();
+        LocalDateTime horizon = getHorizon();
+        int moved = 0;
+        int batches = 0;
+
+        String selectSql =
+            "SELECT transaction_id, transaction_timestamp FROM transactions t " +
+            "WHERE transaction_timestamp < ? " +
+            (LedgerStore.isEventSourced()
+                ? "AND ledger_seq <= (SELECT COALESCE(MAX(s.ledger_seq), 0) FROM balance_snapshots s " +
+                  "WHERE s.account_number = t.account_number) "
+                : "") +
+            "ORDER BY transaction_timestamp LIMIT ?";
+
+        try (Connection conn = db.getConnection()) {
+            while (true) {
+                // Pick the next batch, restricted to the oldest month in it
+                List<String> ids = new ArrayList<>();
+                YearMonth month = null;
+                try (PreparedStatement pstmt = conn.prepareStatement(selectSql)) {
+                    pstmt.setTimestamp(1, Timestamp.valueOf(horizon));
+                    pstmt.setInt(2, batchSize);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        YearMonth rowMonth = YearMonth.from(rs.getTimestamp(2).toLocalDateTime());
+                        if (month == null) {
+                            month = rowMonth;
+                        } else if (!month.equals(rowMonth)) {
+                            break;
+                        }
+                        ids.add(rs.getString(1));
+                    }
+                }
+
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                moved += moveBatch(conn, month, ids);
+                batches++;
+
+                if (throttleMillis > 0) {
+                    try {
+                        Thread.sleep(throttleMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to archive transactions: " + e.getMessage());
+        }
+
+        return new ArchiveResult(moved, batches, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Copies one batch into the month's archive table and removes it from hot storage.
+     */
+    private int moveBatch(Connection conn, YearMonth month, List<String> ids) throws SQLException {
+        String table = ensureArchiveTable(conn, month);
+        Array idArray = conn.createArrayOf("VARCHAR", ids.toArray());
+
+        conn.setAutoCommit(false);
+        try {
+            int copied;
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO " + table + " (" + COLUMNS + ") " +
+                    "SELECT " + COLUMNS + " FROM transactions WHERE transaction_id = ANY(?)")) {
+                pstmt.setArray(1, idArray);
+                copied = pstmt.executeUpdate();
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "DELETE FROM transactions WHERE transaction_id = ANY(?)")) {
+                pstmt.setArray(1, idArray);
+                pstmt.executeUpdate();
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "UPDATE transaction_archives SET row_count = row_count + ? WHERE table_name = ?")) {
+                pstmt.setInt(1, copied);
+                pstmt.setString(2, table);
+                pstmt.executeUpdate();
+            }
+
+            conn.commit();
+            return copied;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Creates the archive table for a month and registers it in the catalog.
+     */
+    private String ensureArchiveTable(Connection conn, YearMonth month) throws SQLException {
+        String table = ARCHIVE_PREFIX + String.format("%04d%02d", month.getYear(), month.getMonthValue());
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(
+                "CREATE TABLE IF NOT EXISTS " + table + " (" +
+                "transaction_id VARCHAR(50) PRIMARY KEY, " +
+                "account_number VARCHAR(50) NOT NULL, " +
+                "transaction_type VARCHAR(20) NOT NULL, " +
+                "amount DECIMAL(15, 2) NOT NULL, " +
+                "balance_after DECIMAL(15, 2) NOT NULL, " +
+                "description VARCHAR(255), " +
+                "transaction_timestamp TIMESTAMP NOT NULL, " +
+                "ledger_seq BIGINT" +
+                ")");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_account_time " +
+                         "ON " + table + "(account_number, transaction_timestamp)");
+        }
+
+        String sql = "MERGE INTO transaction_archives (table_name, period_start, period_end, row_count) " +
+                    "KEY(table_name) VALUES (?, ?, ?, " +
+                    "COALESCE((SELECT row_count FROM transaction_archives WHERE table_name = ?), 0))";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            pstmt.setDate(2, Date.valueOf(month.atDay(1)));
+            pstmt.setDate(3, Date.valueOf(month.plusMonths(1).atDay(1)));
+            pstmt.setString(4, table);
+            pstmt.executeUpdate();
+        }
+        return table;
+    }
+
+    /**
+     * Finds archived transactions of an account within a date range.
+     * Only archive tables whose month overlaps the range are read.
+     * @param accountNumber Account to query
+     * @param start Range start (inclusive), null for unbounded
+     * @param end Range end (inclusive), null for unbounded
+     * @return Archived transactions, newest first
+     */
+    public List<Transaction> findArchived(String accountNumber, LocalDateTime start, LocalDateTime end) {
+        List<Transaction> list = new ArrayList<>();
+
+        try (Connection conn = db.getConnection()) {
+            for (String table : findArchiveTables(conn, start, end)) {
+                String sql = "SELECT " + COLUMNS + " FROM " + table + " WHERE account_number = ?" +
+                            (start != null ? " AND transaction_timestamp >= ?" : "") +
+                            (end != null ? " AND transaction_timestamp <= ?" : "");
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    int index = 1;
+                    pstmt.setString(index++, accountNumber);
+                    if (start != null) {
+                        pstmt.setTimestamp(index++, Timestamp.valueOf(start));
+                    }
+                    if (end != null) {
+                        pstmt.setTimestamp(index, Timestamp.valueOf(end));
+                    }
+
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        list.add(new Transaction(
+                            rs.getString("transaction_id"),
+                            rs.getString("account_number"),
+                            rs.getString("transaction_type"),
+                            rs.getDouble("amount"),
+                            rs.getDouble("balance_after"),
+                            rs.getString("description"),
+                            rs.getTimestamp("transaction_timestamp").toLocalDateTime()
+                        ));
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to read archived transactions: " + e.getMessage());
+        }
+
+        list.sort((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()));
+        return list;
+    }
+
+    /**
+     * Returns the oldest timestamp still held in hot storage, or null if it is empty.
+     * Range queries ending before this point never need to touch the hot table.
+     */
+    public LocalDateTime getHotLowWaterMark() {
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(transaction_timestamp) FROM transactions")) {
+
+            if (rs.next() && rs.getTimestamp(1) != null) {
+                return rs.getTimestamp(1).toLocalDateTime();
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to read hot storage range: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a range reaches into archived months at all.
+     */
+    public boolean overlapsArchive(LocalDateTime start, LocalDateTime end) {
+        try (Connection conn = db.getConnection()) {
+            return !findArchiveTables(conn, start, end).isEmpty();
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to read archive catalog: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lists the archive tables whose month overlaps a range, for readers
+     * that query them directly alongside the hot table.
+     * @return Table names, newest month first
+     */
+    public List<String> getArchiveTables(LocalDateTime start, LocalDateTime end) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            return findArchiveTables(conn, start, end);
+        }
+    }
+
+    List<String> findArchiveTables(Connection conn, LocalDateTime start, LocalDateTime end) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        String sql = "SELECT table_name FROM transaction_archives WHERE row_count > 0" +
+                    (start != null ? " AND period_end > ?" : "") +
+                    (end != null ? " AND period_start <= ?" : "") +
+                    " ORDER BY period_start DESC";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (start != null) {
+                pstmt.setDate(index++, Date.valueOf(start.toLocalDate()));
+            }
+            if (end != null) {
+                pstmt.setDate(index, Date.valueOf(end.toLocalDate()));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Inner class to encapsulate archival run results.
+     */
+    public static class ArchiveResult {
+        private final int transactionsMoved;
+        private final int batches;
+        private final long elapsedMillis;
+
+        public ArchiveResult(int transactionsMoved, int batches, long elapsedMillis) {
+            this.transactionsMoved = transactionsMoved;
+            this.batches = batches;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getTransactionsMoved() { return transactionsMoved; }
+        public int getBatches() { return batches; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+}
@@ -0,0 +1,189 @@
+package com.banking.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * LedgerColumnFormat - shared constants and encodings of the columnar ledger file.
+ *
+ * File layout:
+ *   magic "BLCF", version byte
+ *   page*            one page per PAGE_ROWS transactions
+ *   int 0            end marker
+ *
+ * Page layout:
+ *   int rowCount, long minTimestamp, long maxTimestamp   (epoch millis, UTC)
+ *   int dictionaryLength, deflated dictionary block      (accounts, types, descriptions)
+ *   int bodyLength, int rawBodyLength, deflated body     (one column after another)
+ *
+ * Columns: account index, type index, description index (varints),
+ * timestamp step then timestamp deltas in steps, amount cents, balance
+ * residual (zig-zag varlongs), transaction id.
+ * The timestamp step is the largest common divisor of the page's deltas,
+ * so timestamps kept to the second cost no bits for their milliseconds.
+ * The balance residual is balance_after minus the account's previous
+ * balance in the page plus the signed amount, so a consistent ledger
+ * stores a zero for every row after an account's first in the page.
+ * An id is split around its first run of digits ("TXN", 1700000000123,
+ * "007-001"); the parts before and after it are front-coded against the
+ * previous id's, and the number is stored as a delta to the previous
+ * id's number (0 marks an id without one), so sequential ids cost a byte
+ * or two instead of their changing trailing digits.
+ *
+ * The header and dictionary are read before the body, so pages whose
+ * date range or account dictionary cannot match a filter are skipped
+ * without inflating their columns.
+ */
+public final class LedgerColumnFormat {
+
+    static final byte[] MAGIC = {'B', 'L', 'C', 'F'};
+    static final int VERSION = 2;
+    static final int PAGE_ROWS = 4096;
+
+    private LedgerColumnFormat() {
+    }
+
+    // Timestamps
+
+    static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+            (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    // Amounts are stored as whole cents
+
+    static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Finds the digit run an id's number is read from: the first run of
+     * digits that fits in a long and has no leading zero, so it prints
+     * back the same. Returns {start, end}, or null if there is none.
+     */
+    static int[] findIdNumber(String id) {
+        int start = 0;
+        while (start < id.length() && !Character.isDigit(id.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < id.length() && id.charAt(end) >= '0' && id.charAt(end) <= '9') {
+            end++;
+        }
+        int length = end - start;
+        if (length == 0 || length > 18 || (length > 1 && id.charAt(start) == '0')) {
+            return null;
+        }
+        return new int[] {start, end};
+    }
+
+    /**
+     * Length of the prefix two byte strings share.
+     */
+    static int sharedPrefix(byte[] a, byte[] b) {
+        int shared = 0;
+        while (shared < a.length && shared < b.length && a[shared] == b[shared]) {
+            shared++;
+        }
+        return shared;
+    }
+
+    static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    // Variable-length integers
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Cursor over a decoded block; avoids stream overhead in the column loops.
+     */
+    static final class ByteCursor {
+        private final byte[] data;
+        private int position;
+
+        ByteCursor(byte[] data) {
+            this.data = data;
+        }
+
+        long readVarLong() {
+            long result = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return result;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        String readString() {
+            int length = readVarInt();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        byte[] readBytes(int length) {
+            byte[] bytes = new byte[length];
+            System.arraycopy(data, position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+    }
+
+    static byte[] readFully(DataInputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    static void checkMagic(InputStream in) throws IOException {
+        byte[] magic = in.readNBytes(MAGIC.length);
+        int version = in.read();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+            throw new IOException("Not a ledger column file (version " + VERSION + ")");
+        }
+    }
+}
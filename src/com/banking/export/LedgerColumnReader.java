@@ -0,0 +1,256 @@
+package com.banking.export;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.banking.model.Transaction;
+
+import static com.banking.export.LedgerColumnFormat.*;
+
+/**
+ * LedgerColumnReader scans a columnar ledger file page by page.
+ * Predicates on account and date are pushed down: a page is skipped
+ * from its header (date range) or dictionary (account) before its column
+ * body is inflated, and surviving pages are filtered column-at-a-time.
+ */
+public class LedgerColumnReader {
+
+    private final Path file;
+    private int pagesRead;
+    private int pagesSkipped;
+
+    public LedgerColumnReader(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Scans the file for matching transactions.
+     * @param accountNumber Account to match, or null for all accounts
+     * @param from Earliest timestamp (inclusive), or null
+     * @param to Latest timestamp (inclusive), or null
+     * @return Matching transactions in file order (oldest first)
+     */
+    public List<Transaction> scan(String accountNumber, LocalDateTime from, LocalDateTime to) throws IOException {
+        long fromMillis = from == null ? Long.MIN_VALUE : toMillis(from);
+        long toMillis = to == null ? Long.MAX_VALUE : toMillis(to);
+        List<Transaction> result = new ArrayList<>();
+        pagesRead = 0;
+        pagesSkipped = 0;
+
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 256 * 1024))) {
+            checkMagic(in);
+
+            int rows;
+            while ((rows = in.readInt()) > 0) {
+                long minTimestamp = in.readLong();
+                long maxTimestamp = in.readLong();
+                byte[] dictionaryBytes = readFully(in, in.readInt());
+                int bodyLength = in.readInt();
+                int rawBodyLength = in.readInt();
+
+                // Date pushdown: page range is disjoint from the filter
+                if (maxTimestamp < fromMillis || minTimestamp > toMillis) {
+                    in.skipNBytes(bodyLength);
+                    pagesSkipped++;
+                    continue;
+                }
+
+                ByteCursor dictionary = new ByteCursor(inflate(inflater, dictionaryBytes, -1));
+                String[] accounts = readDictionary(dictionary);
+                String[] types = readDictionary(dictionary);
+                String[] descriptions = readDictionary(dictionary);
+
+                // Account pushdown: account absent from the page dictionary
+                int wantedAccount = -1;
+                if (accountNumber != null) {
+                    for (int i = 0; i < accounts.length; i++) {
+                        if (accounts[i].equals(accountNumber)) {
+                            wantedAccount = i;
+                            break;
+                        }
+                    }
+                    if (wantedAccount < 0) {
+                        in.skipNBytes(bodyLength);
+                        pagesSkipped++;
+                        continue;
+                    }
+                }
+
+                pagesRead++;
+                ByteCursor body = new ByteCursor(inflate(inflater, readFully(in, bodyLength), rawBodyLength));
+                decodePage(body, rows, minTimestamp, wantedAccount, fromMillis, toMillis,
+                           accounts, types, descriptions, result);
+            }
+        } finally {
+            inflater.end();
+        }
+        return result;
+    }
+
+    /**
+     * Decodes the columns of one page into arrays, builds a selection
+     * vector from the predicates, and materialises only selected rows.
+     */
+    private void decodePage(ByteCursor body, int rows, long minTimestamp, int wantedAccount,
+                            long fromMillis, long toMillis,
+                            String[] accounts, String[] types, String[] descriptions,
+                            List<Transaction> result) {
+        int[] accountColumn = new int[rows];
+        int[] typeColumn = new int[rows];
+        int[] descriptionColumn = new int[rows];
+        long[] timestampColumn = new long[rows];
+        long[] amountColumn = new long[rows];
+        long[] balanceColumn = new long[rows];
+
+        for (int i = 0; i < rows; i++) {
+            accountColumn[i] = body.readVarInt();
+        }
+        for (int i = 0; i < rows; i++) {
+            typeColumn[i] = body.readVarInt();
+        }
+        for (int i = 0; i < rows; i++) {
+            descriptionColumn[i] = body.readVarInt();
+        }
+        long step = body.readVarLong();
+        long timestamp = minTimestamp;
+        for (int i = 0; i < rows; i++) {
+            timestamp += unZigZag(body.readVarLong()) * step;
+            timestampColumn[i] = timestamp;
+        }
+        for (int i = 0; i < rows; i++) {
+            amountColumn[i] = unZigZag(body.readVarLong());
+        }
+        long[] running = new long[accounts.length];
+        boolean[] seen = new boolean[accounts.length];
+        boolean[] debit = new boolean[types.length];
+        for (int i = 0; i < types.length; i++) {
+            debit[i] = Transaction.isDebit(types[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            int account = accountColumn[i];
+            long expected = seen[account]
+                ? running[account] + (debit[typeColumn[i]] ? -amountColumn[i] : amountColumn[i])
+                : 0;
+            balanceColumn[i] = expected + unZigZag(body.readVarLong());
+            running[account] = balanceColumn[i];
+            seen[account] = true;
+        }
+
+        // Selection vector
+        boolean[] selected = new boolean[rows];
+        for (int i = 0; i < rows; i++) {
+            selected[i] = (wantedAccount < 0 || accountColumn[i] == wantedAccount)
+                && timestampColumn[i] >= fromMillis
+                && timestampColumn[i] <= toMillis;
+        }
+
+        // Id parts are coded against the previous id, so every row is
+        // decoded to keep the chains
+        byte[][] heads = readFrontCoded(body, rows);
+        long[] numbers = new long[rows];
+        long previousNumber = 0;
+        for (int i = 0; i < rows; i++) {
+            long coded = body.readVarLong();
+            if (coded == 0) {
+                numbers[i] = -1;
+            } else {
+                previousNumber += unZigZag(coded - 1);
+                numbers[i] = previousNumber;
+            }
+        }
+        byte[][] tails = readFrontCoded(body, rows);
+
+        for (int i = 0; i < rows; i++) {
+            if (selected[i]) {
+                String head = new String(heads[i], StandardCharsets.UTF_8);
+                String tail = new String(tails[i], StandardCharsets.UTF_8);
+                result.add(new Transaction(
+                    numbers[i] < 0 ? head + tail : head + numbers[i] + tail,
+                    accounts[accountColumn[i]],
+                    types[typeColumn[i]],
+                    fromCents(amountColumn[i]),
+                    fromCents(balanceColumn[i]),
+                    descriptions[descriptionColumn[i]],
+                    fromMillis(timestampColumn[i])
+                ));
+            }
+        }
+    }
+
+    private static byte[][] readFrontCoded(ByteCursor cursor, int count) {
+        byte[][] values = new byte[count][];
+        byte[] previous = new byte[0];
+        for (int i = 0; i < count; i++) {
+            int shared = cursor.readVarInt();
+            byte[] suffix = cursor.readBytes(cursor.readVarInt());
+            byte[] value = new byte[shared + suffix.length];
+            System.arraycopy(previous, 0, value, 0, shared);
+            System.arraycopy(suffix, 0, value, shared, suffix.length);
+            values[i] = value;
+            previous = value;
+        }
+        return values;
+    }
+
+    private static String[] readDictionary(ByteCursor cursor) {
+        String[] values = new String[cursor.readVarInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = cursor.readString();
+        }
+        return values;
+    }
+
+    private static byte[] inflate(Inflater inflater, byte[] data, int rawLength) throws IOException {
+        inflater.reset();
+        inflater.setInput(data);
+        try {
+            if (rawLength >= 0) {
+                byte[] raw = new byte[rawLength];
+                int offset = 0;
+                while (offset < rawLength && !inflater.finished()) {
+                    int length = inflater.inflate(raw, offset, rawLength - offset);
+                    if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Corrupt ledger page");
+                    }
+                    offset += length;
+                }
+                if (offset < rawLength) {
+                    throw new IOException("Corrupt ledger page");
+                }
+                return raw;
+            }
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Corrupt ledger page");
+                }
+                raw.write(buffer, 0, length);
+            }
+            return raw.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt ledger page: " + e.getMessage(), e);
+        }
+    }
+
+    public int getPagesRead() {
+        return pagesRead;
+    }
+
+    public int getPagesSkipped() {
+        return pagesSkipped;
+    }
+}
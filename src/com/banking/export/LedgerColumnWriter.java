@@ -0,0 +1,289 @@
+package com.banking.export;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import com.banking.database.DatabaseManager;
+import com.banking.model.Transaction;
+
+import static com.banking.export.LedgerColumnFormat.*;
+
+/**
+ * LedgerColumnWriter streams the ledger from a database cursor into the
+ * columnar file format described in LedgerColumnFormat.
+ * Only one page of rows is held in memory at a time.
+ */
+public class LedgerColumnWriter implements AutoCloseable {
+
+    private final DataOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final byte[] deflateBuffer = new byte[64 * 1024];
+
+    // Current page, column by column
+    private final Map<String, Integer> accountDictionary = new HashMap<>();
+    private final Map<String, Integer> typeDictionary = new HashMap<>();
+    private final Map<String, Integer> descriptionDictionary = new HashMap<>();
+    private final List<String> accounts = new ArrayList<>();
+    private final List<String> types = new ArrayList<>();
+    private final List<String> descriptions = new ArrayList<>();
+    private final int[] accountColumn = new int[PAGE_ROWS];
+    private final int[] typeColumn = new int[PAGE_ROWS];
+    private final int[] descriptionColumn = new int[PAGE_ROWS];
+    private final long[] timestampColumn = new long[PAGE_ROWS];
+    private final long[] amountColumn = new long[PAGE_ROWS];
+    private final long[] balanceColumn = new long[PAGE_ROWS];
+    private final String[] idColumn = new String[PAGE_ROWS];
+    private int rows;
+    private long rowsWritten;
+
+    public LedgerColumnWriter(OutputStream target) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(target, 256 * 1024));
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    /**
+     * Exports the full ledger (archive months oldest first, then hot storage) to a file.
+     * @param file Target file
+     * @return Number of transactions written
+     */
+    public static long exportLedger(Path file) throws IOException, SQLException {
+        DatabaseManager db = DatabaseManager.getInstance();
+        List<String> tables = new ArrayList<>();
+
+        try (Connection conn = db.getConnection()) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(
+                     "SELECT table_name FROM transaction_archives WHERE row_count > 0 ORDER BY period_start")) {
+                while (rs.next()) {
+                    tables.add(rs.getString(1));
+                }
+            }
+            tables.add("transactions");
+
+            LedgerColumnWriter writer = new LedgerColumnWriter(Files.newOutputStream(file));
+            try (writer) {
+                for (String table : tables) {
+                    writer.writeFrom(conn, table);
+                }
+            }
+            return writer.getRowsWritten();
+        }
+    }
+
+    /**
+     * Streams one table through a forward-only cursor.
+     */
+    void writeFrom(Connection conn, String table) throws IOException, SQLException {
+        String sql = "SELECT transaction_id, account_number, transaction_type, amount, " +
+                    "balance_after, description, transaction_timestamp FROM " + table +
+                    " ORDER BY transaction_timestamp, ledger_seq";
+
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(PAGE_ROWS);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    append(
+                        rs.getString(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        rs.getBigDecimal(4).movePointRight(2).longValue(),
+                        rs.getBigDecimal(5).movePointRight(2).longValue(),
+                        rs.getString(6),
+                        toMillis(rs.getTimestamp(7).toLocalDateTime())
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends one row to the current page, flushing it when full.
+     */
+    public void append(String transactionId, String accountNumber, String type,
+                       long amountCents, long balanceCents, String description, long timestampMillis)
+            throws IOException {
+        accountColumn[rows] = indexOf(accountDictionary, accounts, accountNumber);
+        typeColumn[rows] = indexOf(typeDictionary, types, type);
+        descriptionColumn[rows] = indexOf(descriptionDictionary, descriptions, description);
+        timestampColumn[rows] = timestampMillis;
+        amountColumn[rows] = amountCents;
+        balanceColumn[rows] = balanceCents;
+        idColumn[rows] = transactionId;
+        rows++;
+
+        if (rows == PAGE_ROWS) {
+            flushPage();
+        }
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    private static int indexOf(Map<String, Integer> dictionary, List<String> values, String value) {
+        String key = value == null ? "" : value;
+        Integer index = dictionary.get(key);
+        if (index == null) {
+            index = values.size();
+            dictionary.put(key, index);
+            values.add(key);
+        }
+        return index;
+    }
+
+    private void flushPage() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+            minTimestamp = Math.min(minTimestamp, timestampColumn[i]);
+            maxTimestamp = Math.max(maxTimestamp, timestampColumn[i]);
+        }
+
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+        writeDictionary(dictionary, accounts);
+        writeDictionary(dictionary, types);
+        writeDictionary(dictionary, descriptions);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(rows * 16);
+        for (int i = 0; i < rows; i++) {
+            writeVarLong(body, accountColumn[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            writeVarLong(body, typeColumn[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            writeVarLong(body, descriptionColumn[i]);
+        }
+        long step = 0;
+        long previous = minTimestamp;
+        for (int i = 0; i < rows; i++) {
+            step = gcd(step, Math.abs(timestampColumn[i] - previous));
+            previous = timestampColumn[i];
+        }
+        step = Math.max(1, step);
+        writeVarLong(body, step);
+        previous = minTimestamp;
+        for (int i = 0; i < rows; i++) {
+            writeVarLong(body, zigZag((timestampColumn[i] - previous) / step));
+            previous = timestampColumn[i];
+        }
+        for (int i = 0; i < rows; i++) {
+            writeVarLong(body, zigZag(amountColumn[i]));
+        }
+        // Balance as residual against the account's running balance in this page
+        long[] running = new long[accounts.size()];
+        boolean[] seen = new boolean[accounts.size()];
+        for (int i = 0; i < rows; i++) {
+            int account = accountColumn[i];
+            long expected = seen[account]
+                ? running[account] + (Transaction.isDebit(types.get(typeColumn[i])) ? -amountColumn[i] : amountColumn[i])
+                : 0;
+            writeVarLong(body, zigZag(balanceColumn[i] - expected));
+            running[account] = balanceColumn[i];
+            seen[account] = true;
+        }
+        // Ids as three sub-columns: head, number delta, tail
+        byte[][] heads = new byte[rows][];
+        byte[][] tails = new byte[rows][];
+        long[] numbers = new long[rows];
+        boolean[] numbered = new boolean[rows];
+        for (int i = 0; i < rows; i++) {
+            String id = idColumn[i];
+            int[] number = findIdNumber(id);
+            numbered[i] = number != null;
+            int headEnd = numbered[i] ? number[0] : id.length();
+            int tailStart = numbered[i] ? number[1] : id.length();
+            heads[i] = id.substring(0, headEnd).getBytes(StandardCharsets.UTF_8);
+            tails[i] = id.substring(tailStart).getBytes(StandardCharsets.UTF_8);
+            numbers[i] = numbered[i] ? Long.parseLong(id.substring(number[0], number[1])) : 0;
+        }
+        writeFrontCoded(body, heads, rows);
+        long previousNumber = 0;
+        for (int i = 0; i < rows; i++) {
+            if (numbered[i]) {
+                writeVarLong(body, zigZag(numbers[i] - previousNumber) + 1);
+                previousNumber = numbers[i];
+            } else {
+                writeVarLong(body, 0);
+            }
+        }
+        writeFrontCoded(body, tails, rows);
+
+        byte[] rawBody = body.toByteArray();
+        byte[] compressedDictionary = deflate(dictionary.toByteArray());
+        byte[] compressedBody = deflate(rawBody);
+
+        out.writeInt(rows);
+        out.writeLong(minTimestamp);
+        out.writeLong(maxTimestamp);
+        out.writeInt(compressedDictionary.length);
+        out.write(compressedDictionary);
+        out.writeInt(compressedBody.length);
+        out.writeInt(rawBody.length);
+        out.write(compressedBody);
+
+        rowsWritten += rows;
+        rows = 0;
+        accountDictionary.clear();
+        typeDictionary.clear();
+        descriptionDictionary.clear();
+        accounts.clear();
+        types.clear();
+        descriptions.clear();
+    }
+
+    private static void writeFrontCoded(ByteArrayOutputStream out, byte[][] values, int count) {
+        byte[] previous = new byte[0];
+        for (int i = 0; i < count; i++) {
+            int shared = sharedPrefix(values[i], previous);
+            writeVarLong(out, shared);
+            writeVarLong(out, values[i].length - shared);
+            out.write(values[i], shared, values[i].length - shared);
+            previous = values[i];
+        }
+    }
+
+    private static void writeDictionary(ByteArrayOutputStream out, List<String> values) {
+        writeVarLong(out, values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private byte[] deflate(byte[] data) {
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        while (!deflater.finished()) {
+            int length = deflater.deflate(deflateBuffer);
+            compressed.write(deflateBuffer, 0, length);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushPage();
+        out.writeInt(0);
+        out.close();
+        deflater.end();
+    }
+}
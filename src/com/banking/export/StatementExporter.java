@@ -0,0 +1,621 @@
+package com.banking.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.banking.database.CheckpointIndex;
+import com.banking.database.DatabaseManager;
+import com.banking.database.TransactionArchive;
+import com.banking.model.Transaction;
+
+/**
+ * StatementExporter writes the monthly statement of every customer, one
+ * text file per branch, e.g. statements-2026-09-Gaborone.txt; branches
+ * whose names come out the same in a file name get a numbered suffix. A
+ * customer's statement in a branch file covers their accounts held at
+ * that branch: opening balance, each posting of the month (hot and
+ * archived), closing balance and totals.
+ *
+ * Customers are read from one forward-only cursor over the accounts
+ * table, ordered by branch and customer. Each customer's statement is
+ * rendered on a worker thread, which streams the postings of each
+ * account from its own cursor into a StringBuilder taken from a fixed
+ * pool. A single writer takes the rendered statements in cursor order,
+ * encodes them straight into the branch's direct buffer and writes that
+ * through the branch's FileChannel when it fills. The builder pool caps
+ * the statements in flight, so memory stays bounded however many
+ * customers there are; the files come out the same on every run.
+ *
+ * Settings (system properties):
+ * - banking.statements.bufferKB (default 1024) direct buffer per branch file
+ */
+public class StatementExporter {
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final int PAGE_ROWS = 1_000;
+    private static final int LINE_WIDTH = 94;
+    // Builders that grew past this for one large statement are not kept
+    private static final int MAX_KEPT_BUILDER = 1 << 20;
+
+    private final DatabaseManager db;
+    private final String bankName;
+    private final int threads;
+    private final int bufferBytes;
+
+    /**
+     * @param bankName Printed at the top of each statement
+     * @param threads Threads that render statements
+     */
+    public StatementExporter(String bankName, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive");
+        }
+        this.db = DatabaseManager.getInstance();
+        this.bankName = bankName;
+        this.threads = threads;
+        this.bufferBytes = Integer.getInteger("banking.statements.bufferKB", 1024) * 1024;
+    }
+
+    /**
+     * Writes the statements of one month into a directory, replacing
+     * files of an earlier run for the same month.
+     * @param period Statement month
+     * @param directory Directory for the branch files; created if missing
+     * @return ExportResult with counts and the files written
+     */
+    public ExportResult export(YearMonth period, Path directory) throws IOException, SQLException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Run run = new Run(period, directory);
+        try {
+            run.execute();
+        } finally {
+            run.close();
+        }
+        List<Path> files = new ArrayList<>();
+        for (BranchFile file : run.files.values()) {
+            files.add(file.path);
+        }
+        return new ExportResult(run.statements, run.accounts, run.postings, files, run.bytes,
+            System.nanoTime() - start);
+    }
+
+    /**
+     * One customer's accounts at one branch, as read from the cursor.
+     */
+    private static final class CustomerStatement {
+        final String branch;
+        final String customerId;
+        final String name;
+        final String address;
+        final List<String[]> accounts = new ArrayList<>();
+        StringBuilder text;
+        int postings;
+
+        CustomerStatement(String branch, String customerId, String name, String address) {
+            this.branch = branch;
+            this.customerId = customerId;
+            this.name = name;
+            this.address = address;
+        }
+    }
+
+    /**
+     * A branch's output file and its buffer.
+     */
+    private static final class BranchFile {
+        final Path path;
+        final FileChannel channel;
+        final ByteBuffer buffer;
+
+        BranchFile(Path path, int bufferBytes) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        }
+
+        void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * A worker's connection and prepared statements, reused for every
+     * statement it renders.
+     */
+    private static final class WorkerContext {
+        final Connection conn;
+        final PreparedStatement postings;
+
+        WorkerContext(Connection conn, String postingsSql) throws SQLException {
+            this.conn = conn;
+            this.postings = conn.prepareStatement(postingsSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            this.postings.setFetchSize(PAGE_ROWS);
+        }
+    }
+
+    /**
+     * One export of one month.
+     */
+    private final class Run {
+        private final YearMonth period;
+        private final Path directory;
+        private final LocalDateTime from;
+        private final LocalDateTime until;
+        private final String title;
+        private final String postingsSql;
+        private final int postingsTables;
+
+        private final BlockingQueue<StringBuilder> builders;
+        private final BlockingQueue<CompletableFuture<CustomerStatement>> rendered = new LinkedBlockingQueue<>();
+        private final List<WorkerContext> contexts = new ArrayList<>();
+        private final ThreadLocal<WorkerContext> context = new ThreadLocal<>();
+        private final Map<String, BranchFile> files = new TreeMap<>();
+        // File names taken, ignoring case as some file systems do
+        private final Set<String> fileNames = new HashSet<>();
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private volatile Throwable failure;
+
+        private int statements;
+        private int accounts;
+        private long postings;
+        private long bytes;
+
+        Run(YearMonth period, Path directory) throws SQLException {
+            this.period = period;
+            this.directory = directory;
+            this.from = period.atDay(1).atStartOfDay();
+            this.until = period.plusMonths(1).atDay(1).atStartOfDay();
+            this.title = period.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + period.getYear();
+
+            // Postings of the month may sit in archive tables as well as the hot table
+            List<String> tables = new ArrayList<>(TransactionArchive.getInstance().getArchiveTables(from,
+                period.atEndOfMonth().atTime(23, 59, 59)));
+            tables.add("transactions");
+            StringBuilder sql = new StringBuilder("SELECT transaction_id, transaction_type, amount, balance_after, " +
+                "description, transaction_timestamp FROM (");
+            for (int i = 0; i < tables.size(); i++) {
+                sql.append(i == 0 ? "" : " UNION ALL ")
+                   .append("SELECT transaction_id, transaction_type, amount, balance_after, description, ")
+                   .append("transaction_timestamp, ledger_seq FROM ").append(tables.get(i))
+                   .append(" WHERE account_number = ? AND transaction_timestamp >= ? AND transaction_timestamp < ?");
+            }
+            sql.append(") ORDER BY transaction_timestamp, ledger_seq");
+            this.postingsSql = sql.toString();
+            this.postingsTables = tables.size();
+
+            this.builders = new ArrayBlockingQueue<>(threads * 2);
+            for (int i = 0; i < threads * 2; i++) {
+                builders.add(new StringBuilder(16 * 1024));
+            }
+        }
+
+        void execute() throws IOException, SQLException {
+            ExecutorService workers = Executors.newFixedThreadPool(threads);
+            Thread writer = Thread.ofPlatform().name("statement-writer").start(this::write);
+            try (Connection conn = db.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT a.branch, a.customer_id, c.first_name, c.surname, c.address, " +
+                     "a.account_number, a.account_type FROM accounts a " +
+                     "JOIN customers c ON c.customer_id = a.customer_id " +
+                     "WHERE a.date_opened < ? ORDER BY a.branch, a.customer_id, a.account_number",
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(PAGE_ROWS);
+                pstmt.setTimestamp(1, Timestamp.valueOf(until));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    CustomerStatement current = null;
+                    while (rs.next() && failure == null) {
+                        String branch = rs.getString(1) == null ? "Unassigned" : rs.getString(1);
+                        String customerId = rs.getString(2);
+                        if (current == null || !current.branch.equals(branch) ||
+                                !current.customerId.equals(customerId)) {
+                            submit(current, workers);
+                            current = new CustomerStatement(branch, customerId,
+                                rs.getString(3) + " " + rs.getString(4), rs.getString(5));
+                        }
+                        current.accounts.add(new String[] { rs.getString(6), rs.getString(7) });
+                    }
+                    submit(current, workers);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            } finally {
+                rendered.add(CompletableFuture.completedFuture(null));
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                workers.shutdown();
+            }
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+            if (failure instanceof SQLException) {
+                throw (SQLException) failure;
+            }
+            if (failure != null) {
+                throw new IOException("Statement export failed: " + failure.getMessage(), failure);
+            }
+        }
+
+        /**
+         * Hands a statement to a worker once a builder is free for it.
+         */
+        private void submit(CustomerStatement statement, ExecutorService workers) throws InterruptedException {
+            if (statement == null) {
+                return;
+            }
+            statement.text = builders.take();
+            rendered.add(CompletableFuture.supplyAsync(() -> render(statement), workers));
+        }
+
+        /**
+         * Renders one statement. Runs on a worker.
+         */
+        private CustomerStatement render(CustomerStatement statement) {
+            boolean done = false;
+            try {
+                WorkerContext worker = context.get();
+                if (worker == null) {
+                    worker = new WorkerContext(db.getConnection(), postingsSql);
+                    synchronized (contexts) {
+                        contexts.add(worker);
+                    }
+                    context.set(worker);
+                }
+                StringBuilder sb = statement.text;
+                appendRule(sb, '=');
+                appendColumns(sb, "STATEMENT OF ACCOUNT", title);
+                appendColumns(sb, bankName, "Branch: " + statement.branch);
+                sb.append("Customer ").append(statement.customerId).append("  ").append(statement.name).append('\n');
+                sb.append(statement.address == null ? "" : statement.address).append('\n');
+                for (String[] account : statement.accounts) {
+                    statement.postings += renderAccount(worker, sb, account[0], account[1]);
+                }
+                sb.append('\n');
+                done = true;
+                return statement;
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read postings of customer " + statement.customerId +
+                    ": " + e.getMessage(), e);
+            } finally {
+                // The writer never sees a failed statement, so its builder goes back to the pool here
+                if (!done) {
+                    release(statement.text);
+                }
+            }
+        }
+
+        /**
+         * Streams one account's postings of the month into a statement.
+         * @return Number of postings
+         */
+        private int renderAccount(WorkerContext worker, StringBuilder sb, String accountNumber, String type)
+                throws SQLException {
+            sb.append('\n');
+            sb.append("Account ").append(accountNumber).append(" (").append(type).append(")\n");
+            sb.append("Date              Type          Description                         ")
+              .append("      Amount       Balance\n");
+            appendRule(sb, '-');
+            int openingLine = sb.length();
+
+            PreparedStatement pstmt = worker.postings;
+            for (int t = 0; t < postingsTables; t++) {
+                pstmt.setString(t * 3 + 1, accountNumber);
+                pstmt.setTimestamp(t * 3 + 2, Timestamp.valueOf(from));
+                pstmt.setTimestamp(t * 3 + 3, Timestamp.valueOf(until));
+            }
+            int count = 0;
+            long opening = 0;
+            long balance = 0;
+            long credits = 0;
+            long debits = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String transactionType = rs.getString(2);
+                    long amount = rs.getBigDecimal(3).movePointRight(2).longValue();
+                    balance = rs.getBigDecimal(4).movePointRight(2).longValue();
+                    boolean debit = Transaction.isDebit(transactionType);
+                    if (count == 0) {
+                        opening = debit ? balance + amount : balance - amount;
+                    }
+                    if (debit) {
+                        debits += amount;
+                    } else {
+                        credits += amount;
+                    }
+                    appendDateTime(sb, rs.getTimestamp(6).toLocalDateTime());
+                    sb.append("  ");
+                    appendPadded(sb, transactionType, 12);
+                    sb.append("  ");
+                    appendPadded(sb, rs.getString(5), 34);
+                    appendAmount(sb, debit ? -amount : amount, 14, true);
+                    appendAmount(sb, balance, 14, false);
+                    sb.append('\n');
+                    count++;
+                }
+            }
+            if (count == 0) {
+                // No postings this month: the balance stood still all month
+                opening = Math.round(
+                    CheckpointIndex.getInstance().getBalanceAsOf(worker.conn, accountNumber, from) * 100);
+                balance = opening;
+            }
+
+            // The opening balance goes above the postings, now that it is known
+            int tail = sb.length();
+            appendSummary(sb, "Opening balance", opening);
+            String openingText = sb.substring(tail);
+            sb.setLength(tail);
+            sb.insert(openingLine, openingText);
+
+            appendSummary(sb, "Closing balance", balance);
+            sb.append(" ".repeat(32)).append("Credits ");
+            appendAmount(sb, credits, 0, false);
+            sb.append("   Debits ");
+            appendAmount(sb, debits, 0, false);
+            sb.append('\n');
+            return count;
+        }
+
+        /**
+         * Takes rendered statements in cursor order and writes them to
+         * their branch files. Runs on the writer thread.
+         */
+        private void write() {
+            while (true) {
+                CompletableFuture<CustomerStatement> next;
+                try {
+                    next = rendered.take();
+                } catch (InterruptedException e) {
+                    failure = e;
+                    return;
+                }
+                CustomerStatement statement;
+                try {
+                    statement = next.join();
+                } catch (RuntimeException e) {
+                    // render released the builder; keep draining so later ones are released too
+                    if (failure == null) {
+                        failure = e.getCause() != null ? e.getCause() : e;
+                    }
+                    continue;
+                }
+                if (statement == null) {
+                    return;
+                }
+                try {
+                    if (failure == null) {
+                        append(statement);
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                } finally {
+                    release(statement.text);
+                }
+            }
+        }
+
+        private void append(CustomerStatement statement) throws IOException {
+            BranchFile file = files.get(statement.branch);
+            if (file == null) {
+                String base = "statements-" + period + "-" + statement.branch.replaceAll("[^A-Za-z0-9-]", "_");
+                String name = base;
+                // e.g. "North/East" and "North East" must not truncate each other's file
+                for (int n = 2; !fileNames.add(name.toLowerCase(Locale.ROOT)); n++) {
+                    name = base + "-" + n;
+                }
+                file = new BranchFile(directory.resolve(name + ".txt"), bufferBytes);
+                files.put(statement.branch, file);
+            }
+            CharBuffer chars = CharBuffer.wrap(statement.text);
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(chars, file.buffer, true);
+                if (result.isOverflow()) {
+                    bytes += file.buffer.position();
+                    file.drain();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            while (encoder.flush(file.buffer).isOverflow()) {
+                bytes += file.buffer.position();
+                file.drain();
+            }
+            statements++;
+            accounts += statement.accounts.size();
+            postings += statement.postings;
+        }
+
+        private void release(StringBuilder sb) {
+            sb.setLength(0);
+            if (sb.capacity() > MAX_KEPT_BUILDER) {
+                sb.trimToSize();
+            }
+            builders.add(sb);
+        }
+
+        /**
+         * Writes out what is buffered and closes files and connections.
+         */
+        void close() throws IOException {
+            IOException error = null;
+            for (BranchFile file : files.values()) {
+                try (file.channel) {
+                    bytes += file.buffer.position();
+                    file.drain();
+                } catch (IOException e) {
+                    error = error == null ? e : error;
+                }
+            }
+            for (WorkerContext worker : contexts) {
+                try {
+                    worker.conn.close();
+                } catch (SQLException e) {
+                    System.err.println("✗ Failed to close statement connection: " + e.getMessage());
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    private static void appendRule(StringBuilder sb, char c) {
+        for (int i = 0; i < LINE_WIDTH; i++) {
+            sb.append(c);
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * Appends a line with text on the left and on the right.
+     */
+    private static void appendColumns(StringBuilder sb, String left, String right) {
+        sb.append(left);
+        for (int i = left.length() + right.length(); i < LINE_WIDTH; i++) {
+            sb.append(' ');
+        }
+        sb.append(right).append('\n');
+    }
+
+    private static void appendSummary(StringBuilder sb, String label, long balance) {
+        sb.append(" ".repeat(32));
+        appendPadded(sb, label, 36);
+        appendAmount(sb, balance, 26, false);
+        sb.append('\n');
+    }
+
+    /**
+     * Appends text cut or padded to a width.
+     */
+    private static void appendPadded(StringBuilder sb, String text, int width) {
+        String value = text == null ? "" : text;
+        if (value.length() > width) {
+            sb.append(value, 0, width - 1).append('~');
+            return;
+        }
+        sb.append(value);
+        for (int i = value.length(); i < width; i++) {
+            sb.append(' ');
+        }
+    }
+
+    /**
+     * Appends yyyy-MM-dd HH:mm.
+     */
+    private static void appendDateTime(StringBuilder sb, LocalDateTime time) {
+        sb.append(time.getYear()).append('-');
+        appendTwoDigits(sb, time.getMonthValue());
+        sb.append('-');
+        appendTwoDigits(sb, time.getDayOfMonth());
+        sb.append(' ');
+        appendTwoDigits(sb, time.getHour());
+        sb.append(':');
+        appendTwoDigits(sb, time.getMinute());
+    }
+
+    private static void appendTwoDigits(StringBuilder sb, int value) {
+        sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Appends an amount in thebe as pula with thousands separators,
+     * right-aligned to a width (0 for none).
+     * @param signed Whether to show + before credits
+     */
+    static void appendAmount(StringBuilder sb, long thebe, int width, boolean signed) {
+        int start = sb.length();
+        long value = Math.abs(thebe);
+        if (thebe < 0) {
+            sb.append('-');
+        } else if (signed) {
+            sb.append('+');
+        }
+        String pula = Long.toString(value / 100);
+        int lead = pula.length() % 3 == 0 ? 3 : pula.length() % 3;
+        sb.append(pula, 0, lead);
+        for (int i = lead; i < pula.length(); i += 3) {
+            sb.append(',').append(pula, i, i + 3);
+        }
+        sb.append('.');
+        appendTwoDigits(sb, (int) (value % 100));
+        int length = sb.length() - start;
+        if (length < width) {
+            sb.insert(start, " ".repeat(width - length));
+        }
+    }
+
+    /**
+     * Outcome of an export.
+     */
+    public static class ExportResult {
+        private final int statements;
+        private final int accounts;
+        private final long postings;
+        private final List<Path> files;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        public ExportResult(int statements, int accounts, long postings, List<Path> files, long bytes,
+                            long elapsedNanos) {
+            this.statements = statements;
+            this.accounts = accounts;
+            this.postings = postings;
+            this.files = files;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** Statements written, one per customer per branch */
+        public int getStatements() { return statements; }
+        public int getAccounts() { return accounts; }
+        public long getPostings() { return postings; }
+        /** Files written, one per branch, in branch order */
+        public List<Path> getFiles() { return files; }
+        public long getBytes() { return bytes; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        public double getStatementsPerSecond() {
+            return elapsedNanos == 0 ? 0 : statements / (elapsedNanos / 1e9);
+        }
+    }
+}
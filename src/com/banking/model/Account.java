@@ -1,8 +1,11 @@
 package com.banking.model;
 
 import com.banking.database.DatabaseManager;
+import com.banking.database.LedgerStore;
+import com.banking.database.PostingFeed;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Abstract Account class demonstrates ABSTRACTION.
@@ -21,6 +24,9 @@ public abstract class Account {
     // Database manager for persistence
     protected DatabaseManager dbManager;
     
+    // Last part of generated transaction IDs
+    private static final AtomicInteger ID_SEQUENCE = new AtomicInteger();
+    
     /**
      * Constructor for creating a new account.
      * Protected because only subclasses can call it.
@@ -54,10 +60,13 @@ public abstract class Account {
             return false;
         }
         balance += amount;
-        recordTransaction("DEPOSIT", amount, "Deposit to account");
+        if (recordTransaction("DEPOSIT", amount, "Deposit to account") == null) {
+            balance -= amount;
+            return false;
+        }
         
         // Save updated balance to database
-        dbManager.saveAccount(this);
+        saveBalance();
         
         return true;
     }
@@ -66,7 +75,7 @@ public abstract class Account {
      * Abstract method for withdrawing money.
      * Different account types have different withdrawal rules.
      * Forces all subclasses to implement this method.
-     * NOTE: Subclasses must call dbManager.saveAccount(this) after withdrawal!
+     * NOTE: Subclasses must check recordTransaction's result and call saveBalance() after withdrawal!
      * @param amount Amount to withdraw
      * @return true if successful, false otherwise
      */
@@ -88,10 +97,13 @@ public abstract class Account {
         double interest = calculateInterest();
         if (interest > 0) {
             balance += interest;
-            recordTransaction("INTEREST", interest, "Monthly interest applied");
+            if (recordTransaction("INTEREST", interest, "Monthly interest applied") == null) {
+                balance -= interest;
+                return;
+            }
             
             // Save updated balance to database
-            dbManager.saveAccount(this);
+            saveBalance();
         }
     }
     
@@ -99,11 +111,15 @@ public abstract class Account {
      * Records a transaction in the account's history.
      * Internal method to maintain transaction log.
      * Saves transaction to database instead of ArrayList.
+     * In event-sourced mode the ledger derives the balance and this account adopts it.
+     * Once stored, the transaction is published on the PostingFeed.
      * @param type Type of transaction
      * @param amount Transaction amount
      * @param description Transaction description
+     * @return The stored transaction, or null if it was not posted (e.g. the
+     *         ledger refused a withdrawal the balance no longer covers)
      */
-    protected void recordTransaction(String type, double amount, String description) {
+    protected Transaction recordTransaction(String type, double amount, String description) {
         Transaction transaction = new Transaction(
             generateTransactionId(),
             this.accountNumber,
@@ -114,18 +130,43 @@ public abstract class Account {
             LocalDateTime.now()
         );
         
-        dbManager.saveTransaction(transaction);
+        if (LedgerStore.isEventSourced()) {
+            Transaction posted = LedgerStore.getInstance().append(transaction);
+            if (posted != null) {
+                balance = posted.getBalanceAfter();
+                PostingFeed.getInstance().publish(posted);
+            }
+            return posted;
+        }
+        if (!dbManager.saveTransaction(transaction)) {
+            return null;
+        }
+        PostingFeed.getInstance().publish(transaction);
+        return transaction;
+    }
+    
+    /**
+     * Saves the balance after a posting.
+     * In event-sourced mode the ledger has already written it under the
+     * account's row lock, so nothing is saved here.
+     */
+    protected void saveBalance() {
+        if (!LedgerStore.isEventSourced()) {
+            dbManager.saveAccount(this);
+        }
     }
     
     /**
      * Generates a unique transaction ID.
-     * Simple implementation using timestamp and account number.
+     * Simple implementation using timestamp, account number and a counter;
+     * the counter keeps IDs apart when an account posts twice in a millisecond.
      * @return Unique transaction ID
      */
     private String generateTransactionId() {
         // Safe substring to avoid index out of bounds
         int startIndex = Math.max(0, accountNumber.length() - 3);
-        return "TXN" + System.currentTimeMillis() + accountNumber.substring(startIndex);
+        return "TXN" + System.currentTimeMillis() + accountNumber.substring(startIndex) +
+               String.format("-%03d", Math.floorMod(ID_SEQUENCE.getAndIncrement(), 1000));
     }
     
     /**
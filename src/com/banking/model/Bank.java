@@ -1,5 +1,6 @@
 package com.banking.model;
 
+import com.banking.database.DashboardStatistics;
 import com.banking.database.DatabaseManager;
 import java.util.List;
 
@@ -36,20 +37,16 @@ public class Bank {
         // Initialize database manager
         this.dbManager = DatabaseManager.getInstance();
         
-        // Load existing customers from database to set counter
-        List<Customer> existingCustomers = dbManager.getAllCustomers();
-        this.customerCounter = 1000 + existingCustomers.size();
-        
-        // Count existing accounts to set counter
-        int totalAccounts = 0;
-        for (Customer c : existingCustomers) {
-            totalAccounts += dbManager.getCustomerAccounts(c.getCustomerId()).size();
-        }
+        // Set counters from the materialised dashboard statistics
+        DashboardStatistics statistics = DashboardStatistics.getInstance();
+        int totalCustomers = statistics.getCustomerCount();
+        int totalAccounts = statistics.getAccountCount();
+        this.customerCounter = 1000 + totalCustomers;
         this.accountCounter = 10000 + totalAccounts;
         
         // Display startup information
         System.out.println("✓ Bank initialized with H2 database persistence");
-        System.out.println("  📊 Existing customers loaded: " + existingCustomers.size());
+        System.out.println("  📊 Existing customers loaded: " + totalCustomers);
         System.out.println("  💰 Existing accounts loaded: " + totalAccounts);
     }
     
@@ -93,6 +90,7 @@ public class Bank {
         
         if (dbManager.saveAccount(account)) {
             customer.addAccount(account);
+            recordOpeningBalance(account, initialBalance);
             return account;
         } else {
             System.err.println("❌ Failed to open savings account in database");
@@ -119,6 +117,7 @@ public class Bank {
         
         if (dbManager.saveAccount(account)) {
             customer.addAccount(account);
+            recordOpeningBalance(account, initialBalance);
             return account;
         } else {
             System.err.println("❌ Failed to open investment account in database");
@@ -149,6 +148,7 @@ public class Bank {
         
         if (dbManager.saveAccount(account)) {
             customer.addAccount(account);
+            recordOpeningBalance(account, initialBalance);
             return account;
         } else {
             System.err.println("❌ Failed to open cheque account in database");
@@ -156,6 +156,18 @@ public class Bank {
         }
     }
     
+    /**
+     * Journals the opening balance of a new account.
+     * Gives the ledger a complete history so balances can be rebuilt from it.
+     * @param account The newly opened account
+     * @param initialBalance Starting balance
+     */
+    private void recordOpeningBalance(Account account, double initialBalance) {
+        if (initialBalance > 0) {
+            account.recordTransaction("OPENING", initialBalance, "Opening balance");
+        }
+    }
+    
     /**
      * Processes monthly interest for all eligible accounts.
      * This should be called automatically at the end of each month.
@@ -262,18 +274,18 @@ public class Bank {
     
     /**
      * Returns total number of customers.
-     * @return Customer count from database
+     * @return Customer count from the dashboard statistics
      */
     public int getCustomerCount() {
-        return getAllCustomers().size();
+        return DashboardStatistics.getInstance().getCustomerCount();
     }
     
     /**
      * Returns total number of accounts.
-     * @return Account count from database
+     * @return Account count from the dashboard statistics
      */
     public int getAccountCount() {
-        return getAllAccounts().size();
+        return DashboardStatistics.getInstance().getAccountCount();
     }
     
     // Getters
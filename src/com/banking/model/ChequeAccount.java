@@ -66,10 +66,13 @@ public class ChequeAccount extends Account {
         
         // Process withdrawal
         balance -= amount;
-        recordTransaction("WITHDRAWAL", amount, "Withdrawal from Cheque Account");
+        if (recordTransaction("WITHDRAWAL", amount, "Withdrawal from Cheque Account") == null) {
+            balance += amount;
+            return false;
+        }
         
         // Save updated balance to database
-        dbManager.saveAccount(this);
+        saveBalance();
         
         return true;
     }
@@ -107,10 +110,13 @@ public class ChequeAccount extends Account {
             return false;
         }
         balance += amount;
-        recordTransaction("SALARY", amount, 
-            String.format("Salary credit from %s (Ref: %s)", companyName, employerReference));
+        if (recordTransaction("SALARY", amount, 
+                String.format("Salary credit from %s (Ref: %s)", companyName, employerReference)) == null) {
+            balance -= amount;
+            return false;
+        }
         
-        dbManager.saveAccount(this);
+        saveBalance();
         
         return true;
     }
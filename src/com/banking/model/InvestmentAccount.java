@@ -12,7 +12,7 @@ package com.banking.model;
 public class InvestmentAccount extends Account {
     // Class constants demonstrate good design practices
     private static final double INTEREST_RATE = 0.05; // 5% monthly
-    private static final double MINIMUM_OPENING_BALANCE = 500.00;
+    public static final double MINIMUM_OPENING_BALANCE = 500.00;
     
     /**
      * Constructor for creating an investment account.
@@ -59,10 +59,13 @@ public class InvestmentAccount extends Account {
         
         // Process withdrawal
         balance -= amount;
-        recordTransaction("WITHDRAWAL", amount, "Withdrawal from Investment Account");
+        if (recordTransaction("WITHDRAWAL", amount, "Withdrawal from Investment Account") == null) {
+            balance += amount;
+            return false;
+        }
         
         // Save updated balance to database
-        dbManager.saveAccount(this);
+        saveBalance();
         
         return true;
     }
@@ -0,0 +1,45 @@
+package com.banking.model;
+
+/**
+ * Permission enumerates the actions a user's role may allow.
+ * Each permission owns one bit of a long, so a role's permissions fit in
+ * a single mask and a check is one AND (see RolePermissions).
+ */
+public enum Permission {
+    CREATE_USER,
+    DELETE_USER,
+    VIEW_ALL_ACCOUNTS,
+    CLOSE_ACCOUNT,
+    OVERRIDE_LIMIT,
+    CREATE_CUSTOMER,
+    OPEN_ACCOUNT,
+    DEPOSIT,
+    WITHDRAW,
+    VIEW_BALANCE,
+    VIEW_TRANSACTIONS;
+
+    private final long bit = 1L << ordinal();
+
+    /**
+     * @return This permission's bit in a role mask
+     */
+    public long bit() {
+        return bit;
+    }
+
+    /**
+     * Looks up a permission by name.
+     * @param name Permission name, e.g. "DEPOSIT"
+     * @return The permission, or null if there is none by that name
+     */
+    public static Permission fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
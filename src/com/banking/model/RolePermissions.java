@@ -0,0 +1,179 @@
+package com.banking.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * RolePermissions is the role-to-permission table behind every
+ * authorization check. Each role maps to a long mask with one bit per
+ * Permission, computed once when the table is loaded, so a check is a
+ * map lookup and an AND with no allocation.
+ *
+ * Built in: TELLER, then MANAGER and ADMIN, each holding the permissions
+ * of the role below it. A roles.properties file in the working directory
+ * replaces the built-in table; an entry may name another role to include
+ * its permissions:
+ *
+ *   TELLER=CREATE_CUSTOMER, OPEN_ACCOUNT, DEPOSIT, WITHDRAW, VIEW_BALANCE, VIEW_TRANSACTIONS
+ *   MANAGER=TELLER, CLOSE_ACCOUNT, OVERRIDE_LIMIT
+ *
+ * reload() re-reads the file and swaps the whole table at once, so
+ * signed-in users get the new permissions on their next check.
+ */
+public final class RolePermissions {
+    public static final String FILE_NAME = "roles.properties";
+
+    // Replaced as a whole, never modified; keys are upper-case role names
+    private static volatile Map<String, Long> masks = loadOrDefaults(defaultFile());
+
+    private RolePermissions() {
+    }
+
+    /**
+     * Checks a permission against a role.
+     * @param roleKey Upper-case role name (see User.getRole())
+     */
+    public static boolean allows(String roleKey, Permission permission) {
+        Long mask = masks.get(roleKey);
+        return mask != null && (mask & permission.bit()) != 0;
+    }
+
+    /**
+     * @return The role's permission mask, 0 for an unknown role
+     */
+    public static long maskOf(String role) {
+        Long mask = role == null ? null : masks.get(role.toUpperCase());
+        return mask == null ? 0 : mask;
+    }
+
+    /**
+     * @return The role's permissions, empty for an unknown role
+     */
+    public static EnumSet<Permission> permissionsOf(String role) {
+        long mask = maskOf(role);
+        EnumSet<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (Permission permission : Permission.values()) {
+            if ((mask & permission.bit()) != 0) {
+                permissions.add(permission);
+            }
+        }
+        return permissions;
+    }
+
+    public static boolean isKnownRole(String role) {
+        return role != null && masks.containsKey(role.toUpperCase());
+    }
+
+    public static Set<String> getRoles() {
+        return Collections.unmodifiableSet(new TreeSet<>(masks.keySet()));
+    }
+
+    /**
+     * Re-reads roles.properties from the working directory, or restores the
+     * built-in table if there is no such file. A file with errors is
+     * reported and the current table is kept.
+     * @return true if a new table is in place
+     */
+    public static boolean reload() {
+        Path file = defaultFile();
+        try {
+            masks = Files.exists(file) ? load(file) : defaults();
+            System.out.println("✓ Role permissions loaded: " + getRoles());
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("✗ Role permissions not reloaded: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the table with the one in the given file.
+     * @throws IllegalArgumentException on unknown permissions or roles
+     */
+    public static void reload(Path file) throws IOException {
+        masks = load(file);
+    }
+
+    private static Path defaultFile() {
+        return Paths.get(System.getProperty("user.dir"), FILE_NAME);
+    }
+
+    private static Map<String, Long> loadOrDefaults(Path file) {
+        if (Files.exists(file)) {
+            try {
+                return load(file);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("✗ Ignoring " + file + ": " + e.getMessage());
+            }
+        }
+        return defaults();
+    }
+
+    private static Map<String, Long> defaults() {
+        Map<String, String> entries = new HashMap<>();
+        entries.put("TELLER", "CREATE_CUSTOMER, OPEN_ACCOUNT, DEPOSIT, WITHDRAW, VIEW_BALANCE, VIEW_TRANSACTIONS");
+        entries.put("MANAGER", "TELLER, CLOSE_ACCOUNT, OVERRIDE_LIMIT");
+        entries.put("ADMIN", "MANAGER, CREATE_USER, DELETE_USER, VIEW_ALL_ACCOUNTS");
+        return compile(entries);
+    }
+
+    private static Map<String, Long> load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, String> entries = new HashMap<>();
+        for (String role : properties.stringPropertyNames()) {
+            entries.put(role.trim().toUpperCase(), properties.getProperty(role));
+        }
+        return compile(entries);
+    }
+
+    private static Map<String, Long> compile(Map<String, String> entries) {
+        Map<String, Long> compiled = new HashMap<>();
+        for (String role : entries.keySet()) {
+            resolve(role, entries, compiled, new HashSet<>());
+        }
+        return Map.copyOf(compiled);
+    }
+
+    private static long resolve(String role, Map<String, String> entries, Map<String, Long> compiled,
+                                Set<String> visiting) {
+        Long known = compiled.get(role);
+        if (known != null) {
+            return known;
+        }
+        if (!visiting.add(role)) {
+            throw new IllegalArgumentException("Role " + role + " includes itself");
+        }
+        long mask = 0;
+        for (String item : entries.get(role).split(",")) {
+            String name = item.trim().toUpperCase();
+            if (name.isEmpty()) {
+                continue;
+            }
+            Permission permission = Permission.fromName(name);
+            if (permission != null) {
+                mask |= permission.bit();
+            } else if (entries.containsKey(name)) {
+                mask |= resolve(name, entries, compiled, visiting);
+            } else {
+                throw new IllegalArgumentException("Unknown permission or role '" + name + "' in role " + role);
+            }
+        }
+        compiled.put(role, mask);
+        return mask;
+    }
+}
@@ -12,7 +12,7 @@ public class Transaction {
     // All fields are final to make transactions immutable once created
     private final String transactionId;
     private final String accountNumber;
-    private final String transactionType; // DEPOSIT, WITHDRAWAL, INTEREST, SALARY
+    private final String transactionType; // DEPOSIT, WITHDRAWAL, INTEREST, SALARY, TRANSFER_OUT, TRANSFER_IN
     private final double amount;
     private final double balanceAfter;
     private final String description;
@@ -69,7 +69,25 @@ public class Transaction {
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
-    
+
+    /**
+     * Returns the amount with the sign it has on the balance.
+     * Debits (withdrawals, transfers out) are negative, every other type is a credit.
+     * @return Signed transaction amount
+     */
+    public double getSignedAmount() {
+        return isDebit(transactionType) ? -amount : amount;
+    }
+
+    /**
+     * Checks whether a transaction type reduces the account balance.
+     * @param transactionType Type of transaction
+     * @return true for debit types
+     */
+    public static boolean isDebit(String transactionType) {
+        return "WITHDRAWAL".equals(transactionType) || "TRANSFER_OUT".equals(transactionType);
+    }
+
     /**
      * Returns a formatted timestamp string for display.
      * @return Formatted date and time
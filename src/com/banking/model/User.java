@@ -1,8 +1,7 @@
 package com.banking.model;
 
 import com.banking.interfaces.Authenticatable;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.EnumSet;
 
 /**
  * User class represents a Bank Teller or system user.
@@ -14,8 +13,8 @@ public class User implements Authenticatable {
     private String username;
     private String passwordHash; // In production, always store hashed passwords
     private String role; // e.g., "TELLER", "MANAGER", "ADMIN"
+    private String roleKey; // Upper-case role, the key into RolePermissions
     private boolean authenticated;
-    private Set<String> permissions;
     
     /**
      * Constructor for creating a new user.
@@ -29,39 +28,8 @@ public class User implements Authenticatable {
         this.username = username;
         this.passwordHash = passwordHash;
         this.role = role;
+        this.roleKey = role.toUpperCase();
         this.authenticated = false;
-        this.permissions = new HashSet<>();
-        initializePermissions();
-    }
-    
-    /**
-     * Initializes permissions based on user role.
-     * Demonstrates role-based access control (RBAC).
-     */
-    private void initializePermissions() {
-        // Different roles get different permissions
-        switch (role.toUpperCase()) {
-            case "ADMIN":
-                permissions.add("CREATE_USER");
-                permissions.add("DELETE_USER");
-                permissions.add("VIEW_ALL_ACCOUNTS");
-                // Fall through to add all lower permissions
-            case "MANAGER":
-                permissions.add("CLOSE_ACCOUNT");
-                permissions.add("OVERRIDE_LIMIT");
-                // Fall through to add teller permissions
-            case "TELLER":
-                permissions.add("CREATE_CUSTOMER");
-                permissions.add("OPEN_ACCOUNT");
-                permissions.add("DEPOSIT");
-                permissions.add("WITHDRAW");
-                permissions.add("VIEW_BALANCE");
-                permissions.add("VIEW_TRANSACTIONS");
-                break;
-            default:
-                // No permissions for unknown roles
-                break;
-        }
     }
     
     /**
@@ -91,10 +59,21 @@ public class User implements Authenticatable {
      */
     @Override
     public boolean hasPermission(String userId, String permission) {
-        if (!this.userId.equals(userId) || !authenticated) {
+        if (!this.userId.equals(userId)) {
             return false;
         }
-        return permissions.contains(permission);
+        Permission known = Permission.fromName(permission);
+        return known != null && hasPermission(known);
+    }
+    
+    /**
+     * Checks a permission against the role table (role-based access control).
+     * Constant time and allocation-free; follows RolePermissions.reload().
+     * @param permission Permission to verify
+     * @return true if the user is authenticated and their role allows it
+     */
+    public boolean hasPermission(Permission permission) {
+        return authenticated && RolePermissions.allows(roleKey, permission);
     }
     
     /**
@@ -153,8 +132,8 @@ public class User implements Authenticatable {
         return role;
     }
     
-    public Set<String> getPermissions() {
-        return new HashSet<>(permissions);
+    public EnumSet<Permission> getPermissions() {
+        return RolePermissions.permissionsOf(roleKey);
     }
     
     public boolean isAuthenticated() {
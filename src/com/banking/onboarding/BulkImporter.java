@@ -0,0 +1,491 @@
+package com.banking.onboarding;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import com.banking.controller.CustomerController;
+import com.banking.controller.Session;
+import com.banking.database.BulkImportStore;
+import com.banking.database.BulkImportStore.Progress;
+import com.banking.database.ExistenceFilters;
+import com.banking.database.ExistenceFilters.Entity;
+import com.banking.model.Account;
+import com.banking.model.ChequeAccount;
+import com.banking.model.Customer;
+import com.banking.model.InvestmentAccount;
+import com.banking.model.Permission;
+import com.banking.model.SavingsAccount;
+
+/**
+ * BulkImporter loads customers or accounts from CSV files, e.g. when a
+ * branch is onboarded. It works as a pipeline:
+ *
+ *   read (caller's thread) → parse and validate (worker threads) → insert (one writer thread)
+ *
+ * Lines are read in batches; each batch is parsed and checked on a pool
+ * of worker threads while later batches are read. The writer takes the
+ * checked batches in file order, drops keys that already exist, and
+ * inserts each batch in one JDBC transaction together with the file's
+ * checkpoint (see BulkImportStore). At most two batches per worker are
+ * in flight, so memory stays bounded however large the file.
+ *
+ * An import that stops part way is resumed by running it again on the
+ * same file: it carries on from the last committed batch. A file already
+ * imported in full is not imported again.
+ *
+ * Lines that are not imported are appended to an error report, a CSV of
+ * line number, reason and the line itself.
+ *
+ * Customers file:
+ *   customer_id,first_name,surname,address,phone_number,email
+ * Checked with the registration rules of CustomerController.
+ *
+ * Accounts file:
+ *   account_number,customer_id,account_type,opening_balance,branch,company_name,company_address
+ * account_type is Savings, Investment or Cheque; company fields are for
+ * Cheque accounts only. The customer must already exist.
+ */
+public class BulkImporter {
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    public static final int MAX_ACCOUNT_NUMBER_LENGTH = 30;
+
+    /**
+     * What a file holds.
+     */
+    public enum Kind {
+        CUSTOMERS("customer_id,first_name,surname,address,phone_number,email", Permission.CREATE_CUSTOMER),
+        ACCOUNTS("account_number,customer_id,account_type,opening_balance,branch,company_name,company_address",
+                 Permission.OPEN_ACCOUNT);
+
+        private final String header;
+        private final int fieldCount;
+        private final Permission permission;
+
+        Kind(String header, Permission permission) {
+            this.header = header;
+            this.fieldCount = header.split(",").length;
+            this.permission = permission;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+    }
+
+    private final Kind kind;
+    private final int threads;
+    private final int batchSize;
+    // Account numbers of the form this bank issues itself, e.g. BAC-10001
+    private final Pattern issuedNumbers;
+
+    /**
+     * @param bankCode Code of the bank's own account numbers, which an
+     *        accounts file may not use
+     * @param threads Threads that parse and validate
+     * @param batchSize Lines per batch and per JDBC transaction
+     */
+    public BulkImporter(Kind kind, String bankCode, int threads, int batchSize) {
+        if (threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Threads and batch size must be positive");
+        }
+        this.kind = kind;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.issuedNumbers = Pattern.compile(Pattern.quote(bankCode) + "-\\d+", Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * Imports a file, or resumes its import.
+     * @param session Caller's session; needs CREATE_CUSTOMER or OPEN_ACCOUNT
+     * @param file CSV file in the format of the importer's kind
+     * @param errorReport File the rejected lines are appended to
+     * @return ImportResult with counts for the whole file
+     */
+    public ImportResult importFile(Session session, Path file, Path errorReport) {
+        if (session == null || !session.hasPermission(kind.permission)) {
+            return ImportResult.failed("You don't have permission to import " + kind.name().toLowerCase());
+        }
+        long start = System.nanoTime();
+        try {
+            String fileHash = sha256(file);
+            BulkImportStore store = BulkImportStore.getInstance();
+            Progress progress = store.findProgress(fileHash);
+            if (progress != null && progress.isComplete()) {
+                return new ImportResult(true, "File was already imported; nothing was imported again", true,
+                    progress.getCommittedLine(), 0, progress.getImported(), progress.getRejected(), 0,
+                    System.nanoTime() - start);
+            }
+            if (progress == null) {
+                store.begin(fileHash, kind.name(), file.getFileName().toString());
+                progress = store.findProgress(fileHash);
+            }
+
+            Run run = new Run(store, fileHash, progress);
+            try (CsvLineReader reader = new CsvLineReader(file, progress.getCommittedOffset(),
+                                                          progress.getCommittedLine());
+                 BufferedWriter report = Files.newBufferedWriter(errorReport, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (Files.size(errorReport) == 0) {
+                    report.write("line,error,record");
+                    report.newLine();
+                }
+                run.execute(reader, report);
+            }
+            Progress done = store.findProgress(fileHash);
+            String message = run.failure != null ?
+                "Import stopped at line " + done.getCommittedLine() + ": " + run.failure +
+                    "; run it again to resume" :
+                String.format("Imported %d %s, rejected %d lines", done.getImported(),
+                    kind.name().toLowerCase(), done.getRejected());
+            return new ImportResult(run.failure == null, message, false, done.getCommittedLine(),
+                progress.getCommittedLine(), done.getImported(), done.getRejected(), run.linesRead,
+                System.nanoTime() - start);
+
+        } catch (Exception e) {
+            return ImportResult.failed("Error importing file: " + e.getMessage());
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[256 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Lines of a batch as read, and as checked by a worker.
+     */
+    private static final class Batch {
+        final List<String> lines;
+        final int firstLine;
+        final long endOffset;
+        final int endLine;
+        final boolean last;
+        final List<Object> records = new ArrayList<>();
+        final List<Integer> recordLines = new ArrayList<>();
+        // Error report lines by line number, so they are written in file order
+        final SortedMap<Integer, String> errors = new TreeMap<>();
+
+        Batch(List<String> lines, int firstLine, long endOffset, int endLine, boolean last) {
+            this.lines = lines;
+            this.firstLine = firstLine;
+            this.endOffset = endOffset;
+            this.endLine = endLine;
+            this.last = last;
+        }
+
+        void reject(int lineNumber, String reason) {
+            errors.put(lineNumber, lineNumber + "," + CsvLineReader.quote(reason) + "," +
+                CsvLineReader.quote(lines.get(lineNumber - firstLine)));
+        }
+    }
+
+    /**
+     * One import of one file.
+     */
+    private final class Run {
+        private final BulkImportStore store;
+        private final String fileHash;
+        private final Progress progress;
+        private volatile String failure;
+        private int linesRead;
+
+        Run(BulkImportStore store, String fileHash, Progress progress) {
+            this.store = store;
+            this.fileHash = fileHash;
+            this.progress = progress;
+        }
+
+        void execute(CsvLineReader reader, BufferedWriter report) throws Exception {
+            ExecutorService workers = Executors.newFixedThreadPool(threads);
+            BlockingQueue<CompletableFuture<Batch>> checked = new ArrayBlockingQueue<>(threads * 2);
+            Thread writer = Thread.ofPlatform().name("bulk-import-writer").start(() -> write(checked, report));
+            boolean queuedLast = false;
+            try {
+                if (progress.getCommittedOffset() == 0) {
+                    String header = reader.readLine();
+                    if (header == null || !header.trim().equalsIgnoreCase(kind.header)) {
+                        throw new IOException("The first line of the file must be \"" + kind.header + "\"");
+                    }
+                }
+                boolean last = false;
+                while (!last && failure == null) {
+                    int firstLine = reader.getLineNumber() + 1;
+                    List<String> lines = new ArrayList<>(batchSize);
+                    String text;
+                    while (lines.size() < batchSize && (text = reader.readLine()) != null) {
+                        lines.add(text);
+                    }
+                    linesRead += lines.size();
+                    last = lines.size() < batchSize;
+                    Batch batch = new Batch(lines, firstLine, reader.getOffset(), reader.getLineNumber(), last);
+                    checked.put(CompletableFuture.supplyAsync(() -> check(batch), workers));
+                }
+                queuedLast = last;
+            } finally {
+                if (!queuedLast && failure == null) {
+                    // No last batch is coming; stop the writer after what is queued
+                    checked.put(CompletableFuture.completedFuture(null));
+                }
+                writer.join();
+                workers.shutdown();
+            }
+        }
+
+        /**
+         * Parses and checks every line of a batch. Runs on a worker.
+         */
+        private Batch check(Batch batch) {
+            for (int i = 0; i < batch.lines.size(); i++) {
+                int lineNumber = batch.firstLine + i;
+                String text = batch.lines.get(i);
+                if (text.trim().isEmpty()) {
+                    continue;
+                }
+                List<String> fields = CsvLineReader.split(text);
+                if (fields == null) {
+                    batch.reject(lineNumber, "Unterminated quoted field");
+                    continue;
+                }
+                if (fields.size() != kind.fieldCount) {
+                    batch.reject(lineNumber, "Expected " + kind.fieldCount + " fields but found " + fields.size());
+                    continue;
+                }
+                for (int f = 0; f < fields.size(); f++) {
+                    fields.set(f, fields.get(f).trim());
+                }
+                try {
+                    batch.records.add(kind == Kind.CUSTOMERS ? toCustomer(fields) : toAccount(fields));
+                    batch.recordLines.add(lineNumber);
+                } catch (IllegalArgumentException e) {
+                    batch.reject(lineNumber, e.getMessage());
+                }
+            }
+            return batch;
+        }
+
+        /**
+         * Takes checked batches in file order and stores them. Runs on the writer thread.
+         */
+        private void write(BlockingQueue<CompletableFuture<Batch>> checked, BufferedWriter report) {
+            try {
+                while (true) {
+                    Batch batch = checked.take().join();
+                    if (batch == null) {
+                        return;
+                    }
+                    store(batch);
+                    for (String error : batch.errors.values()) {
+                        report.write(error);
+                        report.newLine();
+                    }
+                    report.flush();
+                    if (batch.last) {
+                        store.complete(fileHash, batch.endOffset, batch.endLine, 0);
+                        return;
+                    }
+                }
+            } catch (Exception e) {
+                failure = e.getMessage();
+                // Let the reader finish its put rather than wait on a full queue
+                checked.clear();
+            }
+        }
+
+        /**
+         * Drops records whose keys exist or repeat, then inserts the rest
+         * with the checkpoint in one transaction.
+         */
+        private void store(Batch batch) throws Exception {
+            Entity entity = kind == Kind.CUSTOMERS ? Entity.CUSTOMER : Entity.ACCOUNT;
+            List<String> keys = new ArrayList<>(batch.records.size());
+            List<String> owners = new ArrayList<>();
+            for (Object record : batch.records) {
+                if (record instanceof Customer) {
+                    keys.add(((Customer) record).getCustomerId());
+                } else {
+                    keys.add(((Account) record).getAccountNumber());
+                    owners.add(((Account) record).getCustomer().getCustomerId());
+                }
+            }
+            ExistenceFilters filters = ExistenceFilters.getInstance();
+            Set<String> existing = filters.findExisting(entity, keys);
+            Set<String> owned = owners.isEmpty() ? Set.of() : filters.findExisting(Entity.CUSTOMER, owners);
+
+            Set<String> seen = new HashSet<>();
+            List<Customer> customers = new ArrayList<>();
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < batch.records.size(); i++) {
+                String key = keys.get(i);
+                int lineNumber = batch.recordLines.get(i);
+                if (existing.contains(key)) {
+                    batch.reject(lineNumber, (entity == Entity.CUSTOMER ? "Customer " : "Account ") + key + " already exists");
+                } else if (!seen.add(key)) {
+                    batch.reject(lineNumber, "Duplicate of an earlier line: " + key);
+                } else if (batch.records.get(i) instanceof Customer) {
+                    customers.add((Customer) batch.records.get(i));
+                } else if (!owned.contains(owners.get(i))) {
+                    batch.reject(lineNumber, "Customer not found: " + owners.get(i));
+                } else {
+                    accounts.add((Account) batch.records.get(i));
+                }
+            }
+            if (kind == Kind.CUSTOMERS) {
+                store.insertCustomers(fileHash, customers, batch.endOffset, batch.endLine, batch.errors.size());
+            } else {
+                store.insertAccounts(fileHash, accounts, batch.endOffset, batch.endLine, batch.errors.size());
+            }
+        }
+    }
+
+    private static Customer toCustomer(List<String> fields) {
+        String customerId = fields.get(0);
+        require(!customerId.isEmpty() && customerId.length() <= 50, "Customer ID must be 1 to 50 characters");
+        String invalid = CustomerController.validateCustomer(fields.get(1), fields.get(2), fields.get(3),
+                                                             fields.get(4), fields.get(5));
+        require(invalid == null, invalid);
+        require(fields.get(1).length() <= 100 && fields.get(2).length() <= 100, "Names must be at most 100 characters");
+        require(fields.get(3).length() <= 255, "Address must be at most 255 characters");
+        require(fields.get(4).length() <= 20, "Phone number must be at most 20 characters");
+        require(fields.get(5).length() <= 100, "Email must be at most 100 characters");
+
+        Customer customer = new Customer(customerId, fields.get(1), fields.get(2), fields.get(3));
+        if (!fields.get(4).isEmpty()) {
+            customer.setPhoneNumber(fields.get(4));
+        }
+        if (!fields.get(5).isEmpty()) {
+            customer.setEmail(fields.get(5));
+        }
+        return customer;
+    }
+
+    private Account toAccount(List<String> fields) {
+        String number = fields.get(0);
+        String customerId = fields.get(1);
+        String type = fields.get(2).toLowerCase();
+        String branch = fields.get(4);
+        require(!number.isEmpty() && number.length() <= MAX_ACCOUNT_NUMBER_LENGTH,
+            "Account number must be 1 to " + MAX_ACCOUNT_NUMBER_LENGTH + " characters");
+        require(!issuedNumbers.matcher(number).matches(),
+            "Account number " + number + " has the form of numbers this bank issues");
+        require(!customerId.isEmpty(), "Customer ID is required");
+        require(!branch.isEmpty() && branch.length() <= 50, "Branch must be 1 to 50 characters");
+        double balance = parseBalance(fields.get(3));
+
+        // Only the owner's ID is stored with the account
+        Customer owner = new Customer(customerId, null, null, null);
+        if (type.equals("savings") || type.equals("savings account")) {
+            require(fields.get(5).isEmpty() && fields.get(6).isEmpty(), "Company details are for Cheque accounts only");
+            return new SavingsAccount(number, balance, branch, owner);
+        }
+        if (type.equals("investment") || type.equals("investment account")) {
+            require(fields.get(5).isEmpty() && fields.get(6).isEmpty(), "Company details are for Cheque accounts only");
+            return new InvestmentAccount(number, balance, branch, owner);
+        }
+        if (type.equals("cheque") || type.equals("cheque account")) {
+            require(fields.get(5).length() <= 200 && fields.get(6).length() <= 255, "Company details are too long");
+            return new ChequeAccount(number, balance, branch, owner, fields.get(5), fields.get(6));
+        }
+        throw new IllegalArgumentException("Account type must be Savings, Investment or Cheque: " + fields.get(2));
+    }
+
+    /**
+     * Parses a BWP amount with at most two decimals, exactly.
+     */
+    private static double parseBalance(String text) {
+        try {
+            BigDecimal amount = new BigDecimal(text);
+            require(amount.signum() >= 0 && amount.scale() <= 2 && amount.compareTo(BigDecimal.valueOf(1_000_000_000)) < 0,
+                "Opening balance must be a BWP amount from 0 to 999,999,999.99 with at most two decimals: " + text);
+            return amount.doubleValue();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Opening balance is not a number: " + text);
+        }
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Outcome of an import. Counts cover the whole file, including lines
+     * imported by earlier runs that were resumed.
+     */
+    public static class ImportResult {
+        private final boolean success;
+        private final String message;
+        private final boolean alreadyImported;
+        private final int lastLine;
+        private final int resumedAfterLine;
+        private final int imported;
+        private final int rejected;
+        private final int linesRead;
+        private final long elapsedNanos;
+
+        public ImportResult(boolean success, String message, boolean alreadyImported, int lastLine,
+                            int resumedAfterLine, int imported, int rejected, int linesRead, long elapsedNanos) {
+            this.success = success;
+            this.message = message;
+            this.alreadyImported = alreadyImported;
+            this.lastLine = lastLine;
+            this.resumedAfterLine = resumedAfterLine;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.linesRead = linesRead;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        static ImportResult failed(String message) {
+            return new ImportResult(false, message, false, 0, 0, 0, 0, 0, 0);
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public boolean isAlreadyImported() { return alreadyImported; }
+        /** Last line committed, counting the header as 1 */
+        public int getLastLine() { return lastLine; }
+        /** Line this run carried on after; 0 if it started at the top */
+        public int getResumedAfterLine() { return resumedAfterLine; }
+        public int getImported() { return imported; }
+        public int getRejected() { return rejected; }
+        /** Lines read by this run */
+        public int getLinesRead() { return linesRead; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        public double getLinesPerSecond() {
+            return elapsedNanos == 0 ? 0 : linesRead / (elapsedNanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.banking.onboarding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvLineReader reads a UTF-8 CSV file one line at a time and knows the
+ * byte offset of every line, so a reader can be opened again at the start
+ * of any line it returned earlier. A file of any size is read in constant
+ * memory.
+ *
+ * Fields may be double-quoted, with a quote inside written twice; a
+ * record may not span lines. A byte order mark at the start of the file
+ * is skipped.
+ */
+public class CsvLineReader implements Closeable {
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_BYTES];
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+    private int position;
+    private int limit;
+    private long offset;
+    private int lineNumber;
+
+    /**
+     * Opens a file at the start of a line.
+     * @param offset Byte offset of the line, 0 for the start of the file
+     * @param lineNumber Number of the line before it, 0 at the start of the file
+     */
+    public CsvLineReader(Path file, long offset, int lineNumber) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        if (offset > channel.size()) {
+            channel.close();
+            throw new IOException("Offset " + offset + " is past the end of " + file);
+        }
+        channel.position(offset);
+        this.in = Channels.newInputStream(channel);
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+        if (offset == 0) {
+            skipByteOrderMark();
+        }
+    }
+
+    /**
+     * @return The next line without its line break, or null at the end of the file
+     */
+    public String readLine() throws IOException {
+        line.reset();
+        while (true) {
+            if (position == limit && !fill()) {
+                if (line.size() == 0) {
+                    return null;
+                }
+                break;
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            line.write(buffer, start, position - start);
+            offset += position - start;
+            if (position < limit) {
+                position++;
+                offset++;
+                break;
+            }
+        }
+        lineNumber++;
+        byte[] bytes = line.toByteArray();
+        int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return Byte offset of the next line
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return Number of the last line read, counting from 1
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Splits a CSV line into fields.
+     * @return The fields, or null if a quoted field is not closed
+     */
+    public static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return quoted ? null : fields;
+    }
+
+    /**
+     * Quotes a value for a CSV field if it needs it.
+     */
+    public static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"").replace('\r', ' ').replace('\n', ' ') + '"';
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        if (fill() && limit >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB
+                && (buffer[2] & 0xFF) == 0xBF) {
+            position = 3;
+            offset = 3;
+        }
+    }
+}
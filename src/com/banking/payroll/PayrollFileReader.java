@@ -0,0 +1,185 @@
+package com.banking.payroll;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PayrollFileReader reads an employer payroll file one line at a time, so
+ * a file of any size is read in constant memory.
+ *
+ * The file is CSV with a header line and four columns:
+ *
+ *   company,account,amount,reference
+ *   "Debswana Diamond Company, Jwaneng",BAC-10003,12500.00,PAY-2026-10-0001
+ *
+ * - company:   employer, as held on the Cheque account
+ * - account:   Cheque account to credit
+ * - amount:    BWP, positive, at most two decimal places
+ * - reference: the employer's payment reference
+ *
+ * Fields may be double-quoted; a quote inside a quoted field is written
+ * twice. Blank lines are skipped. Each line is checked for format only;
+ * a line that fails comes back with an error rather than ending the read.
+ */
+public class PayrollFileReader implements Closeable {
+    public static final String HEADER = "company,account,amount,reference";
+    public static final int MAX_COMPANY_LENGTH = 100;
+    public static final int MAX_REFERENCE_LENGTH = 30;
+    // BWP 10 million; anything larger is a keying error
+    public static final long MAX_AMOUNT_THEBE = 1_000_000_000L;
+
+    private final BufferedReader in;
+    private final List<String> fields = new ArrayList<>(4);
+    private int lineNumber;
+
+    public PayrollFileReader(Reader reader) {
+        this.in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 64 * 1024);
+    }
+
+    /**
+     * One payroll line. Valid lines have a null error.
+     */
+    public static class Line {
+        private final int lineNumber;
+        private final String company;
+        private final String accountNumber;
+        private final long amountThebe;
+        private final String reference;
+        private final String error;
+
+        Line(int lineNumber, String company, String accountNumber, long amountThebe, String reference, String error) {
+            this.lineNumber = lineNumber;
+            this.company = company;
+            this.accountNumber = accountNumber;
+            this.amountThebe = amountThebe;
+            this.reference = reference;
+            this.error = error;
+        }
+
+        public int getLineNumber() { return lineNumber; }
+        /** Employer name; may be empty on an invalid line */
+        public String getCompany() { return company; }
+        public String getAccountNumber() { return accountNumber; }
+        public long getAmountThebe() { return amountThebe; }
+        public double getAmount() { return amountThebe / 100.0; }
+        public String getReference() { return reference; }
+        public String getError() { return error; }
+        public boolean isValid() { return error == null; }
+    }
+
+    /**
+     * @return The next line, or null at the end of the file
+     * @throws IOException if the file cannot be read or has no header
+     */
+    public Line next() throws IOException {
+        String text;
+        do {
+            text = in.readLine();
+            lineNumber++;
+            if (text == null) {
+                return null;
+            }
+            if (lineNumber == 1) {
+                // Tolerate a byte order mark from spreadsheet exports
+                String header = text.startsWith("\uFEFF") ? text.substring(1) : text;
+                if (!header.trim().equalsIgnoreCase(HEADER)) {
+                    throw new IOException("Not a payroll file: the first line must be \"" + HEADER + "\"");
+                }
+                text = "";
+            }
+        } while (text.trim().isEmpty());
+
+        if (!split(text)) {
+            return new Line(lineNumber, "", "", 0, "", "Unterminated quoted field");
+        }
+        if (fields.size() != 4) {
+            return new Line(lineNumber, fields.get(0).trim(), "", 0, "",
+                "Expected 4 fields but found " + fields.size());
+        }
+        String company = fields.get(0).trim();
+        String account = fields.get(1).trim();
+        String reference = fields.get(3).trim();
+        if (company.isEmpty() || company.length() > MAX_COMPANY_LENGTH) {
+            return new Line(lineNumber, "", account, 0, reference,
+                "Company must be 1 to " + MAX_COMPANY_LENGTH + " characters");
+        }
+        if (account.isEmpty()) {
+            return new Line(lineNumber, company, account, 0, reference, "Account number is required");
+        }
+        if (reference.isEmpty() || reference.length() > MAX_REFERENCE_LENGTH) {
+            return new Line(lineNumber, company, account, 0, reference,
+                "Reference must be 1 to " + MAX_REFERENCE_LENGTH + " characters");
+        }
+        long thebe = parseThebe(fields.get(2).trim());
+        if (thebe <= 0) {
+            return new Line(lineNumber, company, account, 0, reference,
+                "Amount must be a positive BWP amount with at most two decimals: " + fields.get(2).trim());
+        }
+        return new Line(lineNumber, company, account, thebe, reference, null);
+    }
+
+    /**
+     * @return Number of the last line read, counting the header as 1
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Splits a CSV line into fields.
+     * @return false if a quoted field is not closed
+     */
+    private boolean split(String text) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return !quoted;
+    }
+
+    /**
+     * Parses "1234", "1234.5" or "1234.56" without going through double.
+     * @return Amount in thebe, or -1 if it is not a valid amount
+     */
+    private static long parseThebe(String text) {
+        int point = text.indexOf('.');
+        String whole = point < 0 ? text : text.substring(0, point);
+        String fraction = point < 0 ? "" : text.substring(point + 1);
+        if (whole.isEmpty() || whole.length() > 10 || fraction.length() > 2 ||
+            !whole.chars().allMatch(Character::isDigit) || !fraction.chars().allMatch(Character::isDigit)) {
+            return -1;
+        }
+        long thebe = Long.parseLong(whole) * 100 + (fraction.isEmpty() ? 0 :
+            Long.parseLong(fraction) * (fraction.length() == 1 ? 10 : 1));
+        return thebe > MAX_AMOUNT_THEBE ? -1 : thebe;
+    }
+}
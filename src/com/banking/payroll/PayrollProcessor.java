@@ -0,0 +1,379 @@
+package com.banking.payroll;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import com.banking.controller.AccountController;
+import com.banking.controller.AccountController.SalaryBatchResult;
+import com.banking.controller.AccountController.SalaryCredit;
+import com.banking.controller.Session;
+import com.banking.model.Permission;
+
+/**
+ * PayrollProcessor pays employer payroll files into Cheque accounts.
+ *
+ * The file is streamed (see PayrollFileReader): each line is checked and
+ * added to its employer's current batch, and a full batch is handed to a
+ * virtual thread that posts it with AccountController.creditSalaries while
+ * reading carries on. At most `parallelism` batches are in flight; when
+ * they are, reading waits, so memory stays bounded however large the
+ * file. Each employer gets one summary of lines, credits and rejections.
+ *
+ * Re-submitting a file is safe. Files are registered by the SHA-256 of
+ * their pay period and content (see PayrollRegister): a completed file is
+ * not paid again, and its stored summaries are returned. Each line's
+ * transaction ID is derived from its company, employer reference and the
+ * pay period, so a file that was interrupted, or corrected and sent again
+ * with lines added or reordered, only posts the salaries not yet paid.
+ */
+public class PayrollProcessor {
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    // Rejected lines listed in a result; the summaries count them all
+    public static final int MAX_LISTED_REJECTIONS = 100;
+
+    private final AccountController accountController;
+    private final int parallelism;
+    private final int batchSize;
+
+    public PayrollProcessor(AccountController accountController) {
+        this(accountController, DEFAULT_PARALLELISM, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param parallelism Batches posted at once
+     * @param batchSize Lines per batch
+     */
+    public PayrollProcessor(AccountController accountController, int parallelism, int batchSize) {
+        if (parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Parallelism and batch size must be positive");
+        }
+        this.accountController = accountController;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Pays a payroll file.
+     * @param session Caller's session; needs the DEPOSIT permission
+     * @param file Payroll file in the PayrollFileReader format
+     * @param payPeriod Month the salaries are for; an employer reference is paid once per period
+     * @return PayrollResult with a summary per employer
+     */
+    public PayrollResult process(Session session, Path file, YearMonth payPeriod) {
+        if (session == null || !session.hasPermission(Permission.DEPOSIT)) {
+            return PayrollResult.failed("You don't have permission to credit salaries");
+        }
+        if (payPeriod == null) {
+            return PayrollResult.failed("Pay period is required");
+        }
+        long start = System.nanoTime();
+        try {
+            String fileHash = sha256(file, payPeriod);
+            PayrollRegister register = PayrollRegister.getInstance();
+            if (PayrollRegister.COMPLETE.equals(register.getStatus(fileHash))) {
+                return new PayrollResult(true, "Payroll file was already processed; nothing was paid again",
+                    fileHash, true, 0, register.findSummaries(fileHash), List.of(), 0, System.nanoTime() - start);
+            }
+            register.begin(fileHash, file.getFileName().toString());
+
+            Run run = new Run(session, payPeriod);
+            int lines = run.read(file);
+
+            List<EmployerSummary> summaries = new ArrayList<>(run.summaries.values());
+            if (run.storeFailed) {
+                return new PayrollResult(false,
+                    "Some salaries could not be stored; submit the file again to pay the remaining lines",
+                    fileHash, false, lines, summaries, run.rejections, run.rejectedCount, System.nanoTime() - start);
+            }
+            register.complete(fileHash, lines, summaries);
+            return new PayrollResult(true, String.format("Payroll processed: %d lines for %d employers",
+                lines, summaries.size()), fileHash, false, lines, summaries, run.rejections, run.rejectedCount,
+                System.nanoTime() - start);
+
+        } catch (Exception e) {
+            return PayrollResult.failed("Error processing payroll file: " + e.getMessage());
+        }
+    }
+
+    private static String sha256(Path file, YearMonth payPeriod) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((payPeriod + "\n").getBytes(StandardCharsets.UTF_8));
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * State of one file being paid. Batches update it from their own threads.
+     */
+    private final class Run {
+        private final Session session;
+        private final String idPrefix;
+        private final MessageDigest digest;
+        private final Map<String, EmployerSummary> summaries = new TreeMap<>();
+        private final Map<String, List<PayrollFileReader.Line>> batches = new HashMap<>();
+        // Employer references seen, per employer, to catch a line keyed twice
+        private final Map<String, Set<String>> references = new HashMap<>();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private final Semaphore inFlight = new Semaphore(parallelism);
+        private int rejectedCount;
+        private volatile boolean storeFailed;
+
+        Run(Session session, YearMonth payPeriod) throws NoSuchAlgorithmException {
+            this.session = session;
+            this.idPrefix = String.format("SAL%04d%02d-", payPeriod.getYear(), payPeriod.getMonthValue());
+            this.digest = MessageDigest.getInstance("SHA-256");
+        }
+
+        /**
+         * Reads the file and posts it batch by batch.
+         * @return Number of payroll lines read
+         */
+        int read(Path file) throws IOException, InterruptedException {
+            int lines = 0;
+            try (PayrollFileReader reader = new PayrollFileReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+                 ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                PayrollFileReader.Line line;
+                while ((line = reader.next()) != null) {
+                    lines++;
+                    String company = line.getCompany().isEmpty() ? "(no company)" : line.getCompany();
+                    summaryOf(company).lineRead();
+                    if (!line.isValid()) {
+                        reject(company, line.getLineNumber(), line.getError());
+                        continue;
+                    }
+                    if (!references.computeIfAbsent(companyKey(company), c -> new HashSet<>()).add(line.getReference())) {
+                        reject(company, line.getLineNumber(), "Duplicate reference " + line.getReference() + " for " + company);
+                        continue;
+                    }
+                    List<PayrollFileReader.Line> batch = batches.computeIfAbsent(company, c -> new ArrayList<>(batchSize));
+                    batch.add(line);
+                    if (batch.size() == batchSize) {
+                        submit(executor, company, batches.remove(company));
+                    }
+                }
+                for (Map.Entry<String, List<PayrollFileReader.Line>> batch : batches.entrySet()) {
+                    submit(executor, batch.getKey(), batch.getValue());
+                }
+            } // closing the executor waits for the last batches
+            return lines;
+        }
+
+        private void submit(ExecutorService executor, String company, List<PayrollFileReader.Line> batch)
+                throws InterruptedException {
+            inFlight.acquire();
+            executor.execute(() -> {
+                try {
+                    post(company, batch);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        private void post(String company, List<PayrollFileReader.Line> batch) {
+            List<SalaryCredit> credits = new ArrayList<>(batch.size());
+            Map<String, PayrollFileReader.Line> byId = new HashMap<>();
+            for (PayrollFileReader.Line line : batch) {
+                String id = transactionId(company, line.getReference());
+                credits.add(new SalaryCredit(line.getAccountNumber(), line.getAmount(), line.getReference(), company, id));
+                byId.put(id, line);
+            }
+
+            SalaryBatchResult result = accountController.creditSalaries(session, credits);
+            EmployerSummary summary = summaryOf(company);
+            summary.posted(result.getCredited(), result.getAlreadyCredited(), Math.round(result.getAmountCredited() * 100));
+            if (!result.isSuccess()) {
+                storeFailed = true;
+            }
+            if (!result.isSuccess() && result.getRejections().isEmpty()) {
+                // Refused as a whole, e.g. for permission
+                for (PayrollFileReader.Line line : batch) {
+                    reject(company, line.getLineNumber(), result.getMessage());
+                }
+                return;
+            }
+            for (Map.Entry<String, String> rejection : result.getRejections().entrySet()) {
+                PayrollFileReader.Line line = byId.get(rejection.getKey());
+                reject(company, line == null ? 0 : line.getLineNumber(), rejection.getValue());
+            }
+        }
+
+        /**
+         * Derives a line's transaction ID: the pay period and 32 hex digits
+         * of the hash of company and employer reference, 42 characters in all.
+         */
+        private String transactionId(String company, String reference) {
+            byte[] hash;
+            synchronized (digest) {
+                hash = digest.digest((companyKey(company) + "\n" + reference).getBytes(StandardCharsets.UTF_8));
+            }
+            return idPrefix + HexFormat.of().formatHex(hash, 0, 16);
+        }
+
+        private synchronized EmployerSummary summaryOf(String company) {
+            return summaries.computeIfAbsent(company, EmployerSummary::new);
+        }
+
+        private void reject(String company, int lineNumber, String reason) {
+            summaryOf(company).rejected();
+            synchronized (this) {
+                rejectedCount++;
+                if (rejections.size() < MAX_LISTED_REJECTIONS) {
+                    rejections.add(new Rejection(lineNumber, company, reason));
+                }
+            }
+        }
+    }
+
+    // Salaries are matched to employers ignoring case, so references are too
+    private static String companyKey(String company) {
+        return company.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Result classes
+
+    /**
+     * Totals for one employer in a payroll file.
+     */
+    public static class EmployerSummary {
+        private final String companyName;
+        private int lines;
+        private int credited;
+        private int alreadyCredited;
+        private int rejected;
+        private long thebeCredited;
+
+        EmployerSummary(String companyName) {
+            this.companyName = companyName;
+        }
+
+        EmployerSummary(String companyName, int lines, int credited, int alreadyCredited, int rejected,
+                        long thebeCredited) {
+            this.companyName = companyName;
+            this.lines = lines;
+            this.credited = credited;
+            this.alreadyCredited = alreadyCredited;
+            this.rejected = rejected;
+            this.thebeCredited = thebeCredited;
+        }
+
+        synchronized void lineRead() {
+            lines++;
+        }
+
+        synchronized void posted(int credited, int alreadyCredited, long thebe) {
+            this.credited += credited;
+            this.alreadyCredited += alreadyCredited;
+            this.thebeCredited += thebe;
+        }
+
+        synchronized void rejected() {
+            rejected++;
+        }
+
+        public String getCompanyName() { return companyName; }
+        public synchronized int getLines() { return lines; }
+        public synchronized int getCredited() { return credited; }
+        /** Lines paid by an earlier, interrupted submission of the file */
+        public synchronized int getAlreadyCredited() { return alreadyCredited; }
+        public synchronized int getRejected() { return rejected; }
+        public synchronized double getAmountCredited() { return thebeCredited / 100.0; }
+    }
+
+    /**
+     * A payroll line that was not paid, and why.
+     */
+    public static class Rejection {
+        private final int lineNumber;
+        private final String companyName;
+        private final String reason;
+
+        Rejection(int lineNumber, String companyName, String reason) {
+            this.lineNumber = lineNumber;
+            this.companyName = companyName;
+            this.reason = reason;
+        }
+
+        public int getLineNumber() { return lineNumber; }
+        public String getCompanyName() { return companyName; }
+        public String getReason() { return reason; }
+    }
+
+    public static class PayrollResult {
+        private final boolean success;
+        private final String message;
+        private final String fileHash;
+        private final boolean duplicate;
+        private final int lines;
+        private final List<EmployerSummary> summaries;
+        private final List<Rejection> rejections;
+        private final int rejectedCount;
+        private final long elapsedNanos;
+
+        public PayrollResult(boolean success, String message, String fileHash, boolean duplicate, int lines,
+                             List<EmployerSummary> summaries, List<Rejection> rejections, int rejectedCount,
+                             long elapsedNanos) {
+            this.success = success;
+            this.message = message;
+            this.fileHash = fileHash;
+            this.duplicate = duplicate;
+            this.lines = lines;
+            this.summaries = summaries;
+            this.rejections = rejections;
+            this.rejectedCount = rejectedCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        static PayrollResult failed(String message) {
+            return new PayrollResult(false, message, null, false, 0, List.of(), List.of(), 0, 0);
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        /** SHA-256 of the pay period and file content, in hex */
+        public String getFileHash() { return fileHash; }
+        /** True if the file had already been processed and nothing was posted */
+        public boolean isDuplicate() { return duplicate; }
+        public int getLines() { return lines; }
+        /** One summary per employer, by company name */
+        public List<EmployerSummary> getSummaries() { return summaries; }
+        /** The first MAX_LISTED_REJECTIONS rejected lines */
+        public List<Rejection> getRejections() { return rejections; }
+        public int getRejectedCount() { return rejectedCount; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        /**
+         * @return Payroll lines processed per second
+         */
+        public double getLinesPerSecond() {
+            return elapsedNanos == 0 ? 0 : lines * 1e9 / elapsedNanos;
+        }
+    }
+}
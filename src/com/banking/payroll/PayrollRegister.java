@@ -0,0 +1,130 @@
+package com.banking.payroll;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.banking.database.DatabaseManager;
+import com.banking.payroll.PayrollProcessor.EmployerSummary;
+
+/**
+ * PayrollRegister records every payroll file received, by the SHA-256 of
+ * its pay period and content, and the per-employer totals of those fully
+ * processed. A file whose hash is registered as complete is not paid again
+ * for that period; one that was interrupted is processed again, and its
+ * lines already posted are skipped by their transaction IDs.
+ */
+public class PayrollRegister {
+    private static PayrollRegister instance;
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETE = "COMPLETE";
+
+    private final DatabaseManager db;
+
+    private PayrollRegister() {
+        this.db = DatabaseManager.getInstance();
+    }
+
+    public static synchronized PayrollRegister getInstance() {
+        if (instance == null) {
+            instance = new PayrollRegister();
+        }
+        return instance;
+    }
+
+    /**
+     * @return COMPLETE, IN_PROGRESS, or null if the file was never received
+     */
+    public String getStatus(String fileHash) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT status FROM payroll_files WHERE file_hash = ?")) {
+                pstmt.setString(1, fileHash);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getString(1) : null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers a file as being processed, unless it already is registered.
+     */
+    public void begin(String fileHash, String fileName) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO payroll_files (file_hash, file_name, status, received_at) " +
+                    "SELECT ?, ?, ?, ? WHERE NOT EXISTS " +
+                    "(SELECT 1 FROM payroll_files WHERE file_hash = ?)")) {
+                pstmt.setString(1, fileHash);
+                pstmt.setString(2, fileName);
+                pstmt.setString(3, IN_PROGRESS);
+                pstmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                pstmt.setString(5, fileHash);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Marks a file complete and stores its totals by employer.
+     */
+    public void complete(String fileHash, int lineCount, List<EmployerSummary> summaries) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "MERGE INTO payroll_employer_totals " +
+                        "(file_hash, company_name, line_count, credited, already_credited, rejected, amount_credited) " +
+                        "KEY(file_hash, company_name) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                    for (EmployerSummary summary : summaries) {
+                        pstmt.setString(1, fileHash);
+                        pstmt.setString(2, summary.getCompanyName());
+                        pstmt.setInt(3, summary.getLines());
+                        pstmt.setInt(4, summary.getCredited());
+                        pstmt.setInt(5, summary.getAlreadyCredited());
+                        pstmt.setInt(6, summary.getRejected());
+                        pstmt.setDouble(7, summary.getAmountCredited());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "UPDATE payroll_files SET status = ?, line_count = ?, completed_at = ? WHERE file_hash = ?")) {
+                    pstmt.setString(1, COMPLETE);
+                    pstmt.setInt(2, lineCount);
+                    pstmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                    pstmt.setString(4, fileHash);
+                    pstmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return Totals by employer recorded when the file completed
+     */
+    public List<EmployerSummary> findSummaries(String fileHash) throws SQLException {
+        List<EmployerSummary> summaries = new ArrayList<>();
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT * FROM payroll_employer_totals WHERE file_hash = ? ORDER BY company_name")) {
+                pstmt.setString(1, fileHash);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        summaries.add(new EmployerSummary(rs.getString("company_name"),
+                            rs.getInt("line_count"), rs.getInt("credited"), rs.getInt("already_credited"),
+                            rs.getInt("rejected"), Math.round(rs.getDouble("amount_credited") * 100)));
+                    }
+                }
+            }
+        }
+        return summaries;
+    }
+}
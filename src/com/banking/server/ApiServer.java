@@ -0,0 +1,615 @@
+package com.banking.server;
+
+import com.banking.controller.AccountController;
+import com.banking.controller.AccountController.BalanceResult;
+import com.banking.controller.AccountController.TransactionResult;
+import com.banking.controller.CustomerController;
+import com.banking.controller.LoginController;
+import com.banking.controller.LoginController.LoginResult;
+import com.banking.controller.Session;
+import com.banking.controller.SessionManager;
+import com.banking.database.PostingFeed;
+import com.banking.model.Bank;
+import com.banking.model.Customer;
+import com.banking.model.Permission;
+import com.banking.model.Transaction;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiServer exposes the account and customer controllers as a JSON API
+ * over the JDK's built-in HTTP server, one virtual thread per request.
+ * It uses no JavaFX, so it runs headless (see com.banking.BankingServer).
+ *
+ * Endpoints (all but login take "Authorization: Bearer <token>"):
+ * - POST /api/login                      {"userId": "...", "password": "..."}
+ * - POST /api/logout
+ * - POST /api/accounts/{number}/deposit  {"amount": 250.00}
+ * - POST /api/accounts/{number}/withdraw {"amount": 100.00}
+ * - POST /api/transfers                  {"from": "...", "to": "...", "amount": 50.00}
+ * - GET  /api/accounts/{number}/balance
+ * - GET  /api/accounts/{number}/transactions[?from=YYYY-MM-DD&to=YYYY-MM-DD][&archived=true]
+ * - GET  /api/customers?q=name[&offset=0&limit=50]
+ * - GET  /api/postings/stream[?account=number]   server-sent events
+ *
+ * Deposits, withdrawals and transfers take an optional "Idempotency-Key"
+ * header (at most 64 characters): a retry with the same key answers with
+ * the first result instead of posting again.
+ *
+ * Failed operations answer 422 with {"success": false, "message": "..."};
+ * a missing or expired token answers 401 and a missing permission 403.
+ */
+public class ApiServer {
+    private static final int BACKLOG = 1024;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int WRITE_BUFFER_BYTES = 16 * 1024;
+    private static final int WRITER_POOL_SIZE = 64;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AccountController accountController;
+    private final CustomerController customerController;
+    private final LoginController loginController;
+    private final SessionManager sessionManager;
+    // Idle writers, so each response does not allocate a fresh buffer
+    private final BlockingQueue<JsonWriter> writers = new ArrayBlockingQueue<>(WRITER_POOL_SIZE);
+
+    /**
+     * Creates the server; call start() to accept requests.
+     * @param address Address and port to listen on
+     * @param bank Bank the controllers operate on
+     */
+    public ApiServer(InetSocketAddress address, Bank bank) throws IOException {
+        this(address, bank, new AccountController(bank));
+    }
+
+    /**
+     * Creates the server around an existing account controller, e.g. one
+     * shared with the TerminalServer.
+     */
+    public ApiServer(InetSocketAddress address, Bank bank, AccountController accountController) throws IOException {
+        this.accountController = accountController;
+        this.customerController = new CustomerController(bank);
+        this.loginController = LoginController.getInstance();
+        this.sessionManager = SessionManager.getInstance();
+
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/api/login", exchange -> handle(exchange, this::login));
+        server.createContext("/api/logout", exchange -> handle(exchange, this::logout));
+        server.createContext("/api/accounts/", exchange -> handle(exchange, this::accounts));
+        server.createContext("/api/transfers", exchange -> handle(exchange, this::transfer));
+        server.createContext("/api/customers", exchange -> handle(exchange, this::customers));
+        server.createContext("/api/postings/stream", exchange -> handle(exchange, this::postingStream));
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("✓ API server listening on port " + getPort());
+    }
+
+    /**
+     * Stops accepting requests, waiting up to the given time for running ones.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        System.out.println("✓ API server stopped");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Endpoints
+
+    private void login(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        Map<String, String> body = readBody(exchange);
+        LoginResult result = loginController.openSession(body.get("userId"), body.get("password"));
+        if (!result.isSuccess()) {
+            sendFailure(exchange, 401, result.getMessage());
+            return;
+        }
+
+        Session session = result.getSession();
+        send(exchange, 200, json -> json.beginObject()
+            .name("success").value(true)
+            .name("token").value(session.getToken())
+            .name("userId").value(session.getUser().getUserId())
+            .name("role").value(session.getUser().getRole())
+            .name("idleTimeoutSeconds").value(sessionManager.getIdleTimeout().getSeconds())
+            .endObject());
+    }
+
+    private void logout(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        Session session = authenticate(exchange);
+        if (session != null) {
+            loginController.logout(session);
+            send(exchange, 200, json -> json.beginObject().name("success").value(true).endObject());
+        }
+    }
+
+    private void accounts(HttpExchange exchange) throws IOException {
+        // /api/accounts/{number}/{action}
+        String[] parts = exchange.getRequestURI().getRawPath().split("/");
+        if (parts.length != 5 || parts[3].isEmpty()) {
+            sendFailure(exchange, 404, "Unknown endpoint");
+            return;
+        }
+        String accountNumber = URLDecoder.decode(parts[3], StandardCharsets.UTF_8);
+
+        switch (parts[4]) {
+            case "deposit":
+            case "withdraw":
+                postTransaction(exchange, accountNumber, parts[4].equals("deposit"));
+                break;
+            case "balance":
+                balance(exchange, accountNumber);
+                break;
+            case "transactions":
+                transactions(exchange, accountNumber);
+                break;
+            default:
+                sendFailure(exchange, 404, "Unknown endpoint");
+                break;
+        }
+    }
+
+    private void postTransaction(HttpExchange exchange, String accountNumber, boolean deposit) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        Session session = authorize(exchange, deposit ? Permission.DEPOSIT : Permission.WITHDRAW);
+        if (session == null) {
+            return;
+        }
+        double amount = parseAmount(readBody(exchange).get("amount"));
+
+        String key = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        TransactionResult result = deposit ?
+            accountController.deposit(session, accountNumber, amount, key) :
+            accountController.withdraw(session, accountNumber, amount, key);
+        if (!result.isSuccess()) {
+            sendFailure(exchange, 422, result.getMessage());
+            return;
+        }
+
+        send(exchange, 200, json -> ResultJson.transactionResult(json, accountNumber, result));
+    }
+
+    private void transfer(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        Session session = authorize(exchange, Permission.WITHDRAW);
+        if (session == null) {
+            return;
+        }
+        Map<String, String> body = readBody(exchange);
+        String from = requireField(body, "from");
+        String to = requireField(body, "to");
+        double amount = parseAmount(body.get("amount"));
+
+        String key = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        TransactionResult result = accountController.transfer(session, from, to, amount, key);
+        if (!result.isSuccess()) {
+            sendFailure(exchange, 422, result.getMessage());
+            return;
+        }
+
+        send(exchange, 200, json -> ResultJson.transactionResult(json, from, result));
+    }
+
+    private void balance(HttpExchange exchange, String accountNumber) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        Session session = authorize(exchange, Permission.VIEW_BALANCE);
+        if (session == null) {
+            return;
+        }
+
+        BalanceResult result = accountController.getBalance(session, accountNumber);
+        if (!result.isSuccess()) {
+            sendFailure(exchange, result.getAccount() == null ? 404 : 422, result.getMessage());
+            return;
+        }
+
+        send(exchange, 200, json -> ResultJson.balanceResult(json, result));
+    }
+
+    private void transactions(HttpExchange exchange, String accountNumber) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        Session session = authorize(exchange, Permission.VIEW_TRANSACTIONS);
+        if (session == null) {
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange);
+
+        List<Transaction> transactions;
+        if (query.containsKey("from") || query.containsKey("to")) {
+            LocalDate from = parseDate(query.getOrDefault("from", "1970-01-01"));
+            LocalDate to = query.containsKey("to") ? parseDate(query.get("to")) : LocalDate.now();
+            transactions = accountController.getTransactionHistory(session, accountNumber,
+                from.atStartOfDay(), to.atTime(LocalTime.MAX));
+        } else {
+            transactions = accountController.getTransactionHistory(session, accountNumber,
+                Boolean.parseBoolean(query.get("archived")));
+        }
+
+        send(exchange, 200, json -> ResultJson.transactionHistory(json, accountNumber, transactions));
+    }
+
+    private void customers(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        Session session = authorize(exchange, Permission.VIEW_BALANCE);
+        if (session == null) {
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange);
+        String term = query.get("q");
+        if (term == null || term.trim().isEmpty()) {
+            sendFailure(exchange, 400, "Query parameter q is required");
+            return;
+        }
+        int offset = Math.max(0, parseInt(query.get("offset"), 0));
+        int limit = Math.min(MAX_PAGE_SIZE, Math.max(1, parseInt(query.get("limit"), 50)));
+
+        List<Customer> customers = customerController.searchCustomers(term, offset, limit);
+
+        send(exchange, 200, json -> ResultJson.customerPage(json, offset, customers));
+    }
+
+    /**
+     * Streams live postings as server-sent events until the client goes
+     * away or the session ends. Each posting is an "event: posting" with
+     * the transaction as JSON data; postings the client was too slow for
+     * are reported as an "event: gap" with the number lost.
+     */
+    private void postingStream(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "GET")) {
+            return;
+        }
+        Session session = authorize(exchange, Permission.VIEW_TRANSACTIONS);
+        if (session == null) {
+            return;
+        }
+        String account = parseQuery(exchange).get("account");
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        PostingEvents events = new PostingEvents(exchange.getResponseBody(), account);
+        PostingFeed.getInstance().subscribe(events, PostingFeed.OverflowPolicy.DROP_OLDEST);
+        events.streamUntilEnd(session);
+    }
+
+    /**
+     * Writes feed postings to one event stream. The feed's subscriber
+     * thread writes events; the request thread sends keep-alive comments
+     * while the stream is quiet, which is also how a departed client or a
+     * closed session is noticed.
+     */
+    private static final class PostingEvents implements Flow.Subscriber<Transaction> {
+        private static final long KEEP_ALIVE_SECONDS = 15;
+
+        private final JsonWriter json;
+        private final String account;
+        private final CountDownLatch ended = new CountDownLatch(1);
+        private volatile PostingFeed.FeedSubscription subscription;
+        private long reportedDrops;
+
+        PostingEvents(OutputStream out, String account) {
+            this.json = new JsonWriter(out, 4096);
+            this.account = account;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = (PostingFeed.FeedSubscription) subscription;
+            if (ended.getCount() == 0) {
+                subscription.cancel(); // the stream ended before the feed got going
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(Transaction transaction) {
+            if (account != null && !account.equals(transaction.getAccountNumber())) {
+                return;
+            }
+            synchronized (json) {
+                try {
+                    long drops = subscription.getDropped();
+                    if (drops != reportedDrops) {
+                        json.raw("event: gap\ndata: ").beginObject()
+                            .name("dropped").value(drops - reportedDrops)
+                            .endObject().raw("\n\n");
+                        reportedDrops = drops;
+                    }
+                    json.raw("id: ").raw(transaction.getTransactionId())
+                        .raw("\nevent: posting\ndata: ");
+                    ResultJson.posting(json, transaction);
+                    json.raw("\n\n").flush();
+                } catch (IOException e) {
+                    end();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            ended.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            ended.countDown();
+        }
+
+        void streamUntilEnd(Session session) {
+            try {
+                while (!ended.await(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS)) {
+                    if (!session.hasPermission(Permission.VIEW_TRANSACTIONS)) {
+                        break;
+                    }
+                    synchronized (json) {
+                        json.raw(": keep-alive\n\n").flush();
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                end();
+            }
+        }
+
+        private void end() {
+            PostingFeed.FeedSubscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+            ended.countDown();
+        }
+    }
+
+    // Request handling
+
+    private interface Endpoint {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) {
+        try {
+            endpoint.handle(exchange);
+        } catch (IllegalArgumentException e) {
+            trySendFailure(exchange, 400, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("✗ API request failed: " + exchange.getRequestURI() + ": " + e.getMessage());
+            trySendFailure(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean requireMethod(HttpExchange exchange, String method) throws IOException {
+        if (method.equals(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", method);
+        sendFailure(exchange, 405, "Use " + method);
+        return false;
+    }
+
+    /**
+     * Resolves the bearer token; answers 401 and returns null if it is not valid.
+     */
+    private Session authenticate(HttpExchange exchange) throws IOException {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        Session session = null;
+        if (header != null && header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            session = sessionManager.find(header.substring(7).trim());
+        }
+        if (session == null) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            sendFailure(exchange, 401, "Missing, invalid or expired session token");
+        }
+        return session;
+    }
+
+    /**
+     * Resolves the bearer token and checks a permission; answers 401 or 403
+     * and returns null on failure.
+     */
+    private Session authorize(HttpExchange exchange, Permission permission) throws IOException {
+        Session session = authenticate(exchange);
+        if (session != null && !session.hasPermission(permission)) {
+            sendFailure(exchange, 403, "Permission required: " + permission);
+            return null;
+        }
+        return session;
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Request body too large");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String requireField(Map<String, String> body, String field) {
+        String value = body.get(field);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Field " + field + " is required");
+        }
+        return value.trim();
+    }
+
+    private static double parseAmount(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Field amount is required");
+        }
+        try {
+            double amount = Double.parseDouble(text);
+            if (!Double.isNaN(amount) && !Double.isInfinite(amount)) {
+                return amount;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Field amount must be a number");
+    }
+
+    private static LocalDate parseDate(String text) {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Dates must be YYYY-MM-DD: " + text);
+        }
+    }
+
+    private static int parseInt(String text, int fallback) {
+        try {
+            return text == null || text.isEmpty() ? fallback : Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a whole number: " + text);
+        }
+    }
+
+    private void sendFailure(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, json -> ResultJson.failure(json, message));
+    }
+
+    private void trySendFailure(HttpExchange exchange, int status, String message) {
+        try {
+            sendFailure(exchange, status, message);
+        } catch (IOException | IllegalStateException e) {
+            // Headers already sent or client gone; nothing more to report
+        }
+    }
+
+    private interface Body {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Streams a JSON response through a pooled writer. A body that fits in
+     * the writer's buffer goes out with a Content-Length; a larger one, such
+     * as a long transaction history, is sent chunked as the buffer fills.
+     */
+    private void send(HttpExchange exchange, int status, Body body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        JsonWriter json = writers.poll();
+        if (json == null) {
+            json = new JsonWriter(null, WRITE_BUFFER_BYTES);
+        }
+        ResponseBody out = new ResponseBody(exchange, status);
+        try {
+            json.reset(out);
+            body.write(json);
+            out.lastWrite = true;
+            json.flush();
+        } finally {
+            json.reset(null);
+            writers.offer(json);
+            out.close();
+        }
+    }
+
+    /**
+     * Sends the response headers on the first write: with the exact length
+     * if that write is the whole body, otherwise for a chunked body.
+     */
+    private static final class ResponseBody extends OutputStream {
+        private final HttpExchange exchange;
+        private final int status;
+        private OutputStream body;
+        boolean lastWrite;
+
+        ResponseBody(HttpExchange exchange, int status) {
+            this.exchange = exchange;
+            this.status = status;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (body == null) {
+                exchange.sendResponseHeaders(status, lastWrite ? length : 0);
+                body = exchange.getResponseBody();
+            }
+            body.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (body != null) {
+                body.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (body != null) {
+                body.close();
+            }
+        }
+    }
+}
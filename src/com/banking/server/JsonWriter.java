@@ -0,0 +1,347 @@
+package com.banking.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * JsonWriter streams JSON straight to an OutputStream as UTF-8.
+ *
+ * Text is encoded into one reusable byte buffer that is written out
+ * whenever it fills, so a response of any size needs no intermediate
+ * String or char[]. Numbers, amounts and timestamps are formatted digit
+ * by digit into the buffer, so writing allocates nothing. Commas between
+ * members and elements are inserted automatically.
+ *
+ * A writer is not thread-safe; reset() points it at a new stream so the
+ * buffer can be reused for the next response.
+ */
+public final class JsonWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final int MAX_DEPTH = 32;
+
+    private final byte[] buffer;
+    private OutputStream out;
+    private int count;
+    private long flushed;
+
+    // Per nesting level: true once the first member or element is written
+    private final boolean[] hasValue = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(OutputStream out) {
+        this(out, 8192);
+    }
+
+    public JsonWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(64, bufferSize)];
+    }
+
+    /**
+     * Points the writer at a new stream, keeping its buffer.
+     * Anything not yet flushed is discarded.
+     */
+    public JsonWriter reset(OutputStream out) {
+        this.out = out;
+        this.count = 0;
+        this.flushed = 0;
+        this.depth = 0;
+        this.afterName = false;
+        return this;
+    }
+
+    /**
+     * @return Bytes written to the stream so far, excluding the buffer
+     */
+    public long bytesFlushed() {
+        return flushed;
+    }
+
+    /**
+     * Writes the buffered bytes to the stream in a single write call.
+     */
+    public void flush() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            flushed += count;
+            count = 0;
+        }
+        out.flush();
+    }
+
+    // Structure
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    /**
+     * Writes a member name; the next call writes its value.
+     */
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        writeString(name);
+        put((byte) ':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes ASCII text as-is, outside the JSON structure; for framing
+     * around documents, such as the lines of a server-sent event.
+     */
+    public JsonWriter raw(String ascii) throws IOException {
+        writeAscii(ascii);
+        return this;
+    }
+
+    // Values
+
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        separate();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        separate();
+        writeLong(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separate();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        separate();
+        writeAscii("null");
+        return this;
+    }
+
+    /**
+     * Writes an amount as a number with two decimals, e.g. 1250.50.
+     */
+    public JsonWriter money(double amount) throws IOException {
+        separate();
+        long cents = Math.round(amount * 100);
+        if (cents < 0) {
+            put((byte) '-');
+            cents = -cents;
+        }
+        writeLong(cents / 100);
+        put((byte) '.');
+        long fraction = cents % 100;
+        put((byte) ('0' + fraction / 10));
+        put((byte) ('0' + fraction % 10));
+        return this;
+    }
+
+    /**
+     * Writes a timestamp as an ISO-8601 string with milliseconds,
+     * e.g. "2025-11-17T09:30:00.125".
+     */
+    public JsonWriter value(LocalDateTime time) throws IOException {
+        if (time == null) {
+            return nullValue();
+        }
+        separate();
+        ensure(25);
+        buffer[count++] = '"';
+        digits(time.getYear(), 4);
+        buffer[count++] = '-';
+        digits(time.getMonthValue(), 2);
+        buffer[count++] = '-';
+        digits(time.getDayOfMonth(), 2);
+        buffer[count++] = 'T';
+        digits(time.getHour(), 2);
+        buffer[count++] = ':';
+        digits(time.getMinute(), 2);
+        buffer[count++] = ':';
+        digits(time.getSecond(), 2);
+        buffer[count++] = '.';
+        digits(time.getNano() / 1_000_000, 3);
+        buffer[count++] = '"';
+        return this;
+    }
+
+    // Encoding
+
+    private JsonWriter open(char bracket) throws IOException {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("JSON nested too deeply");
+        }
+        separate();
+        put((byte) bracket);
+        hasValue[depth++] = false;
+        return this;
+    }
+
+    private JsonWriter close(char bracket) throws IOException {
+        if (depth == 0) {
+            throw new IllegalStateException("No open object or array");
+        }
+        depth--;
+        put((byte) bracket);
+        return this;
+    }
+
+    /**
+     * Writes the comma before a member or element unless it is the first.
+     */
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasValue[depth - 1]) {
+                put((byte) ',');
+            } else {
+                hasValue[depth - 1] = true;
+            }
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                put((byte) c);
+            } else if (c == '"' || c == '\\') {
+                ensure(2);
+                buffer[count++] = '\\';
+                buffer[count++] = (byte) c;
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[count++] = (byte) (0xC0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: not encodable, write U+FFFD
+                ensure(3);
+                buffer[count++] = (byte) 0xEF;
+                buffer[count++] = (byte) 0xBF;
+                buffer[count++] = (byte) 0xBD;
+            } else {
+                ensure(3);
+                buffer[count++] = (byte) (0xE0 | (c >> 12));
+                buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        put((byte) '"');
+    }
+
+    private void writeControl(char c) throws IOException {
+        ensure(6);
+        buffer[count++] = '\\';
+        switch (c) {
+            case '\n':
+                buffer[count++] = 'n';
+                break;
+            case '\r':
+                buffer[count++] = 'r';
+                break;
+            case '\t':
+                buffer[count++] = 't';
+                break;
+            default:
+                buffer[count++] = 'u';
+                buffer[count++] = '0';
+                buffer[count++] = '0';
+                buffer[count++] = HEX[c >> 4];
+                buffer[count++] = HEX[c & 0xF];
+                break;
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+        // Write digits backwards into place
+        int length = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            length++;
+        }
+        int pos = count + length;
+        count = pos;
+        do {
+            buffer[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+    }
+
+    /**
+     * Writes a non-negative number zero-padded to width; space must be ensured.
+     */
+    private void digits(int value, int width) {
+        for (int i = count + width - 1; i >= count; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        count += width;
+    }
+
+    private void writeAscii(String text) throws IOException {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[count++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = b;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (count + bytes > buffer.length) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, count);
+        flushed += count;
+        count = 0;
+    }
+}
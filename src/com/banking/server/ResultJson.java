@@ -0,0 +1,142 @@
+package com.banking.server;
+
+import com.banking.controller.AccountController.BalanceResult;
+import com.banking.controller.AccountController.TransactionResult;
+import com.banking.model.Account;
+import com.banking.model.Customer;
+import com.banking.model.Transaction;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * ResultJson writes the controller result types and model objects the
+ * API returns. Each method names its fields explicitly, so there is no
+ * reflection and the JSON layout is fixed here in one place.
+ */
+public final class ResultJson {
+
+    private ResultJson() {
+    }
+
+    /**
+     * {"success":true,"message":...,"accountNumber":...,"balance":...}
+     */
+    public static void transactionResult(JsonWriter json, String accountNumber, TransactionResult result)
+            throws IOException {
+        json.beginObject()
+            .name("success").value(result.isSuccess())
+            .name("message").value(result.getMessage())
+            .name("accountNumber").value(accountNumber)
+            .name("balance").money(result.getNewBalance())
+            .endObject();
+    }
+
+    /**
+     * {"success":true,"accountNumber":...,"accountType":...,"customerId":...,"balance":...}
+     */
+    public static void balanceResult(JsonWriter json, BalanceResult result) throws IOException {
+        Account account = result.getAccount();
+        json.beginObject()
+            .name("success").value(result.isSuccess())
+            .name("accountNumber").value(account.getAccountNumber())
+            .name("accountType").value(account.getAccountType())
+            .name("customerId").value(account.getCustomer().getCustomerId())
+            .name("balance").money(result.getBalance())
+            .endObject();
+    }
+
+    public static void transaction(JsonWriter json, Transaction t) throws IOException {
+        json.beginObject()
+            .name("id").value(t.getTransactionId());
+        transactionFields(json, t);
+    }
+
+    /**
+     * A transaction outside an account's history, so with its account number.
+     */
+    public static void posting(JsonWriter json, Transaction t) throws IOException {
+        json.beginObject()
+            .name("id").value(t.getTransactionId())
+            .name("accountNumber").value(t.getAccountNumber());
+        transactionFields(json, t);
+    }
+
+    private static void transactionFields(JsonWriter json, Transaction t) throws IOException {
+        json.name("type").value(t.getTransactionType())
+            .name("amount").money(t.getAmount())
+            .name("balanceAfter").money(t.getBalanceAfter())
+            .name("description").value(t.getDescription())
+            .name("timestamp").value(t.getTimestamp())
+            .endObject();
+    }
+
+    /**
+     * {"success":true,"accountNumber":...,"transactions":[...]}
+     * The list is written element by element, so its size only affects
+     * how often the writer flushes.
+     */
+    public static void transactionHistory(JsonWriter json, String accountNumber, List<Transaction> transactions)
+            throws IOException {
+        json.beginObject()
+            .name("success").value(true)
+            .name("accountNumber").value(accountNumber)
+            .name("transactions").beginArray();
+        for (Transaction t : transactions) {
+            transaction(json, t);
+        }
+        json.endArray().endObject();
+    }
+
+    /**
+     * Writes a customer, optionally with their accounts. Accounts are
+     * written without their customer, which would lead back here.
+     */
+    public static void customer(JsonWriter json, Customer c, boolean withAccounts) throws IOException {
+        json.beginObject()
+            .name("customerId").value(c.getCustomerId())
+            .name("firstName").value(c.getFirstName())
+            .name("surname").value(c.getSurname())
+            .name("address").value(c.getAddress());
+        if (withAccounts) {
+            json.name("phoneNumber").value(c.getPhoneNumber())
+                .name("email").value(c.getEmail())
+                .name("accounts").beginArray();
+            for (Account account : c.getAccounts()) {
+                json.beginObject()
+                    .name("accountNumber").value(account.getAccountNumber())
+                    .name("accountType").value(account.getAccountType())
+                    .name("branch").value(account.getBranch())
+                    .name("balance").money(account.getBalance())
+                    .name("dateOpened").value(account.getDateOpened())
+                    .endObject();
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    /**
+     * {"success":true,"offset":...,"customers":[...]}
+     */
+    public static void customerPage(JsonWriter json, int offset, List<Customer> customers) throws IOException {
+        json.beginObject()
+            .name("success").value(true)
+            .name("offset").value(offset)
+            .name("customers").beginArray();
+        for (Customer c : customers) {
+            customer(json, c, false);
+        }
+        json.endArray().endObject();
+    }
+
+    /**
+     * {"success":false,"message":...}
+     */
+    public static void failure(JsonWriter json, String message) throws IOException {
+        json.beginObject()
+            .name("success").value(false)
+            .name("message").value(message)
+            .endObject();
+    }
+}
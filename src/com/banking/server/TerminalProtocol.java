@@ -0,0 +1,111 @@
+package com.banking.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * TerminalProtocol defines the binary frames exchanged with ATM and branch
+ * terminal gateways (see TerminalServer). All integers are big-endian.
+ *
+ * Every frame starts with a 4-byte length counting the bytes that follow.
+ *
+ * Requests: [int length][byte op][int correlationId][payload]
+ * - LOGIN:              [short n][userId, UTF-8][short n][password, UTF-8]
+ * - DEPOSIT / WITHDRAW: [16 bytes account number, ASCII, space padded][long amount in thebe]
+ *
+ * Replies:  [int length][byte op][int correlationId][byte status][long balance in thebe]
+ *           [short n][message, UTF-8]
+ *
+ * Postings have a fixed 29-byte body, so a gateway can encode them without
+ * any per-field framing. The correlation id is echoed back unchanged, and
+ * replies come in request order, so a gateway can pipeline many requests
+ * on one connection. Successful postings carry an empty message.
+ */
+public final class TerminalProtocol {
+    public static final byte LOGIN = 1;
+    public static final byte DEPOSIT = 2;
+    public static final byte WITHDRAW = 3;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_REJECTED = 1;      // the posting failed, see message
+    public static final byte STATUS_UNAUTHORIZED = 2;  // no session or missing permission
+    public static final byte STATUS_MALFORMED = 3;     // unknown op or wrong frame layout
+    public static final byte STATUS_ERROR = 4;         // unexpected server failure
+
+    public static final int ACCOUNT_NUMBER_BYTES = 16;
+    /** Body length of a deposit or withdraw frame */
+    public static final int POSTING_LENGTH = 1 + 4 + ACCOUNT_NUMBER_BYTES + 8;
+    /** Largest request body accepted; longer frames close the connection */
+    public static final int MAX_FRAME_LENGTH = 1024;
+    /** Reply bytes before the message text */
+    static final int REPLY_HEADER_BYTES = 4 + 1 + 4 + 1 + 8 + 2;
+
+    private TerminalProtocol() {
+    }
+
+    /**
+     * Appends a deposit or withdraw frame.
+     * @throws IllegalArgumentException if the account number does not fit
+     */
+    public static void putPosting(ByteBuffer out, byte op, int correlationId, String accountNumber, long amountThebe) {
+        if (accountNumber.length() > ACCOUNT_NUMBER_BYTES) {
+            throw new IllegalArgumentException("Account number longer than " + ACCOUNT_NUMBER_BYTES + ": " + accountNumber);
+        }
+        out.putInt(POSTING_LENGTH).put(op).putInt(correlationId);
+        for (int i = 0; i < ACCOUNT_NUMBER_BYTES; i++) {
+            out.put(i < accountNumber.length() ? (byte) accountNumber.charAt(i) : (byte) ' ');
+        }
+        out.putLong(amountThebe);
+    }
+
+    /**
+     * Appends a login frame.
+     */
+    public static void putLogin(ByteBuffer out, int correlationId, String userId, String password) {
+        byte[] user = userId.getBytes(StandardCharsets.UTF_8);
+        byte[] secret = password.getBytes(StandardCharsets.UTF_8);
+        out.putInt(1 + 4 + 2 + user.length + 2 + secret.length).put(LOGIN).putInt(correlationId);
+        out.putShort((short) user.length).put(user);
+        out.putShort((short) secret.length).put(secret);
+    }
+
+    /**
+     * Reads the space-padded account number of a posting body.
+     */
+    static String getAccountNumber(ByteBuffer in) {
+        char[] chars = new char[ACCOUNT_NUMBER_BYTES];
+        int length = 0;
+        for (int i = 0; i < ACCOUNT_NUMBER_BYTES; i++) {
+            char c = (char) (in.get() & 0xFF);
+            chars[i] = c;
+            if (c != ' ' && c != 0) {
+                length = i + 1;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Reads a short length-prefixed UTF-8 string.
+     */
+    static String getString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("String runs past the end of the frame");
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    /**
+     * Converts an amount in thebe (1/100 BWP) to pula.
+     */
+    static double toPula(long thebe) {
+        return thebe / 100.0;
+    }
+
+    static long toThebe(double pula) {
+        return Math.round(pula * 100);
+    }
+}
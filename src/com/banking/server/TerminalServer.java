@@ -0,0 +1,452 @@
+package com.banking.server;
+
+import com.banking.controller.AccountController;
+import com.banking.controller.AccountController.TransactionResult;
+import com.banking.controller.LoginController;
+import com.banking.controller.LoginController.LoginResult;
+import com.banking.controller.Session;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TerminalServer accepts postings from ATM and branch terminal gateways
+ * over the binary TerminalProtocol, without the overhead of HTTP.
+ *
+ * One selector thread does all socket I/O. It cuts complete frames out of
+ * each connection's read buffer and hands them over as one batch to a
+ * virtual thread, which signs in or posts through AccountController in
+ * frame order and encodes all the replies into one buffer. The selector
+ * thread then writes that buffer with as few writes as the socket allows.
+ *
+ * A connection has at most one batch in flight, so replies keep request
+ * order. Frames that arrive in the meantime wait in the read buffer and
+ * form the next batch. When that buffer is full the server stops reading
+ * from the connection until its batch is done, which pushes back on a
+ * gateway that sends faster than postings complete.
+ *
+ * A connection holds one session: signing in again closes the previous
+ * one, and so does the connection closing.
+ */
+public class TerminalServer {
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_BATCH = 512;
+
+    private final AccountController accountController;
+    private final LoginController loginController;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final ExecutorService workers;
+    // Batches finished by workers, waiting for the selector thread
+    private final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+    private final AtomicLong postings = new AtomicLong();
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * Opens the listening socket; call start() to accept connections.
+     * @param address Address and port to listen on
+     * @param accountController Controller that performs the postings
+     */
+    public TerminalServer(InetSocketAddress address, AccountController accountController) throws IOException {
+        this.accountController = accountController;
+        this.loginController = LoginController.getInstance();
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.workers = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    public void start() {
+        running = true;
+        selectorThread = new Thread(this::run, "terminal-selector");
+        selectorThread.start();
+        System.out.println("✓ Terminal server listening on port " + getPort());
+    }
+
+    /**
+     * Closes the listening socket and all connections. Batches already
+     * handed to workers still post, but their replies are not sent.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            if (selectorThread != null) {
+                selectorThread.join(2000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        System.out.println("✓ Terminal server stopped after " + postings.get() + " postings");
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return Deposits and withdrawals attempted since start
+     */
+    public long getPostingCount() {
+        return postings.get();
+    }
+
+    // Selector thread
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                completeBatches();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read((Connection) key.attachment());
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write((Connection) key.attachment());
+                        }
+                    } catch (IOException e) {
+                        close(key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            System.err.println("✗ Terminal server failed: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            try {
+                selector.close();
+                serverChannel.close();
+            } catch (IOException e) {
+                // Shutting down anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (connection.channel.read(connection.in) < 0) {
+            close(connection.key);
+            return;
+        }
+        dispatch(connection);
+    }
+
+    private void write(Connection connection) throws IOException {
+        connection.channel.write(connection.out);
+        if (!connection.out.hasRemaining()) {
+            connection.out = null;
+            dispatch(connection);
+        }
+        updateInterest(connection);
+    }
+
+    private void completeBatches() throws IOException {
+        Completion completion;
+        while ((completion = completions.poll()) != null) {
+            Connection connection = completion.connection;
+            if (!connection.key.isValid()) {
+                continue;
+            }
+            connection.busy = false;
+            connection.out = completion.replies;
+            try {
+                write(connection);
+            } catch (IOException e) {
+                close(connection.key);
+            }
+        }
+    }
+
+    /**
+     * Starts a batch from the buffered frames, unless one is in flight or
+     * replies are still being written.
+     */
+    private void dispatch(Connection connection) throws IOException {
+        if (!connection.busy && connection.out == null) {
+            List<Command> batch = decode(connection);
+            if (!batch.isEmpty()) {
+                connection.busy = true;
+                workers.execute(() -> execute(connection, batch));
+            }
+        }
+        updateInterest(connection);
+    }
+
+    private void updateInterest(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+        int ops = 0;
+        if (connection.in.hasRemaining()) {
+            ops |= SelectionKey.OP_READ;
+        }
+        if (connection.out != null) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        connection.key.interestOps(ops);
+    }
+
+    /**
+     * Cuts up to MAX_BATCH complete frames out of the read buffer.
+     * @throws IOException for a frame length out of range; the caller closes the connection
+     */
+    private List<Command> decode(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        List<Command> batch = new ArrayList<>();
+        in.flip();
+        try {
+            while (batch.size() < MAX_BATCH && in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if (length < 5 || length > TerminalProtocol.MAX_FRAME_LENGTH) {
+                    throw new IOException("Bad frame length " + length);
+                }
+                if (in.remaining() < 4 + length) {
+                    break;
+                }
+                int end = in.position() + 4 + length;
+                in.position(in.position() + 4);
+                batch.add(Command.decode(in, length));
+                in.position(end);
+            }
+        } finally {
+            in.compact();
+        }
+        return batch;
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Already gone
+        }
+        if (key.attachment() instanceof Connection) {
+            loginController.logout(((Connection) key.attachment()).endSession());
+        }
+    }
+
+    // Workers
+
+    /**
+     * Runs a batch in frame order and queues the encoded replies for the
+     * selector thread.
+     */
+    private void execute(Connection connection, List<Command> batch) {
+        ByteBuffer replies = ByteBuffer.allocate(batch.size() * (TerminalProtocol.REPLY_HEADER_BYTES + 48));
+        for (Command command : batch) {
+            Reply reply;
+            try {
+                reply = perform(connection, command);
+            } catch (RuntimeException e) {
+                System.err.println("✗ Terminal command failed: " + e.getMessage());
+                reply = new Reply(TerminalProtocol.STATUS_ERROR, 0, "Internal error");
+            }
+            replies = putReply(replies, command, reply);
+        }
+        replies.flip();
+        completions.add(new Completion(connection, replies));
+        selector.wakeup();
+    }
+
+    private Reply perform(Connection connection, Command command) {
+        if (command.error != null) {
+            return new Reply(TerminalProtocol.STATUS_MALFORMED, 0, command.error);
+        }
+        switch (command.op) {
+            case TerminalProtocol.LOGIN: {
+                LoginResult result = loginController.openSession(command.userId, command.password);
+                if (!result.isSuccess()) {
+                    return new Reply(TerminalProtocol.STATUS_UNAUTHORIZED, 0, result.getMessage());
+                }
+                loginController.logout(connection.replaceSession(result.getSession()));
+                return new Reply(TerminalProtocol.STATUS_OK, 0, "");
+            }
+            case TerminalProtocol.DEPOSIT:
+            case TerminalProtocol.WITHDRAW: {
+                Session session = connection.session;
+                if (session == null || !session.isActive()) {
+                    return new Reply(TerminalProtocol.STATUS_UNAUTHORIZED, 0, "Not signed in");
+                }
+                postings.incrementAndGet();
+                double amount = TerminalProtocol.toPula(command.amountThebe);
+                TransactionResult result = command.op == TerminalProtocol.DEPOSIT ?
+                    accountController.deposit(session, command.accountNumber, amount) :
+                    accountController.withdraw(session, command.accountNumber, amount);
+                long balance = TerminalProtocol.toThebe(result.getNewBalance());
+                return result.isSuccess() ?
+                    new Reply(TerminalProtocol.STATUS_OK, balance, "") :
+                    new Reply(TerminalProtocol.STATUS_REJECTED, balance, result.getMessage());
+            }
+            default:
+                throw new IllegalStateException("Unhandled op " + command.op);
+        }
+    }
+
+    private static ByteBuffer putReply(ByteBuffer replies, Command command, Reply reply) {
+        byte[] message = reply.message.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(message.length, Short.MAX_VALUE);
+        int size = TerminalProtocol.REPLY_HEADER_BYTES + length;
+        if (replies.remaining() < size) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(replies.capacity() * 2, replies.position() + size));
+            replies.flip();
+            replies = larger.put(replies);
+        }
+        replies.putInt(size - 4).put(command.op).putInt(command.correlationId)
+            .put(reply.status).putLong(reply.balanceThebe)
+            .putShort((short) length).put(message, 0, length);
+        return replies;
+    }
+
+    // Connection state and frames
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        SelectionKey key;
+        ByteBuffer out;            // replies being written, selector thread only
+        boolean busy;              // a batch is with a worker, selector thread only
+        volatile Session session;  // set by LOGIN, read by later batches
+        private boolean closed;    // guarded by this
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Signs the connection in with a new session.
+         * @return The session to close: the one replaced, or the new one
+         *         if the connection closed while it was being opened
+         */
+        synchronized Session replaceSession(Session next) {
+            if (closed) {
+                return next;
+            }
+            Session previous = session;
+            session = next;
+            return previous;
+        }
+
+        /**
+         * Marks the connection closed.
+         * @return Its session, for the caller to close, or null
+         */
+        synchronized Session endSession() {
+            closed = true;
+            Session previous = session;
+            session = null;
+            return previous;
+        }
+    }
+
+    private static final class Command {
+        byte op;
+        int correlationId;
+        String accountNumber;
+        long amountThebe;
+        String userId;
+        String password;
+        String error;  // set when the frame is malformed
+
+        /**
+         * Decodes one frame body; a body that does not match its op is
+         * kept as a command that answers STATUS_MALFORMED.
+         */
+        static Command decode(ByteBuffer in, int length) {
+            Command command = new Command();
+            command.op = in.get();
+            command.correlationId = in.getInt();
+            switch (command.op) {
+                case TerminalProtocol.DEPOSIT:
+                case TerminalProtocol.WITHDRAW:
+                    if (length != TerminalProtocol.POSTING_LENGTH) {
+                        return malformed(command, "Posting frames are " + TerminalProtocol.POSTING_LENGTH + " bytes");
+                    }
+                    command.accountNumber = TerminalProtocol.getAccountNumber(in);
+                    command.amountThebe = in.getLong();
+                    return command;
+                case TerminalProtocol.LOGIN:
+                    try {
+                        ByteBuffer body = in.slice(in.position(), length - 5);
+                        command.userId = TerminalProtocol.getString(body);
+                        command.password = TerminalProtocol.getString(body);
+                        return command;
+                    } catch (RuntimeException e) {
+                        return malformed(command, "Bad login frame");
+                    }
+                default:
+                    return malformed(command, "Unknown op " + command.op);
+            }
+        }
+
+        private static Command malformed(Command command, String error) {
+            command.error = error;
+            return command;
+        }
+    }
+
+    private static final class Reply {
+        final byte status;
+        final long balanceThebe;
+        final String message;
+
+        Reply(byte status, long balanceThebe, String message) {
+            this.status = status;
+            this.balanceThebe = balanceThebe;
+            this.message = message;
+        }
+    }
+
+    private static final class Completion {
+        final Connection connection;
+        final ByteBuffer replies;
+
+        Completion(Connection connection, ByteBuffer replies) {
+            this.connection = connection;
+            this.replies = replies;
+        }
+    }
+}
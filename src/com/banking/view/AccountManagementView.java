@@ -2,6 +2,7 @@ package com.banking.view;
 
 import com.banking.controller.AccountController;
 import com.banking.controller.CustomerController;
+import com.banking.controller.CustomerController.CustomerResult;
 import com.banking.model.Customer;
 import javafx.application.Application;
 import javafx.geometry.Insets;
@@ -14,12 +15,15 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * AccountManagementView  
  * DESIGN FEATURES:
  * - Clean, intuitive form layout
  * - Dynamic fields based on account type
  * - Enhanced validation feedback
+ * - Lookups and account opening run in the background (UiTasks)
  * 
  * Handles all three account types: Savings, Investment, Cheque
  * 
@@ -42,8 +46,14 @@ public class AccountManagementView extends Application {
     private Label messageLabel;
     private Label minBalanceLabel;
     private Label customerInfoLabel;
+    private Button searchButton;
+    private Button openButton;
+    private ProgressIndicator progressIndicator;
     private Stage primaryStage;
     
+    // Pending customer lookup; a newer lookup or closing the window cancels it
+    private CompletableFuture<?> pendingLookup;
+    
     /**
      * Constructor
      * @param accountController Controller for account operations
@@ -75,6 +85,7 @@ public class AccountManagementView extends Application {
         Scene scene = new Scene(root, 680, 780);
         primaryStage.setTitle("Open New Account");
         primaryStage.setScene(scene);
+        primaryStage.setOnHidden(e -> UiTasks.cancel(pendingLookup));
         primaryStage.show();
     }
     
@@ -127,7 +138,7 @@ public class AccountManagementView extends Application {
         styleTextField(customerIdField);
         HBox.setHgrow(customerIdField, Priority.ALWAYS);
         
-        Button searchButton = new Button("🔍 Search");
+        searchButton = new Button("🔍 Search");
         searchButton.setPrefHeight(42);
         searchButton.setStyle(
             "-fx-background-color: #3b82f6;" +
@@ -278,7 +289,7 @@ public class AccountManagementView extends Application {
         buttonBox.setAlignment(Pos.CENTER);
         buttonBox.setPadding(new Insets(10, 0, 0, 0));
         
-        Button openButton = new Button("Open Account");
+        openButton = new Button("Open Account");
         openButton.setPrefWidth(150);
         openButton.setPrefHeight(42);
         openButton.setStyle(
@@ -329,7 +340,9 @@ public class AccountManagementView extends Application {
         styleTertiaryButton(closeButton);
         closeButton.setOnAction(e -> primaryStage.close());
         
-        buttonBox.getChildren().addAll(openButton, clearButton, closeButton);
+        progressIndicator = UiTasks.progressIndicator();
+        
+        buttonBox.getChildren().addAll(openButton, clearButton, closeButton, progressIndicator);
         
         // Add all components
         container.getChildren().addAll(
@@ -506,8 +519,19 @@ public class AccountManagementView extends Application {
             return;
         }
         
-        var result = customerController.getCustomer(customerId);
-        
+        UiTasks.cancel(pendingLookup);
+        pendingLookup = UiTasks.run(
+            () -> customerController.getCustomer(customerId),
+            this::showCustomerInfo,
+            error -> showError("Could not look up customer: " + error.getMessage()),
+            progressIndicator, searchButton
+        );
+    }
+    
+    /**
+     * Shows the outcome of a customer lookup
+     */
+    private void showCustomerInfo(CustomerResult result) {
         if (result.isSuccess()) {
             Customer customer = result.getCustomer();
             customerInfoLabel.setText("✓ Customer: " + customer.getFirstName() + 
@@ -554,27 +578,35 @@ public class AccountManagementView extends Application {
             return;
         }
         
-        // Open account based on type
-        var result = switch (accountType) {
-            case "Savings Account" -> 
-                accountController.openSavingsAccount(customerId, initialBalance, branch);
-            case "Investment Account" -> 
-                accountController.openInvestmentAccount(customerId, initialBalance, branch);
-            case "Cheque Account" -> {
-                String companyName = companyNameField.getText().trim();
-                String companyAddress = companyAddressField.getText().trim();
-                
-                if (companyName.isEmpty() || companyAddress.isEmpty()) {
-                    showError("Company name and address are required for Cheque accounts");
-                    yield null;
-                }
-                
-                yield accountController.openChequeAccount(customerId, initialBalance, branch, 
-                    companyName, companyAddress);
-            }
-            default -> null;
-        };
+        String companyName = companyNameField.getText().trim();
+        String companyAddress = companyAddressField.getText().trim();
+        if (accountType.equals("Cheque Account") && (companyName.isEmpty() || companyAddress.isEmpty())) {
+            showError("Company name and address are required for Cheque accounts");
+            return;
+        }
         
+        // Open account based on type, in the background; the button stays disabled meanwhile
+        UiTasks.run(
+            () -> switch (accountType) {
+                case "Savings Account" -> 
+                    accountController.openSavingsAccount(customerId, initialBalance, branch);
+                case "Investment Account" -> 
+                    accountController.openInvestmentAccount(customerId, initialBalance, branch);
+                case "Cheque Account" -> 
+                    accountController.openChequeAccount(customerId, initialBalance, branch, 
+                        companyName, companyAddress);
+                default -> null;
+            },
+            this::showOpenAccountResult,
+            error -> showError("Could not open account: " + error.getMessage()),
+            progressIndicator, openButton
+        );
+    }
+    
+    /**
+     * Shows the outcome of opening an account
+     */
+    private void showOpenAccountResult(AccountController.AccountResult result) {
         if (result != null && result.isSuccess()) {
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setTitle("Success");
@@ -12,6 +12,10 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * BalanceView  
  * DESIGN FEATURES:
@@ -20,6 +24,7 @@ import javafx.stage.Stage;
  * - Card-based result presentation
  * - Purple theme for financial data
  * - Smooth animations
+ * - Lookups run in the background (UiTasks); a new lookup cancels the last
  */
 public class BalanceView extends Application {
     // Controller 
@@ -27,9 +32,14 @@ public class BalanceView extends Application {
     
     // UI Components
     private TextField accountNumberField;
+    private DatePicker asOfDatePicker;
     private VBox resultBox;
+    private ProgressIndicator progressIndicator;
     private Stage primaryStage;
     
+    // Pending lookup; a newer lookup or closing the window cancels it
+    private CompletableFuture<?> pendingLookup;
+    
     /**
      * Constructor
      * @param accountController Account operations controller
@@ -52,9 +62,10 @@ public class BalanceView extends Application {
         VBox content = createContent();
         root.setCenter(content);
         
-        Scene scene = new Scene(root, 540, 520);
+        Scene scene = new Scene(root, 540, 600);
         primaryStage.setTitle("View Account Balance");
         primaryStage.setScene(scene);
+        primaryStage.setOnHidden(e -> UiTasks.cancel(pendingLookup));
         primaryStage.show();
     }
     
@@ -189,8 +200,47 @@ public class BalanceView extends Application {
         
         searchButton.setOnAction(e -> viewBalance());
         
-        searchBox.getChildren().addAll(accountNumberField, searchButton);
-        searchSection.getChildren().addAll(searchLabel, searchBox);
+        progressIndicator = UiTasks.progressIndicator();
+        
+        searchBox.getChildren().addAll(accountNumberField, searchButton, progressIndicator);
+        
+        // As-of date (optional) - empty means current balance
+        Label asOfLabel = new Label("As of Date (optional)");
+        asOfLabel.setFont(Font.font("Arial", FontWeight.SEMI_BOLD, 13));
+        asOfLabel.setTextFill(Color.web("#1e293b"));
+        
+        HBox asOfBox = new HBox(10);
+        asOfBox.setAlignment(Pos.CENTER_LEFT);
+        asOfDatePicker = new DatePicker();
+        asOfDatePicker.setPromptText("Today");
+        asOfDatePicker.setPrefHeight(38);
+        asOfDatePicker.setDayCellFactory(picker -> new DateCell() {
+            @Override
+            public void updateItem(LocalDate date, boolean empty) {
+                super.updateItem(date, empty);
+                setDisable(empty || date.isAfter(LocalDate.now()));
+            }
+        });
+        asOfDatePicker.setOnAction(e -> {
+            if (!accountNumberField.getText().trim().isEmpty()) {
+                viewBalance();
+            }
+        });
+        
+        Button todayButton = new Button("Today");
+        todayButton.setPrefHeight(38);
+        todayButton.setStyle(
+            "-fx-background-color: #ede9fe;" +
+            "-fx-text-fill: #7c3aed;" +
+            "-fx-font-weight: bold;" +
+            "-fx-font-size: 12px;" +
+            "-fx-background-radius: 8;" +
+            "-fx-cursor: hand;"
+        );
+        todayButton.setOnAction(e -> asOfDatePicker.setValue(null));
+        
+        asOfBox.getChildren().addAll(asOfDatePicker, todayButton);
+        searchSection.getChildren().addAll(searchLabel, searchBox, asOfLabel, asOfBox);
         
         // Result
         resultBox = new VBox(15);
@@ -274,20 +324,30 @@ public class BalanceView extends Application {
             return;
         }
         
-        // Call controller 
-        var result = accountController.getBalance(accountNumber);
-        
-        if (result.isSuccess()) {
-            displayBalance(
-                result.getAccount().getAccountType(), 
-                result.getBalance(), 
-                accountNumber,
-                result.getAccount().getCustomer().getFirstName() + " " + 
-                result.getAccount().getCustomer().getSurname()
-            );
-        } else {
-            showError(result.getMessage());
-        }
+        // Call controller - as-of date uses the end of the selected day
+        LocalDate asOfDate = asOfDatePicker.getValue();
+        UiTasks.cancel(pendingLookup);
+        pendingLookup = UiTasks.run(
+            () -> asOfDate == null ?
+                accountController.getBalance(accountNumber) :
+                accountController.getBalanceAsOf(accountNumber, asOfDate.atTime(LocalTime.MAX)),
+            result -> {
+                if (result.isSuccess()) {
+                    displayBalance(
+                        result.getAccount().getAccountType(), 
+                        result.getBalance(), 
+                        accountNumber,
+                        result.getAccount().getCustomer().getFirstName() + " " + 
+                        result.getAccount().getCustomer().getSurname(),
+                        asOfDate == null ? "Current Balance" : "Balance as of " + asOfDate
+                    );
+                } else {
+                    showError(result.getMessage());
+                }
+            },
+            error -> showError("Could not load balance: " + error.getMessage()),
+            progressIndicator
+        );
     }
     
     /**
@@ -296,9 +356,10 @@ public class BalanceView extends Application {
      * @param balance Current balance
      * @param accountNumber Account number
      * @param customerName Customer name
+     * @param caption Caption shown under the amount
      */
     private void displayBalance(String accountType, double balance, 
-                                String accountNumber, String customerName) {
+                                String accountNumber, String customerName, String caption) {
         resultBox.getChildren().clear();
         resultBox.setStyle(
             "-fx-background-color: linear-gradient(135deg, #8b5cf6 0%, #a78bfa 100%);" +
@@ -339,7 +400,7 @@ public class BalanceView extends Application {
         balanceLabel.setTextFill(Color.WHITE);
         
         // Balance label
-        Label balanceTextLabel = new Label("Current Balance");
+        Label balanceTextLabel = new Label(caption);
         balanceTextLabel.setFont(Font.font("Arial", 12));
         balanceTextLabel.setTextFill(Color.web("#e9d5ff"));
         
@@ -4,20 +4,23 @@ import com.banking.controller.AccountController;
 import com.banking.controller.CustomerController;
 import com.banking.model.Account;
 import com.banking.model.Customer;
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * CustomerListView 
@@ -26,17 +29,41 @@ import java.util.List;
  * - Detailed customer information panel
  * - Account summary cards
  * - Refresh functionality
+ * - As-you-type search: keystrokes are debounced, queries run in the
+ *   background (UiTasks) against the customer name index, and results
+ *   load page by page as the table scrolls; a newer query cancels and
+ *   discards any older one still in flight
+ * - Customer details and accounts load in the background too
  */
 public class CustomerListView extends Application {
     // Controllers 
     private CustomerController customerController;
     private AccountController accountController;
     
+    // Paging and debounce settings
+    private static final int PAGE_SIZE = 200;
+    private static final Duration SEARCH_DELAY = Duration.millis(250);
+    // Load the next page once the viewport passes this fraction of the loaded rows
+    private static final double PREFETCH_POSITION = 0.8;
+    
     // UI Components
     private TableView<Customer> customerTable;
     private TextArea detailsArea;
+    private TextField searchField;
+    private Label resultLabel;
+    private ProgressIndicator progressIndicator;
     private Stage primaryStage;
     
+    // Background loading
+    private final PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+    private CompletableFuture<?> pendingLoad;
+    private CompletableFuture<?> pendingDetails;
+    private long queryGeneration;
+    // Query generation whose rows the table currently shows
+    private long displayedGeneration = -1;
+    private String activeTerm = "";
+    private boolean exhausted;
+    
     /**
      * Constructor
      * @param customerController Customer operations controller
@@ -64,6 +91,10 @@ public class CustomerListView extends Application {
         Scene scene = new Scene(root, 1050, 720);
         primaryStage.setTitle("Customer Directory");
         primaryStage.setScene(scene);
+        primaryStage.setOnHidden(e -> {
+            cancelPendingLoad();
+            UiTasks.cancel(pendingDetails);
+        });
         primaryStage.show();
         
         // Load customers on start
@@ -155,6 +186,33 @@ public class CustomerListView extends Application {
         
         refreshButton.setOnAction(e -> loadCustomers());
         
+        searchField = new TextField();
+        searchField.setPromptText("🔍 Search by name...");
+        searchField.setPrefHeight(38);
+        searchField.setPrefWidth(280);
+        searchField.setStyle(
+            "-fx-background-color: #f8fafc;" +
+            "-fx-border-color: #e2e8f0;" +
+            "-fx-border-width: 2;" +
+            "-fx-border-radius: 8;" +
+            "-fx-background-radius: 8;" +
+            "-fx-font-size: 13px;"
+        );
+        
+        // Debounce: query once typing pauses, not on every keystroke
+        searchDelay.setOnFinished(e -> loadCustomers());
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDelay.playFromStart());
+        searchField.setOnAction(e -> {
+            searchDelay.stop();
+            loadCustomers();
+        });
+        
+        progressIndicator = UiTasks.progressIndicator();
+        
+        resultLabel = new Label();
+        resultLabel.setFont(Font.font("Arial", 12));
+        resultLabel.setTextFill(Color.web("#94a3b8"));
+        
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
         
@@ -196,7 +254,7 @@ public class CustomerListView extends Application {
         
         closeButton.setOnAction(e -> primaryStage.close());
         
-        toolBar.getChildren().addAll(refreshButton, spacer, closeButton);
+        toolBar.getChildren().addAll(refreshButton, searchField, progressIndicator, resultLabel, spacer, closeButton);
         
         // Customer table
         customerTable = createCustomerTable();
@@ -311,6 +369,9 @@ public class CustomerListView extends Application {
         
         table.getColumns().addAll(idCol, firstNameCol, surnameCol, addressCol, phoneCol, accountsCol);
         
+        // Page loading follows the scroll position once the skin exists
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> watchScrolling());
+        
         // Selection listener
         table.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             if (newSelection != null) {
@@ -322,26 +383,136 @@ public class CustomerListView extends Application {
     }
     
     /**
-     * Loads all customers from the controller
+     * Starts a fresh query for the search box text: all customers when it is
+     * blank, ranked name matches otherwise. Any older query is cancelled.
      */
     private void loadCustomers() {
-        // Call controller
-        List<Customer> customers = customerController.getAllCustomers();
-        ObservableList<Customer> data = FXCollections.observableArrayList(customers);
-        customerTable.setItems(data);
+        cancelPendingLoad();
+        queryGeneration++;
+        activeTerm = searchField.getText() == null ? "" : searchField.getText().trim();
+        exhausted = false;
+        loadNextPage();
+    }
+    
+    /**
+     * Fetches the page after the rows already shown, in the background.
+     * Results of a superseded query are dropped.
+     */
+    private void loadNextPage() {
+        if (exhausted || pendingLoad != null) {
+            return;
+        }
+        
+        long generation = queryGeneration;
+        String term = activeTerm;
+        boolean firstPage = generation != displayedGeneration;
+        int offset = firstPage ? 0 : customerTable.getItems().size();
+        String afterCustomerId = firstPage || offset == 0 ? null
+            : customerTable.getItems().get(offset - 1).getCustomerId();
+        
+        resultLabel.setText(firstPage ? "Searching..." : "Loading more...");
+        pendingLoad = UiTasks.run(
+            () -> term.isEmpty()
+                ? new Page(customerController.listCustomers(afterCustomerId, PAGE_SIZE),
+                           customerController.getCustomerCount())
+                : new Page(customerController.searchCustomers(term, offset, PAGE_SIZE), -1),
+            page -> {
+                // A superseded query's late result must not clear the current load
+                if (generation != queryGeneration) {
+                    return;
+                }
+                pendingLoad = null;
+                showPage(page, firstPage);
+                // Keep filling while the rows loaded so far do not reach the prefetch point
+                if (!exhausted && scrolledPastPrefetch()) {
+                    loadNextPage();
+                }
+            },
+            error -> {
+                if (generation == queryGeneration) {
+                    pendingLoad = null;
+                    detailsArea.setText("✗ Failed to load customers: " + error.getMessage());
+                }
+            },
+            progressIndicator
+        );
+    }
+    
+    private void showPage(Page loaded, boolean firstPage) {
+        List<Customer> page = loaded.customers;
+        exhausted = page.size() < PAGE_SIZE;
+        if (firstPage) {
+            displayedGeneration = queryGeneration;
+            customerTable.setItems(FXCollections.observableArrayList(page));
+            customerTable.scrollTo(0);
+        } else {
+            customerTable.getItems().addAll(page);
+        }
         
-        if (customers.isEmpty()) {
-            detailsArea.setText("ℹ️ No customers found in the system.\n\nRegister new customers to see them here.");
+        int shown = customerTable.getItems().size();
+        if (activeTerm.isEmpty()) {
+            resultLabel.setText(String.format("Showing %,d of %,d", shown, Math.max(loaded.total, shown)));
         } else {
-            detailsArea.setText("✓ " + customers.size() + " customer(s) loaded.\n\nClick on a customer to view details...");
+            resultLabel.setText(String.format("%,d match(es)%s", shown, exhausted ? "" : ", scroll for more"));
+        }
+        
+        if (firstPage) {
+            if (shown == 0 && activeTerm.isEmpty()) {
+                detailsArea.setText("ℹ️ No customers found in the system.\n\nRegister new customers to see them here.");
+            } else if (shown == 0) {
+                detailsArea.setText("ℹ️ No customers match \"" + activeTerm + "\".");
+            } else {
+                detailsArea.setText("✓ " + shown + " customer(s) loaded.\n\nClick on a customer to view details...");
+            }
+        }
+    }
+    
+    private void cancelPendingLoad() {
+        UiTasks.cancel(pendingLoad);
+        pendingLoad = null;
+    }
+    
+    /**
+     * Loads the next page when the table is scrolled near the end of the
+     * loaded rows. The TableView only creates cells for visible rows, so
+     * only the paged list grows with the result size.
+     */
+    private void watchScrolling() {
+        VirtualFlow<?> flow = (VirtualFlow<?>) customerTable.lookup(".virtual-flow");
+        if (flow != null) {
+            flow.positionProperty().addListener((obs, oldPosition, newPosition) -> {
+                if (newPosition.doubleValue() >= PREFETCH_POSITION) {
+                    loadNextPage();
+                }
+            });
         }
     }
     
+    private boolean scrolledPastPrefetch() {
+        VirtualFlow<?> flow = (VirtualFlow<?>) customerTable.lookup(".virtual-flow");
+        return flow != null && flow.getPosition() >= PREFETCH_POSITION;
+    }
+    
     /**
-     * Displays detailed customer information
+     * Displays detailed customer information, loading the accounts in the background
      * @param customer Selected customer
      */
     private void displayCustomerDetails(Customer customer) {
+        UiTasks.cancel(pendingDetails);
+        pendingDetails = UiTasks.run(
+            () -> accountController.getCustomerAccounts(customer.getCustomerId()),
+            accounts -> detailsArea.setText(formatCustomerDetails(customer, accounts)),
+            error -> detailsArea.setText("✗ Failed to load accounts: " + error.getMessage()),
+            progressIndicator
+        );
+    }
+    
+    /**
+     * Formats the details panel text
+     * @param customer Selected customer
+     * @param accounts The customer's accounts
+     */
+    private String formatCustomerDetails(Customer customer, List<Account> accounts) {
         StringBuilder details = new StringBuilder();
         
         // Customer header
@@ -360,9 +531,6 @@ public class CustomerListView extends Application {
         
         details.append("\n───────────────────────────────────────────────────\n\n");
         
-        // Get accounts
-        List<Account> accounts = accountController.getCustomerAccounts(customer.getCustomerId());
-        
         if (accounts.isEmpty()) {
             details.append("  ℹ️  No accounts opened yet for this customer.\n");
         } else {
@@ -383,7 +551,20 @@ public class CustomerListView extends Application {
         
         details.append("\n═══════════════════════════════════════════════════");
         
-        detailsArea.setText(details.toString());
+        return details.toString();
+    }
+    
+    /**
+     * One loaded page, with the customer total when listing everyone (-1 for searches)
+     */
+    private static class Page {
+        final List<Customer> customers;
+        final int total;
+        
+        Page(List<Customer> customers, int total) {
+            this.customers = customers;
+            this.total = total;
+        }
     }
     
     /**
@@ -20,6 +20,7 @@ import javafx.stage.Stage;
  * - Enhanced input fields with focus effects
  * - Clear validation feedback
  * - Success confirmation dialogs
+ * - Registration runs in the background (UiTasks)
  * 
  * Satisfies F-101: Customer registration requirement
  * 
@@ -35,6 +36,8 @@ public class CustomerRegistrationView extends Application {
     private TextField phoneField;
     private TextField emailField;
     private Label messageLabel;
+    private Button registerButton;
+    private ProgressIndicator progressIndicator;
     private Stage primaryStage;
     
     /**
@@ -211,7 +214,7 @@ public class CustomerRegistrationView extends Application {
         buttonBox.setAlignment(Pos.CENTER);
         buttonBox.setPadding(new Insets(10, 0, 0, 0));
         
-        Button registerButton = new Button("Register Customer");
+        registerButton = new Button("Register Customer");
         registerButton.setPrefWidth(160);
         registerButton.setPrefHeight(42);
         registerButton.setStyle(
@@ -322,7 +325,9 @@ public class CustomerRegistrationView extends Application {
         
         closeButton.setOnAction(e -> primaryStage.close());
         
-        buttonBox.getChildren().addAll(registerButton, clearButton, closeButton);
+        progressIndicator = UiTasks.progressIndicator();
+        
+        buttonBox.getChildren().addAll(registerButton, clearButton, closeButton, progressIndicator);
         
         // Required field notes
         Label requiredLabel = new Label("* Required fields");
@@ -411,11 +416,20 @@ public class CustomerRegistrationView extends Application {
         String phone = phoneField.getText().trim();
         String email = emailField.getText().trim();
         
-        // Call controller 
-        CustomerResult result = customerController.registerCustomer(
-            firstName, surname, address, phone, email
+        // Call controller - registration is a write, so it is not cancelled
+        UiTasks.run(
+            () -> customerController.registerCustomer(firstName, surname, address, phone, email),
+            this::showRegistrationResult,
+            error -> showError("Could not register customer: " + error.getMessage()),
+            registerButton, progressIndicator
         );
-        
+    }
+    
+    /**
+     * Shows the outcome of a registration
+     * @param result Result from the controller
+     */
+    private void showRegistrationResult(CustomerResult result) {
         if (result.isSuccess()) {
             // Show success message
             showSuccess(result.getMessage());
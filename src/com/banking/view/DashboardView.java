@@ -4,6 +4,7 @@ import com.banking.controller.LoginController;
 import com.banking.controller.CustomerController;
 import com.banking.controller.AccountController;
 import com.banking.model.Bank;
+import com.banking.model.Permission;
 import com.banking.model.User;
 import javafx.application.Application;
 import javafx.geometry.Insets;
@@ -23,6 +24,7 @@ import javafx.stage.Stage;
  * - Large welcome section
  * - Quick stats cards
  * - Glassmorphism effects
+ * - Interest processing runs in the background (UiTasks)
  */
 public class DashboardView extends Application {
     // Controllers
@@ -145,7 +147,7 @@ public class DashboardView extends Application {
         );
         
         // Admin section
-        if (loginController.hasPermission("OVERRIDE_LIMIT")) {
+        if (loginController.hasPermission(Permission.OVERRIDE_LIMIT)) {
             Label adminTitle = new Label("ADMIN");
             adminTitle.setFont(Font.font("Arial", FontWeight.BOLD, 11));
             adminTitle.setTextFill(Color.web("#64748b"));
@@ -447,12 +449,13 @@ public class DashboardView extends Application {
         
         confirmation.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                var result = accountController.processMonthlyInterest();
-                if (result.isSuccess()) {
-                    showAlert("Success", result.getMessage());
-                } else {
-                    showAlert("Error", result.getMessage());
-                }
+                // Touches every account, so keep the window responsive
+                UiTasks.run(
+                    accountController::processMonthlyInterest,
+                    result -> showAlert(result.isSuccess() ? "Success" : "Error", result.getMessage()),
+                    error -> showAlert("Error", "Could not process interest: " + error.getMessage()),
+                    primaryStage.getScene().getRoot()
+                );
             }
         });
     }
@@ -23,6 +23,7 @@ import javafx.scene.shape.Rectangle;
  * - Smooth, refined animations and transitions
  * - Perfect visual hierarchy with optimized typography
  * - Enhanced focus states and accessibility
+ * - Sign-in and dashboard setup run in the background (UiTasks)
  */
 public class LoginView extends Application {
     // Controllers
@@ -32,6 +33,8 @@ public class LoginView extends Application {
     private TextField userIdField;
     private PasswordField passwordField;
     private Label messageLabel;
+    private Button loginButton;
+    private ProgressIndicator progressIndicator;
     private Stage primaryStage;
     
     /**
@@ -214,7 +217,7 @@ public class LoginView extends Application {
         messageLabel.setPadding(new Insets(8));
         
         // Login Button
-        Button loginButton = new Button("Sign In");
+        loginButton = new Button("Sign In");
         loginButton.setMaxWidth(260);
         loginButton.setPrefHeight(48);
         loginButton.setStyle(
@@ -255,6 +258,8 @@ public class LoginView extends Application {
         // Login button action
         loginButton.setOnAction(e -> handleLogin());
         
+        progressIndicator = UiTasks.progressIndicator();
+        
         // Help text
         Label helpLabel = new Label("→en.generalmay@gmail.com");
         helpLabel.setFont(Font.font("System", 11));
@@ -272,6 +277,7 @@ public class LoginView extends Application {
             formFields,
             messageLabel,
             loginButton,
+            progressIndicator,
             helpLabel,
             footerLabel
         );
@@ -304,21 +310,31 @@ public class LoginView extends Application {
         }
         
         // Call controller to authenticate 
-        LoginResult result = loginController.login(userId, password);
-        
+        UiTasks.run(
+            () -> loginController.login(userId, password),
+            this::showLoginResult,
+            error -> showError("Could not sign in: " + error.getMessage()),
+            loginButton, progressIndicator
+        );
+    }
+    
+    /**
+     * Shows the outcome of a login attempt
+     * @param result Result from the controller
+     */
+    private void showLoginResult(LoginResult result) {
         if (result.isSuccess()) {
             // Show success message
             showSuccess("Login successful! Welcome " + result.getUser().getUsername());
             
-            // Brief delay before opening dashboard for better UX
-            new Thread(() -> {
-                try {
-                    Thread.sleep(800);
-                    javafx.application.Platform.runLater(this::openDashboard);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
+            // Brief delay before opening dashboard for better UX;
+            // the dashboard loads its bank data meanwhile
+            UiTasks.run(
+                this::prepareDashboard,
+                this::openDashboard,
+                error -> showError("Error opening dashboard: " + error.getMessage()),
+                loginButton, progressIndicator
+            );
             
         } else {
             // Show error message from controller
@@ -328,12 +344,28 @@ public class LoginView extends Application {
         }
     }
     
+    /**
+     * Creates the dashboard, which reads bank totals from the database.
+     * Runs in the background, taking at least the welcome delay.
+     * @return Dashboard ready to be shown
+     */
+    private DashboardView prepareDashboard() {
+        long readyAt = System.currentTimeMillis() + 800;
+        DashboardView dashboard = new DashboardView();
+        try {
+            Thread.sleep(Math.max(0, readyAt - System.currentTimeMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return dashboard;
+    }
+    
     /**
      * Opens the main dashboard after successful login
+     * @param dashboard Dashboard created by prepareDashboard()
      */
-    private void openDashboard() {
+    private void openDashboard(DashboardView dashboard) {
         try {
-            DashboardView dashboard = new DashboardView();
             Stage dashboardStage = new Stage();
             dashboard.start(dashboardStage);
             
@@ -15,6 +15,7 @@ import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * TransactionHistoryView
@@ -24,6 +25,7 @@ import java.util.List;
  * - Color-coded transaction types
  * - Professional cyan theme
  * - Summary statistics
+ * - History loads in the background (UiTasks); a new load cancels the last
  * Satisfies F-403: Display comprehensive transaction history
  */
 public class TransactionHistoryView extends Application {
@@ -32,10 +34,15 @@ public class TransactionHistoryView extends Application {
     
     // UI Components
     private TextField accountNumberField;
+    private CheckBox includeArchivedBox;
     private TableView<Transaction> transactionTable;
     private Label summaryLabel;
+    private ProgressIndicator progressIndicator;
     private Stage primaryStage;
     
+    // Pending history load; a newer load or closing the window cancels it
+    private CompletableFuture<?> pendingLoad;
+    
     /**
      * Constructor
      * @param accountController Account operations controller
@@ -61,6 +68,7 @@ public class TransactionHistoryView extends Application {
         Scene scene = new Scene(root, 980, 680);
         primaryStage.setTitle("Transaction History");
         primaryStage.setScene(scene);
+        primaryStage.setOnHidden(e -> UiTasks.cancel(pendingLoad));
         primaryStage.show();
     }
     
@@ -233,7 +241,15 @@ public class TransactionHistoryView extends Application {
         
         closeButton.setOnAction(e -> primaryStage.close());
         
-        searchBox.getChildren().addAll(searchLabel, accountNumberField, searchButton, spacer, closeButton);
+        // Archived transactions are only read on request
+        includeArchivedBox = new CheckBox("Include archived");
+        includeArchivedBox.setFont(Font.font("Arial", 12));
+        includeArchivedBox.setTextFill(Color.web("#64748b"));
+        
+        progressIndicator = UiTasks.progressIndicator();
+        
+        searchBox.getChildren().addAll(searchLabel, accountNumberField, searchButton, includeArchivedBox,
+                                       progressIndicator, spacer, closeButton);
         
         // Transaction table
         transactionTable = createTransactionTable();
@@ -297,7 +313,7 @@ public class TransactionHistoryView extends Application {
                     if (item.equals("DEPOSIT")) {
                         setTextFill(Color.web("#10b981"));
                         setStyle("-fx-font-weight: bold; -fx-alignment: CENTER;");
-                    } else if (item.equals("WITHDRAWAL")) {
+                    } else if (Transaction.isDebit(item)) {
                         setTextFill(Color.web("#ef4444"));
                         setStyle("-fx-font-weight: bold; -fx-alignment: CENTER;");
                     } else {
@@ -346,10 +362,23 @@ public class TransactionHistoryView extends Application {
             return;
         }
         
-        // Call controller 
-        List<Transaction> transactions = accountController.getTransactionHistory(accountNumber);
-        
+        // Call controller in the background
+        boolean includeArchived = includeArchivedBox.isSelected();
+        UiTasks.cancel(pendingLoad);
+        pendingLoad = UiTasks.run(
+            () -> accountController.getTransactionHistory(accountNumber, includeArchived),
+            transactions -> showTransactionHistory(transactions, accountNumber),
+            error -> showAlert("Error", "Could not load transaction history: " + error.getMessage()),
+            progressIndicator
+        );
+    }
+    
+    /**
+     * Shows loaded transactions and their summary
+     */
+    private void showTransactionHistory(List<Transaction> transactions, String accountNumber) {
         if (transactions.isEmpty()) {
+            transactionTable.setItems(FXCollections.observableArrayList());
             Label emptyLabel = new Label("No transactions found for this account");
             emptyLabel.setFont(Font.font("Arial", 13));
             emptyLabel.setTextFill(Color.web("#94a3b8"));
@@ -12,6 +12,9 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * TransactionView 
  * 
@@ -21,6 +24,8 @@ import javafx.stage.Stage;
  * - Real-time balance checking
  * - Clear validation feedback
  * - Smooth transitions and effects
+ * - Controller calls run in the background (UiTasks) with a progress spinner
+ * - Each posting carries an idempotency key, so submitting it again is not posted twice
  * 
  */
 public class TransactionView extends Application {
@@ -41,8 +46,18 @@ public class TransactionView extends Application {
     private TextField amountField;
     private Label messageLabel;
     private Label currentBalanceLabel;
+    private Button checkButton;
+    private Button processButton;
+    private ProgressIndicator progressIndicator;
     private Stage primaryStage;
     
+    // Pending balance lookup; a newer lookup or closing the window cancels it
+    private CompletableFuture<?> pendingBalance;
+    
+    // Key of the posting on the form; kept until it succeeds or the form changes,
+    // so pressing Process again after a failure or timeout cannot post it twice
+    private String idempotencyKey;
+    
     /**
      * Constructor
      * @param accountController Account operations controller
@@ -72,6 +87,7 @@ public class TransactionView extends Application {
         Scene scene = new Scene(root, 540, 600);
         primaryStage.setTitle(title);
         primaryStage.setScene(scene);
+        primaryStage.setOnHidden(e -> UiTasks.cancel(pendingBalance));
         primaryStage.show();
     }
     
@@ -144,7 +160,7 @@ public class TransactionView extends Application {
         styleTextField(accountNumberField, primaryColor);
         HBox.setHgrow(accountNumberField, Priority.ALWAYS);
         
-        Button checkButton = new Button("Check Balance");
+        checkButton = new Button("Check Balance");
         checkButton.setPrefHeight(42);
         checkButton.setStyle(
             "-fx-background-color: " + primaryColor + ";" +
@@ -207,6 +223,10 @@ public class TransactionView extends Application {
         amountField.setPrefHeight(42);
         styleTextField(amountField, primaryColor);
         
+        // A changed form is a new posting
+        accountNumberField.textProperty().addListener((obs, oldValue, newValue) -> idempotencyKey = null);
+        amountField.textProperty().addListener((obs, oldValue, newValue) -> idempotencyKey = null);
+        
         amountBox.getChildren().addAll(amountLabel, amountField);
         
         // Rules notice
@@ -243,7 +263,7 @@ public class TransactionView extends Application {
         String buttonText = transactionType == TransactionType.DEPOSIT ? 
             "Process Deposit" : "Process Withdrawal";
         
-        Button processButton = new Button(buttonText);
+        processButton = new Button(buttonText);
         processButton.setPrefWidth(160);
         processButton.setPrefHeight(42);
         processButton.setStyle(
@@ -305,7 +325,9 @@ public class TransactionView extends Application {
         styleTertiaryButton(closeButton);
         closeButton.setOnAction(e -> primaryStage.close());
         
-        buttonBox.getChildren().addAll(processButton, clearButton, closeButton);
+        progressIndicator = UiTasks.progressIndicator();
+        
+        buttonBox.getChildren().addAll(processButton, clearButton, closeButton, progressIndicator);
         
         // Add all components
         container.getChildren().addAll(
@@ -438,23 +460,29 @@ public class TransactionView extends Application {
             return;
         }
         
-        var result = accountController.getBalance(accountNumber);
-        
-        if (result.isSuccess()) {
-            currentBalanceLabel.setText(
-                "💳 Current Balance: BWP " + String.format("%.2f", result.getBalance()) +
-                " | " + result.getAccount().getAccountType()
-            );
-            currentBalanceLabel.setTextFill(Color.web("#3b82f6"));
-            currentBalanceLabel.setStyle(
-                "-fx-background-color: #dbeafe;" +
-                "-fx-padding: 10;" +
-                "-fx-background-radius: 8;"
-            );
-        } else {
-            currentBalanceLabel.setText("");
-            showError(result.getMessage());
-        }
+        UiTasks.cancel(pendingBalance);
+        pendingBalance = UiTasks.run(
+            () -> accountController.getBalance(accountNumber),
+            result -> {
+                if (result.isSuccess()) {
+                    currentBalanceLabel.setText(
+                        "💳 Current Balance: BWP " + String.format("%.2f", result.getBalance()) +
+                        " | " + result.getAccount().getAccountType()
+                    );
+                    currentBalanceLabel.setTextFill(Color.web("#3b82f6"));
+                    currentBalanceLabel.setStyle(
+                        "-fx-background-color: #dbeafe;" +
+                        "-fx-padding: 10;" +
+                        "-fx-background-radius: 8;"
+                    );
+                } else {
+                    currentBalanceLabel.setText("");
+                    showError(result.getMessage());
+                }
+            },
+            error -> showError("Could not check balance: " + error.getMessage()),
+            progressIndicator
+        );
     }
     
     /**
@@ -484,11 +512,35 @@ public class TransactionView extends Application {
             return;
         }
         
-        // Call controller 
-        var result = transactionType == TransactionType.DEPOSIT ?
-            accountController.deposit(accountNumber, amount) :
-            accountController.withdraw(accountNumber, amount);
+        // A balance lookup still in flight would overwrite the new balance
+        UiTasks.cancel(pendingBalance);
         
+        if (idempotencyKey == null) {
+            idempotencyKey = UUID.randomUUID().toString();
+        }
+        String key = idempotencyKey;
+        
+        // Call controller in the background; buttons stay disabled so it cannot be posted twice
+        UiTasks.run(
+            () -> transactionType == TransactionType.DEPOSIT ?
+                accountController.deposit(accountNumber, amount, key) :
+                accountController.withdraw(accountNumber, amount, key),
+            result -> {
+                if (result.isSuccess()) {
+                    idempotencyKey = null;
+                }
+                showTransactionResult(result, accountNumber, amount);
+            },
+            error -> showError("Transaction failed: " + error.getMessage()),
+            progressIndicator, processButton, checkButton
+        );
+    }
+    
+    /**
+     * Shows the outcome of a deposit or withdrawal
+     */
+    private void showTransactionResult(AccountController.TransactionResult result,
+                                       String accountNumber, double amount) {
         if (result.isSuccess()) {
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setTitle("Success");
@@ -0,0 +1,104 @@
+package com.banking.view;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * UiTasks runs controller calls off the JavaFX Application Thread.
+ *
+ * Work runs on a virtual thread per call, so a view can block on JDBC
+ * without freezing the window. Results and errors are handed back on the
+ * JavaFX Application Thread. While a call runs, the given busy nodes are
+ * updated: a ProgressIndicator is shown, any other node is disabled.
+ *
+ * Cancelling the returned future restores the busy nodes at once and
+ * drops the result. The running call is not interrupted: an interrupt
+ * during H2 file IO closes the database file channel. Only offer
+ * cancellation for reads; a cancelled write still completes.
+ */
+public final class UiTasks {
+
+    private static final ExecutorService EXECUTOR =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ui-task-", 0).factory());
+
+    private UiTasks() {
+    }
+
+    /**
+     * Runs work on a virtual thread.
+     * @param work Controller call; must not touch JavaFX nodes
+     * @return Future completed with the work's result
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, EXECUTOR);
+    }
+
+    /**
+     * Runs work on a virtual thread and handles the outcome on the JavaFX thread.
+     * @param work Controller call; must not touch JavaFX nodes
+     * @param onSuccess Receives the result, unless the call was cancelled
+     * @param onFailure Receives the error, unless the call was cancelled
+     * @param busy Progress indicators to show and controls to disable meanwhile
+     * @return Future for cancellation
+     */
+    public static <T> CompletableFuture<T> run(Supplier<T> work, Consumer<T> onSuccess,
+                                               Consumer<Throwable> onFailure, Node... busy) {
+        setBusy(busy, true);
+        CompletableFuture<T> future = supply(work);
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            setBusy(busy, false);
+            if (future.isCancelled() || error instanceof CancellationException) {
+                return;
+            }
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                System.err.println("✗ Background task failed: " + cause.getMessage());
+                onFailure.accept(cause);
+            }
+        }));
+        return future;
+    }
+
+    /**
+     * Cancels a pending call, if any. Safe to call with null or a finished future.
+     */
+    public static void cancel(CompletableFuture<?> future) {
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Creates a small progress indicator, hidden until a call runs.
+     */
+    public static ProgressIndicator progressIndicator() {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setPrefSize(26, 26);
+        indicator.setMaxSize(26, 26);
+        indicator.setVisible(false);
+        indicator.managedProperty().bind(indicator.visibleProperty());
+        return indicator;
+    }
+
+    private static void setBusy(Node[] nodes, boolean busy) {
+        for (Node node : nodes) {
+            if (node instanceof ProgressIndicator) {
+                node.setVisible(busy);
+            } else {
+                node.setDisable(busy);
+            }
+        }
+    }
+}